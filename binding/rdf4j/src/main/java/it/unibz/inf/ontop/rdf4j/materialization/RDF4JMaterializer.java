@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
 import it.unibz.inf.ontop.rdf4j.materialization.impl.DefaultRDF4JMaterializer;
 import it.unibz.inf.ontop.rdf4j.query.MaterializationGraphQuery;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
@@ -41,6 +42,13 @@ public interface RDF4JMaterializer {
         return new DefaultRDF4JMaterializer(configuration);
     }
 
+    /**
+     * Default implementation wrapping an existing materializer
+     */
+    static RDF4JMaterializer defaultMaterializer(OntopRDFMaterializer materializer) {
+        return new DefaultRDF4JMaterializer(materializer);
+    }
+
     ImmutableSet<IRI> getClasses();
     ImmutableSet<IRI> getProperties();
 }
@@ -66,6 +66,10 @@ public class DefaultRDF4JMaterializer implements RDF4JMaterializer {
         this(configuration, MaterializationParams.defaultBuilder().build());
     }
 
+    public DefaultRDF4JMaterializer(OntopRDFMaterializer materializer) {
+        this.materializer = materializer;
+    }
+
     @Override
     public MaterializationGraphQuery materialize() throws RepositoryException {
         try {
@@ -220,6 +224,11 @@ public class DefaultRDF4JMaterializer implements RDF4JMaterializer {
         public ImmutableSet<IRI> getSelectedVocabulary() {
             return graphResultSet.getSelectedVocabulary();
         }
+
+        @Override
+        public void commitCheckpoint() {
+            graphResultSet.commitCheckpoint();
+        }
     }
 
     private static class GraphMaterializationIteration implements CloseableIteration<Statement, QueryEvaluationException> {
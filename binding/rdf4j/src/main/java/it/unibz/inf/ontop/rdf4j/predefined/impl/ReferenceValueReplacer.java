@@ -144,11 +144,16 @@ public class ReferenceValueReplacer {
 
     private IQTree transformNativeNode(NativeNode nativeNode, ImmutableMap<String, String> referenceToInputMap) {
         String newQueryString = replaceString(nativeNode.getNativeQueryString(), referenceToInputMap);
+        ImmutableList<DBConstant> newParameters = nativeNode.getParameters().stream()
+                .map(c -> (DBConstant) transformTerm(c, referenceToInputMap))
+                .collect(ImmutableCollectors.toList());
 
         return iqFactory.createNativeNode(nativeNode.getVariables(),
                 nativeNode.getTypeMap(),
                 nativeNode.getColumnNames(),
                 newQueryString,
+                newParameters,
+                nativeNode.isDeterministic(),
                 nativeNode.getVariableNullability());
     }
 }
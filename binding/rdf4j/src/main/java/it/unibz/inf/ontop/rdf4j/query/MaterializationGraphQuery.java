@@ -38,4 +38,12 @@ public interface MaterializationGraphQuery extends GraphQuery {
      *
      */
     ImmutableSet<IRI> getSelectedVocabulary();
+
+    /**
+     * Records in the checkpoint file (if any) the RDF properties/classes whose triples have all been consumed
+     * since the last call. To be called once these triples have been durably written.
+     *
+     * See MaterializedGraphResultSet.commitCheckpoint()
+     */
+    void commitCheckpoint();
 }
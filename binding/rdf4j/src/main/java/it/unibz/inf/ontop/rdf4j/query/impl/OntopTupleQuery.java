@@ -3,12 +3,14 @@ package it.unibz.inf.ontop.rdf4j.query.impl;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleQueryResultWriter;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
@@ -16,6 +18,7 @@ import org.eclipse.rdf4j.query.TupleQueryResultHandler;
 import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.List;
 
@@ -32,21 +35,61 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 
     @Override
 	public TupleQueryResult evaluate() throws QueryEvaluationException {
-		TupleResultSet res;
-		OntopStatement stm;
-		long start = System.currentTimeMillis();
-
 		SecureRandom random = new SecureRandom();
 		byte[] salt = new byte[20];
 		random.nextBytes(salt);
 
+		TupleResultSet res = execute();
+		try {
+			List<String> signature = res.getSignature();
+			return new OntopTupleQueryResult(res, signature, salt);
+		}
+		catch (Exception e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	/**
+	 * Serializes the results directly from the Ontop binding sets, without building RDF4J binding sets.
+	 *
+	 * The result set is closed at the end, but not the output stream of the writer.
+	 */
+	public void evaluate(OntopTupleQueryResultWriter writer)
+			throws QueryEvaluationException, TupleQueryResultHandlerException {
+		TupleResultSet res = execute();
+		try {
+			writer.startQueryResult(res.getSignature());
+			while (res.hasNext())
+				writer.handleSolution(res.next());
+			writer.endQueryResult();
+		}
+		catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+		catch (OntopConnectionException | OntopQueryAnsweringException e) {
+			throw new QueryEvaluationException(e);
+		}
+		finally {
+			try {
+				res.close();
+			}
+			catch (OntopConnectionException e) {
+				// Does not hide the original exception, if any
+			}
+		}
+	}
+
+	private TupleResultSet execute() throws QueryEvaluationException {
+		OntopStatement stm;
+		long start = System.currentTimeMillis();
+
 		try {
 			stm = conn.createStatement();
 			if(this.queryTimeout > 0)
 				stm.setQueryTimeout(this.queryTimeout);
 			try {
 				SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery(), bindings);
-				res = stm.execute(inputQuery, getHttpHeaders());
+				return stm.execute(inputQuery, getHttpHeaders());
 			} catch (OntopQueryAnsweringException e) {
 				long end = System.currentTimeMillis();
 				if (this.queryTimeout > 0 && (end - start) >= this.queryTimeout * 1000){
@@ -54,10 +97,6 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 				} else 
 					throw e;
 			}
-			
-			List<String> signature = res.getSignature();
-			return new OntopTupleQueryResult(res, signature, salt);
-
 		} catch (QueryEvaluationException e) {
 			throw e;
 		}
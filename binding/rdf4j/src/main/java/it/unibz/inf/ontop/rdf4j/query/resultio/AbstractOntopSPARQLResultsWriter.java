@@ -0,0 +1,166 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Characters are escaped and encoded in UTF-8 straight into a reused buffer,
+ * which is written into the output stream when full.
+ *
+ * The escaping of the ASCII characters is given by tables (index: the character, value: its escape sequence
+ * or null if written as such). Non-ASCII characters are never escaped.
+ */
+abstract class AbstractOntopSPARQLResultsWriter implements OntopTupleQueryResultWriter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    // Upper bound on the number of bytes written for a char (escaped or UTF-8)
+    private static final int MAX_CHAR_LENGTH = 8;
+    private static final byte[] REPLACEMENT_CHARACTER = "\uFFFD".getBytes(StandardCharsets.UTF_8);
+    protected static final String XSD_STRING = XSD.STRING.getIRIString();
+
+    private final OutputStream outputStream;
+    private final byte[] buffer;
+    private int position;
+    private final BNodeLabelAnonymizer anonymizer;
+
+    // Binding names in the order of the header
+    protected ImmutableList<String> bindingNames;
+
+    AbstractOntopSPARQLResultsWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+        this.position = 0;
+        this.anonymizer = new BNodeLabelAnonymizer();
+        this.bindingNames = ImmutableList.of();
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) throws IOException {
+        this.bindingNames = ImmutableList.copyOf(bindingNames);
+        writeHeader();
+    }
+
+    @Override
+    public void endQueryResult() throws IOException {
+        writeFooter();
+        flush();
+        outputStream.flush();
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    protected abstract void writeFooter() throws IOException;
+
+    /**
+     * Bindings in the order of the binding names (null for the unbound ones).
+     *
+     * The bound bindings of a binding set usually follow the order of the signature,
+     * so they are normally matched without lookup.
+     */
+    protected OntopBinding[] getBindingsInHeaderOrder(OntopBindingSet bindingSet, OntopBinding[] target) {
+        OntopBinding[] bindings = bindingSet.getBindings();
+        int next = 0;
+        for (int i = 0; i < target.length; i++) {
+            String name = bindingNames.get(i);
+            if (next < bindings.length && bindings[next].getName().equals(name))
+                target[i] = bindings[next++];
+            else
+                target[i] = bindingSet.getBinding(name);
+        }
+        return target;
+    }
+
+    protected String getAnonymizedLabel(BNode bnode) {
+        return anonymizer.anonymize(bnode.getInternalLabel());
+    }
+
+    /**
+     * Creates an escaping table from pairs (character, escape sequence)
+     */
+    protected static byte[][] createEscapingTable(Object... charEscapePairs) {
+        byte[][] table = new byte[128][];
+        for (int i = 0; i < charEscapePairs.length; i += 2)
+            table[(Character) charEscapePairs[i]] = ((String) charEscapePairs[i + 1]).getBytes(StandardCharsets.UTF_8);
+        return table;
+    }
+
+    /**
+     * Escapes the ASCII characters according to the table and encodes the string in UTF-8.
+     * Lone surrogates are replaced by U+FFFD.
+     */
+    protected void writeEscaped(String string, @Nullable byte[][] escapingTable) throws IOException {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.length - position < MAX_CHAR_LENGTH)
+                flush();
+
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                byte[] escape = escapingTable == null ? null : escapingTable[c];
+                if (escape == null)
+                    buffer[position++] = (byte) c;
+                else
+                    putBytes(escape);
+            }
+            else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c))
+                putBytes(REPLACEMENT_CHARACTER);
+            else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * For strings known to be ASCII and not needing escaping (syntax, hexadecimal labels)
+     */
+    protected void writeAscii(String string) throws IOException {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            if (position == buffer.length)
+                flush();
+            buffer[position++] = (byte) string.charAt(i);
+        }
+    }
+
+    protected void writeByte(char c) throws IOException {
+        if (position == buffer.length)
+            flush();
+        buffer[position++] = (byte) c;
+    }
+
+    /**
+     * Escape sequences are shorter than MAX_CHAR_LENGTH
+     */
+    private void putBytes(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void flush() throws IOException {
+        outputStream.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.security.SecureRandom;
+
+/**
+ * Anonymizes the internal labels of the blank nodes of a result set with a keyed hash (128-bit SipHash-2-4).
+ *
+ * The keys are drawn once per result set: the same blank node gets the same label within the result set,
+ * while the labels cannot be related to the internal ones nor to the labels of another result set.
+ * Cheaper than a fresh SHA-1 digest per blank node (see BNode.getAnonymizedLabel()).
+ */
+class BNodeLabelAnonymizer {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final HashFunction highHash;
+    private final HashFunction lowHash;
+    private final char[] label;
+
+    BNodeLabelAnonymizer() {
+        SecureRandom random = new SecureRandom();
+        this.highHash = Hashing.sipHash24(random.nextLong(), random.nextLong());
+        this.lowHash = Hashing.sipHash24(random.nextLong(), random.nextLong());
+        this.label = new char[32];
+    }
+
+    /**
+     * 32 hexadecimal digits
+     */
+    String anonymize(String internalLabel) {
+        putHex(highHash.hashUnencodedChars(internalLabel).asLong(), 0);
+        putHex(lowHash.hashUnencodedChars(internalLabel).asLong(), 16);
+        return new String(label);
+    }
+
+    private void putHex(long value, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            label[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
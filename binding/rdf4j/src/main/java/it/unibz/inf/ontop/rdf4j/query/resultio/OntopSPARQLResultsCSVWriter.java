@@ -0,0 +1,89 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * SPARQL 1.1 Query Results CSV Format (text/csv).
+ *
+ * Only the lexical forms of the literals are written (no datatype nor language tag).
+ * Lines end with CRLF, unbound variables are empty fields.
+ */
+public class OntopSPARQLResultsCSVWriter extends AbstractOntopSPARQLResultsWriter {
+
+    private static final byte[][] QUOTED_ESCAPING_TABLE = createEscapingTable('"', "\"\"");
+
+    private OntopBinding[] orderedBindings;
+
+    public OntopSPARQLResultsCSVWriter(OutputStream outputStream) {
+        super(outputStream);
+        this.orderedBindings = new OntopBinding[0];
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        orderedBindings = new OntopBinding[bindingNames.size()];
+
+        for (int i = 0; i < bindingNames.size(); i++) {
+            if (i > 0)
+                writeByte(',');
+            writeField(bindingNames.get(i));
+        }
+        writeAscii("\r\n");
+    }
+
+    @Override
+    public void handleSolution(OntopBindingSet bindingSet) throws IOException {
+        OntopBinding[] bindings = getBindingsInHeaderOrder(bindingSet, orderedBindings);
+        for (int i = 0; i < bindings.length; i++) {
+            if (i > 0)
+                writeByte(',');
+            if (bindings[i] != null)
+                writeValue(bindings[i].getValue());
+        }
+        writeAscii("\r\n");
+    }
+
+    @Override
+    protected void writeFooter() {
+    }
+
+    private void writeValue(RDFConstant value) throws IOException {
+        if (value instanceof IRIConstant)
+            writeField(((IRIConstant) value).getIRI().getIRIString());
+        else if (value instanceof BNode) {
+            writeAscii("_:");
+            writeAscii(getAnonymizedLabel((BNode) value));
+        }
+        else
+            writeField(value.getValue());
+    }
+
+    /**
+     * Quoted only when needed (RFC 4180)
+     */
+    private void writeField(String field) throws IOException {
+        if (needsQuoting(field)) {
+            writeByte('"');
+            writeEscaped(field, QUOTED_ESCAPING_TABLE);
+            writeByte('"');
+        }
+        else
+            writeEscaped(field, null);
+    }
+
+    private static boolean needsQuoting(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"' || c == ',' || c == '\n' || c == '\r')
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * SPARQL 1.1 Query Results JSON Format (application/sparql-results+json).
+ *
+ * Unbound variables are omitted from the result objects.
+ */
+public class OntopSPARQLResultsJSONWriter extends AbstractOntopSPARQLResultsWriter {
+
+    private static final byte[][] ESCAPING_TABLE = createJSONEscapingTable();
+
+    private OntopBinding[] orderedBindings;
+    private boolean isFirstSolution;
+
+    public OntopSPARQLResultsJSONWriter(OutputStream outputStream) {
+        super(outputStream);
+        this.orderedBindings = new OntopBinding[0];
+        this.isFirstSolution = true;
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        orderedBindings = new OntopBinding[bindingNames.size()];
+        isFirstSolution = true;
+
+        writeAscii("{\"head\":{\"vars\":[");
+        for (int i = 0; i < bindingNames.size(); i++) {
+            if (i > 0)
+                writeByte(',');
+            writeString(bindingNames.get(i));
+        }
+        writeAscii("]},\"results\":{\"bindings\":[");
+    }
+
+    @Override
+    public void handleSolution(OntopBindingSet bindingSet) throws IOException {
+        if (!isFirstSolution)
+            writeByte(',');
+        isFirstSolution = false;
+
+        writeByte('{');
+        boolean isFirstBinding = true;
+        for (OntopBinding binding : getBindingsInHeaderOrder(bindingSet, orderedBindings)) {
+            if (binding == null)
+                continue;
+            if (!isFirstBinding)
+                writeByte(',');
+            isFirstBinding = false;
+
+            writeString(binding.getName());
+            writeByte(':');
+            writeValue(binding.getValue());
+        }
+        writeByte('}');
+    }
+
+    @Override
+    protected void writeFooter() throws IOException {
+        writeAscii("]}}");
+    }
+
+    private void writeValue(RDFConstant value) throws IOException {
+        if (value instanceof IRIConstant) {
+            writeAscii("{\"type\":\"uri\",\"value\":");
+            writeString(((IRIConstant) value).getIRI().getIRIString());
+        }
+        else if (value instanceof BNode) {
+            writeAscii("{\"type\":\"bnode\",\"value\":\"");
+            writeAscii(getAnonymizedLabel((BNode) value));
+            writeByte('"');
+        }
+        else {
+            RDFLiteralConstant literal = (RDFLiteralConstant) value;
+            writeAscii("{\"type\":\"literal\",\"value\":");
+            writeString(literal.getValue());
+
+            RDFDatatype datatype = literal.getType();
+            Optional<String> languageTag = datatype.getLanguageTag()
+                    .map(t -> t.getFullString());
+            if (languageTag.isPresent()) {
+                writeAscii(",\"xml:lang\":");
+                writeString(languageTag.get());
+            }
+            else {
+                String datatypeIRI = datatype.getIRI().getIRIString();
+                if (!datatypeIRI.equals(XSD_STRING)) {
+                    writeAscii(",\"datatype\":");
+                    writeString(datatypeIRI);
+                }
+            }
+        }
+        writeByte('}');
+    }
+
+    private void writeString(String string) throws IOException {
+        writeByte('"');
+        writeEscaped(string, ESCAPING_TABLE);
+        writeByte('"');
+    }
+
+    private static byte[][] createJSONEscapingTable() {
+        byte[][] table = createEscapingTable(
+                '"', "\\\"",
+                '\\', "\\\\",
+                '\n', "\\n",
+                '\r', "\\r",
+                '\t', "\\t",
+                '\b', "\\b",
+                '\f', "\\f");
+        // Other control characters
+        for (char c = 0; c < 0x20; c++) {
+            if (table[c] == null)
+                table[c] = String.format("\\u%04x", (int) c).getBytes(StandardCharsets.UTF_8);
+        }
+        return table;
+    }
+}
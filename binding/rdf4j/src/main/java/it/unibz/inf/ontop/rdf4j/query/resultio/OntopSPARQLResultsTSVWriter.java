@@ -0,0 +1,108 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * SPARQL 1.1 Query Results TSV Format (text/tab-separated-values).
+ *
+ * The RDF terms are written in the Turtle syntax (IRIs between angle brackets, no prefixed names).
+ * The simple literals (xsd:string) are written without datatype. Unbound variables are empty fields.
+ */
+public class OntopSPARQLResultsTSVWriter extends AbstractOntopSPARQLResultsWriter {
+
+    private static final byte[][] STRING_ESCAPING_TABLE = createEscapingTable(
+            '"', "\\\"",
+            '\\', "\\\\",
+            '\n', "\\n",
+            '\r', "\\r",
+            '\t', "\\t");
+
+    private static final byte[][] IRI_ESCAPING_TABLE = createEscapingTable(
+            '>', "\\u003E",
+            '\\', "\\u005C",
+            '\n', "\\u000A",
+            '\r', "\\u000D",
+            '\t', "\\u0009");
+
+    private OntopBinding[] orderedBindings;
+
+    public OntopSPARQLResultsTSVWriter(OutputStream outputStream) {
+        super(outputStream);
+        this.orderedBindings = new OntopBinding[0];
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        orderedBindings = new OntopBinding[bindingNames.size()];
+
+        for (int i = 0; i < bindingNames.size(); i++) {
+            if (i > 0)
+                writeByte('\t');
+            writeByte('?');
+            writeEscaped(bindingNames.get(i), null);
+        }
+        writeByte('\n');
+    }
+
+    @Override
+    public void handleSolution(OntopBindingSet bindingSet) throws IOException {
+        OntopBinding[] bindings = getBindingsInHeaderOrder(bindingSet, orderedBindings);
+        for (int i = 0; i < bindings.length; i++) {
+            if (i > 0)
+                writeByte('\t');
+            if (bindings[i] != null)
+                writeValue(bindings[i].getValue());
+        }
+        writeByte('\n');
+    }
+
+    @Override
+    protected void writeFooter() {
+    }
+
+    private void writeValue(RDFConstant value) throws IOException {
+        if (value instanceof IRIConstant)
+            writeIRI(((IRIConstant) value).getIRI().getIRIString());
+        else if (value instanceof BNode) {
+            writeAscii("_:");
+            writeAscii(getAnonymizedLabel((BNode) value));
+        }
+        else {
+            RDFLiteralConstant literal = (RDFLiteralConstant) value;
+            writeByte('"');
+            writeEscaped(literal.getValue(), STRING_ESCAPING_TABLE);
+            writeByte('"');
+
+            RDFDatatype datatype = literal.getType();
+            Optional<String> languageTag = datatype.getLanguageTag()
+                    .map(t -> t.getFullString());
+            if (languageTag.isPresent()) {
+                writeByte('@');
+                writeEscaped(languageTag.get(), null);
+            }
+            else {
+                String datatypeIRI = datatype.getIRI().getIRIString();
+                if (!datatypeIRI.equals(XSD_STRING)) {
+                    writeAscii("^^");
+                    writeIRI(datatypeIRI);
+                }
+            }
+        }
+    }
+
+    private void writeIRI(String iri) throws IOException {
+        writeByte('<');
+        writeEscaped(iri, IRI_ESCAPING_TABLE);
+        writeByte('>');
+    }
+}
@@ -0,0 +1,122 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * SPARQL Query Results XML Format (application/sparql-results+xml).
+ *
+ * Unbound variables are omitted from the results.
+ * The control characters that are not allowed in XML 1.0 are replaced by U+FFFD.
+ */
+public class OntopSPARQLResultsXMLWriter extends AbstractOntopSPARQLResultsWriter {
+
+    private static final byte[][] ESCAPING_TABLE = createXMLEscapingTable();
+
+    private OntopBinding[] orderedBindings;
+
+    public OntopSPARQLResultsXMLWriter(OutputStream outputStream) {
+        super(outputStream);
+        this.orderedBindings = new OntopBinding[0];
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        orderedBindings = new OntopBinding[bindingNames.size()];
+
+        writeAscii("<?xml version='1.0' encoding='UTF-8'?>\n"
+                + "<sparql xmlns='http://www.w3.org/2005/sparql-results#'>\n"
+                + "\t<head>\n");
+        for (String bindingName : bindingNames) {
+            writeAscii("\t\t<variable name='");
+            writeEscaped(bindingName, ESCAPING_TABLE);
+            writeAscii("'/>\n");
+        }
+        writeAscii("\t</head>\n"
+                + "\t<results>\n");
+    }
+
+    @Override
+    public void handleSolution(OntopBindingSet bindingSet) throws IOException {
+        writeAscii("\t\t<result>\n");
+        for (OntopBinding binding : getBindingsInHeaderOrder(bindingSet, orderedBindings)) {
+            if (binding == null)
+                continue;
+            writeAscii("\t\t\t<binding name='");
+            writeEscaped(binding.getName(), ESCAPING_TABLE);
+            writeAscii("'>\n\t\t\t\t");
+            writeValue(binding.getValue());
+            writeAscii("\n\t\t\t</binding>\n");
+        }
+        writeAscii("\t\t</result>\n");
+    }
+
+    @Override
+    protected void writeFooter() throws IOException {
+        writeAscii("\t</results>\n"
+                + "</sparql>\n");
+    }
+
+    private void writeValue(RDFConstant value) throws IOException {
+        if (value instanceof IRIConstant) {
+            writeAscii("<uri>");
+            writeEscaped(((IRIConstant) value).getIRI().getIRIString(), ESCAPING_TABLE);
+            writeAscii("</uri>");
+        }
+        else if (value instanceof BNode) {
+            writeAscii("<bnode>");
+            writeAscii(getAnonymizedLabel((BNode) value));
+            writeAscii("</bnode>");
+        }
+        else {
+            RDFLiteralConstant literal = (RDFLiteralConstant) value;
+            RDFDatatype datatype = literal.getType();
+            Optional<String> languageTag = datatype.getLanguageTag()
+                    .map(t -> t.getFullString());
+
+            writeAscii("<literal");
+            if (languageTag.isPresent()) {
+                writeAscii(" xml:lang='");
+                writeEscaped(languageTag.get(), ESCAPING_TABLE);
+                writeByte('\'');
+            }
+            else {
+                String datatypeIRI = datatype.getIRI().getIRIString();
+                if (!datatypeIRI.equals(XSD_STRING)) {
+                    writeAscii(" datatype='");
+                    writeEscaped(datatypeIRI, ESCAPING_TABLE);
+                    writeByte('\'');
+                }
+            }
+            writeByte('>');
+            writeEscaped(literal.getValue(), ESCAPING_TABLE);
+            writeAscii("</literal>");
+        }
+    }
+
+    private static byte[][] createXMLEscapingTable() {
+        byte[][] table = createEscapingTable(
+                '&', "&amp;",
+                '<', "&lt;",
+                '>', "&gt;",
+                '"', "&quot;",
+                '\'', "&apos;",
+                // Preserved by the XML parsers
+                '\r', "&#xD;");
+        for (char c = 0; c < 0x20; c++) {
+            if (table[c] == null && c != '\t' && c != '\n')
+                table[c] = "\uFFFD".getBytes(StandardCharsets.UTF_8);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,26 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serializes the results of a SELECT query directly from the Ontop binding sets,
+ * without converting them into RDF4J binding sets and values.
+ *
+ * See OntopTupleQuery.evaluate(OntopTupleQueryResultWriter).
+ *
+ * Not thread-safe: one writer per result set.
+ */
+public interface OntopTupleQueryResultWriter {
+
+    void startQueryResult(List<String> bindingNames) throws IOException;
+
+    void handleSolution(OntopBindingSet bindingSet) throws IOException;
+
+    /**
+     * Also flushes the underlying output stream (but does not close it)
+     */
+    void endQueryResult() throws IOException;
+}
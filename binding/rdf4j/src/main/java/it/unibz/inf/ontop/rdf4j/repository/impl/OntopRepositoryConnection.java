@@ -12,13 +12,16 @@ import it.unibz.inf.ontop.rdf4j.query.impl.*;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.ConvertingIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.ExceptionConvertingIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.NamespaceImpl;
 import org.eclipse.rdf4j.model.impl.ValueFactoryImpl;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.query.parser.*;
-import org.eclipse.rdf4j.queryrender.RenderUtils;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
@@ -26,6 +29,7 @@ import org.eclipse.rdf4j.rio.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -162,16 +166,10 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
             throws RepositoryException, RDFHandlerException {
         //Exports all statements with a specific subject, predicate
         //and/or object from the repository, optionally from the specified contexts.
-        RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts);
-
         handler.startRDF();
-        // handle
-        if (stms != null) {
-            while (stms.hasNext()) {
-                Statement st = stms.next();
-                if (st != null)
-                    handler.handleStatement(st);
-            }
+        try (RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts)) {
+            while (stms.hasNext())
+                handler.handleStatement(stms.next());
         }
         handler.endRDF();
 
@@ -228,32 +226,54 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
         //Gets all statements with a specific subject,
         //predicate and/or object from the repository.
         //The result is optionally restricted to the specified set of named contexts.
+        if (!isDefaultGraphIncluded(contexts) || isBNode(subj) || isBNode(obj))
+            return new RepositoryResult<>(new EmptyIteration<>());
 
-        //construct query for it
-        StringBuilder queryString = new StringBuilder("CONSTRUCT {");
-
-        StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
-
-        spo = pred == null ? spo.append(" ?p ") : RenderUtils.toSPARQL(pred, spo);
-
-        spo = obj == null ? spo.append(" ?o ") : RenderUtils.toSPARQL(obj, spo);
-
-        queryString.append(spo).append("} WHERE {").append(spo).append("}");
-
-        //execute construct query
+        TriplePatternQuery triplePatternQuery = TriplePatternQuery.select(subj, pred, obj);
         try {
-            if (contexts.length == 0 || (contexts.length > 0 && contexts[0] == null)) {
-                GraphQuery query = prepareGraphQuery(QueryLanguage.SPARQL,
-                        queryString.toString());
-                GraphQueryResult result = query.evaluate();
-                return new RepositoryResult<>(new CloseableIteratorIteration<>(result.iterator()));
-            }
-            return new RepositoryResult<>(new CloseableIteratorIteration<>());
+            TupleQueryResult result = createTupleQuery(triplePatternQuery).evaluate();
+            ValueFactory valueFactory = repository.getValueFactory();
+
+            CloseableIteration<Statement, QueryEvaluationException> statements =
+                    new ConvertingIteration<BindingSet, Statement, QueryEvaluationException>(result) {
+                        @Override
+                        protected Statement convert(BindingSet bindingSet) {
+                            return valueFactory.createStatement(
+                                    subj == null ? (Resource) bindingSet.getValue(TriplePatternQuery.SUBJECT) : subj,
+                                    pred == null ? (IRI) bindingSet.getValue(TriplePatternQuery.PREDICATE) : pred,
+                                    obj == null ? bindingSet.getValue(TriplePatternQuery.OBJECT) : obj);
+                        }
+                    };
+            return new RepositoryResult<>(new ExceptionConvertingIteration<Statement, RepositoryException>(statements) {
+                @Override
+                protected RepositoryException convert(Exception e) {
+                    return new RepositoryException(e);
+                }
+            });
         } catch (MalformedQueryException | QueryEvaluationException e) {
             throw new RepositoryException(e);
         }
     }
 
+    /**
+     * Only the default graph is supported
+     */
+    private static boolean isDefaultGraphIncluded(Resource... contexts) {
+        return contexts.length == 0 || contexts[0] == null;
+    }
+
+    /**
+     * Blank nodes are scoped to the result sets: those from previous results never match.
+     */
+    private static boolean isBNode(@Nullable Value value) {
+        return value instanceof BNode;
+    }
+
+    private OntopTupleQuery createTupleQuery(TriplePatternQuery triplePatternQuery) {
+        return new OntopTupleQuery(triplePatternQuery.getQueryString(), triplePatternQuery.getParsedQuery(), null,
+                ontopConnection, ImmutableMultimap.of(), inputQueryFactory, settings);
+    }
+
     @Override
     public ValueFactory getValueFactory() {
         //Gets a ValueFactory for this OntopRepositoryConnection.
@@ -274,12 +294,16 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
                                 boolean includeInferred, Resource... contexts) throws RepositoryException {
         //Checks whether the repository contains statements with a specific subject,
         //predicate and/or object, optionally in the specified contexts.
-        RepositoryResult<Statement> stIter = getStatements(subj, pred,
-                obj, includeInferred, contexts);
+        if (!isDefaultGraphIncluded(contexts) || isBNode(subj) || isBNode(obj))
+            return false;
+
+        TriplePatternQuery triplePatternQuery = TriplePatternQuery.ask(subj, pred, obj);
         try {
-            return stIter.hasNext();
-        } finally {
-            stIter.close();
+            return new OntopBooleanQuery(triplePatternQuery.getQueryString(), triplePatternQuery.getParsedQuery(),
+                    null, ontopConnection, ImmutableMultimap.of(), inputQueryFactory, settings)
+                    .evaluate();
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
         }
     }
 
@@ -297,7 +321,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
     @Override
     public boolean isEmpty() throws RepositoryException {
         //Returns true if this repository does not contain any (explicit) statements.
-        return size() == 0;
+        return !hasStatement(null, null, null, false);
     }
 
     @Override
@@ -548,7 +572,16 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
     @Override
     public long size(Resource... contexts) throws RepositoryException {
         //Returns the number of (explicit) statements that are in the specified contexts in this repository.
-        return 0;
+        if (!isDefaultGraphIncluded(contexts))
+            return 0;
+
+        try (TupleQueryResult result = createTupleQuery(TriplePatternQuery.count()).evaluate()) {
+            return result.hasNext()
+                    ? ((Literal) result.next().getValue(TriplePatternQuery.COUNT)).longValue()
+                    : 0;
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
+        }
     }
 
 
@@ -0,0 +1,139 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Query over a single triple pattern, for the methods of the RepositoryConnection taking a subject,
+ * a predicate and an object (null when unbound).
+ *
+ * The SPARQL query is only parsed once per shape (query form and bound positions).
+ * The bound values are then set into a copy of the parsed query, so that no SPARQL string
+ * has to be rendered and parsed again.
+ *
+ * The query string (used for logging and by the query cache) is made of the template and of the bound values.
+ */
+final class TriplePatternQuery {
+
+    static final String SUBJECT = "s";
+    static final String PREDICATE = "p";
+    static final String OBJECT = "o";
+    static final String COUNT = "count";
+
+    private static final String PATTERN = "?" + SUBJECT + " ?" + PREDICATE + " ?" + OBJECT;
+    private static final String COUNT_TEMPLATE = "SELECT (COUNT(*) AS ?" + COUNT + ") WHERE {\n" +
+            " SELECT DISTINCT ?" + SUBJECT + " ?" + PREDICATE + " ?" + OBJECT + " WHERE { " + PATTERN + " }\n}";
+
+    // Template string -> parsed template
+    private static final Map<String, ParsedQuery> PARSED_TEMPLATES = new ConcurrentHashMap<>();
+
+    private final String queryString;
+    private final ParsedQuery parsedQuery;
+
+    private TriplePatternQuery(String queryString, ParsedQuery parsedQuery) {
+        this.queryString = queryString;
+        this.parsedQuery = parsedQuery;
+    }
+
+    /**
+     * SELECT query projecting the unbound positions
+     */
+    static TriplePatternQuery select(@Nullable Resource subject, @Nullable IRI predicate, @Nullable Value object) {
+        StringBuilder projection = new StringBuilder();
+        if (subject == null)
+            projection.append(" ?" + SUBJECT);
+        if (predicate == null)
+            projection.append(" ?" + PREDICATE);
+        if (object == null)
+            projection.append(" ?" + OBJECT);
+
+        String template = "SELECT" + (projection.length() == 0 ? " *" : projection) + " WHERE { " + PATTERN + " }";
+        return instantiate(template, subject, predicate, object);
+    }
+
+    /**
+     * ASK query (translated into a LIMIT 1 native query)
+     */
+    static TriplePatternQuery ask(@Nullable Resource subject, @Nullable IRI predicate, @Nullable Value object) {
+        return instantiate("ASK { " + PATTERN + " }", subject, predicate, object);
+    }
+
+    /**
+     * Number of distinct triples, counted by the DB engine
+     */
+    static TriplePatternQuery count() {
+        return instantiate(COUNT_TEMPLATE, null, null, null);
+    }
+
+    String getQueryString() {
+        return queryString;
+    }
+
+    ParsedQuery getParsedQuery() {
+        return parsedQuery;
+    }
+
+    private static TriplePatternQuery instantiate(String template, @Nullable Resource subject,
+                                                  @Nullable IRI predicate, @Nullable Value object) {
+        ParsedQuery parsedTemplate = getParsedTemplate(template);
+        // The parsed template is shared
+        TupleExpr tupleExpr = parsedTemplate.getTupleExpr().clone();
+        tupleExpr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var node) {
+                Value value = getBoundValue(node.getName(), subject, predicate, object);
+                if (value != null)
+                    node.setValue(value);
+            }
+        });
+
+        StringBuilder queryString = new StringBuilder(template);
+        appendBoundValue(queryString, SUBJECT, subject);
+        appendBoundValue(queryString, PREDICATE, predicate);
+        appendBoundValue(queryString, OBJECT, object);
+
+        ParsedQuery parsedQuery = parsedTemplate instanceof ParsedBooleanQuery
+                ? new ParsedBooleanQuery(queryString.toString(), tupleExpr)
+                : new ParsedTupleQuery(queryString.toString(), tupleExpr);
+        return new TriplePatternQuery(queryString.toString(), parsedQuery);
+    }
+
+    private static ParsedQuery getParsedTemplate(String template) {
+        return PARSED_TEMPLATES.computeIfAbsent(template,
+                t -> QueryParserUtil.parseQuery(QueryLanguage.SPARQL, t, null));
+    }
+
+    @Nullable
+    private static Value getBoundValue(String variableName, @Nullable Resource subject, @Nullable IRI predicate,
+                                       @Nullable Value object) {
+        switch (variableName) {
+            case SUBJECT:
+                return subject;
+            case PREDICATE:
+                return predicate;
+            case OBJECT:
+                return object;
+            default:
+                return null;
+        }
+    }
+
+    private static void appendBoundValue(StringBuilder queryString, String variableName, @Nullable Value value) {
+        if (value != null)
+            queryString.append("\n# ?").append(variableName).append(" = ").append(NTriplesUtil.toNTriplesString(value));
+    }
+}
@@ -4,6 +4,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleQueryResultWriter;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopRepositoryConnection;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.*;
@@ -32,6 +35,7 @@ public class AbstractRDF4JTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRDF4JTest.class);
     private static Connection SQL_CONNECTION;
     private static RepositoryConnection REPO_CONNECTION;
+    private static OntopSQLOWLAPIConfiguration CONFIGURATION;
 
     protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath) throws SQLException, IOException {
         initOBDA(dbScriptRelativePath, obdaRelativePath, null);
@@ -94,6 +98,7 @@ public class AbstractRDF4JTest {
             builder.dbMetadataFile(AbstractRDF4JTest.class.getResource(dbMetadataFile).getPath());
 
         OntopSQLOWLAPIConfiguration config = builder.build();
+        CONFIGURATION = config;
 
         OntopRepository repo = OntopRepository.defaultRepository(config);
         repo.init();
@@ -148,6 +153,7 @@ public class AbstractRDF4JTest {
             builder.propertyFile(AbstractRDF4JTest.class.getResource(propertyFile).getPath());
 
         OntopSQLOWLAPIConfiguration config = builder.build();
+        CONFIGURATION = config;
 
         OntopRepository repo = OntopRepository.defaultRepository(config);
         repo.init();
@@ -157,11 +163,23 @@ public class AbstractRDF4JTest {
         REPO_CONNECTION = repo.getConnection();
     }
 
+    protected static OntopSQLOWLAPIConfiguration getConfiguration() {
+        return CONFIGURATION;
+    }
+
+    protected static RepositoryConnection getRepositoryConnection() {
+        return REPO_CONNECTION;
+    }
+
     protected static void release() throws SQLException {
         REPO_CONNECTION.close();
         SQL_CONNECTION.close();
     }
 
+    protected String reformulate(String queryString) throws Exception {
+        return ((OntopRepositoryConnection) REPO_CONNECTION).reformulate(queryString);
+    }
+
     protected int runQueryAndCount(String queryString) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
 
@@ -257,6 +275,11 @@ public class AbstractRDF4JTest {
         return query.evaluate();
     }
 
+    protected void evaluate(String queryString, OntopTupleQueryResultWriter writer) {
+        OntopTupleQuery query = (OntopTupleQuery) REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        query.evaluate(writer);
+    }
+
     protected GraphQueryResult evaluateGraph(String queryString) {
         GraphQuery query = REPO_CONNECTION.prepareGraphQuery(QueryLanguage.SPARQL, queryString);
         return query.evaluate();
@@ -0,0 +1,82 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BindParametersTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/bind-parameters/bind-parameters.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testFilterEquality() throws Exception {
+        String executableQuery = reformulate(createFilterQuery("it"));
+        assertTrue(executableQuery.contains("PARAMETERS [\"it\""));
+        assertFalse(executableQuery.contains("'it'"));
+
+        runQueryAndCompare(createFilterQuery("it"), ImmutableList.of("Anna", "Roger"));
+        runQueryAndCompare(createFilterQuery("de"), ImmutableList.of("Hans"));
+        runQueryAndCompare(createFilterQuery("fr"), ImmutableList.of());
+        runQueryAndCompare(createFilterQuery("it"), ImmutableList.of("Anna", "Roger"));
+    }
+
+    private static String createFilterQuery(String country) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country ?c . \n" +
+                " FILTER (?c = \"" + country + "\")\n" +
+                "}\n" +
+                "ORDER BY ?v";
+    }
+
+    @Test
+    public void testTripleObject() {
+        runQueryAndCompare(createTripleObjectQuery("Hans"), ImmutableList.of("de"));
+        runQueryAndCompare(createTripleObjectQuery("Roger"), ImmutableList.of("it"));
+        runQueryAndCompare(createTripleObjectQuery("O'Neil"), ImmutableList.of("ie"));
+    }
+
+    private static String createTripleObjectQuery(String name) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name \"" + name.replace("'", "\\'") + "\" ; :country ?v . \n" +
+                "}";
+    }
+
+    @Test
+    public void testSeveralParameters() {
+        runQueryAndCompare(createDisjunctionQuery("Hans", "ie"), ImmutableList.of("Hans", "O'Neil"));
+        runQueryAndCompare(createDisjunctionQuery("Anna", "de"), ImmutableList.of("Anna", "Hans"));
+    }
+
+    private static String createDisjunctionQuery(String name, String country) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country ?c . \n" +
+                " FILTER ((?v = \"" + name + "\") || (?c = \"" + country + "\"))\n" +
+                "}\n" +
+                "ORDER BY ?v";
+    }
+}
@@ -0,0 +1,91 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * 4 persons described by batches of 3 resources
+ */
+public class DescribeBatchTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/describe-batch/describe-batch.properties";
+
+    private static final String PREFIX = "http://person.example.org/";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testDescribeAllPersons() {
+        String query = "PREFIX : <" + PREFIX + ">\n" +
+                "DESCRIBE ?p WHERE {\n" +
+                " ?p a :Person .\n" +
+                "}";
+
+        ImmutableSet<Statement> expectedGraph = ImmutableSet.<Statement>builder()
+                .addAll(describePerson(1, "Roger", "it", true))
+                .addAll(describePerson(2, "Anna", "it", false))
+                .addAll(describePerson(3, "Hans", "de", true))
+                .addAll(describePerson(4, "O'Neil", "ie", true))
+                .build();
+
+        runGraphQueryAndCompare(query, expectedGraph);
+    }
+
+    @Test
+    public void testDescribeOnePerson() {
+        String query = "PREFIX : <" + PREFIX + ">\n" +
+                "DESCRIBE ?p WHERE {\n" +
+                " ?p :name \"Anna\" .\n" +
+                "}";
+
+        runGraphQueryAndCompare(query, describePerson(2, "Anna", "it", false));
+    }
+
+    @Test
+    public void testDescribeConstants() {
+        String query = "DESCRIBE <" + PREFIX + "person/3> <" + PREFIX + "person/4> <" + PREFIX + "person/5>";
+
+        ImmutableSet<Statement> expectedGraph = ImmutableSet.<Statement>builder()
+                .addAll(describePerson(3, "Hans", "de", true))
+                .addAll(describePerson(4, "O'Neil", "ie", true))
+                .build();
+
+        runGraphQueryAndCompare(query, expectedGraph);
+    }
+
+    private static ImmutableSet<Statement> describePerson(int id, String name, String country, boolean isActive) {
+        ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        IRI person = valueFactory.createIRI(PREFIX + "person/" + id);
+
+        ImmutableSet.Builder<Statement> builder = ImmutableSet.<Statement>builder()
+                .add(valueFactory.createStatement(person, RDF.TYPE, valueFactory.createIRI(PREFIX + "Person")))
+                .add(valueFactory.createStatement(person, valueFactory.createIRI(PREFIX + "name"),
+                        valueFactory.createLiteral(name)))
+                .add(valueFactory.createStatement(person, valueFactory.createIRI(PREFIX + "country"),
+                        valueFactory.createLiteral(country)));
+        if (isActive)
+            builder.add(valueFactory.createStatement(person, valueFactory.createIRI(PREFIX + "status"),
+                    valueFactory.createLiteral("active")));
+        return builder.build();
+    }
+}
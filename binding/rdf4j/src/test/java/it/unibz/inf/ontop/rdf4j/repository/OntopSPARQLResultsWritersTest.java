@@ -0,0 +1,159 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.rdf4j.query.resultio.*;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The outputs of the native writers are parsed back by RDF4J and compared with the results of the regular evaluation.
+ *
+ * Blank node labels are compared up to renaming (they are anonymized differently).
+ */
+public class OntopSPARQLResultsWritersTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/result-writers/mapping.obda";
+    private static final String SQL_SCRIPT = "/result-writers/database.sql";
+
+    private static final String QUERY = "PREFIX : <http://book.example.org/>\n" +
+            "SELECT ?b ?title ?localTitle ?pages ?price ?publisher WHERE {\n" +
+            " ?b a :Book ; :title ?title ; :localTitle ?localTitle .\n" +
+            " OPTIONAL { ?b :pages ?pages }\n" +
+            " OPTIONAL { ?b :price ?price }\n" +
+            " OPTIONAL { ?b :publisher ?publisher }\n" +
+            "}\n" +
+            "ORDER BY ?b";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testJSON() throws IOException {
+        checkParsedResults(OntopSPARQLResultsJSONWriter::new, TupleQueryResultFormat.JSON);
+    }
+
+    @Test
+    public void testXML() throws IOException {
+        checkParsedResults(OntopSPARQLResultsXMLWriter::new, TupleQueryResultFormat.SPARQL);
+    }
+
+    @Test
+    public void testTSV() throws IOException {
+        checkParsedResults(OntopSPARQLResultsTSVWriter::new, TupleQueryResultFormat.TSV);
+    }
+
+    /**
+     * CSV is lossy (no datatype, no language tag): compared with the output of the RDF4J writer instead.
+     *
+     * Excludes the blank nodes and the decimals (RDF4J writes the canonical form of the numbers, not the lexical one).
+     */
+    @Test
+    public void testCSV() throws IOException {
+        String query = QUERY.replace(" ?price ?publisher WHERE", " WHERE");
+
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        try (TupleQueryResult result = evaluate(query)) {
+            QueryResultIO.writeTuple(result, TupleQueryResultFormat.CSV, expectedOutput);
+        }
+
+        assertEquals(new String(expectedOutput.toByteArray(), StandardCharsets.UTF_8),
+                write(query, OntopSPARQLResultsCSVWriter::new));
+    }
+
+    @Test
+    public void testEmptyResult() throws IOException {
+        String query = "PREFIX : <http://book.example.org/>\n" +
+                "SELECT ?b ?pages WHERE { ?b :pages ?pages . FILTER (?pages > 1000) }";
+
+        for (TupleQueryResultFormat format : ImmutableList.of(TupleQueryResultFormat.JSON,
+                TupleQueryResultFormat.SPARQL, TupleQueryResultFormat.TSV)) {
+            String output = write(query, getWriterConstructor(format));
+            TupleQueryResult parsedResult = QueryResultIO.parseTuple(
+                    new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), format);
+            assertEquals(ImmutableList.of("b", "pages"), parsedResult.getBindingNames());
+            assertEquals(0, Iterations.asList(parsedResult).size());
+        }
+    }
+
+    private void checkParsedResults(Function<OutputStream, OntopTupleQueryResultWriter> writerConstructor,
+                                    TupleQueryResultFormat format) throws IOException {
+        List<BindingSet> expectedResults;
+        try (TupleQueryResult result = evaluate(QUERY)) {
+            expectedResults = Iterations.asList(result);
+        }
+
+        String output = write(QUERY, writerConstructor);
+        List<BindingSet> parsedResults = Iterations.asList(QueryResultIO.parseTuple(
+                new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), format));
+
+        assertEquals(5, parsedResults.size());
+        assertEquals(renameBNodes(expectedResults), renameBNodes(parsedResults));
+    }
+
+    private String write(String query, Function<OutputStream, OntopTupleQueryResultWriter> writerConstructor) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        evaluate(query, writerConstructor.apply(output));
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Function<OutputStream, OntopTupleQueryResultWriter> getWriterConstructor(
+            TupleQueryResultFormat format) {
+        if (format.equals(TupleQueryResultFormat.JSON))
+            return OntopSPARQLResultsJSONWriter::new;
+        if (format.equals(TupleQueryResultFormat.SPARQL))
+            return OntopSPARQLResultsXMLWriter::new;
+        return OntopSPARQLResultsTSVWriter::new;
+    }
+
+    /**
+     * Blank nodes renamed after their order of appearance
+     */
+    private static ImmutableList<BindingSet> renameBNodes(List<BindingSet> bindingSets) {
+        Map<String, BNode> renaming = new HashMap<>();
+        ImmutableList.Builder<BindingSet> builder = ImmutableList.builder();
+        for (BindingSet bindingSet : bindingSets) {
+            QueryBindingSet renamedBindingSet = new QueryBindingSet();
+            for (String name : bindingSet.getBindingNames()) {
+                Value value = bindingSet.getValue(name);
+                if (value == null)
+                    continue;
+                if (value instanceof BNode)
+                    value = renaming.computeIfAbsent(((BNode) value).getID(),
+                            id -> SimpleValueFactory.getInstance().createBNode("b" + renaming.size()));
+                renamedBindingSet.addBinding(name, value);
+            }
+            builder.add(renamedBindingSet);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,57 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Split unions with a single branch connection and a pool of 3 connections for the statements: the branches
+ * without a permit are executed on the connection of the statement, and neither pool is ever exhausted.
+ */
+public class ParallelUnionBranchConnectionsTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/parallel-union-connections/parallel-union-connections.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testAllTriples() {
+        assertEquals(15, runQueryAndCount("SELECT * WHERE { ?s ?p ?o }"));
+    }
+
+    @Test
+    public void testConcurrentUnions() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                counts.add(clients.submit(() -> runQueryAndCount("SELECT * WHERE { ?s ?p ?o }")));
+            }
+            for (Future<Integer> count : counts) {
+                assertEquals(15, (int) count.get());
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.iq.IQ;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Top-level unions split into at most 3 native queries executed concurrently, over the 4 persons (15 triples)
+ */
+public class ParallelUnionBranchesTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/parallel-union/parallel-union.properties";
+
+    private static final String PREFIX = "PREFIX : <http://person.example.org/>\n";
+    private static final String NAME_OR_COUNTRY_QUERY = PREFIX +
+            "SELECT ?v WHERE {\n" +
+            " { ?p :name ?v } UNION { ?p :country ?v }\n" +
+            "}";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testAllTriples() {
+        ImmutableList<ImmutableMap<String, String>> results = executeQuery("SELECT * WHERE { ?s ?p ?o }");
+        assertEquals(15, results.size());
+        assertEquals(15, ImmutableSet.copyOf(results).size());
+    }
+
+    @Test
+    public void testUnion() {
+        assertEquals(ImmutableMultiset.of("Roger", "Anna", "Hans", "O'Neil", "it", "it", "de", "ie"),
+                ImmutableMultiset.copyOf(runQuery(NAME_OR_COUNTRY_QUERY)));
+    }
+
+    @Test
+    public void testUnionIsSplit() throws Exception {
+        QueryReformulator reformulator = getConfiguration().loadQueryReformulator();
+        ImmutableList<IQ> executableQueries = reformulator.reformulateIntoUnionBranchNativeQueries(
+                reformulator.getInputQueryFactory().createSelectQuery("SELECT * WHERE { ?s ?p ?o }"), 3,
+                reformulator.getQueryLoggerFactory().create(ImmutableMultimap.of()));
+        assertEquals(3, executableQueries.size());
+    }
+
+    @Test
+    public void testBranchesAreCached() throws Exception {
+        QueryReformulator reformulator = getConfiguration().loadQueryReformulator();
+        String query = NAME_OR_COUNTRY_QUERY.replace("?v", "?w");
+        ImmutableList<IQ> executableQueries = reformulator.reformulateIntoUnionBranchNativeQueries(
+                reformulator.getInputQueryFactory().createSelectQuery(query), 3,
+                reformulator.getQueryLoggerFactory().create(ImmutableMultimap.of()));
+        assertEquals(2, executableQueries.size());
+
+        assertSame(executableQueries, reformulator.reformulateIntoUnionBranchNativeQueries(
+                reformulator.getInputQueryFactory().createSelectQuery(query), 3,
+                reformulator.getQueryLoggerFactory().create(ImmutableMultimap.of())));
+    }
+
+    @Test
+    public void testDistinctIsNotSplit() throws Exception {
+        QueryReformulator reformulator = getConfiguration().loadQueryReformulator();
+        ImmutableList<IQ> executableQueries = reformulator.reformulateIntoUnionBranchNativeQueries(
+                reformulator.getInputQueryFactory().createSelectQuery(
+                        NAME_OR_COUNTRY_QUERY.replace("SELECT ?v", "SELECT DISTINCT ?v")), 3,
+                reformulator.getQueryLoggerFactory().create(ImmutableMultimap.of()));
+        assertEquals(1, executableQueries.size());
+
+        assertEquals(ImmutableSet.of("Roger", "Anna", "Hans", "O'Neil", "it", "de", "ie"),
+                ImmutableSet.copyOf(runQuery(NAME_OR_COUNTRY_QUERY.replace("SELECT ?v", "SELECT DISTINCT ?v"))));
+    }
+
+    @Test
+    public void testLimit() {
+        assertEquals(5, runQueryAndCount("SELECT * WHERE { ?s ?p ?o } LIMIT 5"));
+    }
+
+    /**
+     * The connections of the branches must be released
+     */
+    @Test
+    public void testEarlyClose() {
+        for (int i = 0; i < 30; i++) {
+            try (TupleQueryResult result = getRepositoryConnection()
+                    .prepareTupleQuery(QueryLanguage.SPARQL, "SELECT * WHERE { ?s ?p ?o }")
+                    .evaluate()) {
+                assertTrue(result.hasNext());
+                result.next();
+            }
+        }
+        assertEquals(15, runQueryAndCount("SELECT * WHERE { ?s ?p ?o }"));
+    }
+}
@@ -0,0 +1,116 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+public class ParameterizedQueryCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/parameterized-cache/parameterized-cache.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testFilterEquality() {
+        runQueryAndCompare(createFilterQuery("it"), ImmutableList.of("Anna", "Roger"));
+        runQueryAndCompare(createFilterQuery("de"), ImmutableList.of("Hans"));
+        runQueryAndCompare(createFilterQuery("fr"), ImmutableList.of());
+        runQueryAndCompare(createFilterQuery("it"), ImmutableList.of("Anna", "Roger"));
+    }
+
+    private static String createFilterQuery(String country) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country ?c . \n" +
+                " FILTER (?c = \"" + country + "\")\n" +
+                "}\n" +
+                "ORDER BY ?v";
+    }
+
+    @Test
+    public void testTripleObject() {
+        runQueryAndCompare(createTripleObjectQuery("Hans"), ImmutableList.of("de"));
+        runQueryAndCompare(createTripleObjectQuery("Roger"), ImmutableList.of("it"));
+    }
+
+    /**
+     * Values with quotes are not parameterized
+     */
+    @Test
+    public void testTripleObjectWithQuote() {
+        runQueryAndCompare(createTripleObjectQuery("Anna"), ImmutableList.of("it"));
+        runQueryAndCompare(createTripleObjectQuery("O'Neil"), ImmutableList.of("ie"));
+    }
+
+    private static String createTripleObjectQuery(String name) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name \"" + name.replace("'", "\\'") + "\" ; :country ?v . \n" +
+                "}";
+    }
+
+    /**
+     * The reformulation depends on the value, as the property is mapped to a constant:
+     * the shape must not be reused.
+     */
+    @Test
+    public void testConstantInMapping() {
+        runQueryAndCompare(createStatusQuery("active"), ImmutableList.of("Hans", "O'Neil", "Roger"));
+        runQueryAndCompare(createStatusQuery("inactive"), ImmutableList.of());
+        runQueryAndCompare(createStatusQuery("active"), ImmutableList.of("Hans", "O'Neil", "Roger"));
+    }
+
+    @Test
+    public void testConstantInMappingFirstUnmatched() {
+        runQueryAndCompare(createStatusQuery("retired"), ImmutableList.of());
+        runQueryAndCompare(createStatusQuery("active"), ImmutableList.of("Hans", "O'Neil", "Roger"));
+    }
+
+    /**
+     * The template registered for "it" has no branch for the status (pruned, as "it" differs from the constant
+     * "active" of the mapping). It must not be reused for "active".
+     */
+    @Test
+    public void testConstantInMappingUnion() {
+        runQueryAndCompare(createStatusOrCountryQuery("it"), ImmutableList.of("Anna", "Roger"));
+        runQueryAndCompare(createStatusOrCountryQuery("active"), ImmutableList.of("Hans", "O'Neil", "Roger"));
+        runQueryAndCompare(createStatusOrCountryQuery("de"), ImmutableList.of("Hans"));
+        runQueryAndCompare(createStatusOrCountryQuery("active"), ImmutableList.of("Hans", "O'Neil", "Roger"));
+    }
+
+    private static String createStatusOrCountryQuery(String value) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v . \n" +
+                " { ?p :status \"" + value + "\" } UNION { ?p :country \"" + value + "\" } \n" +
+                "}\n" +
+                "ORDER BY ?v";
+    }
+
+    private static String createStatusQuery(String status) {
+        return "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :status ?s . \n" +
+                " FILTER (?s = \"" + status + "\")\n" +
+                "}\n" +
+                "ORDER BY ?v";
+    }
+}
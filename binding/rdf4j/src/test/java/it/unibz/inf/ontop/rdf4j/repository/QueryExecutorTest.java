@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * More concurrent queries than admitted by the query executor: the others are run by the threads of the callers.
+ */
+public class QueryExecutorTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/query-executor/query-executor.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        String query = "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country \"it\" . \n" +
+                "}\n" +
+                "ORDER BY ?v";
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ImmutableList<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(clients.submit(() -> runQuery(query)));
+            }
+            for (Future<ImmutableList<String>> result : results) {
+                assertEquals(ImmutableList.of("Anna", "Roger"), result.get());
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * The query log is written asynchronously to a file
+ */
+public class QueryLoggingTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/query-logging/query-logging.properties";
+    private static final Path LOG_FILE = Paths.get("target/query-logging/query-log.json");
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Files.deleteIfExists(LOG_FILE);
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testMergedMessage() throws Exception {
+        String query = "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country \"it\" . \n" +
+                "}\n" +
+                "ORDER BY ?v";
+
+        assertEquals(ImmutableList.of("Anna", "Roger"), runQuery(query));
+
+        JsonNode message = waitForMergedMessage(":country");
+        JsonNode payload = message.get("payload");
+        assertEquals(2, payload.get("resultCount").asLong());
+        assertTrue(payload.has("reformulationDuration"));
+        assertTrue(payload.has("executionBeforeUnblockingDuration"));
+    }
+
+    /**
+     * All the union branches evaluated in parallel are logged
+     */
+    @Test
+    public void testUnionBranches() throws Exception {
+        String query = "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " { ?p :name ?v } UNION { ?p :country ?v }\n" +
+                "}";
+
+        assertEquals(8, runQueryAndCount(query));
+
+        JsonNode payload = waitForMergedMessage("UNION").get("payload");
+        assertEquals(2, payload.get("reformulatedQueries").size());
+        assertFalse(payload.has("reformulatedQuery"));
+    }
+
+    /**
+     * The background thread of the query log is stopped when the repository is shut down
+     */
+    @Test
+    public void testShutDown() {
+        OntopRepository repository = OntopRepository.defaultRepository(getConfiguration());
+        repository.init();
+        try (RepositoryConnection connection = repository.getConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                     "PREFIX : <http://person.example.org/>\n" +
+                             "SELECT ?v WHERE { ?p :name ?v }").evaluate()) {
+            while (result.hasNext())
+                result.next();
+        }
+        assertTrue(isQueryLogThreadAlive());
+
+        repository.shutDown();
+        assertFalse(isQueryLogThreadAlive());
+    }
+
+    private static boolean isQueryLogThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals("ontop-query-log") && t.isAlive());
+    }
+
+    /**
+     * First merged message of a SPARQL query containing the given string
+     */
+    private static JsonNode waitForMergedMessage(String sparqlFragment) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i = 0; i < 100; i++) {
+            if (Files.exists(LOG_FILE)) {
+                List<String> lines = Files.readAllLines(LOG_FILE, StandardCharsets.UTF_8);
+                Optional<JsonNode> message = lines.stream()
+                        .map(l -> parse(mapper, l))
+                        .filter(m -> m.get("message").asText().equals("query:all"))
+                        .filter(m -> m.get("payload").get("sparqlQuery").asText().contains(sparqlFragment))
+                        .findFirst();
+                if (message.isPresent())
+                    return message.get();
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No merged message found in the query log");
+    }
+
+    private static JsonNode parse(ObjectMapper mapper, String line) {
+        try {
+            return mapper.readTree(line);
+        } catch (IOException e) {
+            throw new AssertionError("Invalid JSON line in the query log: " + line);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics.ReformulationPhase;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryMetricsTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testCachedQuery() {
+        String query = "PREFIX : <http://person.example.org/>\n" +
+                "SELECT ?v \n" +
+                "WHERE {\n" +
+                " ?p :name ?v ; :country \"it\" . \n" +
+                "}\n" +
+                "ORDER BY ?v";
+
+        assertEquals(ImmutableList.of("Anna", "Roger"), runQuery(query));
+        assertEquals(ImmutableList.of("Anna", "Roger"), runQuery(query));
+
+        QueryMetrics metrics = getConfiguration().getInjector().getInstance(QueryMetrics.class);
+        assertEquals(1, metrics.getCacheHitCount());
+        assertEquals(1, metrics.getCacheMissCount());
+        assertEquals(0.5, metrics.getCacheHitRatio(), 0.0);
+        for (ReformulationPhase phase : ReformulationPhase.values())
+            assertEquals(phase.name(), 1, metrics.getPhaseHistogram(phase).getCount());
+        assertEquals(2, metrics.getExecutionHistogram().getCount());
+        assertEquals(2, metrics.getFetchingHistogram().getCount());
+        assertEquals(4, metrics.getFetchedRowCount());
+        assertTrue(metrics.getFetchedRowsPerSecond() > 0);
+        assertEquals(0, metrics.getActiveQueryCount());
+    }
+}
@@ -0,0 +1,104 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Result cache enabled, over the 4 persons (15 triples)
+ */
+public class ResultCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+    private static final String PROPERTIES_FILE = "/result-cache/result-cache.properties";
+
+    private static final String PREFIX = "PREFIX : <http://person.example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testRepeatedQuery() {
+        String query = PREFIX +
+                "SELECT ?v WHERE {\n" +
+                " ?p :name ?v ; :country \"de\" .\n" +
+                "}";
+
+        long hitCount = getMetrics().getResultCacheHitCount();
+        assertEquals(ImmutableList.of("Hans"), runQuery(query));
+        assertEquals(ImmutableList.of("Hans"), runQuery(query));
+        assertEquals(ImmutableList.of("Hans"), runQuery(query));
+        assertEquals(hitCount + 2, getMetrics().getResultCacheHitCount());
+    }
+
+    /**
+     * Same SQL query, different values of the bind parameters
+     */
+    @Test
+    public void testParameters() {
+        String query = PREFIX +
+                "SELECT ?v WHERE {\n" +
+                " ?p :name ?v ; :country \"%s\" .\n" +
+                "}\n" +
+                "ORDER BY ?v";
+
+        assertEquals(ImmutableList.of("Anna", "Roger"), runQuery(String.format(query, "it")));
+        assertEquals(ImmutableList.of("O'Neil"), runQuery(String.format(query, "ie")));
+        assertEquals(ImmutableList.of("Anna", "Roger"), runQuery(String.format(query, "it")));
+        assertEquals(ImmutableList.of("O'Neil"), runQuery(String.format(query, "ie")));
+    }
+
+    @Test
+    public void testNowIsNotCached() {
+        String query = PREFIX +
+                "SELECT ?v ?t WHERE {\n" +
+                " ?p :name ?v .\n" +
+                " BIND(NOW() AS ?t)\n" +
+                "}";
+
+        long hitCount = getMetrics().getResultCacheHitCount();
+        long missCount = getMetrics().getResultCacheMissCount();
+        assertEquals(4, runQueryAndCount(query));
+        assertEquals(4, runQueryAndCount(query));
+        assertEquals(hitCount, getMetrics().getResultCacheHitCount());
+        assertEquals(missCount, getMetrics().getResultCacheMissCount());
+    }
+
+    /**
+     * Partially consumed results must not be cached
+     */
+    @Test
+    public void testEarlyClose() {
+        String query = "SELECT * WHERE { ?s ?p ?o }";
+        try (TupleQueryResult result = getRepositoryConnection()
+                .prepareTupleQuery(QueryLanguage.SPARQL, query)
+                .evaluate()) {
+            assertTrue(result.hasNext());
+            result.next();
+        }
+        assertEquals(15, runQueryAndCount(query));
+        assertEquals(15, runQueryAndCount(query));
+    }
+
+    private static QueryMetrics getMetrics() {
+        return getConfiguration().getInjector().getInstance(QueryMetrics.class);
+    }
+}
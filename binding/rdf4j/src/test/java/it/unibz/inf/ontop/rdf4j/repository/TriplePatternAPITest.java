@@ -0,0 +1,120 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+/**
+ * getStatements(), hasStatement() and size() over the 4 persons (15 triples)
+ */
+public class TriplePatternAPITest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/parameterized-cache/mapping.obda";
+    private static final String SQL_SCRIPT = "/parameterized-cache/database.sql";
+
+    private static final String PREFIX = "http://person.example.org/";
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final IRI PERSON = VALUE_FACTORY.createIRI(PREFIX + "Person");
+    private static final IRI NAME = VALUE_FACTORY.createIRI(PREFIX + "name");
+    private static final IRI COUNTRY = VALUE_FACTORY.createIRI(PREFIX + "country");
+    private static final IRI STATUS = VALUE_FACTORY.createIRI(PREFIX + "status");
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testStatementsOfSubject() {
+        IRI anna = person(2);
+        assertEquals(ImmutableSet.of(
+                VALUE_FACTORY.createStatement(anna, RDF.TYPE, PERSON),
+                VALUE_FACTORY.createStatement(anna, NAME, VALUE_FACTORY.createLiteral("Anna")),
+                VALUE_FACTORY.createStatement(anna, COUNTRY, VALUE_FACTORY.createLiteral("it"))),
+                getStatements(anna, null, null));
+    }
+
+    @Test
+    public void testStatementsOfPredicateAndObject() {
+        assertEquals(ImmutableSet.of(
+                VALUE_FACTORY.createStatement(person(1), COUNTRY, VALUE_FACTORY.createLiteral("it")),
+                VALUE_FACTORY.createStatement(person(2), COUNTRY, VALUE_FACTORY.createLiteral("it"))),
+                getStatements(null, COUNTRY, VALUE_FACTORY.createLiteral("it")));
+
+        assertEquals(4, getStatements(null, RDF.TYPE, PERSON).size());
+    }
+
+    @Test
+    public void testFullyBoundStatement() {
+        Statement statement = VALUE_FACTORY.createStatement(person(4), NAME, VALUE_FACTORY.createLiteral("O'Neil"));
+        assertEquals(ImmutableSet.of(statement),
+                getStatements(statement.getSubject(), statement.getPredicate(), statement.getObject()));
+    }
+
+    @Test
+    public void testAllStatements() {
+        assertEquals(15, getStatements(null, null, null).size());
+    }
+
+    @Test
+    public void testNoStatement() {
+        assertEquals(ImmutableSet.of(), getStatements(person(5), null, null));
+        assertEquals(ImmutableSet.of(), getStatements(VALUE_FACTORY.createBNode(), null, null));
+
+        RepositoryConnection connection = getRepositoryConnection();
+        try (RepositoryResult<Statement> result = connection.getStatements(person(1), null, null, false,
+                VALUE_FACTORY.createIRI(PREFIX + "graph"))) {
+            assertFalse(result.hasNext());
+        }
+    }
+
+    @Test
+    public void testHasStatement() {
+        RepositoryConnection connection = getRepositoryConnection();
+        assertTrue(connection.hasStatement(person(3), STATUS, VALUE_FACTORY.createLiteral("active"), false));
+        assertFalse(connection.hasStatement(person(2), STATUS, null, false));
+        assertTrue(connection.hasStatement(null, NAME, VALUE_FACTORY.createLiteral("Hans"), false));
+        assertFalse(connection.hasStatement(null, NAME, VALUE_FACTORY.createLiteral("Hans", "de"), false));
+        assertFalse(connection.hasStatement(null, null, VALUE_FACTORY.createBNode(), false));
+    }
+
+    @Test
+    public void testSize() {
+        RepositoryConnection connection = getRepositoryConnection();
+        assertEquals(15, connection.size());
+        assertEquals(0, connection.size(VALUE_FACTORY.createIRI(PREFIX + "graph")));
+        assertFalse(connection.isEmpty());
+    }
+
+    private static IRI person(int id) {
+        return VALUE_FACTORY.createIRI(PREFIX + "person/" + id);
+    }
+
+    private static ImmutableSet<Statement> getStatements(Resource subject, IRI predicate, Value object) {
+        try (RepositoryResult<Statement> result = getRepositoryConnection().getStatements(subject, predicate, object,
+                false)) {
+            return ImmutableSet.copyOf(Iterations.asList(result));
+        }
+    }
+}
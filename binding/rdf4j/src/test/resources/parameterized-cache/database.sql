@@ -0,0 +1,10 @@
+CREATE TABLE "person" (
+    "id" integer PRIMARY KEY,
+    "name" varchar(100) NOT NULL,
+    "country" varchar(10) NOT NULL,
+    "active" boolean NOT NULL
+);
+INSERT INTO "person" VALUES (1, 'Roger', 'it', true);
+INSERT INTO "person" VALUES (2, 'Anna', 'it', false);
+INSERT INTO "person" VALUES (3, 'Hans', 'de', true);
+INSERT INTO "person" VALUES (4, 'O''Neil', 'ie', true);
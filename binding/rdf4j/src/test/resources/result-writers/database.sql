@@ -0,0 +1,13 @@
+CREATE TABLE "book" (
+    "id" integer PRIMARY KEY,
+    "title" varchar(100) NOT NULL,
+    "lang" varchar(10) NOT NULL,
+    "pages" integer,
+    "price" decimal(10,2),
+    "publisher" integer
+);
+INSERT INTO "book" VALUES (1, 'Il nome della rosa', 'it', 512, 12.50, 1);
+INSERT INTO "book" VALUES (2, 'Quotes "double", ''single'' & <tags>', 'en', NULL, 9.99, NULL);
+INSERT INTO "book" VALUES (3, STRINGDECODE('Tab\tand\nnewline\r\n'), 'en', 10, NULL, 1);
+INSERT INTO "book" VALUES (4, STRINGDECODE('\u00dcn\u00efc\u00f6d\u00e9 \u2014 \u65e5\u672c\u8a9e \ud834\udd1e'), 'ja', 300, 20.00, 2);
+INSERT INTO "book" VALUES (5, 'Back\slash, comma', 'de', 42, 0.50, 2);
@@ -49,9 +49,6 @@ public class Ontop {
                         OntopValidate.class,
                         OntopEndpoint.class,
                         OntopExtractDBMetadata.class,
-                        /**
-                         * hidden commands
-                         */
                         OntopCompile.class
                 );
 
@@ -21,14 +21,88 @@ package it.unibz.inf.ontop.cli;
  */
 
 import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+
+import java.io.File;
 
 @Command(name = "compile",
-        description = "compile the ontology axioms into  mappings",
-        hidden = true)
-public class OntopCompile implements OntopCommand {
+        description = "Compile the mapping, the ontology and the DB metadata into an OBDA specification snapshot " +
+                "(to be loaded by the endpoint)")
+public class OntopCompile extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-x", "--xml-catalog"}, title = "xml catalog file",
+            description = "XML Catalog file (e.g. catalog-v001.xml generated by Protege) for redirecting ontologies imported by owl:imports")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String xmlCatalogFile;
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"}, title = "output",
+            description = "OBDA specification snapshot file")
+    @Required
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String outputFile;
 
     @Override
     public void run() {
+        // The snapshot is rebuilt
+        File snapshotFile = new File(outputFile);
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            System.err.format("ERROR: Cannot overwrite %s\n", outputFile);
+            System.exit(1);
+        }
+
+        // NB: must be configured like the endpoint, as the properties are part of the fingerprint of the snapshot
+        OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder =
+                OntopSQLOWLAPIConfiguration.defaultBuilder()
+                        .propertyFile(propertiesFile)
+                        .specificationSnapshotFile(outputFile);
+
+        if (isR2rmlFile(mappingFile))
+            builder.r2rmlMappingFile(mappingFile);
+        else
+            builder.nativeOntopMappingFile(mappingFile);
+
+        if (owlFile != null)
+            builder.ontologyFile(owlFile);
+
+        if (xmlCatalogFile != null)
+            builder.xmlCatalogFile(xmlCatalogFile);
+
+        if (constraintFile != null)
+            builder.basicImplicitConstraintFile(constraintFile);
+
+        if (dbMetadataFile != null)
+            builder.dbMetadataFile(dbMetadataFile);
+
+        if (ontopViewFile != null)
+            builder.ontopViewFile(ontopViewFile);
+
+        if (dbUser != null)
+            builder.jdbcUser(dbUser);
+
+        if (dbPassword != null)
+            builder.jdbcPassword(dbPassword);
+
+        if (dbUrl != null)
+            builder.jdbcUrl(dbUrl);
+
+        try {
+            builder.build().loadSpecification();
+        }
+        catch (OBDASpecificationException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
 
+        if (!snapshotFile.exists()) {
+            System.err.format("ERROR: The OBDA specification snapshot could not be written into %s\n", outputFile);
+            System.exit(1);
+        }
+        System.out.format("OBDA specification compiled into %s\n", outputFile);
     }
 }
@@ -37,6 +37,16 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
             description = "development mode")
     private boolean dev = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--enable-metrics"}, title = "enable metrics",
+            description = "exposes the query metrics in the Prometheus format (/ontop/metrics) and to Micrometer")
+    private boolean enableMetrics = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--specification-snapshot"}, title = "OBDA specification snapshot file",
+            description = "OBDA specification snapshot file (see the compile command). " +
+                    "Used instead of the mapping, the ontology, etc. as long as they are unchanged")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String specificationSnapshotFile;
+
     @Option(type = OptionType.COMMAND, name = {"--predefined-config"}, title = "predefined query JSON config file",
             description = "predefined query config file")
     @RequiredOnlyIf(names = {"--predefined-queries"})
@@ -62,7 +72,8 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
                 "--properties=" + this.propertiesFile,
                 "--port=" + this.port,
                 "--lazy=" + this.lazy,
-                "--dev=" + this.dev);
+                "--dev=" + this.dev,
+                "--enable-metrics=" + this.enableMetrics);
 
         if (this.corsAllowedOrigins != null)
             argList.add("--cors-allowed-origins=" + this.corsAllowedOrigins);
@@ -82,6 +93,9 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
         if (this.ontopViewFile != null)
             argList.add("--ontop-views=" + this.ontopViewFile);
 
+        if (this.specificationSnapshotFile != null)
+            argList.add("--specification-snapshot=" + this.specificationSnapshotFile);
+
         if (this.portalFile != null)
             argList.add("--portal=" + this.portalFile);
 
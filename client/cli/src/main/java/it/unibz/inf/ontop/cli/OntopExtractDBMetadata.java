@@ -27,6 +27,11 @@ public class OntopExtractDBMetadata implements OntopCommand {
             title = "output", description = "output file")
     private String outputFile;
 
+    @Option(type = OptionType.COMMAND, name = {"-c", "--cached-db-metadata"}, title = "cached db-metadata file",
+            description = "DB metadata file produced by a previous extraction: only the relations that have changed since then are extracted again")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    private String cachedDBMetadataFile;
+
     @Override
     public void run() {
         OntopMappingSQLConfiguration configuration = OntopMappingSQLConfiguration.defaultBuilder()
@@ -38,7 +43,14 @@ public class OntopExtractDBMetadata implements OntopCommand {
                 DBMetadataExtractorAndSerializer.class);
 
         try {
-            String payload = extractorAndSerializer.extractAndSerialize();
+            String payload;
+            if (cachedDBMetadataFile != null) {
+                try (Reader cachedDBMetadataReader = new FileReader(cachedDBMetadataFile)) {
+                    payload = extractorAndSerializer.extractAndSerialize(cachedDBMetadataReader);
+                }
+            }
+            else
+                payload = extractorAndSerializer.extractAndSerialize();
 
             OutputStream out = outputFile == null
                     ? System.out
@@ -6,13 +6,19 @@ import com.github.rvesse.airline.annotations.Option;
 import com.github.rvesse.airline.annotations.OptionType;
 import com.github.rvesse.airline.annotations.restrictions.AllowedValues;
 import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
 import it.unibz.inf.ontop.injection.impl.OntopModelConfigurationImpl;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
+import it.unibz.inf.ontop.materialization.impl.NTriplesFactWriter;
 import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
+import it.unibz.inf.ontop.rdf4j.query.MaterializationGraphQuery;
 import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.rio.RDFHandler;
@@ -30,13 +36,20 @@ import javax.annotation.Nullable;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.nio.charset.Charset;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import static it.unibz.inf.ontop.injection.OntopSQLCoreSettings.JDBC_URL;
 import static it.unibz.inf.ontop.injection.OntopSQLCredentialSettings.JDBC_PASSWORD;
@@ -71,6 +84,9 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private static final String NTRIPLES = "ntriples";
     private static final String NQUADS = "nquads";
     private static final String TRIG = "trig";
+    private static final String NO_COMPRESSION = "none";
+    private static final String GZIP = "gzip";
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
 
     @Option(type = OptionType.COMMAND, override = true, name = {"-o", "--output"},
             title = "output", description = "output file (default) or prefix (only for --separate-files)")
@@ -93,16 +109,40 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--workers"}, title = "number of workers",
+            description = "Number of classes/properties materialized concurrently, each with its own DB connection. " +
+                    "Should not exceed the size of the connection pool. Default: 1.")
+    private int workers = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--partitions"}, title = "number of partitions",
+            description = "Number of sub-queries into which each class/property is split (based on an integer key " +
+                    "of its source tables), so that large classes/properties are materialized by several workers. " +
+                    "Requires --workers. Not with --separate-files. Default: 1.")
+    private int partitions = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--compression"}, title = "compression",
+            description = "Compression of the output files. Default: none.")
+    @AllowedValues(allowedValues = {NO_COMPRESSION, GZIP})
+    private String compression = NO_COMPRESSION;
+
+    @Option(type = OptionType.COMMAND, name = {"--checkpoint"}, title = "checkpoint file",
+            description = "File recording the classes/properties already materialized, which are skipped " +
+                    "when the materialization is resumed. Only with --separate-files.")
+    private String checkpointFile;
+
     public OntopMaterialize() {
     }
 
     @Override
     public void run() {
 
-        RDF4JMaterializer materializer = createMaterializer();
+        if (checkpointFile != null && !separate)
+            throw new InvalidOntopConfigurationException("The checkpoint option requires --separate-files");
+
+        OntopRDFMaterializer materializer = createMaterializer();
         OutputSpec outputSpec = (outputFile == null) ?
-                new OutputSpec(format) :
-                new OutputSpec(outputFile, format);
+                new OutputSpec(format, compression) :
+                new OutputSpec(outputFile, format, compression);
         if (separate) {
             runWithSeparateFiles(materializer, outputSpec);
         } else {
@@ -110,18 +150,25 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         }
     }
 
-    private RDF4JMaterializer createMaterializer() {
+    private OntopRDFMaterializer createMaterializer() {
 
-        RDF4JMaterializer materializer;
+        OntopRDFMaterializer materializer;
         try {
             OWLOntology ontology = loadOntology();
             OntopSQLOWLAPIConfiguration materializerConfiguration = createAndInitConfigurationBuilder()
                     .ontology(ontology)
                     .build();
-            materializer = RDF4JMaterializer.defaultMaterializer(
+            MaterializationParams.Builder<?> paramsBuilder = MaterializationParams.defaultBuilder();
+            // With separate files, the classes/properties are materialized concurrently by the command itself
+            if (!separate)
+                paramsBuilder.workerCount(workers)
+                        .partitionCount(partitions);
+            if (checkpointFile != null)
+                paramsBuilder.checkpointFile(new File(checkpointFile));
+
+            materializer = OntopRDFMaterializer.defaultMaterializer(
                     materializerConfiguration,
-                    MaterializationParams.defaultBuilder()
-                            .build()
+                    paramsBuilder.build()
             );
         } catch (OBDASpecificationException | OWLOntologyCreationException e) {
             throw new RuntimeException(e);
@@ -140,21 +187,30 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         return OWLManager.createOWLOntologyManager().createOntology();
     }
 
-    private void runWithSingleFile(RDF4JMaterializer materializer, OutputSpec outputSpec) {
+    private void runWithSingleFile(OntopRDFMaterializer materializer, OutputSpec outputSpec) {
         int tripleCount = 0;
 
         final long startTime = System.currentTimeMillis();
 
-        GraphQueryResult result = materializer.materialize().evaluate();
-
         try {
-            BufferedWriter writer = outputSpec.createWriter(Optional.empty());
-            tripleCount += serializeTripleBatch(
-                    result,
-                    Optional.empty(),
-                    writer,
-                    outputSpec.createRDFHandler(writer)
-            );
+            if (outputSpec.isNTriplesOrNQuads()) {
+                try (MaterializedGraphResultSet resultSet = materializer.materialize()) {
+                    tripleCount += serializeFactBatch(
+                            resultSet,
+                            Optional.empty(),
+                            outputSpec.createFactWriter(Optional.empty()));
+                }
+            }
+            else {
+                GraphQueryResult result = RDF4JMaterializer.defaultMaterializer(materializer).materialize().evaluate();
+                BufferedWriter writer = outputSpec.createWriter(Optional.empty());
+                tripleCount += serializeTripleBatch(
+                        result,
+                        Optional.empty(),
+                        writer,
+                        outputSpec.createRDFHandler(writer)
+                );
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -166,38 +222,55 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         System.out.println("Elapsed time to materialize: " + time + " {ms}");
     }
 
-    private void runWithSeparateFiles(RDF4JMaterializer materializer, OutputSpec outputSpec) {
+    private void runWithSeparateFiles(OntopRDFMaterializer materializer, OutputSpec outputSpec) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
         try {
-            materializeClassesByFile(materializer, outputSpec);
-            materializePropertiesByFile(materializer, outputSpec);
+            List<Future<?>> futures = new ArrayList<>();
+            materializeClassesByFile(materializer, outputSpec, executor, futures);
+            materializePropertiesByFile(materializer, outputSpec, executor, futures);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private void materializeClassesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
+    private void materializeClassesByFile(OntopRDFMaterializer materializer, OutputSpec outputSpec,
+                                          ExecutorService executor, List<Future<?>> futures) {
         ImmutableSet<IRI> classes = materializer.getClasses();
         int total = classes.size();
         AtomicInteger i = new AtomicInteger();
         for (IRI c : classes) {
-            serializePredicate(materializer, c, PredicateType.CLASS, i.incrementAndGet(), total, outputSpec);
+            futures.add(executor.submit(() -> {
+                serializePredicate(materializer, c, PredicateType.CLASS, i.incrementAndGet(), total, outputSpec);
+                return null;
+            }));
         }
     }
 
-    private void materializePropertiesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
+    private void materializePropertiesByFile(OntopRDFMaterializer materializer, OutputSpec outputSpec,
+                                             ExecutorService executor, List<Future<?>> futures) {
         ImmutableSet<IRI> properties = materializer.getProperties();
 
         int total = properties.size();
         AtomicInteger i = new AtomicInteger();
         for (IRI p : properties) {
-            serializePredicate(materializer, p, PredicateType.PROPERTY, i.incrementAndGet(), total, outputSpec);
+            futures.add(executor.submit(() -> {
+                serializePredicate(materializer, p, PredicateType.PROPERTY, i.incrementAndGet(), total, outputSpec);
+                return null;
+            }));
         }
     }
 
     /**
      * Serializes the A-box corresponding to a predicate into one or multiple file.
      */
-    private void serializePredicate(RDF4JMaterializer materializer, IRI predicateIRI,
+    private void serializePredicate(OntopRDFMaterializer materializer, IRI predicateIRI,
                                     PredicateType predicateType, int index, int total,
                                     OutputSpec outputSpec) throws Exception {
         final long startTime = System.currentTimeMillis();
@@ -212,17 +285,35 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         String fileSubstring = predicateIRI.toString().replaceAll("[^a-zA-Z0-9]", "_")
                 + predicateType.getCode() + "_";
 
-        GraphQueryResult result = materializer.materialize(ImmutableSet.of(predicateIRI)).evaluate();
-
-        while (result.hasNext()) {
-            BufferedWriter writer = outputSpec.createWriter(Optional.of(fileSubstring + fileCount));
-            tripleCount += serializeTripleBatch(
-                    result,
-                    Optional.of(TRIPLE_LIMIT_PER_FILE),
-                    writer,
-                    outputSpec.createRDFHandler(writer)
-            );
-            fileCount++;
+        // The checkpoint is only committed once all the files of the predicate have been flushed and closed
+        if (outputSpec.isNTriplesOrNQuads()) {
+            try (MaterializedGraphResultSet resultSet = materializer.materialize(ImmutableSet.of(predicateIRI))) {
+                while (resultSet.hasNext()) {
+                    tripleCount += serializeFactBatch(
+                            resultSet,
+                            Optional.of(TRIPLE_LIMIT_PER_FILE),
+                            outputSpec.createFactWriter(Optional.of(fileSubstring + fileCount)));
+                    fileCount++;
+                }
+                resultSet.commitCheckpoint();
+            }
+        }
+        else {
+            MaterializationGraphQuery query = RDF4JMaterializer.defaultMaterializer(materializer)
+                    .materialize(ImmutableSet.of(predicateIRI));
+            try (GraphQueryResult result = query.evaluate()) {
+                while (result.hasNext()) {
+                    BufferedWriter writer = outputSpec.createWriter(Optional.of(fileSubstring + fileCount));
+                    tripleCount += serializeTripleBatch(
+                            result,
+                            Optional.of(TRIPLE_LIMIT_PER_FILE),
+                            writer,
+                            outputSpec.createRDFHandler(writer)
+                    );
+                    fileCount++;
+                }
+                query.commitCheckpoint();
+            }
         }
 
         System.out.println("NR of TRIPLES: " + tripleCount);
@@ -248,6 +339,25 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         return tripleCount;
     }
 
+    /**
+     * Serializes a batch of facts into one N-Triples/N-Quads file, without converting them into RDF4J statements.
+     * Upper bound: TRIPLE_LIMIT_PER_FILE.
+     */
+    private int serializeFactBatch(MaterializedGraphResultSet resultSet, Optional<Integer> limitPerFile,
+                                   NTriplesFactWriter writer)
+            throws IOException, OntopQueryAnsweringException, OntopConnectionException {
+        int tripleCount = 0;
+        try {
+            while (resultSet.hasNext() && (!limitPerFile.isPresent() || tripleCount < limitPerFile.get())) {
+                writer.write(resultSet.next());
+                tripleCount++;
+            }
+        } finally {
+            writer.close();
+        }
+        return tripleCount;
+    }
+
     /**
      * Mapping file + connection info
      */
@@ -315,29 +425,55 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private class OutputSpec {
         private final Optional<String> prefix;
         private final String format;
+        private final String compression;
+        // For anonymizing the blank nodes consistently across the files
+        private final byte[] salt;
 
-        private OutputSpec(String prefix, String format) {
-            this.prefix = Optional.of(removeExtension(prefix));
-            this.format = format;
+        private OutputSpec(String prefix, String format, String compression) {
+            this(Optional.of(removeExtension(prefix)), format, compression);
         }
 
-        private OutputSpec(String format) {
-            this.prefix = Optional.empty();
+        private OutputSpec(String format, String compression) {
+            this(Optional.empty(), format, compression);
+        }
+
+        private OutputSpec(Optional<String> prefix, String format, String compression) {
+            this.prefix = prefix;
             this.format = format;
+            this.compression = compression;
+            this.salt = new byte[20];
+            new SecureRandom().nextBytes(salt);
         }
 
         // We need a direct access to the writer to close it (cannot be done via the RDFHandler)
         private BufferedWriter createWriter(Optional<String> prefixExtension) throws IOException {
+            return new BufferedWriter(new OutputStreamWriter(createOutputStream(prefixExtension), StandardCharsets.UTF_8));
+        }
+
+        private NTriplesFactWriter createFactWriter(Optional<String> prefixExtension) throws IOException {
+            return new NTriplesFactWriter(Channels.newChannel(createOutputStream(prefixExtension)),
+                    format.equals(NQUADS), salt);
+        }
+
+        private boolean isNTriplesOrNQuads() {
+            return format.equals(NTRIPLES) || format.equals(NQUADS);
+        }
+
+        private OutputStream createOutputStream(Optional<String> prefixExtension) throws IOException {
+            OutputStream outputStream;
             if (prefix.isPresent()) {
-                String suffix = getSuffix();
-                return Files.newBufferedWriter(
+                String suffix = getSuffix() + (compression.equals(GZIP) ? ".gz" : "");
+                outputStream = Files.newOutputStream(
                         prefixExtension.isPresent() ?
                                 Paths.get(prefix.get(), prefixExtension.get() + suffix) :
-                                Paths.get(prefix.get() + suffix),
-                        Charset.forName("UTF-8")
-                );
+                                Paths.get(prefix.get() + suffix));
             }
-            return new BufferedWriter(new OutputStreamWriter(System.out, "UTF-8"));
+            else
+                outputStream = System.out;
+
+            return compression.equals(GZIP)
+                    ? new GZIPOutputStream(outputStream, OUTPUT_BUFFER_SIZE)
+                    : outputStream;
         }
 
         private String getSuffix() {
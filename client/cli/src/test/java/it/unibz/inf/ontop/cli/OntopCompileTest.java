@@ -0,0 +1,89 @@
+package it.unibz.inf.ontop.cli;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationSnapshotSerializer;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OntopCompileTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+
+    private static final String SNAPSHOT_FILE = "src/test/resources/output/exampleBooks.bin";
+
+    @Test
+    public void testOntopHelp(){
+        Ontop.main("help", "compile");
+    }
+
+    @Test
+    public void testOntopCompile() throws Exception {
+        Ontop.main("compile", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-o", SNAPSHOT_FILE);
+
+        assertTrue(new File(SNAPSHOT_FILE).exists());
+
+        OBDASpecification specification = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile("src/test/resources/books/exampleBooks.obda")
+                .ontologyFile("src/test/resources/books/exampleBooks.owl")
+                .propertyFile("src/test/resources/books/exampleBooks.properties")
+                .build()
+                .loadSpecification();
+
+        OntopSQLOWLAPIConfiguration snapshotConfiguration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile("src/test/resources/books/exampleBooks.obda")
+                .ontologyFile("src/test/resources/books/exampleBooks.owl")
+                .propertyFile("src/test/resources/books/exampleBooks.properties")
+                .specificationSnapshotFile(SNAPSHOT_FILE)
+                .build();
+
+        // Loaded directly: loadSpecification() silently falls back to the extraction when the snapshot cannot be read
+        OBDASpecificationSnapshotSerializer serializer = snapshotConfiguration.getInjector()
+                .getInstance(OBDASpecificationSnapshotSerializer.class);
+        Optional<OBDASpecification> optionalLoadedSpecification = serializer.load(new File(SNAPSHOT_FILE),
+                readInputFingerprint(SNAPSHOT_FILE));
+        assertTrue(optionalLoadedSpecification.isPresent());
+        OBDASpecification loadedSpecification = optionalLoadedSpecification.get();
+
+        assertEquals(serializeMapping(specification.getSaturatedMapping()),
+                serializeMapping(loadedSpecification.getSaturatedMapping()));
+        assertEquals(specification.getSaturatedTBox().classesDAG().stream().count(),
+                loadedSpecification.getSaturatedTBox().classesDAG().stream().count());
+    }
+
+    /**
+     * Header: magic number, format version, Ontop version and input fingerprint
+     */
+    private static String readInputFingerprint(String snapshotFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(snapshotFile))) {
+            in.readInt();
+            in.readInt();
+            in.readUTF();
+            return in.readUTF();
+        }
+    }
+
+    private static ImmutableSet<String> serializeMapping(Mapping mapping) {
+        return mapping.getRDFAtomPredicates().stream()
+                .flatMap(p -> mapping.getQueries(p).stream())
+                .map(Object::toString)
+                .collect(ImmutableCollectors.toSet());
+    }
+}
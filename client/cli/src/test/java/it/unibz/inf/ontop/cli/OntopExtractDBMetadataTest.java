@@ -22,5 +22,17 @@ public class OntopExtractDBMetadataTest {
                 "-o", "src/test/resources/output/exampleBooks-metadata.json");
     }
 
+    @Test
+    public void testOntopExtractDBMetadataWithCache(){
+        Ontop.main("extract-db-metadata",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-o", "src/test/resources/output/exampleBooks-metadata-cache.json");
+
+        Ontop.main("extract-db-metadata",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-c", "src/test/resources/output/exampleBooks-metadata-cache.json",
+                "-o", "src/test/resources/output/exampleBooks-metadata-incremental.json");
+    }
+
 
 }
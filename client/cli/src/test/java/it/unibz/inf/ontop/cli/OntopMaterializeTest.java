@@ -109,4 +109,35 @@ public class OntopMaterializeTest {
                 "-o", "src/test/resources/output/",
                 "--separate-files");
     }
+
+    @Test
+    public void testOntopMaterializeWithWorkers (){
+        Ontop.main("materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples",
+                "-o", "src/test/resources/output/exampleBooks.materialized.parallel.nt",
+                "--workers", "3");
+    }
+
+    @Test
+    public void testOntopMaterializeSeparatefilesWithWorkers (){
+        Ontop.main("materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples",
+                "-o", "src/test/resources/output/",
+                "--separate-files",
+                "--workers", "3");
+    }
+
+    @Test
+    public void testOntopMaterializeNQuadsGzip (){
+        Ontop.main("materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "nquads",
+                "-o", "src/test/resources/output/exampleBooks.materialized.nq",
+                "--compression", "gzip");
+    }
 }
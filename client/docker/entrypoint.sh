@@ -84,6 +84,10 @@ if [ "${ONTOP_VIEW_FILE+x}" ]; then
   args_array+=("--ontop-views=${ONTOP_VIEW_FILE}")
 fi
 
+if [ "${ONTOP_SPECIFICATION_SNAPSHOT_FILE+x}" ]; then
+  args_array+=("--specification-snapshot=${ONTOP_SPECIFICATION_SNAPSHOT_FILE}")
+fi
+
 if [ "${ONTOP_CORS_ALLOWED_ORIGINS+x}" ]; then
   args_array+=("--cors-allowed-origins=${ONTOP_CORS_ALLOWED_ORIGINS}")
 fi
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.endpoint.beans;
 
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
@@ -22,7 +23,8 @@ public class OntopVirtualRepositoryBean {
                                                              @Value("${ontop-views:#{null}}") String ontopViews,
                                                              @Value("${db-user:#{null}}") String dbUser,
                                                              @Value("${db-password:#{null}}") String dbPassword,
-                                                             @Value("${db-url:#{null}}") String dbUrl) throws RepositoryException {
+                                                             @Value("${db-url:#{null}}") String dbUrl,
+                                                             @Value("${specification-snapshot:#{null}}") String specificationSnapshot) throws RepositoryException {
         OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder = OntopSQLOWLAPIConfiguration.defaultBuilder()
                 .propertyFile(properties);
 
@@ -56,6 +58,9 @@ public class OntopVirtualRepositoryBean {
         if (dbUrl != null && !dbUrl.isEmpty())
             builder.jdbcUrl(dbUrl);
 
+        if (specificationSnapshot != null && !specificationSnapshot.isEmpty())
+            builder.specificationSnapshotFile(specificationSnapshot);
+
         return builder.build();
     }
 
@@ -70,4 +75,9 @@ public class OntopVirtualRepositoryBean {
 
         return repository;
     }
+
+    @Bean
+    private QueryMetrics setupQueryMetrics(OntopSystemConfiguration configuration) {
+        return configuration.getInjector().getInstance(QueryMetrics.class);
+    }
 }
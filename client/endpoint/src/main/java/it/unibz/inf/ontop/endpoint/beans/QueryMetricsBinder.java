@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import it.unibz.inf.ontop.answering.metrics.LatencyHistogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the query metrics of Ontop into the Micrometer registry of Spring Boot
+ */
+@Component
+@ConditionalOnExpression("${enable-metrics:false}")
+public class QueryMetricsBinder implements MeterBinder {
+
+    private final QueryMetrics queryMetrics;
+
+    @Autowired
+    public QueryMetricsBinder(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (QueryMetrics.ReformulationPhase phase : QueryMetrics.ReformulationPhase.values()) {
+            bindHistogram(registry, "ontop.reformulation.phase", queryMetrics.getPhaseHistogram(phase),
+                    "phase", phase.name().toLowerCase());
+        }
+        bindHistogram(registry, "ontop.query.execution", queryMetrics.getExecutionHistogram());
+        bindHistogram(registry, "ontop.query.fetching", queryMetrics.getFetchingHistogram());
+
+        FunctionCounter.builder("ontop.query.cache.hits", queryMetrics, QueryMetrics::getCacheHitCount)
+                .register(registry);
+        FunctionCounter.builder("ontop.query.cache.misses", queryMetrics, QueryMetrics::getCacheMissCount)
+                .register(registry);
+        Gauge.builder("ontop.query.cache.hit.ratio", queryMetrics, QueryMetrics::getCacheHitRatio)
+                .register(registry);
+        FunctionCounter.builder("ontop.query.result.cache.hits", queryMetrics, QueryMetrics::getResultCacheHitCount)
+                .register(registry);
+        FunctionCounter.builder("ontop.query.result.cache.misses", queryMetrics, QueryMetrics::getResultCacheMissCount)
+                .register(registry);
+        Gauge.builder("ontop.query.result.cache.hit.ratio", queryMetrics, QueryMetrics::getResultCacheHitRatio)
+                .register(registry);
+        Gauge.builder("ontop.query.active", queryMetrics, QueryMetrics::getActiveQueryCount)
+                .register(registry);
+        FunctionCounter.builder("ontop.query.fetched.rows", queryMetrics, QueryMetrics::getFetchedRowCount)
+                .register(registry);
+        Gauge.builder("ontop.query.fetched.rows.per.second", queryMetrics, QueryMetrics::getFetchedRowsPerSecond)
+                .register(registry);
+    }
+
+    private static void bindHistogram(MeterRegistry registry, String name, LatencyHistogram histogram,
+                                      String... tags) {
+        FunctionTimer.builder(name, histogram, LatencyHistogram::getCount,
+                LatencyHistogram::getTotalDurationInNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package it.unibz.inf.ontop.endpoint.controllers;
+
+import it.unibz.inf.ontop.answering.metrics.LatencyHistogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Query metrics in the Prometheus text exposition format (version 0.0.4).
+ * Durations are in seconds.
+ */
+@RestController
+@ConditionalOnExpression("${enable-metrics:false}")
+public class MetricsController {
+
+    private final QueryMetrics queryMetrics;
+
+    @Autowired
+    public MetricsController(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @RequestMapping(value = "/ontop/metrics")
+    @ResponseBody
+    public ResponseEntity<String> metrics() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CONTENT_TYPE, "text/plain; version=0.0.4; charset=UTF-8");
+
+        StringBuilder sb = new StringBuilder();
+
+        writeHeader(sb, "ontop_reformulation_phase_seconds", "histogram",
+                "Duration of the phases of the query reformulation");
+        for (QueryMetrics.ReformulationPhase phase : QueryMetrics.ReformulationPhase.values()) {
+            writeHistogram(sb, "ontop_reformulation_phase_seconds",
+                    "phase=\"" + phase.name().toLowerCase() + "\"", queryMetrics.getPhaseHistogram(phase));
+        }
+        writeHeader(sb, "ontop_query_execution_seconds", "histogram",
+                "Time waited for the DB, from the end of the reformulation until the result set is unblocked");
+        writeHistogram(sb, "ontop_query_execution_seconds", null, queryMetrics.getExecutionHistogram());
+        writeHeader(sb, "ontop_query_fetching_seconds", "histogram",
+                "Time spent fetching the results, after the unblocking of the result set");
+        writeHistogram(sb, "ontop_query_fetching_seconds", null, queryMetrics.getFetchingHistogram());
+
+        writeSample(sb, "ontop_query_cache_hits_total", "counter",
+                "Queries whose reformulation was obtained from the query cache", queryMetrics.getCacheHitCount());
+        writeSample(sb, "ontop_query_cache_misses_total", "counter",
+                "Queries reformulated from scratch", queryMetrics.getCacheMissCount());
+        writeSample(sb, "ontop_query_cache_hit_ratio", "gauge",
+                "Hit ratio of the query cache", queryMetrics.getCacheHitRatio());
+        writeSample(sb, "ontop_query_result_cache_hits_total", "counter",
+                "Queries whose results were obtained from the result cache", queryMetrics.getResultCacheHitCount());
+        writeSample(sb, "ontop_query_result_cache_misses_total", "counter",
+                "Cacheable queries whose results were obtained from the DB", queryMetrics.getResultCacheMissCount());
+        writeSample(sb, "ontop_query_result_cache_hit_ratio", "gauge",
+                "Hit ratio of the result cache", queryMetrics.getResultCacheHitRatio());
+        writeSample(sb, "ontop_query_active", "gauge",
+                "Queries being reformulated or executed", queryMetrics.getActiveQueryCount());
+        writeSample(sb, "ontop_query_fetched_rows_total", "counter",
+                "Rows fetched from the DB", queryMetrics.getFetchedRowCount());
+        writeSample(sb, "ontop_query_fetched_rows_per_second", "gauge",
+                "Rows fetched per second spent fetching", queryMetrics.getFetchedRowsPerSecond());
+
+        return new ResponseEntity<>(sb.toString(), headers, HttpStatus.OK);
+    }
+
+    private static void writeHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder sb, String name, String type, String help, double value) {
+        writeHeader(sb, name, type, help);
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void writeHistogram(StringBuilder sb, String name, String labels, LatencyHistogram histogram) {
+        String labelPrefix = labels == null ? "" : labels + ",";
+        long[] upperBounds = histogram.getBucketUpperBounds();
+        long[] cumulativeCounts = histogram.getCumulativeCounts();
+        for (int i = 0; i < upperBounds.length; i++) {
+            sb.append(name).append("_bucket{").append(labelPrefix)
+                    .append("le=\"").append(upperBounds[i] / 1e9).append("\"} ")
+                    .append(cumulativeCounts[i]).append('\n');
+        }
+        long count = cumulativeCounts[cumulativeCounts.length - 1];
+        sb.append(name).append("_bucket{").append(labelPrefix).append("le=\"+Inf\"} ").append(count).append('\n');
+
+        String suffix = labels == null ? " " : "{" + labels + "} ";
+        sb.append(name).append("_sum").append(suffix).append(histogram.getTotalDurationInNanos() / 1e9).append('\n');
+        sb.append(name).append("_count").append(suffix).append(count).append('\n');
+    }
+}
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.endpoint.controllers;
 
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
+import it.unibz.inf.ontop.rdf4j.query.resultio.*;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopRepositoryConnection;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
@@ -12,17 +14,11 @@ import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.Query;
 import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.resultio.BooleanQueryResultWriter;
-import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLBooleanJSONWriter;
-import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLBooleanXMLWriter;
-import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
 import org.eclipse.rdf4j.query.resultio.text.BooleanTextWriter;
-import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter;
-import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFWriter;
@@ -117,22 +113,22 @@ public class SparqlQueryController {
             Query q = connection.prepareQuery(QueryLanguage.SPARQL, query, httpHeaders);
             OutputStream bao = response.getOutputStream();
 
-            if (q instanceof TupleQuery) {
-                TupleQuery selectQuery = (TupleQuery) q;
+            if (q instanceof OntopTupleQuery) {
+                OntopTupleQuery selectQuery = (OntopTupleQuery) q;
                 response.setCharacterEncoding("UTF-8");
 
                 if ("*/*".equals(accept) || accept.contains("json")) {
                     response.setHeader(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsJSONWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new OntopSPARQLResultsJSONWriter(bao), response);
                 } else if (accept.contains("xml")) {
                     response.setHeader(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsXMLWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new OntopSPARQLResultsXMLWriter(bao), response);
                 } else if (accept.contains("csv")) {
                     response.setHeader(HttpHeaders.CONTENT_TYPE, "text/sparql-results+csv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsCSVWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new OntopSPARQLResultsCSVWriter(bao), response);
                 } else if (accept.contains("tsv") || accept.contains("text/tab-separated-values")) {
                     response.setHeader(HttpHeaders.CONTENT_TYPE, "text/sparql-results+tsv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsTSVWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new OntopSPARQLResultsTSVWriter(bao), response);
                 } else {
                     response.setStatus(HttpStatus.NOT_ACCEPTABLE.value());
                 }
@@ -192,11 +188,15 @@ public class SparqlQueryController {
         }
     }
 
-    private void evaluateSelectQuery(TupleQuery selectQuery, TupleQueryResultWriter writer, HttpServletResponse response) {
+    /**
+     * The results are serialized directly from the Ontop binding sets (no conversion into RDF4J values)
+     */
+    private void evaluateSelectQuery(OntopTupleQuery selectQuery, OntopTupleQueryResultWriter writer,
+                                     HttpServletResponse response) {
         addCacheHeaders(response);
         selectQuery.evaluate(writer);
-
     }
+
     private void evaluateGraphQuery(GraphQuery graphQuery, RDFWriter writer, HttpServletResponse response) {
         addCacheHeaders(response);
         graphQuery.evaluate(writer);
@@ -22,6 +22,8 @@ package it.unibz.inf.ontop.dbschema;
 
 import it.unibz.inf.ontop.model.type.DBTermType;
 
+import java.io.Serializable;
+
 /**
  * Represents an attribute (column) of a database relation (table or view) or a parser view
  *
@@ -29,7 +31,7 @@ import it.unibz.inf.ontop.model.type.DBTermType;
  *
  */
 
-public interface Attribute {
+public interface Attribute extends Serializable {
 
     RelationDefinition getRelation();
 
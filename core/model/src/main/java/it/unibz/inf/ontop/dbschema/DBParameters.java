@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.dbschema;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.model.type.DBTypeFactory;
 
+import java.io.Serializable;
+
 /**
  * Metadata about the configuration of the data source.
  *
@@ -12,7 +14,7 @@ import it.unibz.inf.ontop.model.type.DBTypeFactory;
  *
  * TODO: move it to be more general package
  */
-public interface DBParameters {
+public interface DBParameters extends Serializable {
 
     QuotedIDFactory getQuotedIDFactory();
 
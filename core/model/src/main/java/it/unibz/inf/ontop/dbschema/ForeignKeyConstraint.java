@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.dbschema;
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.dbschema.impl.ForeignKeyConstraintImpl;
 
+import java.io.Serializable;
+
 
 /**
  * Foreign Key constraints<br>
@@ -17,9 +19,9 @@ import it.unibz.inf.ontop.dbschema.impl.ForeignKeyConstraintImpl;
  * @author Roman Kontchakov
  */
 
-public interface ForeignKeyConstraint {
+public interface ForeignKeyConstraint extends Serializable {
 
-    interface Component {
+    interface Component extends Serializable {
         Attribute getAttribute();
         Attribute getReferencedAttribute();
     }
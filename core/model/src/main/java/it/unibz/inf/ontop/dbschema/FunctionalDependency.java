@@ -3,11 +3,13 @@ package it.unibz.inf.ontop.dbschema;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.dbschema.impl.FunctionalDependencyImpl;
 
+import java.io.Serializable;
+
 /**
  * A functional dependency
  */
 
-public interface FunctionalDependency {
+public interface FunctionalDependency extends Serializable {
 
     ImmutableSet<Attribute> getDeterminants();
 
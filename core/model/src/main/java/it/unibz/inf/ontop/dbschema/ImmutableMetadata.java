@@ -11,9 +11,16 @@ public interface ImmutableMetadata {
     DBParameters getDBParameters();
 
     static ImmutableMetadata extractImmutableMetadata(MetadataProvider metadataProvider) throws MetadataExtractionException {
+        return extractImmutableMetadata(metadataProvider, false);
+    }
+
+    static ImmutableMetadata extractImmutableMetadata(MetadataProvider metadataProvider, boolean withStatistics)
+            throws MetadataExtractionException {
         CachingMetadataLookup lookup = new CachingMetadataLookup(metadataProvider);
-        for (RelationID id : metadataProvider.getRelationIDs())
+        ImmutableList<RelationID> relationIds = metadataProvider.getRelationIDs();
+        metadataProvider.prefetchRelations(relationIds);
+        for (RelationID id : relationIds)
             lookup.getRelation(id);
-        return lookup.extractImmutableMetadata();
+        return lookup.extractImmutableMetadata(withStatistics);
     }
 }
@@ -20,6 +20,29 @@ public interface MetadataProvider extends MetadataLookup {
      */
     void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException;
 
+    /**
+     * Inserts the integrity constraints of several relations at once
+     * (providers may extract them in bulk)
+     */
+    default void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        for (NamedRelationDefinition relation : relations)
+            insertIntegrityConstraints(relation, metadataLookup);
+    }
+
+    /**
+     * Announces that the given relations are about to be retrieved
+     * (providers may extract them in bulk)
+     */
+    default void prefetchRelations(ImmutableList<RelationID> relationIds) throws MetadataExtractionException {
+    }
+
+    /**
+     * Inserts the statistics of the DBMS (row counts, numbers of distinct values)
+     * into the given relations, when available
+     */
+    default void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+    }
+
     DBParameters getDBParameters();
 
 }
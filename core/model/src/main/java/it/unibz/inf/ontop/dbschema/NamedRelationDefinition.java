@@ -22,4 +22,6 @@ public interface NamedRelationDefinition extends RelationDefinition {
 	void addFunctionalDependency(FunctionalDependency constraint);
 
 	void addForeignKeyConstraint(ForeignKeyConstraint fk);
+
+	void setStatistics(RelationStatistics statistics);
 }
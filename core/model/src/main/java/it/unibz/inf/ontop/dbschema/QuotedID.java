@@ -22,6 +22,8 @@ package it.unibz.inf.ontop.dbschema;
 
 import javax.annotation.Nonnull;
 
+import java.io.Serializable;
+
 /**
  * Database identifier used for schema names, table names and aliases
  * <p>
@@ -33,7 +35,7 @@ import javax.annotation.Nonnull;
  */
 
 
-public interface QuotedID {
+public interface QuotedID extends Serializable {
 
 	/**
 	 * returns the identifier (stripped of quotation marks)
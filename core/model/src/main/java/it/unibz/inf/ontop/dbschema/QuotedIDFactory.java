@@ -23,6 +23,8 @@ package it.unibz.inf.ontop.dbschema;
 
 import javax.annotation.Nonnull;
 
+import java.io.Serializable;
+
 /**
  * Factory for creating attribute and relation identifier from strings.
  * It defines the rules of transforming unquoted and quoted identifiers.
@@ -31,7 +33,7 @@ import javax.annotation.Nonnull;
  *
  */
 
-public interface QuotedIDFactory {
+public interface QuotedIDFactory extends Serializable {
 
 	/**
 	 * Creates a new attribute ID from a string.
@@ -24,6 +24,9 @@ import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
 import it.unibz.inf.ontop.model.type.DBTermType;
 
+import java.io.Serializable;
+import java.util.Optional;
+
 
 /**
  * Basis of the representation for information on both<br>
@@ -33,7 +36,7 @@ import it.unibz.inf.ontop.model.type.DBTermType;
  * @author Roman Kontchakov
  */
 
-public interface RelationDefinition {
+public interface RelationDefinition extends Serializable {
 
 
 	/**
@@ -69,6 +72,13 @@ public interface RelationDefinition {
 
 	ImmutableList<ForeignKeyConstraint> getForeignKeys();
 
+	/**
+	 * statistics of the DBMS about the relation
+	 *
+	 * @return empty if not available
+	 */
+	Optional<RelationStatistics> getStatistics();
+
 
 	interface AttributeListBuilder {
 
@@ -24,6 +24,8 @@ package it.unibz.inf.ontop.dbschema;
 
 import com.google.common.collect.ImmutableList;
 
+import java.io.Serializable;
+
 /**
  * Database identifier used for possibly qualified table names and aliases
  * <p>
@@ -33,7 +35,7 @@ import com.google.common.collect.ImmutableList;
  *
  */
 
-public interface RelationID {
+public interface RelationID extends Serializable {
 
 	RelationID getTableOnlyID();
 
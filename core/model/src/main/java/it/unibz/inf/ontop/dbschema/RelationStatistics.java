@@ -0,0 +1,26 @@
+package it.unibz.inf.ontop.dbschema;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Statistics maintained by the DBMS about a relation (e.g., by ANALYZE).
+ *
+ * These are estimates, which may be outdated: they must only be used for choosing between
+ * semantically equivalent query plans.
+ */
+public interface RelationStatistics extends Serializable {
+
+    /**
+     * estimated number of rows
+     */
+    long getRowCount();
+
+    /**
+     * estimated number of distinct non-null values of the attribute
+     *
+     * @param index is position <em>starting at 1</em>
+     * @return empty if unknown
+     */
+    Optional<Long> getDistinctValueCount(int index);
+}
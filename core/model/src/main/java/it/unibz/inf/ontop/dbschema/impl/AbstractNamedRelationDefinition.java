@@ -18,6 +18,7 @@ public abstract class AbstractNamedRelationDefinition extends AbstractRelationDe
     private final List<UniqueConstraint> uniqueConstraints = new LinkedList<>();
     private final List<FunctionalDependency> otherFunctionalDependencies = new ArrayList<>();
     private final List<ForeignKeyConstraint> foreignKeys = new ArrayList<>();
+    private RelationStatistics statistics; // nullable
 
     AbstractNamedRelationDefinition(ImmutableList<RelationID> allIds, AttributeListBuilder builder) {
         super(allIds.get(0).getSQLRendering(), builder);
@@ -97,4 +98,13 @@ public abstract class AbstractNamedRelationDefinition extends AbstractRelationDe
         return ImmutableList.copyOf(foreignKeys);
     }
 
+    @Override
+    public void setStatistics(RelationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Optional<RelationStatistics> getStatistics() {
+        return Optional.ofNullable(statistics);
+    }
 }
@@ -12,6 +12,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 
 public abstract class AbstractRelationDefinition implements RelationDefinition  {
@@ -62,6 +63,12 @@ public abstract class AbstractRelationDefinition implements RelationDefinition
     @JsonIgnore
     public RelationPredicate getAtomPredicate() { return predicate; }
 
+    /**
+     * no statistics by default (e.g., for views created by the SQL parser)
+     */
+    @JsonIgnore
+    public Optional<RelationStatistics> getStatistics() { return Optional.empty(); }
+
 
 
 
@@ -36,12 +36,21 @@ public class CachingMetadataLookup implements MetadataLookup {
 
 
     public ImmutableMetadata extractImmutableMetadata() throws MetadataExtractionException {
+        return extractImmutableMetadata(false);
+    }
+
+    /**
+     * The statistics are only extracted on demand, as they are costly to obtain and only used
+     * by the cost-based query planner
+     */
+    public ImmutableMetadata extractImmutableMetadata(boolean withStatistics) throws MetadataExtractionException {
 
         ImmutableMetadataLookup lookup = new ImmutableMetadataLookup(getQuotedIDFactory(), ImmutableMap.copyOf(map));
         ImmutableList<NamedRelationDefinition> list = lookup.getRelations();
 
-        for (NamedRelationDefinition relation : list)
-            provider.insertIntegrityConstraints(relation, lookup);
+        provider.insertIntegrityConstraints(list, lookup);
+        if (withStatistics)
+            provider.insertStatistics(list);
 
         return new ImmutableMetadataImpl(provider.getDBParameters(), list);
     }
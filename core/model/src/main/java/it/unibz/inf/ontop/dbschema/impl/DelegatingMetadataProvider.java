@@ -36,4 +36,19 @@ public class DelegatingMetadataProvider implements MetadataProvider {
     public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
         provider.insertIntegrityConstraints(relation, metadataLookup);
     }
+
+    @Override
+    public void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        provider.insertIntegrityConstraints(relations, metadataLookup);
+    }
+
+    @Override
+    public void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+        provider.insertStatistics(relations);
+    }
+
+    @Override
+    public void prefetchRelations(ImmutableList<RelationID> relationIds) throws MetadataExtractionException {
+        provider.prefetchRelations(relationIds);
+    }
 }
@@ -0,0 +1,33 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.RelationStatistics;
+
+import java.util.Optional;
+
+public class RelationStatisticsImpl implements RelationStatistics {
+
+    private final long rowCount;
+    // attribute positions starting at 1
+    private final ImmutableMap<Integer, Long> distinctValueCounts;
+
+    public RelationStatisticsImpl(long rowCount, ImmutableMap<Integer, Long> distinctValueCounts) {
+        this.rowCount = rowCount;
+        this.distinctValueCounts = distinctValueCounts;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Optional<Long> getDistinctValueCount(int index) {
+        return Optional.ofNullable(distinctValueCounts.get(index));
+    }
+
+    @Override
+    public String toString() {
+        return "ROWS " + rowCount + " DISTINCT " + distinctValueCounts;
+    }
+}
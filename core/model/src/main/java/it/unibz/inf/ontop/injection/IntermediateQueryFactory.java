@@ -69,6 +69,17 @@ public interface IntermediateQueryFactory {
                                 @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
                                 String nativeQueryString, VariableNullability variableNullability);
 
+    /**
+     * The parameters are bound, in order, to the parameter markers of the native query string.
+     *
+     * See NativeNode.isDeterministic()
+     */
+    NativeNode createNativeNode(ImmutableSortedSet<Variable> variables,
+                                @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                                @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                                String nativeQueryString, ImmutableList<DBConstant> parameters,
+                                boolean isDeterministic, VariableNullability variableNullability);
+
     TrueNode createTrueNode();
 
     DistinctNode createDistinctNode();
@@ -4,13 +4,15 @@ import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import java.io.Serializable;
+
 /**
  *
  * For comparison, please use equals(o)
  *
  * See IntermediateQueryFactory for creating a new instance.
  */
-public interface IQ {
+public interface IQ extends Serializable {
 
     DistinctVariableOnlyDataAtom getProjectionAtom();
 
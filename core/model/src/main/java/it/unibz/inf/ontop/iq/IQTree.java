@@ -12,10 +12,11 @@ import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 
-public interface IQTree {
+public interface IQTree extends Serializable {
 
     QueryNode getRootNode();
 
@@ -102,6 +103,12 @@ public interface IQTree {
 
     boolean isEquivalentTo(IQTree tree);
 
+    /**
+     * Hash code consistent with isEquivalentTo(...).
+     * Computed once per tree (the hash of the children is reused).
+     */
+    int getStructuralHashCode();
+
     /**
      * TODO: explain
      *
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.iq;
 
 import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 
+import java.io.Serializable;
+
 /**
  * TODO: explain
  *
@@ -11,7 +13,7 @@ import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
  *
  * See ConcreteIQTreeCache for more details on which data is stored.
  */
-public interface IQTreeCache {
+public interface IQTreeCache extends Serializable {
 
     boolean isNormalizedForOptimization();
 
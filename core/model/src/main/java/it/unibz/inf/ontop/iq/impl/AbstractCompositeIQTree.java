@@ -37,6 +37,12 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
     @Nullable
     private String string;
 
+    /*
+     * LAZY. Not serialized: recomputed after loading a snapshot
+     */
+    @Nullable
+    private transient Integer structuralHashCode;
+
     // Non final
     private boolean hasBeenSuccessfullyValidate;
 
@@ -140,11 +146,37 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return getStructuralHashCode();
     }
 
+    /**
+     * Combines the hash of the root node with the (cached) hashes of the children.
+     * Does not pretty-print the tree.
+     */
+    @Override
+    public int getStructuralHashCode() {
+        // Non-final
+        Integer hashCode = structuralHashCode;
+        if (hashCode == null) {
+            int h = rootNode.getStructuralHashCode();
+            for (IQTree child : children)
+                h = 31 * h + child.getStructuralHashCode();
+            hashCode = h;
+            structuralHashCode = hashCode;
+        }
+        return hashCode;
+    }
+
+    /**
+     * Cheap checks first: identical references and structural hash codes
+     */
     @Override
     public boolean isEquivalentTo(IQTree tree) {
+        if (this == tree)
+            return true;
+        if (getStructuralHashCode() != tree.getStructuralHashCode())
+            return false;
+
         if (!getRootNode().isEquivalentTo(tree.getRootNode()))
             return false;
 
@@ -1,10 +1,12 @@
 package it.unibz.inf.ontop.iq.node;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.LeafIQTree;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 
@@ -33,4 +35,19 @@ public interface NativeNode extends LeafIQTree {
     ImmutableMap<Variable, QuotedID> getColumnNames();
 
     String getNativeQueryString();
+
+    /**
+     * Values to bind, in order, to the parameter markers (e.g. "?" in SQL) of the native query string.
+     *
+     * Empty when all the constants have been inlined into the native query string.
+     */
+    ImmutableList<DBConstant> getParameters();
+
+    /**
+     * False when the results of the native query are not only determined by the content of the DB:
+     * it calls a non-deterministic function (e.g. RAND() or UUID()) or depends on the time of the evaluation (e.g. NOW()).
+     *
+     * The SQL queries of the mapping are assumed to be deterministic.
+     */
+    boolean isDeterministic();
 }
@@ -6,6 +6,8 @@ import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
 
+import java.io.Serializable;
+
 /**
  * Immutable.
  *
@@ -16,7 +18,7 @@ import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
  *
  * See IntermediateQueryFactory for creating new instances.
  */
-public interface QueryNode extends Cloneable {
+public interface QueryNode extends Cloneable, Serializable {
 
     /**
      * "Accept" method for the "Visitor" pattern.
@@ -93,4 +95,11 @@ public interface QueryNode extends Cloneable {
      * Is syntactically equivalent
      */
     boolean isEquivalentTo(QueryNode queryNode);
+
+    /**
+     * Hash code consistent with isEquivalentTo(...).
+     *
+     * Query nodes keep the identity-based equals(...) and hashCode().
+     */
+    int getStructuralHashCode();
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.stream.Stream;
 
@@ -19,7 +20,7 @@ import java.util.stream.Stream;
  * See CoreUtilsFactory for creating new instances
  *
  */
-public interface VariableNullability {
+public interface VariableNullability extends Serializable {
 
     /**
      * NB: for variables outside its scope, returns true (as it does not know anything about them)
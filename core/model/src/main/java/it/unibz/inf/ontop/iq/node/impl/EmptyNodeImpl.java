@@ -19,6 +19,8 @@ import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.util.Objects;
+
 
 public class EmptyNodeImpl extends LeafIQTreeImpl implements EmptyNode {
 
@@ -172,4 +174,9 @@ public class EmptyNodeImpl extends LeafIQTreeImpl implements EmptyNode {
             return false;
         return projectedVariables.equals(((EmptyNode) queryNode).getVariables());
     }
+
+    @Override
+    public int getStructuralHashCode() {
+        return Objects.hash(EmptyNode.class.getName(), projectedVariables);
+    }
 }
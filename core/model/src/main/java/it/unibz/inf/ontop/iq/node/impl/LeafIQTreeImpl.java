@@ -50,7 +50,10 @@ public abstract class LeafIQTreeImpl extends QueryNodeImpl implements LeafIQTree
 
     @Override
     public boolean isEquivalentTo(IQTree tree) {
+        if (this == tree)
+            return true;
         return (tree instanceof LeafIQTree)
+                && getStructuralHashCode() == tree.getStructuralHashCode()
                 && isEquivalentTo((QueryNode) tree);
     }
 
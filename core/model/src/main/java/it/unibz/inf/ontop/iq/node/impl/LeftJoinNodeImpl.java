@@ -28,6 +28,7 @@ import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -142,6 +143,11 @@ public class LeftJoinNodeImpl extends JoinLikeNodeImpl implements LeftJoinNode {
                 && getOptionalFilterCondition().equals(((LeftJoinNode) queryNode).getOptionalFilterCondition());
     }
 
+    @Override
+    public int getStructuralHashCode() {
+        return Objects.hash(LeftJoinNode.class.getName(), getOptionalFilterCondition());
+    }
+
     @Override
     public String toString() {
         return LEFT_JOIN_NODE_STR + getOptionalFilterString();
@@ -23,6 +23,7 @@ import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -199,6 +200,11 @@ public class OrderByNodeImpl extends QueryModifierNodeImpl implements OrderByNod
                 && ((OrderByNode) queryNode).getComparators().equals(comparators);
     }
 
+    @Override
+    public int getStructuralHashCode() {
+        return Objects.hash(OrderByNode.class.getName(), comparators);
+    }
+
     @Override
     public OrderByNode clone() {
         return iqFactory.createOrderByNode(comparators);
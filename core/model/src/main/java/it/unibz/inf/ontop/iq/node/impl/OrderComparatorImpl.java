@@ -5,6 +5,8 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.iq.node.OrderByNode;
 import it.unibz.inf.ontop.model.term.NonGroundTerm;
 
+import java.util.Objects;
+
 public class OrderComparatorImpl implements OrderByNode.OrderComparator {
 
     private static final String ASC_PREFIX = "ASC(";
@@ -36,6 +38,11 @@ public class OrderComparatorImpl implements OrderByNode.OrderComparator {
                 && ((OrderByNode.OrderComparator) other).isAscending() == isAscending;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, isAscending);
+    }
+
     @Override
     public String toString() {
         String prefix = isAscending ? ASC_PREFIX : DESC_PREFIX;
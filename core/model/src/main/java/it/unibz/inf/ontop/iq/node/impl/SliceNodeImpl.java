@@ -19,6 +19,7 @@ import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import javax.annotation.Nullable;
+import java.util.Objects;
 import java.util.Optional;
 
 public class SliceNodeImpl extends QueryModifierNodeImpl implements SliceNode {
@@ -211,6 +212,11 @@ public class SliceNodeImpl extends QueryModifierNodeImpl implements SliceNode {
                 && ((SliceNode) queryNode).getLimit().equals(getLimit());
     }
 
+    @Override
+    public int getStructuralHashCode() {
+        return Objects.hash(SliceNode.class.getName(), offset, getLimit());
+    }
+
     @Override
     public ImmutableSet<Variable> getLocalVariables() {
         return ImmutableSet.of();
@@ -89,6 +89,11 @@ public class TrueNodeImpl extends LeafIQTreeImpl implements TrueNode {
         return (queryNode instanceof TrueNode);
     }
 
+    @Override
+    public int getStructuralHashCode() {
+        return TrueNode.class.getName().hashCode();
+    }
+
     @Override
     public ImmutableSet<Variable> getVariables() {
         return EMPTY_VARIABLE_SET;
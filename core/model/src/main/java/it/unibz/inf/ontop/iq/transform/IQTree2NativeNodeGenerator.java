@@ -15,4 +15,10 @@ public interface IQTree2NativeNodeGenerator {
      */
     NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes);
 
+    /**
+     * When bindParameters is true, the constants of the filtering conditions may be replaced by parameter markers,
+     * their values being then returned by NativeNode.getParameters().
+     */
+    NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes, boolean bindParameters);
+
 }
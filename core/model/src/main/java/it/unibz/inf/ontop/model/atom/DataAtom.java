@@ -5,13 +5,15 @@ import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 
+import java.io.Serializable;
+
 
 /**
  * Immutable data atom that only accepts variables and ground terms as arguments.
  *
  * In the future, this class could be disassociated from the Function class.
  */
-public interface DataAtom<P extends AtomPredicate> {
+public interface DataAtom<P extends AtomPredicate> extends Serializable {
 
     P getPredicate();
 
@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.model.template;
 import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nullable;
+import java.io.Serializable;
 import java.util.Objects;
 
 public class Template {
@@ -72,7 +73,7 @@ public class Template {
         }
     }
 
-    public static class Component {
+    public static class Component implements Serializable {
         private final String component;
         private final int index; // -1 if separator
 
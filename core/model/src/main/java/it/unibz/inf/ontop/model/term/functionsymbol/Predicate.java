@@ -20,12 +20,14 @@ package it.unibz.inf.ontop.model.term.functionsymbol;
  * #L%
  */
 
+import java.io.Serializable;
+
 /**
 * The Predicate class currently represents (1) first-order predicts, (2) function symbols, and
  * (3) logical operators (e.g. join, left join)
  *
  */
-public interface Predicate {
+public interface Predicate extends Serializable {
     
 	/**
 	 * Get the name of the predicate. In practice, the predicate name is
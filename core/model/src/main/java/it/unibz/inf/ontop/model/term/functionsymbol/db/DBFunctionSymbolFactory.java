@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.RDFTermType;
 import org.apache.commons.rdf.api.IRI;
 
+import java.util.Optional;
 import java.util.UUID;
 
 
@@ -215,6 +216,14 @@ public interface DBFunctionSymbolFactory {
      */
     DBMathBinaryOperator getUntypedDBMathBinaryOperator(String dbMathOperatorName);
 
+    /**
+     * Arity 2: remainder of the division of the first integer by the second one.
+     * The result has the sign of the first argument.
+     *
+     * Empty if the DB system has no such remainder function.
+     */
+    Optional<DBFunctionSymbol> getDBIntegerRemainder();
+
     DBFunctionSymbol getAbs(DBTermType dbTermType);
     DBFunctionSymbol getCeil(DBTermType dbTermType);
     DBFunctionSymbol getFloor(DBTermType dbTermType);
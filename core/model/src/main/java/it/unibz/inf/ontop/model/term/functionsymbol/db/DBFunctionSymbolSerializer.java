@@ -4,10 +4,11 @@ import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.TermFactory;
 
+import java.io.Serializable;
 import java.util.function.Function;
 
 @FunctionalInterface
-public interface DBFunctionSymbolSerializer {
+public interface DBFunctionSymbolSerializer extends Serializable {
 
     /**
      * Returns a String in the native query language.
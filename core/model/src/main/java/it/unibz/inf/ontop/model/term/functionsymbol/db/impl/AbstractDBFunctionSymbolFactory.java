@@ -446,20 +446,12 @@ public abstract class AbstractDBFunctionSymbolFactory implements DBFunctionSymbo
     @Override
     public DBTypeConversionFunctionSymbol getDBCastFunctionSymbol(DBTermType inputType, DBTermType targetType) {
         if (inputType.equals(dbStringType)) {
-            if (simpleCastFromDBStringMap.containsKey(targetType))
-                return simpleCastFromDBStringMap.get(targetType);
-
-            DBTypeConversionFunctionSymbol castFunctionSymbol = createSimpleCastFunctionSymbol(inputType, targetType);
-            simpleCastFromDBStringMap.put(targetType, castFunctionSymbol);
-            return castFunctionSymbol;
+            return simpleCastFromDBStringMap
+                    .computeIfAbsent(targetType, t -> createSimpleCastFunctionSymbol(inputType, t));
         }
         else if (targetType.equals(dbStringType)) {
-            if (simpleCastToDBStringMap.containsKey(inputType))
-                return simpleCastToDBStringMap.get(inputType);
-
-            DBTypeConversionFunctionSymbol castFunctionSymbol = createSimpleCastFunctionSymbol(inputType, targetType);
-            simpleCastToDBStringMap.put(inputType, castFunctionSymbol);
-            return castFunctionSymbol;
+            return simpleCastToDBStringMap
+                    .computeIfAbsent(inputType, t -> createSimpleCastFunctionSymbol(t, targetType));
         }
         /*
          * Mutable tables are not thread-safe
@@ -756,54 +748,32 @@ public abstract class AbstractDBFunctionSymbolFactory implements DBFunctionSymbo
 
     @Override
     public DBMathBinaryOperator getUntypedDBMathBinaryOperator(String dbMathOperatorName) {
-        DBMathBinaryOperator existingOperator = untypedBinaryMathMap.get(dbMathOperatorName);
-        if (existingOperator != null) {
-            return existingOperator;
-        }
-
-        DBMathBinaryOperator newOperator = createUntypedDBBinaryMathOperator(dbMathOperatorName);
-        untypedBinaryMathMap.put(dbMathOperatorName, newOperator);
-        return newOperator;
+        return untypedBinaryMathMap
+                .computeIfAbsent(dbMathOperatorName, this::createUntypedDBBinaryMathOperator);
     }
 
     @Override
     public DBFunctionSymbol getAbs(DBTermType dbTermType) {
-        DBFunctionSymbol existingFunctionSymbol = absMap.get(dbTermType);
-        if (existingFunctionSymbol != null)
-            return existingFunctionSymbol;
-        DBFunctionSymbol dbFunctionSymbol = createAbsFunctionSymbol(dbTermType);
-        absMap.put(dbTermType, dbFunctionSymbol);
-        return dbFunctionSymbol;
+        return absMap
+                .computeIfAbsent(dbTermType, this::createAbsFunctionSymbol);
     }
 
     @Override
     public DBFunctionSymbol getCeil(DBTermType dbTermType) {
-        DBFunctionSymbol existingFunctionSymbol = ceilMap.get(dbTermType);
-        if (existingFunctionSymbol != null)
-            return existingFunctionSymbol;
-        DBFunctionSymbol dbFunctionSymbol = createCeilFunctionSymbol(dbTermType);
-        ceilMap.put(dbTermType, dbFunctionSymbol);
-        return dbFunctionSymbol;
+        return ceilMap
+                .computeIfAbsent(dbTermType, this::createCeilFunctionSymbol);
     }
 
     @Override
     public DBFunctionSymbol getFloor(DBTermType dbTermType) {
-        DBFunctionSymbol existingFunctionSymbol = floorMap.get(dbTermType);
-        if (existingFunctionSymbol != null)
-            return existingFunctionSymbol;
-        DBFunctionSymbol dbFunctionSymbol = createFloorFunctionSymbol(dbTermType);
-        floorMap.put(dbTermType, dbFunctionSymbol);
-        return dbFunctionSymbol;
+        return floorMap
+                .computeIfAbsent(dbTermType, this::createFloorFunctionSymbol);
     }
 
     @Override
     public DBFunctionSymbol getRound(DBTermType dbTermType) {
-        DBFunctionSymbol existingFunctionSymbol = roundMap.get(dbTermType);
-        if (existingFunctionSymbol != null)
-            return existingFunctionSymbol;
-        DBFunctionSymbol dbFunctionSymbol = createRoundFunctionSymbol(dbTermType);
-        roundMap.put(dbTermType, dbFunctionSymbol);
-        return dbFunctionSymbol;
+        return roundMap
+                .computeIfAbsent(dbTermType, this::createRoundFunctionSymbol);
     }
 
     @Override
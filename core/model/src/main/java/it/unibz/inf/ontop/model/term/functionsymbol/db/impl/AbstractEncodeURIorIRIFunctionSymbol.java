@@ -10,6 +10,7 @@ import it.unibz.inf.ontop.model.term.functionsymbol.db.DBTypeConversionFunctionS
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.utils.R2RMLIRISafeEncoder;
 
+import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -68,7 +69,7 @@ public abstract class AbstractEncodeURIorIRIFunctionSymbol extends AbstractTyped
         return newExpression.evaluate(variableNullability, true);
     }
 
-    interface EnDecoder {
+    interface EnDecoder extends Serializable {
         String encode(String value);
         String decode(String value);
     }
@@ -78,8 +79,8 @@ public abstract class AbstractEncodeURIorIRIFunctionSymbol extends AbstractTyped
      */
     protected static class EnDecoderForURI implements EnDecoder {
 
-        private final Encoder uriEncoder;
-        private final Decoder uriDecoder;
+        private final transient Encoder uriEncoder;
+        private final transient Decoder uriDecoder;
 
         protected EnDecoderForURI() {
             Charset charset = StandardCharsets.UTF_8;
@@ -99,6 +100,13 @@ public abstract class AbstractEncodeURIorIRIFunctionSymbol extends AbstractTyped
         public String decode(String value) {
             return uriDecoder.urlDecode(value, true);
         }
+
+        /**
+         * The encoder and the decoder are not serializable
+         */
+        private Object readResolve() {
+            return new EnDecoderForURI();
+        }
     }
 
     /**
@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel;
 import it.unibz.inf.ontop.model.term.functionsymbol.db.*;
 import it.unibz.inf.ontop.model.type.*;
 
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -690,4 +691,9 @@ public class MockupDBFunctionSymbolFactory extends AbstractDBFunctionSymbolFacto
         throw new UnsupportedOperationException("Operation not supported by the MockupDBFunctionSymbolFactory");
     }
 
+    @Override
+    public Optional<DBFunctionSymbol> getDBIntegerRemainder() {
+        return Optional.empty();
+    }
+
 }
@@ -6,11 +6,12 @@ import it.unibz.inf.ontop.model.template.Template;
 import it.unibz.inf.ontop.model.template.impl.TemplateParser;
 
 import javax.annotation.Nullable;
+import java.io.Serializable;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class SafeSeparatorFragment {
+public class SafeSeparatorFragment implements Serializable {
     private final String fragment;
     private final ImmutableList<Template.Component> components;
     private final char separator;
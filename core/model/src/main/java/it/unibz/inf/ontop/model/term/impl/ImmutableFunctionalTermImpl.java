@@ -33,6 +33,12 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
      */
     private String string;
 
+    /**
+     * Lazy cache for hashCode() (0 if not computed yet).
+     * Not serialized: recomputed after loading a snapshot
+     */
+    private transient int hashCode;
+
     protected ImmutableFunctionalTermImpl(FunctionSymbol functor, TermFactory termFactory, ImmutableTerm... terms) {
         this(functor, ImmutableList.copyOf(terms), termFactory);
     }
@@ -122,9 +128,21 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
         return false;
     }
 
+    /**
+     * Combines the hash of the function symbol with the hashes of the arguments, without printing the term.
+     *
+     * Consistent with equals(): function symbols are printed as their names, which are compared by equals(),
+     * and the arguments are printed according to their own equals() (e.g. DB constants by their lexical value).
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        // Non-final
+        int h = hashCode;
+        if (h == 0) {
+            h = 31 * functionSymbol.hashCode() + terms.hashCode();
+            hashCode = h;
+        }
+        return h;
     }
 
     @Override
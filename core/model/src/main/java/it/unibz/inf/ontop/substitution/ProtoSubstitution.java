@@ -8,6 +8,8 @@ import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 
+import java.io.Serializable;
+
 /**
  * TODO: find a better name
  *
@@ -16,7 +18,7 @@ import it.unibz.inf.ontop.model.term.Variable;
  * May not depend on the AtomFactory and SubstitutionFactory
  *
  */
-public interface ProtoSubstitution<T extends ImmutableTerm> {
+public interface ProtoSubstitution<T extends ImmutableTerm> extends Serializable {
 
     ImmutableMap<Variable, T> getImmutableMap();
 
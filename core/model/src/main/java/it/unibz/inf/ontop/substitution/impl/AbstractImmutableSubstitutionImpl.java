@@ -133,6 +133,11 @@ public abstract class AbstractImmutableSubstitutionImpl<T  extends ImmutableTerm
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return getImmutableMap().hashCode();
+    }
+
     protected abstract ImmutableSubstitution<T> constructNewSubstitution(ImmutableMap<Variable, T> map);
 
     @Override
@@ -645,4 +645,60 @@ public class IQSyntacticEquivalenceCheckerTest {
         assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, query1));
     }
 
+    @Test
+    public void testStructuralHashCodeOfEquivalentTrees() {
+        IQTree tree1 = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createDistinctNode(),
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Z)), ImmutableList.of(
+                        createExtensionalDataNode(TABLE2, ImmutableList.of(X, Z)),
+                        IQ_FACTORY.createEmptyNode(ImmutableSet.of(X, Z)))));
+        IQTree tree2 = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createDistinctNode(),
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(Z, X)), ImmutableList.of(
+                        createExtensionalDataNode(TABLE2, ImmutableList.of(X, Z)),
+                        IQ_FACTORY.createEmptyNode(ImmutableSet.of(Z, X)))));
+
+        assertTrue(tree1.isEquivalentTo(tree2));
+        assertTrue(tree1.equals(tree2));
+        assertTrue(tree1.hashCode() == tree2.hashCode());
+    }
+
+    @Test
+    public void testStructuralHashCodeOfDifferentTrees() {
+        IQTree tree1 = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(EQ_X_Y),
+                ImmutableList.of(DATA_NODE_1, DATA_NODE_2));
+        IQTree tree2 = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(EQ_X_Z),
+                ImmutableList.of(DATA_NODE_1, DATA_NODE_2));
+        IQTree tree3 = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(EQ_X_Y),
+                ImmutableList.of(DATA_NODE_2, DATA_NODE_1));
+
+        assertFalse(tree1.equals(tree2));
+        assertFalse(tree1.equals(tree3));
+        assertTrue(tree1.equals(IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(EQ_X_Y),
+                ImmutableList.of(DATA_NODE_1, DATA_NODE_2))));
+    }
+
+    /**
+     * The terms are built twice (different instances)
+     */
+    @Test
+    public void testStructuralHashCodeOfTerms() {
+        IQTree tree1 = createTreeWithTerms();
+        IQTree tree2 = createTreeWithTerms();
+
+        assertFalse(tree1.getRootNode() == tree2.getRootNode());
+        assertTrue(tree1.equals(tree2));
+        assertTrue(tree1.hashCode() == tree2.hashCode());
+        assertFalse(tree1.equals(IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createFilterNode(
+                TERM_FACTORY.getDBIsNotNull(X)), DATA_NODE_1)));
+    }
+
+    private static IQTree createTreeWithTerms() {
+        ImmutableExpression condition = TERM_FACTORY.getConjunction(
+                TERM_FACTORY.getStrictEquality(X, TERM_FACTORY.getDBIntegerConstant(2)),
+                TERM_FACTORY.getDBIsNotNull(Z));
+        return IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Y), SUBSTITUTION_FACTORY.getSubstitution(Y,
+                        TERM_FACTORY.getNullRejectingDBConcatFunctionalTerm(ImmutableList.of(Z, TERM_FACTORY.getDBStringConstant("-"))))),
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createFilterNode(condition), DATA_NODE_1));
+    }
+
 }
@@ -4,6 +4,8 @@ package it.unibz.inf.ontop.injection;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 
+import javax.annotation.Nonnull;
+
 public interface OntopOBDAConfiguration extends OntopModelConfiguration {
 
     @Override
@@ -31,6 +33,12 @@ public interface OntopOBDAConfiguration extends OntopModelConfiguration {
          * TODO: rename
          */
         B sameAsMappings(boolean enable);
+
+        /**
+         * Pre-compiled OBDA specification, used instead of the mapping, the ontology, etc.
+         * as long as they are unchanged.
+         */
+        B specificationSnapshotFile(@Nonnull String snapshotFile);
     }
 
     interface Builder<B extends Builder<B>> extends OntopOBDABuilderFragment<B>, OntopModelConfiguration.Builder<B> {
@@ -1,13 +1,21 @@
 package it.unibz.inf.ontop.injection;
 
+import java.util.Optional;
 
 public interface OntopOBDASettings extends OntopModelSettings {
 
     boolean isSameAsInMappingsEnabled();
 
+    /**
+     * File of the pre-compiled OBDA specification (see the compile command).
+     * When its inputs are unchanged, the OBDA specification is loaded from it.
+     */
+    Optional<String> getSpecificationSnapshotFile();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String  SAME_AS = "ontop.sameAs";
+    String  SPECIFICATION_SNAPSHOT_FILE = "ontop.specificationSnapshotFile";
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.injection.SpecificationFactory;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 
+import javax.annotation.Nonnull;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Supplier;
@@ -76,6 +77,7 @@ public abstract class OntopOBDAConfigurationImpl extends OntopModelConfiguration
         private final B builder;
         private final Runnable declareSpecificationCB;
         private Optional<Boolean> sameAsMappings = Optional.empty();
+        private Optional<String> specificationSnapshotFile = Optional.empty();
         private Optional<OBDASpecification> specification = Optional.empty();
 
         DefaultOntopOBDABuilderFragment(B builder, Runnable declareSpecificationCB) {
@@ -96,9 +98,16 @@ public abstract class OntopOBDAConfigurationImpl extends OntopModelConfiguration
             return builder;
         }
 
+        @Override
+        public B specificationSnapshotFile(@Nonnull String snapshotFile) {
+            this.specificationSnapshotFile = Optional.of(snapshotFile);
+            return builder;
+        }
+
         Properties generateProperties() {
             Properties p = new Properties();
             sameAsMappings.ifPresent(b -> p.put(OntopOBDASettings.SAME_AS, b));
+            specificationSnapshotFile.ifPresent(f -> p.put(OntopOBDASettings.SPECIFICATION_SNAPSHOT_FILE, f));
 
             return p;
         }
@@ -138,6 +147,11 @@ public abstract class OntopOBDAConfigurationImpl extends OntopModelConfiguration
             return localBuilderFragment.sameAsMappings(enable);
         }
 
+        @Override
+        public B specificationSnapshotFile(@Nonnull String snapshotFile) {
+            return localBuilderFragment.specificationSnapshotFile(snapshotFile);
+        }
+
         final OntopOBDAOptions generateOBDAOptions() {
             return localBuilderFragment.generateOBDAOptions(modelBuilderFragment.generateModelOptions());
         }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.injection.OntopOBDAConfiguration;
 import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.spec.mapping.PrefixManager;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationSnapshotSerializer;
 
 class OntopOBDAModule extends OntopAbstractModule {
 
@@ -21,6 +22,7 @@ class OntopOBDAModule extends OntopAbstractModule {
     @Override
     protected void configure() {
         bind(OntopOBDASettings.class).toInstance(settings);
+        bindFromSettings(OBDASpecificationSnapshotSerializer.class);
 
         Module mappingFactoryModule = buildFactory(ImmutableList.of(
                 PrefixManager.class,
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.injection.impl;
 
 import it.unibz.inf.ontop.injection.OntopOBDASettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 
@@ -9,10 +10,12 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
 
     private static final String DEFAULT_FILE = "obda-default.properties";
     private final boolean isSameAs;
+    private final Optional<String> specificationSnapshotFile;
 
     protected OntopOBDASettingsImpl(Properties userProperties) {
         super(loadProperties(userProperties));
         isSameAs = getRequiredBoolean(SAME_AS);
+        specificationSnapshotFile = getProperty(SPECIFICATION_SNAPSHOT_FILE);
     }
 
     private static Properties loadProperties(Properties userProperties) {
@@ -29,4 +32,9 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
     public boolean isSameAsInMappingsEnabled() {
         return isSameAs;
     }
+
+    @Override
+    public Optional<String> getSpecificationSnapshotFile() {
+        return specificationSnapshotFile;
+    }
 }
@@ -5,10 +5,12 @@ import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
 
+import java.io.Serializable;
+
 /**
  * See SpecificationFactory for creating a new instance.
  */
-public interface OBDASpecification {
+public interface OBDASpecification extends Serializable {
 
     Mapping getSaturatedMapping();
 
@@ -0,0 +1,23 @@
+package it.unibz.inf.ontop.spec;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Saves an OBDA specification into a binary snapshot file and loads it back,
+ * so that the costly steps of its construction (DB metadata extraction, mapping saturation, etc.)
+ * are not repeated at each start.
+ *
+ * A snapshot carries the fingerprint of the inputs it has been compiled from.
+ */
+public interface OBDASpecificationSnapshotSerializer {
+
+    void save(OBDASpecification specification, String inputFingerprint, File snapshotFile) throws IOException;
+
+    /**
+     * Returns empty if the snapshot is stale (different input fingerprint) or has been produced
+     * by an incompatible version of Ontop.
+     */
+    Optional<OBDASpecification> load(File snapshotFile, String inputFingerprint) throws IOException;
+}
@@ -0,0 +1,102 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.OBDASpecificationSnapshotSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Binary format: a header (magic number, format version, Ontop version and input fingerprint)
+ * followed by the Java serialization of the specification.
+ *
+ * Factories and other injected components are not serialized but re-obtained from the injector when loading.
+ * Snapshots produced by another version of Ontop (or with another format version) are ignored, as well as
+ * the snapshots whose content does not match the current classes or contains a class not allowed
+ * by SnapshotObjectInputStream: the specification is then extracted again.
+ */
+@Singleton
+public class OBDASpecificationSnapshotSerializerImpl implements OBDASpecificationSnapshotSerializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OBDASpecificationSnapshotSerializerImpl.class);
+    private static final int MAGIC_NUMBER = 0x4F425344;
+    // To be increased whenever the content of the snapshots changes (e.g. new tokens)
+    private static final int FORMAT_VERSION = 2;
+    private static final String ONTOP_VERSION = loadOntopVersion();
+
+    private final Injector injector;
+
+    @Inject
+    private OBDASpecificationSnapshotSerializerImpl(Injector injector) {
+        this.injector = injector;
+    }
+
+    @Override
+    public void save(OBDASpecification specification, String inputFingerprint, File snapshotFile) throws IOException {
+        File tmpFile = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(ONTOP_VERSION);
+            out.writeUTF(inputFingerprint);
+
+            ObjectOutputStream objectOutputStream = new SnapshotObjectOutputStream(out, injector);
+            objectOutputStream.writeObject(specification);
+            objectOutputStream.flush();
+        }
+        catch (IOException e) {
+            tmpFile.delete();
+            throw e;
+        }
+        // Never leaves a partially written snapshot
+        if (!tmpFile.renameTo(snapshotFile) && !(snapshotFile.delete() && tmpFile.renameTo(snapshotFile)))
+            throw new IOException("Cannot write the snapshot file " + snapshotFile);
+    }
+
+    @Override
+    public Optional<OBDASpecification> load(File snapshotFile, String inputFingerprint) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC_NUMBER)
+                throw new IOException(snapshotFile + " is not an OBDA specification snapshot");
+
+            int formatVersion = in.readInt();
+            String ontopVersion = in.readUTF();
+            if (formatVersion != FORMAT_VERSION || !ontopVersion.equals(ONTOP_VERSION)) {
+                LOGGER.warn("The OBDA specification snapshot {} has been produced by another version of Ontop ({})",
+                        snapshotFile, ontopVersion);
+                return Optional.empty();
+            }
+            if (!in.readUTF().equals(inputFingerprint)) {
+                LOGGER.warn("The OBDA specification snapshot {} is stale (its inputs have changed)", snapshotFile);
+                return Optional.empty();
+            }
+
+            ObjectInputStream objectInputStream = new SnapshotObjectInputStream(in, injector);
+            return Optional.of((OBDASpecification) objectInputStream.readObject());
+        }
+        catch (ObjectStreamException | ClassNotFoundException | ClassCastException e) {
+            LOGGER.warn("The OBDA specification snapshot {} is incompatible with the current classes: {}",
+                    snapshotFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String loadOntopVersion() {
+        try (InputStream in = OBDASpecificationSnapshotSerializerImpl.class.getResourceAsStream("/version.properties")) {
+            if (in == null)
+                return "unknown";
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version", "unknown");
+        }
+        catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.spec.impl.SnapshotTokens.SnapshotToken;
+
+import java.io.*;
+
+/**
+ * Resolves the tokens written by SnapshotObjectOutputStream against the injector of the loading configuration.
+ *
+ * Only the classes that may appear in a snapshot are deserialized (Ontop classes, including the tokens,
+ * the JDK classes, the serialized forms of the Guava immutable collections, the JGraphT graphs of the ontology DAGs
+ * and the components referred to by the tokens; the immutable tables are written as tokens).
+ * Any other class is rejected before being instantiated (InvalidClassException).
+ */
+class SnapshotObjectInputStream extends ObjectInputStream {
+
+    private static final ImmutableSet<String> ALLOWED_PACKAGE_PREFIXES = ImmutableSet.of(
+            "it.unibz.inf.ontop.",
+            "java.",
+            "org.jgrapht.graph.",
+            "org.jgrapht.util.");
+
+    /**
+     * Types of the components re-obtained from the injector (see SnapshotTokens.ComponentToken)
+     */
+    private static final ImmutableSet<String> ALLOWED_COMPONENT_CLASSES = ImmutableSet.of(
+            "org.apache.commons.rdf.api.RDF");
+
+    /**
+     * The Guava immutable collections are replaced by their serialized form when written
+     */
+    private static final ImmutableSet<String> ALLOWED_GUAVA_CLASSES = ImmutableSet.of(
+            "com.google.common.collect.ImmutableList$SerializedForm",
+            "com.google.common.collect.ImmutableAsList$SerializedForm",
+            "com.google.common.collect.ImmutableSet$SerializedForm",
+            "com.google.common.collect.ImmutableSortedSet$SerializedForm",
+            "com.google.common.collect.ImmutableEnumSet$EnumSerializedForm",
+            "com.google.common.collect.ImmutableMap$SerializedForm",
+            "com.google.common.collect.ImmutableBiMap$SerializedForm",
+            "com.google.common.collect.ImmutableSortedMap$SerializedForm",
+            "com.google.common.collect.ImmutableEnumMap$EnumSerializedForm",
+            "com.google.common.collect.ImmutableMapKeySet$KeySetSerializedForm",
+            "com.google.common.collect.ImmutableMapValues$SerializedForm",
+            "com.google.common.collect.ImmutableMapEntrySet$EntrySetSerializedForm",
+            "com.google.common.collect.ImmutableMultiset$SerializedForm",
+            "com.google.common.collect.ImmutableMultimap",
+            "com.google.common.collect.ImmutableListMultimap",
+            "com.google.common.collect.ImmutableSetMultimap");
+
+    private final Injector injector;
+
+    SnapshotObjectInputStream(InputStream in, Injector injector) throws IOException {
+        super(in);
+        this.injector = injector;
+        enableResolveObject(true);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        checkAllowed(desc.getName());
+        return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+        for (String interfaceName : interfaces)
+            checkAllowed(interfaceName);
+        return super.resolveProxyClass(interfaces);
+    }
+
+    private static void checkAllowed(String className) throws InvalidClassException {
+        if (!isAllowed(getElementClassName(className)))
+            throw new InvalidClassException(className, "Not allowed in an OBDA specification snapshot");
+    }
+
+    private static boolean isAllowed(String className) {
+        return className.isEmpty() // Arrays of primitive values
+                || ALLOWED_GUAVA_CLASSES.contains(className)
+                || ALLOWED_COMPONENT_CLASSES.contains(className)
+                || ALLOWED_PACKAGE_PREFIXES.stream().anyMatch(className::startsWith);
+    }
+
+    /**
+     * Empty for the arrays of primitive values (e.g. "[I")
+     */
+    private static String getElementClassName(String className) {
+        if (!className.startsWith("["))
+            return className;
+        String elementDescriptor = className.substring(className.lastIndexOf('[') + 1);
+        return elementDescriptor.startsWith("L") && elementDescriptor.endsWith(";")
+                ? elementDescriptor.substring(1, elementDescriptor.length() - 1)
+                : "";
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) {
+        return (obj instanceof SnapshotToken)
+                ? ((SnapshotToken) obj).resolve(injector)
+                : obj;
+    }
+}
@@ -0,0 +1,142 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableTable;
+import com.google.common.reflect.TypeToken;
+import com.google.inject.*;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.spec.impl.SnapshotTokens.*;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Replaces the injected components, the term types, the IRIs and the optionals by tokens
+ * (see SnapshotObjectInputStream).
+ */
+class SnapshotObjectOutputStream extends ObjectOutputStream {
+
+    private final Injector injector;
+    private final TypeFactory typeFactory;
+    private final RDF rdfFactory;
+    private final Map<Class<?>, Optional<ComponentToken>> componentTokens;
+
+    SnapshotObjectOutputStream(OutputStream out, Injector injector) throws IOException {
+        super(out);
+        this.injector = injector;
+        this.typeFactory = injector.getInstance(TypeFactory.class);
+        this.rdfFactory = injector.getInstance(RDF.class);
+        this.componentTokens = new HashMap<>();
+        enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+        if (obj instanceof Optional)
+            return new OptionalToken(replaceOptionalValue(((Optional<?>) obj).orElse(null)));
+        if (obj instanceof IRI)
+            return new IRIToken(((IRI) obj).getIRIString());
+        if (obj instanceof TermType)
+            return TermTypeToken.of((TermType) obj, typeFactory, rdfFactory)
+                    .orElseThrow(() -> new NotSerializableException("Term type not obtainable from the type factory: "
+                            + obj));
+        if (obj instanceof ImmutableTable)
+            return new TableToken((ImmutableTable<?, ?, ?>) obj);
+        if (obj instanceof DBTypeFactory)
+            return new ComponentToken(DBTypeFactory.class);
+        if (obj instanceof RDF)
+            return new ComponentToken(RDF.class);
+        // Proxies (e.g. assisted-inject factories) are serializable
+        if ((obj instanceof Serializable) && !Proxy.isProxyClass(obj.getClass()))
+            return obj;
+
+        return getComponentToken(obj)
+                .map(t -> (Object) t)
+                .orElse(obj);
+    }
+
+    private Serializable replaceOptionalValue(Object value) throws IOException {
+        if (value == null || value instanceof Serializable)
+            return (Serializable) value;
+        Object replacement = replaceObject(value);
+        if (replacement instanceof Serializable)
+            return (Serializable) replacement;
+        throw new NotSerializableException(value.getClass().getName());
+    }
+
+    private Optional<ComponentToken> getComponentToken(Object obj) {
+        Class<?> type = obj.getClass();
+        Optional<ComponentToken> token = componentTokens.computeIfAbsent(type, t -> computeComponentToken(obj));
+
+        // Instances bound to an interface must be the ones of the injector
+        if (token.isPresent() && token.get().isBoundToInterface() && token.get().resolve(injector) != obj)
+            return isInjectable(type)
+                    ? Optional.of(new ComponentToken(type))
+                    : Optional.empty();
+        return token;
+    }
+
+    /**
+     * Either an object bound to one of its interfaces (e.g. settings, assisted-inject factories, singletons)
+     * or an object of an injectable class (re-injected when loading the snapshot)
+     */
+    private Optional<ComponentToken> computeComponentToken(Object obj) {
+        Class<?> type = obj.getClass();
+        for (Class<?> interfaceType : TypeToken.of(type).getTypes().interfaces().rawTypes()) {
+            Binding<?> binding = getExistingBinding(interfaceType);
+            if (binding != null && isSharedInstance(binding) && binding.getProvider().get() == obj)
+                return Optional.of(new ComponentToken(interfaceType));
+        }
+        return isInjectable(type)
+                ? Optional.of(new ComponentToken(type))
+                : Optional.empty();
+    }
+
+    @Nullable
+    private Binding<?> getExistingBinding(Class<?> type) {
+        // Generic types are not bound without type arguments
+        if (type.getTypeParameters().length > 0)
+            return null;
+        try {
+            return injector.getExistingBinding(Key.get(type));
+        }
+        catch (ConfigurationException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSharedInstance(Binding<?> binding) {
+        return Scopes.isSingleton(binding)
+                || (binding instanceof InstanceBinding)
+                || (binding instanceof ProviderInstanceBinding);
+    }
+
+    /**
+     * Has an injectable constructor without assisted parameters
+     */
+    private static boolean isInjectable(Class<?> type) {
+        return Arrays.stream(type.getDeclaredConstructors())
+                .filter(c -> c.isAnnotationPresent(Inject.class) || c.isAnnotationPresent(javax.inject.Inject.class))
+                .anyMatch(SnapshotObjectOutputStream::hasNoAssistedParameter);
+    }
+
+    private static boolean hasNoAssistedParameter(Constructor<?> constructor) {
+        return Arrays.stream(constructor.getParameterAnnotations())
+                .flatMap(Arrays::stream)
+                .map(Annotation::annotationType)
+                .noneMatch(Assisted.class::equals);
+    }
+}
@@ -0,0 +1,185 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.model.type.*;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.RDF;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Objects written into a specification snapshot in place of the objects that are not values
+ * (e.g. factories and other injected components) or that are created by factories (e.g. term types).
+ *
+ * They are resolved against the injector of the configuration loading the snapshot.
+ */
+class SnapshotTokens {
+
+    interface SnapshotToken extends Serializable {
+        Object resolve(Injector injector);
+    }
+
+    /**
+     * Injected component, identified by its injection key (interface or injectable class)
+     */
+    static class ComponentToken implements SnapshotToken {
+        private final Class<?> type;
+
+        ComponentToken(Class<?> type) {
+            this.type = type;
+        }
+
+        boolean isBoundToInterface() {
+            return type.isInterface();
+        }
+
+        @Override
+        public Object resolve(Injector injector) {
+            return type.equals(DBTypeFactory.class)
+                    ? injector.getInstance(TypeFactory.class).getDBTypeFactory()
+                    : injector.getInstance(type);
+        }
+    }
+
+    static class IRIToken implements SnapshotToken {
+        private final String iri;
+
+        IRIToken(String iri) {
+            this.iri = iri;
+        }
+
+        @Override
+        public Object resolve(Injector injector) {
+            return injector.getInstance(RDF.class).createIRI(iri);
+        }
+    }
+
+    /**
+     * Optional is not serializable
+     */
+    static class OptionalToken implements SnapshotToken {
+        private final Serializable value;
+
+        OptionalToken(Serializable value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object resolve(Injector injector) {
+            return Optional.ofNullable(value);
+        }
+    }
+
+    /**
+     * ImmutableTable is not serializable (in the version of Guava in use)
+     */
+    static class TableToken implements SnapshotToken {
+        private final ImmutableList<Object> rowKeys;
+        private final ImmutableList<Object> columnKeys;
+        private final ImmutableList<Object> values;
+
+        TableToken(ImmutableTable<?, ?, ?> table) {
+            ImmutableList<? extends Table.Cell<?, ?, ?>> cells = table.cellSet().asList();
+            this.rowKeys = cells.stream()
+                    .map(Table.Cell::getRowKey)
+                    .collect(ImmutableCollectors.toList());
+            this.columnKeys = cells.stream()
+                    .map(Table.Cell::getColumnKey)
+                    .collect(ImmutableCollectors.toList());
+            this.values = cells.stream()
+                    .map(Table.Cell::getValue)
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        @Override
+        public Object resolve(Injector injector) {
+            ImmutableTable.Builder<Object, Object, Object> builder = ImmutableTable.builder();
+            for (int i = 0; i < values.size(); i++)
+                builder.put(rowKeys.get(i), columnKeys.get(i), values.get(i));
+            return builder.build();
+        }
+    }
+
+    static class TermTypeToken implements SnapshotToken {
+
+        enum Kind {
+            DB,
+            DATATYPE,
+            LANG_STRING,
+            NAMED
+        }
+
+        private static final ImmutableMap<String, Function<TypeFactory, TermType>> NAMED_TYPES =
+                ImmutableMap.<String, Function<TypeFactory, TermType>>builder()
+                        .put("IRI", TypeFactory::getIRITermType)
+                        .put("BNODE", TypeFactory::getBlankNodeType)
+                        .put("UNSUPPORTED", TypeFactory::getUnsupportedDatatype)
+                        .put("ABSTRACT_ATOMIC", TypeFactory::getAbstractAtomicTermType)
+                        .put("ABSTRACT_RDF_TERM", TypeFactory::getAbstractRDFTermType)
+                        .put("ABSTRACT_OBJECT", TypeFactory::getAbstractObjectRDFType)
+                        .put("META", TypeFactory::getMetaRDFTermType)
+                        .put("ABSTRACT_DB", t -> t.getDBTypeFactory().getAbstractRootDBType())
+                        .build();
+
+        private final Kind kind;
+        private final String value;
+
+        private TermTypeToken(Kind kind, String value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        /**
+         * Returns empty if the term type cannot be re-obtained from the type factory
+         */
+        static Optional<TermTypeToken> of(TermType termType, TypeFactory typeFactory, RDF rdfFactory) {
+            Optional<String> namedType = NAMED_TYPES.entrySet().stream()
+                    .filter(e -> e.getValue().apply(typeFactory) == termType)
+                    .map(Map.Entry::getKey)
+                    .findFirst();
+
+            TermTypeToken token;
+            if (namedType.isPresent())
+                token = new TermTypeToken(Kind.NAMED, namedType.get());
+            else if (termType instanceof DBTermType)
+                token = new TermTypeToken(Kind.DB, ((DBTermType) termType).getName());
+            else if (termType instanceof RDFDatatype) {
+                RDFDatatype datatype = (RDFDatatype) termType;
+                token = datatype.getLanguageTag()
+                        .map(t -> new TermTypeToken(Kind.LANG_STRING, t.getFullString()))
+                        .orElseGet(() -> new TermTypeToken(Kind.DATATYPE, datatype.getIRI().getIRIString()));
+            }
+            else
+                return Optional.empty();
+
+            return Optional.of(token)
+                    .filter(t -> t.resolve(typeFactory, rdfFactory).equals(termType));
+        }
+
+        @Override
+        public Object resolve(Injector injector) {
+            return resolve(injector.getInstance(TypeFactory.class), injector.getInstance(RDF.class));
+        }
+
+        private TermType resolve(TypeFactory typeFactory, RDF rdfFactory) {
+            switch (kind) {
+                case DB:
+                    return typeFactory.getDBTypeFactory().getDBTermType(value);
+                case DATATYPE:
+                    return typeFactory.getDatatype(rdfFactory.createIRI(value));
+                case LANG_STRING:
+                    return typeFactory.getLangTermType(value);
+                case NAMED:
+                default:
+                    return NAMED_TYPES.get(value).apply(typeFactory);
+            }
+        }
+    }
+}
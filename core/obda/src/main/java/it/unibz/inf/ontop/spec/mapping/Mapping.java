@@ -9,6 +9,7 @@ import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import org.apache.commons.rdf.api.IRI;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 /**
@@ -22,7 +23,7 @@ import java.util.Optional;
  * See SpecificationFactory for creating a new instance.
  *
  */
-public interface Mapping {
+public interface Mapping extends Serializable {
     /**
      * rdfAtomPredicate indicates if it is a triple, a quad (or something else)
      */
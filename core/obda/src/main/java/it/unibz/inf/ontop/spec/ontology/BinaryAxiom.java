@@ -20,6 +20,8 @@ package it.unibz.inf.ontop.spec.ontology;
  * #L%
  */
 
+import java.io.Serializable;
+
 /**
  * Represents the following from OWL 2 QL Specification:
  * 
@@ -42,7 +44,7 @@ package it.unibz.inf.ontop.spec.ontology;
  *
  */
 
-public interface BinaryAxiom<T> {
+public interface BinaryAxiom<T> extends Serializable {
 
 	T getSub();
 
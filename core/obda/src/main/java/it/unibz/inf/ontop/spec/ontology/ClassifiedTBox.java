@@ -23,11 +23,13 @@ package it.unibz.inf.ontop.spec.ontology;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import java.io.Serializable;
+
 /**
  *  This is the interface for the class ClassifiedTBox where we are able
  *  to retrieve all the connection built in our DAG
  */
-public interface ClassifiedTBox {
+public interface ClassifiedTBox extends Serializable {
 	
 	/**
 	 * object properties
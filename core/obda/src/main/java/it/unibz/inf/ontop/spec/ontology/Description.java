@@ -20,10 +20,12 @@ package it.unibz.inf.ontop.spec.ontology;
  * #L%
  */
 
+import java.io.Serializable;
+
 /***
  * An entity descriptor, either role or class.
  */
 
-public interface Description {
+public interface Description extends Serializable {
 	// NO-OP
 }
@@ -23,10 +23,11 @@ package it.unibz.inf.ontop.spec.ontology;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.stream.Stream;
 
-public class Equivalences<T> implements Iterable<T> {
+public class Equivalences<T> implements Iterable<T>, Serializable {
 	
 	final private ImmutableSet<T> members;
 	// two mutables
@@ -2,9 +2,10 @@ package it.unibz.inf.ontop.spec.ontology;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.io.Serializable;
 import java.util.stream.Stream;
 
-public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
+public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>>, Serializable {
 
 	Equivalences<T> getVertex(T v);
 
@@ -22,6 +22,8 @@ package it.unibz.inf.ontop.spec.ontology;
 
 import com.google.common.collect.ImmutableList;
 
+import java.io.Serializable;
+
 /**
  * Represents the following from OWL 2 QL Specification:
  * 
@@ -38,7 +40,7 @@ import com.google.common.collect.ImmutableList;
  *
  */
 
-public interface NaryAxiom<T> {
+public interface NaryAxiom<T> extends Serializable {
 
 	ImmutableList<T> getComponents();
 
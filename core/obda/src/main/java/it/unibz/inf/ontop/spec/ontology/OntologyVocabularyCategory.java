@@ -3,7 +3,9 @@ package it.unibz.inf.ontop.spec.ontology;
 
 import org.apache.commons.rdf.api.IRI;
 
-public interface OntologyVocabularyCategory<T> extends Iterable<T> {
+import java.io.Serializable;
+
+public interface OntologyVocabularyCategory<T> extends Iterable<T>, Serializable {
     /**
      * check whether the entity has been declared and return the entity object
      *
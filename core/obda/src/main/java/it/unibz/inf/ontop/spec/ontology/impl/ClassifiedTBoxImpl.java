@@ -92,6 +92,11 @@ public class ClassifiedTBoxImpl implements ClassifiedTBox {
 		chooseClassRepresentatives(classDAG, objectPropertyDAG, dataPropertyDAG);
 		chooseDataRangeRepresentatives(dataRangeDAG, dataPropertyDAG);
 
+		objectPropertyDAG.indexSubRepresentatives();
+		dataPropertyDAG.indexSubRepresentatives();
+		classDAG.indexSubRepresentatives();
+		dataRangeDAG.indexSubRepresentatives();
+
 		ClassifiedTBoxImpl r = new ClassifiedTBoxImpl(
                 onto.classes(),
                 onto.objectProperties(),
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.spec.ontology.impl;
  */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.Equivalences;
@@ -28,10 +29,9 @@ import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.traverse.BreadthFirstIterator;
 
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -55,9 +55,14 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	// maps all Ts (even from the non-reduced DAG) to the vertices of the possibly reduced DAG
 	private final ImmutableMap<T, Equivalences<T>> fullVertexIndex;   
 
-	// caches
-	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new HashMap<>();
-	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub = new HashMap<>();
+	// reachability index: reflexive and transitive closures of the DAG edges
+	// (immutable, shared by the query threads)
+	private final ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub;
+	private final ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> sup;
+
+	// built once the representatives have been chosen (null before)
+	@Nullable
+	private volatile ImmutableMap<Equivalences<T>, ImmutableSet<T>> subRep;
 
 	private DefaultDirectedGraph<T,DefaultEdge> graph; // used in tests only
 	
@@ -66,28 +71,82 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		this.dag = dag;
 		this.vertexIndex = vertexIndex;
 		this.fullVertexIndex = fullVertexIndex;
-	}
 
-	private static <T> ImmutableSet<T> immutableSetOf(BreadthFirstIterator<T, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+		ImmutableList<Equivalences<T>> vertices = ImmutableList.copyOf(dag.vertexSet());
+		Map<Equivalences<T>, Integer> ids = new HashMap<>();
+		for (int i = 0; i < vertices.size(); i++)
+			ids.put(vertices.get(i), i);
 
-		while (iterator.hasNext()) {
-			T child = iterator.next();
-			builder.add(child);
+		int[][] directSub = new int[vertices.size()][];
+		int[][] directSuper = new int[vertices.size()][];
+		for (int i = 0; i < vertices.size(); i++) {
+			Equivalences<T> v = vertices.get(i);
+			directSub[i] = dag.incomingEdgesOf(v).stream()
+					.mapToInt(e -> ids.get(dag.getEdgeSource(e)))
+					.toArray();
+			directSuper[i] = dag.outgoingEdgesOf(v).stream()
+					.mapToInt(e -> ids.get(dag.getEdgeTarget(e)))
+					.toArray();
 		}
-		return builder.build();
+
+		this.sub = computeClosures(vertices, directSub);
+		this.sup = computeClosures(vertices, directSuper);
 	}
 
-	private static <T> ImmutableSet<T> immutableSetOfRepresentatives(BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+	/**
+	 * Breadth-first traversal from each vertex over dense integer ids
+	 * (same order as a BreadthFirstIterator on the DAG).
+	 */
+	private static <T> ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> computeClosures(
+			ImmutableList<Equivalences<T>> vertices, int[][] adjacency) {
+
+		int[] queue = new int[vertices.size()];
+		// vertex -> last traversal it was visited in (avoids clearing a visited array for each traversal)
+		int[] visitedIn = new int[vertices.size()];
+		Arrays.fill(visitedIn, -1);
 
-		while (iterator.hasNext()) {
-			Equivalences<T> child = iterator.next();
-			builder.add(child.getRepresentative());
+		ImmutableMap.Builder<Equivalences<T>, ImmutableSet<Equivalences<T>>> builder = ImmutableMap.builder();
+		for (int start = 0; start < vertices.size(); start++) {
+			int head = 0, tail = 0;
+			queue[tail++] = start;
+			visitedIn[start] = start;
+			ImmutableSet.Builder<Equivalences<T>> closureBuilder = ImmutableSet.builder();
+			while (head < tail) {
+				int v = queue[head++];
+				closureBuilder.add(vertices.get(v));
+				for (int w : adjacency[v]) {
+					if (visitedIn[w] != start) {
+						visitedIn[w] = start;
+						queue[tail++] = w;
+					}
+				}
+			}
+			builder.put(vertices.get(start), closureBuilder.build());
 		}
 		return builder.build();
 	}
 
+	/**
+	 * To be called once the representatives of the equivalence sets are final
+	 * (otherwise, the sub-representatives are computed on each call).
+	 */
+	void indexSubRepresentatives() {
+		subRep = sub.entrySet().stream()
+				.collect(ImmutableCollectors.toMap(
+						Map.Entry::getKey,
+						e -> e.getValue().stream()
+								.map(Equivalences::getRepresentative)
+								.collect(ImmutableCollectors.toSet())));
+	}
+
+	private ImmutableSet<Equivalences<T>> getClosure(ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> closures,
+													  Equivalences<T> v) {
+		ImmutableSet<Equivalences<T>> closure = closures.get(v);
+		if (closure == null)
+			throw new IllegalArgumentException("The DAG does not contain the vertex " + v);
+		return closure;
+	}
+
 	/** 
 	 * 
 	 */
@@ -120,8 +179,7 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v) {
-		return sub.computeIfAbsent(v,
-				n -> immutableSetOf(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		return getClosure(sub, v);
 	}
 
 	/** 
@@ -133,8 +191,13 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		if (eq == null)
 			return ImmutableSet.of(v);
 
-		return subRep.computeIfAbsent(eq,
-				n -> immutableSetOfRepresentatives(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		ImmutableMap<Equivalences<T>, ImmutableSet<T>> index = subRep;
+		if (index != null)
+			return index.get(eq);
+
+		return getClosure(sub, eq).stream()
+				.map(Equivalences::getRepresentative)
+				.collect(ImmutableCollectors.toSet());
 	}
 	
 
@@ -154,7 +217,7 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v) {
-		return immutableSetOf(new BreadthFirstIterator<>(dag, v));
+		return getClosure(sup, v);
 	}
 
 	@Override
@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Trees loaded from a snapshot must stay equal to the trees built in the current JVM
+ * (the hash codes cached before saving are not reused).
+ */
+public class SnapshotIQTreeTest {
+
+    @Test
+    public void testTreeRoundTrip() throws Exception {
+        OntopModelConfiguration configuration = OntopModelConfiguration.defaultBuilder().build();
+        Injector injector = configuration.getInjector();
+        IntermediateQueryFactory iqFactory = configuration.getIQFactory();
+        TermFactory termFactory = configuration.getTermFactory();
+        SubstitutionFactory substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+
+        Variable x = termFactory.getVariable("x");
+        IQTree tree = iqFactory.createUnaryIQTree(
+                iqFactory.createFilterNode(termFactory.getDBIsNotNull(x)),
+                iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(ImmutableSet.of(x), substitutionFactory.getSubstitution(x,
+                                termFactory.getNullRejectingDBConcatFunctionalTerm(ImmutableList.of(
+                                        termFactory.getDBStringConstant("a"), termFactory.getDBStringConstant("b"))))),
+                        iqFactory.createTrueNode()));
+        int hashCode = tree.hashCode();
+
+        IQTree loadedTree = (IQTree) readBack(tree, injector);
+
+        assertEquals(tree, loadedTree);
+        assertEquals(loadedTree, tree);
+        assertEquals(hashCode, loadedTree.hashCode());
+    }
+
+    private static Object readBack(Object object, Injector injector) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new SnapshotObjectOutputStream(bytes, injector)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new SnapshotObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()),
+                injector)) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.spec.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Guice;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SnapshotObjectInputStreamTest {
+
+    @Test
+    public void testAllowedClasses() throws Exception {
+        ImmutableMap<String, ImmutableList<Integer>> map = ImmutableMap.of("a", ImmutableList.of(1, 2), "b", ImmutableList.of());
+        assertEquals(map, readBack(map));
+        assertEquals(ImmutableSet.of("a", "b"), readBack(ImmutableSet.of("a", "b")));
+        assertTrue(Arrays.equals(new int[]{1, 2}, (int[]) readBack(new int[]{1, 2})));
+        assertTrue(Arrays.deepEquals(new String[][]{{"a"}}, (String[][]) readBack(new String[][]{{"a"}})));
+    }
+
+    /**
+     * As in the ontology DAGs
+     */
+    @Test
+    public void testGraph() throws Exception {
+        DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b");
+
+        @SuppressWarnings("unchecked")
+        DefaultDirectedGraph<String, DefaultEdge> loadedGraph = (DefaultDirectedGraph<String, DefaultEdge>) readBack(graph);
+        assertEquals(graph.vertexSet(), loadedGraph.vertexSet());
+        assertTrue(loadedGraph.containsEdge("a", "b"));
+    }
+
+    /**
+     * Serializable, but not expected in a snapshot
+     */
+    @Test(expected = InvalidClassException.class)
+    public void testRejectedClass() throws Exception {
+        readBack(com.google.common.base.Optional.of("a"));
+    }
+
+    @Test(expected = InvalidClassException.class)
+    public void testRejectedArrayClass() throws Exception {
+        readBack(new com.google.common.base.Optional<?>[]{ com.google.common.base.Optional.of("a") });
+    }
+
+    private static Object readBack(Object object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new SnapshotObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()),
+                Guice.createInjector())) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.spec.ontology.*;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class EquivalencesDAGReachabilityTest {
+
+    private final RDF rdfFactory = new SimpleRDF();
+    private static final TermFactory TERM_FACTORY = OntopModelConfiguration.defaultBuilder().build().getTermFactory();
+
+    /**
+     * D <= B, D <= C, B <= A, C <= A, E <= C, C = F
+     */
+    @Test
+    public void subAndSuperClosures() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(rdfFactory, TERM_FACTORY);
+        OClass a = declareClass(builder, "A");
+        OClass b = declareClass(builder, "B");
+        OClass c = declareClass(builder, "C");
+        OClass d = declareClass(builder, "D");
+        OClass e = declareClass(builder, "E");
+        OClass f = declareClass(builder, "F");
+        builder.addSubClassOfAxiom(d, b);
+        builder.addSubClassOfAxiom(d, c);
+        builder.addSubClassOfAxiom(b, a);
+        builder.addSubClassOfAxiom(c, a);
+        builder.addSubClassOfAxiom(e, c);
+        builder.addSubClassOfAxiom(c, f);
+        builder.addSubClassOfAxiom(f, c);
+
+        EquivalencesDAG<ClassExpression> dag = builder.build().tbox().classesDAG();
+        Equivalences<ClassExpression> av = dag.getVertex(a), bv = dag.getVertex(b), cv = dag.getVertex(c),
+                dv = dag.getVertex(d), ev = dag.getVertex(e);
+
+        assertEquals(ImmutableSet.of(av, bv, cv, dv, ev), dag.getSub(av));
+        assertEquals(ImmutableSet.of(cv, dv, ev), dag.getSub(cv));
+        assertEquals(ImmutableSet.of(dv), dag.getSub(dv));
+        assertEquals(ImmutableSet.of(dv, bv, cv, av), dag.getSuper(dv));
+        assertEquals(ImmutableSet.of(ev, cv, av), dag.getSuper(ev));
+        assertEquals(ImmutableSet.of(av), dag.getSuper(av));
+
+        ClassExpression cRepresentative = cv.getRepresentative();
+        assertEquals(ImmutableSet.of(cRepresentative, d, e), dag.getSubRepresentatives(f));
+        assertEquals(ImmutableSet.of(b, d), dag.getSubRepresentatives(b));
+    }
+
+    /**
+     * Without indexing, the representatives chosen after the construction of the DAG are taken into account
+     */
+    @Test
+    public void subRepresentativesBeforeIndexing() {
+        DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addEdge("b", "a");
+        graph.addEdge("c", "b");
+        graph.addEdge("b", "c");
+
+        EquivalencesDAGImpl<String> dag = EquivalencesDAGImpl.getEquivalencesDAG(graph);
+        for (Equivalences<String> v : dag)
+            v.setRepresentative(v.getMembers().iterator().next());
+        dag.getVertex("b").setRepresentative("c");
+        assertEquals(ImmutableSet.of("a", "c"), dag.getSubRepresentatives("a"));
+
+        dag.indexSubRepresentatives();
+        assertEquals(ImmutableSet.of("a", "c"), dag.getSubRepresentatives("a"));
+        assertEquals(ImmutableSet.of("c"), dag.getSubRepresentatives("b"));
+    }
+
+    private OClass declareClass(OntologyBuilder builder, String name) {
+        return builder.declareClass(rdfFactory.createIRI("http://example.org/" + name));
+    }
+}
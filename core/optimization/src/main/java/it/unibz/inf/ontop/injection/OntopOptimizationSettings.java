@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.injection;
 
 
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.iq.planner.impl.CostBasedQueryPlanner;
 
 public interface OntopOptimizationSettings extends OntopModelSettings {
 
@@ -17,6 +19,16 @@ public interface OntopOptimizationSettings extends OntopModelSettings {
         }
     }
 
+    /**
+     * True if the selected query planner relies on the statistics of the DBMS (see CostBasedQueryPlanner),
+     * which then need to be extracted together with the DB metadata
+     */
+    default boolean isDBStatisticsRequired() {
+        return getProperty(QueryPlanner.class.getCanonicalName())
+                .filter(n -> n.equals(CostBasedQueryPlanner.class.getCanonicalName()))
+                .isPresent();
+    }
+
     //-------
     // Keys
     //-------
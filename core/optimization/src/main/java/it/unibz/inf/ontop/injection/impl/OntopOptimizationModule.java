@@ -9,14 +9,13 @@ import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
 import it.unibz.inf.ontop.injection.OptimizationSingletons;
 import it.unibz.inf.ontop.injection.OptimizerFactory;
 import it.unibz.inf.ontop.iq.executor.construction.ConstructionNodeCleaningExecutor;
-import it.unibz.inf.ontop.iq.executor.join.InnerJoinExecutor;
-import it.unibz.inf.ontop.iq.executor.leftjoin.LeftJoinExecutor;
 import it.unibz.inf.ontop.iq.executor.leftjoin.LeftJoinRightChildNormalizationAnalyzer;
 import it.unibz.inf.ontop.iq.executor.projection.ProjectionShrinkingExecutor;
 import it.unibz.inf.ontop.iq.executor.substitution.SubstitutionPropagationExecutor;
 import it.unibz.inf.ontop.iq.executor.union.FlattenUnionExecutor;
 import it.unibz.inf.ontop.iq.executor.union.UnionLiftExecutor;
 import it.unibz.inf.ontop.iq.optimizer.*;
+import it.unibz.inf.ontop.iq.planner.CardinalityEstimator;
 import it.unibz.inf.ontop.iq.planner.QueryPlanner;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
 import it.unibz.inf.ontop.iq.transformer.BooleanExpressionPushDownTransformer;
@@ -42,17 +41,13 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bind(OntopOptimizationSettings.class).toInstance(configuration.getSettings());
 
         // Executors
-        bindFromSettings(InnerJoinExecutor.class);
         bindFromSettings(SubstitutionPropagationExecutor.class);
         bindFromSettings(UnionBasedQueryMerger.class);
         bindFromSettings(UnionLiftExecutor.class);
-        bindFromSettings(LeftJoinExecutor.class);
         bindFromSettings(ProjectionShrinkingExecutor.class);
         bindFromSettings(FlattenUnionExecutor.class);
         bindFromSettings(ConstructionNodeCleaningExecutor.class);
-        bindFromSettings(InnerJoinMutableOptimizer.class);
         bindFromSettings(JoinLikeOptimizer.class);
-        bindFromSettings(LeftJoinMutableOptimizer.class);
         bindFromSettings(BindingLiftOptimizer.class);
         bindFromSettings(LeftJoinRightChildNormalizationAnalyzer.class);
         bindFromSettings(UnionAndBindingLiftOptimizer.class);
@@ -66,6 +61,7 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bindFromSettings(BooleanExpressionPushDownTransformer.class);
         bindFromSettings(GeneralStructuralAndSemanticIQOptimizer.class);
         bindFromSettings(QueryPlanner.class);
+        bindFromSettings(CardinalityEstimator.class);
         bindFromSettings(SelfJoinSameTermIQOptimizer.class);
         bindFromSettings(RequiredExtensionalDataNodeExtractor.class);
         bindFromSettings(SelfJoinUCIQOptimizer.class);
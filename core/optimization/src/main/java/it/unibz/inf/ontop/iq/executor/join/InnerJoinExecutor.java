@@ -1,9 +0,0 @@
-package it.unibz.inf.ontop.iq.executor.join;
-
-
-import it.unibz.inf.ontop.iq.executor.SimpleNodeCentricExecutor;
-import it.unibz.inf.ontop.iq.node.InnerJoinNode;
-import it.unibz.inf.ontop.iq.proposal.InnerJoinOptimizationProposal;
-
-public interface InnerJoinExecutor extends SimpleNodeCentricExecutor<InnerJoinNode, InnerJoinOptimizationProposal> {
-}
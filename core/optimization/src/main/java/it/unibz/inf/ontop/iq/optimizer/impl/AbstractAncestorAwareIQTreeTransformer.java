@@ -0,0 +1,136 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.stream.Stream;
+
+/**
+ * Recursive transformer that keeps track of some information about the ancestors of the tree being transformed:
+ *   - the variables required by the ancestors (up to the closest explicit projection)
+ *   - the ancestor at the level of which the variable nullability is the most informative
+ *     (going up through filters, inner joins and the left side of left joins)
+ *
+ * Used by IQ-native optimizations that were previously applied to the mutable IntermediateQuery.
+ *
+ * A new transformer is created for each child.
+ */
+public abstract class AbstractAncestorAwareIQTreeTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+    private final ImmutableSet<Variable> variablesRequiredByAncestors;
+    private final IQTree variableNullabilityAncestor;
+
+    /**
+     * For the root of the IQ
+     */
+    protected AbstractAncestorAwareIQTreeTransformer(ImmutableSet<Variable> projectedVariables,
+                                                     IQTree tree, CoreSingletons coreSingletons) {
+        super(coreSingletons);
+        this.variablesRequiredByAncestors = projectedVariables;
+        this.variableNullabilityAncestor = tree;
+    }
+
+    protected abstract AbstractAncestorAwareIQTreeTransformer createChildTransformer(
+            ImmutableSet<Variable> variablesRequiredByAncestors, IQTree variableNullabilityAncestor);
+
+    /**
+     * Variables of the tree used by its ancestors
+     */
+    protected ImmutableSet<Variable> getVariablesRequiredByAncestors(IQTree tree) {
+        return tree.getVariables().stream()
+                .filter(variablesRequiredByAncestors::contains)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    /**
+     * Variable nullability at the level of the highest ancestor that does not introduce nulls
+     */
+    protected VariableNullability getInheritedVariableNullability() {
+        return variableNullabilityAncestor.getVariableNullability();
+    }
+
+    @Override
+    protected IQTree transformUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
+        IQTree newChild = child.acceptTransformer(createChildTransformer(tree, child, rootNode instanceof FilterNode));
+        return newChild.equals(child) && rootNode.equals(tree.getRootNode())
+                ? tree
+                : iqFactory.createUnaryIQTree(rootNode, newChild);
+    }
+
+    @Override
+    protected IQTree transformNaryCommutativeNode(IQTree tree, NaryOperatorNode rootNode, ImmutableList<IQTree> children) {
+        ImmutableList<IQTree> newChildren = transformChildren(tree, children);
+
+        return newChildren.equals(children) && rootNode.equals(tree.getRootNode())
+                ? tree
+                : iqFactory.createNaryIQTree(rootNode, newChildren);
+    }
+
+    protected ImmutableList<IQTree> transformChildren(IQTree tree, ImmutableList<IQTree> children) {
+        boolean isInnerJoin = tree.getRootNode() instanceof InnerJoinNode;
+        return children.stream()
+                .map(c -> c.acceptTransformer(createChildTransformer(tree, c, isInnerJoin)))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    protected IQTree transformBinaryNonCommutativeNode(IQTree tree, BinaryNonCommutativeOperatorNode rootNode,
+                                                       IQTree leftChild, IQTree rightChild) {
+        IQTree newLeftChild = transformLeftChild(tree, leftChild);
+        IQTree newRightChild = transformRightChild(tree, rightChild);
+        return newLeftChild.equals(leftChild) && newRightChild.equals(rightChild) && rootNode.equals(tree.getRootNode())
+                ? tree
+                : iqFactory.createBinaryNonCommutativeIQTree(rootNode, newLeftChild, newRightChild);
+    }
+
+    protected IQTree transformLeftChild(IQTree tree, IQTree leftChild) {
+        return leftChild.acceptTransformer(createChildTransformer(tree, leftChild,
+                tree.getRootNode() instanceof LeftJoinNode));
+    }
+
+    protected IQTree transformRightChild(IQTree tree, IQTree rightChild) {
+        return rightChild.acceptTransformer(createChildTransformer(tree, rightChild, false));
+    }
+
+    private AbstractAncestorAwareIQTreeTransformer createChildTransformer(IQTree tree, IQTree child,
+                                                                         boolean inheritsVariableNullability) {
+        QueryNode rootNode = tree.getRootNode();
+        ImmutableSet<Variable> locallyRequiredVariables = extractRequiredVariables(tree);
+
+        ImmutableSet<Variable> childRequiredVariables = (rootNode instanceof ExplicitVariableProjectionNode)
+                ? locallyRequiredVariables
+                : Stream.concat(variablesRequiredByAncestors.stream(), locallyRequiredVariables.stream())
+                    .collect(ImmutableCollectors.toSet());
+
+        return createChildTransformer(childRequiredVariables,
+                inheritsVariableNullability ? variableNullabilityAncestor : child);
+    }
+
+    /**
+     * For join-like nodes, the variables shared by several children are also required
+     */
+    private static ImmutableSet<Variable> extractRequiredVariables(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        if (!(rootNode instanceof JoinLikeNode))
+            return rootNode.getLocallyRequiredVariables();
+
+        ImmutableMultiset<Variable> childrenVariableBag = tree.getChildren().stream()
+                .flatMap(c -> c.getVariables().stream())
+                .collect(ImmutableCollectors.toMultiset());
+
+        return Stream.concat(
+                childrenVariableBag.entrySet().stream()
+                        .filter(e -> e.getCount() > 1)
+                        .map(Multiset.Entry::getElement),
+                rootNode.getLocallyRequiredVariables().stream())
+                .collect(ImmutableCollectors.toSet());
+    }
+}
@@ -7,6 +7,7 @@ import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.optimizer.LeftJoinIQOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.impl.lj.CardinalityInsensitiveJoinTransferLJOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.impl.lj.CardinalitySensitiveJoinTransferLJOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.impl.lj.LeftToInnerJoinIQOptimizer;
 
 public class DefaultCompositeLeftJoinIQOptimizer implements LeftJoinIQOptimizer {
 
@@ -15,10 +16,12 @@ public class DefaultCompositeLeftJoinIQOptimizer implements LeftJoinIQOptimizer
     @Inject
     private DefaultCompositeLeftJoinIQOptimizer(
             CardinalitySensitiveJoinTransferLJOptimizer cardinalitySensitiveJoinTransferLJOptimizer,
-            CardinalityInsensitiveJoinTransferLJOptimizer cardinalityInsensitiveJoinTransferLJOptimizer) {
+            CardinalityInsensitiveJoinTransferLJOptimizer cardinalityInsensitiveJoinTransferLJOptimizer,
+            LeftToInnerJoinIQOptimizer leftToInnerJoinIQOptimizer) {
         this.optimizers = ImmutableList.of(
                 cardinalitySensitiveJoinTransferLJOptimizer,
-                cardinalityInsensitiveJoinTransferLJOptimizer);
+                cardinalityInsensitiveJoinTransferLJOptimizer,
+                leftToInnerJoinIQOptimizer);
 
     }
 
@@ -0,0 +1,237 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.*;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.dbschema.ForeignKeyConstraint;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.optimizer.InnerJoinIQOptimizer;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Uses foreign keys to remove some redundant inner joins.
+ *
+ * Immutable-IQ replacement for the former RedundantJoinFKExecutor.
+ *
+ * Normalization assumption: variables are reused between data nodes (no explicit equality between variables)
+ */
+public class RedundantJoinFKIQOptimizer implements InnerJoinIQOptimizer {
+
+    private final CoreSingletons coreSingletons;
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    protected RedundantJoinFKIQOptimizer(CoreSingletons coreSingletons) {
+        this.coreSingletons = coreSingletons;
+        this.iqFactory = coreSingletons.getIQFactory();
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree initialTree = query.getTree();
+        RedundantJoinFKTransformer transformer = new RedundantJoinFKTransformer(
+                query.getProjectionAtom().getVariables(), initialTree, coreSingletons);
+
+        IQTree newTree = initialTree.acceptTransformer(transformer);
+        return (newTree == initialTree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree)
+                .normalizeForOptimization();
+    }
+
+    protected static class RedundantJoinFKTransformer extends AbstractAncestorAwareIQTreeTransformer {
+
+        private final CoreSingletons coreSingletons;
+        private final TermFactory termFactory;
+
+        protected RedundantJoinFKTransformer(ImmutableSet<Variable> variablesRequiredByAncestors,
+                                             IQTree variableNullabilityAncestor, CoreSingletons coreSingletons) {
+            super(variablesRequiredByAncestors, variableNullabilityAncestor, coreSingletons);
+            this.coreSingletons = coreSingletons;
+            this.termFactory = coreSingletons.getTermFactory();
+        }
+
+        @Override
+        protected AbstractAncestorAwareIQTreeTransformer createChildTransformer(
+                ImmutableSet<Variable> variablesRequiredByAncestors, IQTree variableNullabilityAncestor) {
+            return new RedundantJoinFKTransformer(variablesRequiredByAncestors, variableNullabilityAncestor,
+                    coreSingletons);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<IQTree> newChildren = transformChildren(tree, children);
+
+            ImmutableMultimap<RelationDefinition, ExtensionalDataNode> dataNodeMap = newChildren.stream()
+                    .filter(c -> c instanceof ExtensionalDataNode)
+                    .map(c -> (ExtensionalDataNode) c)
+                    .collect(ImmutableCollectors.toMultimap(ExtensionalDataNode::getRelationDefinition, c -> c));
+
+            ImmutableSet<Variable> variablesUsedOutsideTheChildren = Stream.concat(
+                    getVariablesRequiredByAncestors(tree).stream(),
+                    rootNode.getLocallyRequiredVariables().stream())
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableList<Redundancy> redundancies = dataNodeMap.keySet().stream()
+                    .flatMap(r -> r.getForeignKeys().stream()
+                            .flatMap(c -> selectRedundantNodesForConstraint(r, c, newChildren, dataNodeMap,
+                                    variablesUsedOutsideTheChildren)))
+                    .collect(ImmutableCollectors.toList());
+
+            if (redundancies.isEmpty())
+                return newChildren.equals(children)
+                        ? tree
+                        : iqFactory.createNaryIQTree(rootNode, newChildren);
+
+            ImmutableSet<ExtensionalDataNode> nodesToRemove = redundancies.stream()
+                    .map(r -> r.dataNode)
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableSet<Variable> variablesToRequireNonNull = redundancies.stream()
+                    .flatMap(r -> r.fkVariables.stream())
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableList<IQTree> remainingChildren = newChildren.stream()
+                    .filter(c -> !nodesToRemove.contains(c))
+                    .collect(ImmutableCollectors.toList());
+
+            Optional<ImmutableExpression> newCondition = termFactory.getConjunction(Stream.concat(
+                    rootNode.getOptionalFilterCondition()
+                            .map(ImmutableExpression::flattenAND)
+                            .orElseGet(Stream::empty),
+                    variablesToRequireNonNull.stream()
+                            .map(termFactory::getDBIsNotNull)));
+
+            switch (remainingChildren.size()) {
+                case 0:
+                    throw new IllegalStateException("Redundant join elimination should not eliminate all the children");
+                case 1:
+                    IQTree remainingChild = remainingChildren.get(0);
+                    return newCondition
+                            .<IQTree>map(c -> iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), remainingChild))
+                            .orElse(remainingChild);
+                default:
+                    return iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(newCondition), remainingChildren);
+            }
+        }
+
+        private Stream<Redundancy> selectRedundantNodesForConstraint(
+                RelationDefinition sourceRelation, ForeignKeyConstraint constraint, ImmutableList<IQTree> children,
+                ImmutableMultimap<RelationDefinition, ExtensionalDataNode> dataNodeMap,
+                ImmutableSet<Variable> variablesUsedOutsideTheChildren) {
+            /*
+             * "Target" data nodes === "referenced" data nodes
+             */
+            ImmutableCollection<ExtensionalDataNode> targetDataNodes = dataNodeMap.get(constraint.getReferencedRelation());
+
+            /*
+             * No optimization possible
+             */
+            if (targetDataNodes.isEmpty()) {
+                return Stream.empty();
+            }
+
+            return dataNodeMap.get(sourceRelation).stream()
+                    .flatMap(s -> targetDataNodes.stream()
+                            .filter(t -> areMatching(s, t, constraint)))
+                    .distinct()
+                    .filter(t -> areNonFKColumnsUnused(t, constraint, children, variablesUsedOutsideTheChildren))
+                    .map(t -> new Redundancy(t, extractJoiningVariables(t, constraint)));
+        }
+
+        private boolean areMatching(ExtensionalDataNode sourceDataNode, ExtensionalDataNode targetDataNode,
+                                    ForeignKeyConstraint constraint) {
+
+            ImmutableMap<Integer, ? extends VariableOrGroundTerm> sourceArgumentMap = sourceDataNode.getArgumentMap();
+            ImmutableMap<Integer, ? extends VariableOrGroundTerm> targetArgumentMap = targetDataNode.getArgumentMap();
+
+            return constraint.getComponents().stream()
+                    .allMatch(c -> {
+                        Optional<? extends VariableOrGroundTerm> source = Optional.ofNullable(
+                                sourceArgumentMap.get(c.getAttribute().getIndex() - 1));
+                        return source.isPresent()
+                                && source.equals(Optional.ofNullable(targetArgumentMap.get(c.getReferencedAttribute().getIndex() - 1)));
+                    });
+        }
+
+        private boolean areNonFKColumnsUnused(ExtensionalDataNode targetDataNode, ForeignKeyConstraint constraint,
+                                              ImmutableList<IQTree> children,
+                                              ImmutableSet<Variable> variablesUsedOutsideTheChildren) {
+
+            ImmutableMap<Integer, ? extends VariableOrGroundTerm> targetArguments = targetDataNode.getArgumentMap();
+
+            ImmutableSet<Integer> fkTargetIndexes = constraint.getComponents().stream()
+                    .map(c -> c.getReferencedAttribute().getIndex() - 1)
+                    .collect(ImmutableCollectors.toSet());
+
+            /*
+             * Terms appearing in non-FK positions
+             */
+            ImmutableList<VariableOrGroundTerm> remainingTerms = targetArguments.entrySet().stream()
+                    .filter(e -> !fkTargetIndexes.contains(e.getKey()))
+                    .map(Map.Entry::getValue)
+                    .collect(ImmutableCollectors.toList());
+
+            /*
+             * Check usage in the data atom.
+             *
+             * 1 - They should all variables
+             * 2 - They should be no duplicate
+             * 3 - They must be distinct from the FK target terms
+             */
+            if ((!remainingTerms.stream().allMatch(t -> t instanceof Variable))
+                    || (ImmutableSet.copyOf(remainingTerms).size() < remainingTerms.size())
+                    || fkTargetIndexes.stream()
+                    .map(targetArguments::get)
+                    .anyMatch(remainingTerms::contains))
+                return false;
+
+            /*
+             * Check that the remaining variables are not used anywhere else:
+             * neither by the ancestors, the joining condition nor the other children
+             */
+            ImmutableSet<Variable> variablesOfTheOtherChildren = children.stream()
+                    .filter(c -> c != targetDataNode)
+                    .flatMap(c -> c.getVariables().stream())
+                    .collect(ImmutableCollectors.toSet());
+
+            return remainingTerms.stream()
+                    .map(v -> (Variable) v)
+                    .noneMatch(v -> variablesUsedOutsideTheChildren.contains(v)
+                            || variablesOfTheOtherChildren.contains(v));
+        }
+
+        private ImmutableSet<Variable> extractJoiningVariables(ExtensionalDataNode node, ForeignKeyConstraint constraint) {
+            ImmutableMap<Integer, ? extends VariableOrGroundTerm> targetArgumentMap = node.getArgumentMap();
+
+            return constraint.getComponents().stream()
+                    .map(c -> targetArgumentMap.get(c.getReferencedAttribute().getIndex() - 1))
+                    .filter(t -> t instanceof Variable)
+                    .map(t -> (Variable) t)
+                    .collect(ImmutableCollectors.toSet());
+        }
+    }
+
+    private static class Redundancy {
+        private final ExtensionalDataNode dataNode;
+        private final ImmutableSet<Variable> fkVariables;
+
+        private Redundancy(ExtensionalDataNode dataNode, ImmutableSet<Variable> fkVariables) {
+            this.dataNode = dataNode;
+            this.fkVariables = fkVariables;
+        }
+    }
+}
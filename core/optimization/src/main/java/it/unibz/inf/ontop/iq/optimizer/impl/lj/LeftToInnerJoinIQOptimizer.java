@@ -0,0 +1,416 @@
+package it.unibz.inf.ontop.iq.optimizer.impl.lj;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.BinaryNonCommutativeIQTree;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.executor.leftjoin.LeftJoinRightChildNormalizationAnalyzer;
+import it.unibz.inf.ontop.iq.executor.leftjoin.LeftJoinRightChildNormalizationAnalyzer.LeftJoinRightChildNormalizationAnalysis;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.optimizer.LeftJoinIQOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.impl.AbstractAncestorAwareIQTreeTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbolFactory;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Tries to transform left joins into inner joins, when the right child is guaranteed to match
+ * (non-nullable unique constraint or foreign key).
+ *
+ * Immutable-IQ replacement for the former LeftToInnerJoinExecutor.
+ */
+@Singleton
+public class LeftToInnerJoinIQOptimizer implements LeftJoinIQOptimizer {
+
+    private final LeftJoinRightChildNormalizationAnalyzer normalizer;
+    private final CoreSingletons coreSingletons;
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    protected LeftToInnerJoinIQOptimizer(LeftJoinRightChildNormalizationAnalyzer normalizer,
+                                         CoreSingletons coreSingletons) {
+        this.normalizer = normalizer;
+        this.coreSingletons = coreSingletons;
+        this.iqFactory = coreSingletons.getIQFactory();
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree initialTree = query.getTree();
+        Transformer transformer = new Transformer(query.getProjectionAtom().getVariables(), initialTree,
+                query.getVariableGenerator(), normalizer, coreSingletons);
+
+        IQTree newTree = initialTree.acceptTransformer(transformer);
+        return (newTree == initialTree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree)
+                .normalizeForOptimization();
+    }
+
+    protected static class Transformer extends AbstractAncestorAwareIQTreeTransformer {
+
+        private final VariableGenerator variableGenerator;
+        private final LeftJoinRightChildNormalizationAnalyzer normalizer;
+        private final CoreSingletons coreSingletons;
+        private final TermFactory termFactory;
+        private final SubstitutionFactory substitutionFactory;
+        private final DBFunctionSymbolFactory dbFunctionSymbolFactory;
+
+        protected Transformer(ImmutableSet<Variable> variablesRequiredByAncestors, IQTree variableNullabilityAncestor,
+                              VariableGenerator variableGenerator, LeftJoinRightChildNormalizationAnalyzer normalizer,
+                              CoreSingletons coreSingletons) {
+            super(variablesRequiredByAncestors, variableNullabilityAncestor, coreSingletons);
+            this.variableGenerator = variableGenerator;
+            this.normalizer = normalizer;
+            this.coreSingletons = coreSingletons;
+            this.termFactory = coreSingletons.getTermFactory();
+            this.substitutionFactory = coreSingletons.getSubstitutionFactory();
+            this.dbFunctionSymbolFactory = coreSingletons.getDBFunctionsymbolFactory();
+        }
+
+        @Override
+        protected AbstractAncestorAwareIQTreeTransformer createChildTransformer(
+                ImmutableSet<Variable> variablesRequiredByAncestors, IQTree variableNullabilityAncestor) {
+            return new Transformer(variablesRequiredByAncestors, variableNullabilityAncestor, variableGenerator,
+                    normalizer, coreSingletons);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree initialLeftChild,
+                                        IQTree initialRightChild) {
+            IQTree leftChild = transformLeftChild(tree, initialLeftChild);
+            IQTree rightChild = transformRightChild(tree, initialRightChild);
+
+            IQTree newTree = leftChild.equals(initialLeftChild) && rightChild.equals(initialRightChild)
+                    ? tree
+                    : iqFactory.createBinaryNonCommutativeIQTree(rootNode, leftChild, rightChild);
+
+            /*
+             * Only when the left can be reduced to set of joined data nodes
+             */
+            Optional<ImmutableList<ExtensionalDataNode>> optionalLeftDataNodes = extractLeftDataNodes(leftChild,
+                    rightChild, rootNode.getOptionalFilterCondition());
+            if (!optionalLeftDataNodes.isPresent())
+                return newTree;
+
+            ImmutableList<ExtensionalDataNode> leftDataNodes = optionalLeftDataNodes.get();
+
+            /*
+             * TODO: support more cases (like joins or unions on the right)
+             */
+            return DataNodeAndSubstitution.extract(rightChild)
+                    .flatMap(r -> optimizeRightDataNode(newTree, rootNode, leftChild, leftDataNodes, r))
+                    .orElse(newTree);
+        }
+
+        private Optional<ImmutableList<ExtensionalDataNode>> extractLeftDataNodes(IQTree leftChild, IQTree rightChild,
+                                                                                  Optional<ImmutableExpression> optionalFilterCondition) {
+            QueryNode leftNode = leftChild.getRootNode();
+
+            if (leftNode instanceof ExtensionalDataNode)
+                return Optional.of(ImmutableList.of((ExtensionalDataNode) leftNode));
+
+            else if (leftNode instanceof InnerJoinNode) {
+                return extractInnerJoinChildrenOnTheLeft(leftChild,
+                        () -> extractConditionAndRightVariables(rightChild, ((InnerJoinNode) leftNode).getOptionalFilterCondition()));
+            }
+
+            /*
+             * In case of "well-designed" LJs
+             */
+            else if (leftNode instanceof LeftJoinNode) {
+                ImmutableSet<Variable> conditionAndRightVariables = extractConditionAndRightVariables(rightChild,
+                        optionalFilterCondition);
+                return findLeftDataNodeWithNonConflictingRight((BinaryNonCommutativeIQTree) leftChild,
+                        conditionAndRightVariables);
+            }
+
+            return Optional.empty();
+        }
+
+        private ImmutableSet<Variable> extractConditionAndRightVariables(IQTree rightChild,
+                                                                         Optional<ImmutableExpression> optionalFilterCondition) {
+            ImmutableSet<Variable> rightVariables = rightChild.getVariables();
+            return optionalFilterCondition
+                    .map(c -> Sets.union(c.getVariables(), rightVariables).immutableCopy())
+                    .orElse(rightVariables);
+        }
+
+        private Optional<ImmutableList<ExtensionalDataNode>> extractInnerJoinChildrenOnTheLeft(
+                IQTree leftJoinTree, Supplier<ImmutableSet<Variable>> topMostConditionAndRightVariablesSupplier) {
+            ImmutableList<IQTree> children = leftJoinTree.getChildren();
+
+            /*
+             * Only extensional data nodes
+             */
+            if (children.stream().allMatch(c -> c instanceof ExtensionalDataNode))
+                return Optional.of(children.stream()
+                        .map(c -> (ExtensionalDataNode) c)
+                        .collect(ImmutableCollectors.toList()));
+
+            /*
+             * Extensional data nodes and left joins
+             * NB: inner joins would have been expected to be already merged
+             */
+            if (children.stream().allMatch(c -> (c instanceof ExtensionalDataNode)
+                    || (c.getRootNode() instanceof LeftJoinNode))) {
+
+                ImmutableSet<Variable> topMostConditionAndRightVariables = topMostConditionAndRightVariablesSupplier.get();
+                ImmutableList<Optional<ImmutableList<ExtensionalDataNode>>> extractions = children.stream()
+                        .map(c -> (c instanceof ExtensionalDataNode)
+                                ? Optional.of(ImmutableList.of((ExtensionalDataNode) c))
+                                : findLeftDataNodeWithNonConflictingRight((BinaryNonCommutativeIQTree) c,
+                                        topMostConditionAndRightVariables))
+                        .collect(ImmutableCollectors.toList());
+
+                if (extractions.stream().anyMatch(o -> !o.isPresent()))
+                    return Optional.empty();
+
+                return Optional.of(extractions.stream()
+                        .map(Optional::get)
+                        .flatMap(Collection::stream)
+                        .collect(ImmutableCollectors.toList()));
+            }
+            return Optional.empty();
+        }
+
+        private Optional<ImmutableList<ExtensionalDataNode>> findLeftDataNodeWithNonConflictingRight(
+                BinaryNonCommutativeIQTree leftJoinTree, ImmutableSet<Variable> topMostConditionAndRightVariables) {
+            IQTree leftChild = leftJoinTree.getLeftChild();
+
+            ImmutableSet<Variable> rightVariables = leftJoinTree.getRightChild().getVariables();
+            Sets.SetView<Variable> possiblyConflictingVariables = Sets.intersection(topMostConditionAndRightVariables,
+                    rightVariables);
+
+            if ((!possiblyConflictingVariables.isEmpty())
+                    && (!leftChild.getVariables().containsAll(possiblyConflictingVariables)))
+                // Not well-designed fragment, no optimization
+                return Optional.empty();
+
+            QueryNode leftNode = leftChild.getRootNode();
+
+            if (leftNode instanceof ExtensionalDataNode)
+                return Optional.of(ImmutableList.of((ExtensionalDataNode) leftNode));
+            else if (leftNode instanceof LeftJoinNode)
+                // Recursive
+                return findLeftDataNodeWithNonConflictingRight((BinaryNonCommutativeIQTree) leftChild,
+                        topMostConditionAndRightVariables);
+            else if (leftNode instanceof InnerJoinNode)
+                return extractInnerJoinChildrenOnTheLeft(leftChild, () -> topMostConditionAndRightVariables);
+            else
+                return Optional.empty();
+        }
+
+        /**
+         * Returns empty if no optimization has been applied
+         */
+        private Optional<IQTree> optimizeRightDataNode(IQTree tree, LeftJoinNode leftJoinNode, IQTree leftChild,
+                                                       ImmutableList<ExtensionalDataNode> leftDataNodes,
+                                                       DataNodeAndSubstitution rightComponent) {
+
+            ImmutableSet<Variable> leftVariables = leftChild.getVariables();
+
+            LeftJoinRightChildNormalizationAnalysis analysis = normalizer.analyze(leftVariables, leftDataNodes,
+                    rightComponent.dataNode, variableGenerator, getInheritedVariableNullability());
+
+            if (!analysis.isMatchingAConstraint())
+                return Optional.empty();
+
+            ImmutableSet<Variable> requiredVariablesAboveLJ = getVariablesRequiredByAncestors(tree);
+
+            /*
+             * All the conditions that could be assigned to the LJ put together
+             */
+            Optional<ImmutableExpression> newLJCondition = termFactory.getConjunction(Stream.concat(
+                    // Former condition
+                    Stream.of(leftJoinNode.getOptionalFilterCondition(),
+                            // New condition proposed by the analyser
+                            analysis.getAdditionalExpression(),
+                            // Former additional filter condition on the right
+                            rightComponent.filterNode.map(FilterNode::getFilterCondition))
+                            .filter(Optional::isPresent)
+                            .map(Optional::get),
+                    // Equalities extracted from the right substitution
+                    rightComponent.constructionNode
+                            .map(n -> extractEqualities(n.getSubstitution(), leftVariables))
+                            .orElseGet(Stream::empty)));
+
+            Optional<ImmutableSubstitution<ImmutableTerm>> remainingRightSubstitution = rightComponent.constructionNode
+                    .map(ConstructionNode::getSubstitution)
+                    .filter(s -> !s.isEmpty())
+                    .map(s -> substitutionFactory.getSubstitution(s.getImmutableMap().entrySet().stream()
+                            .filter(e -> !leftVariables.contains(e.getKey()))
+                            .collect(ImmutableCollectors.toMap())))
+                    .filter(s -> !s.isEmpty());
+
+            ExtensionalDataNode newRightChild = analysis.getProposedRightDataNode()
+                    .orElse(rightComponent.dataNode);
+
+            JoinAndSubstitution joinAndSubstitution = newLJCondition
+                    .map(c -> liftCondition(c, leftChild, newRightChild, requiredVariablesAboveLJ,
+                            remainingRightSubstitution))
+                    .orElseGet(() -> new JoinAndSubstitution(ImmutableList.of(leftChild, newRightChild),
+                            remainingRightSubstitution));
+
+            /*
+             * Replaces (upgrades) the left join by an inner join
+             */
+            IQTree joinTree = iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(),
+                    joinAndSubstitution.joinChildren);
+
+            // Maintains the same projected variables
+            ImmutableSet<Variable> projectedVariables = tree.getVariables();
+            ConstructionNode constructionNode = joinAndSubstitution.substitution
+                    // Renamed right variables are not projected
+                    .map(s -> s.reduceDomainToIntersectionWith(projectedVariables))
+                    .filter(s -> !s.isEmpty())
+                    .map(s -> iqFactory.createConstructionNode(projectedVariables, s))
+                    .orElseGet(() -> iqFactory.createConstructionNode(projectedVariables));
+
+            return Optional.of(iqFactory.createUnaryIQTree(constructionNode, joinTree)
+                    .normalizeForOptimization(variableGenerator));
+        }
+
+        /**
+         * Extracts equalities involving a left variable from the substitution
+         */
+        private Stream<ImmutableExpression> extractEqualities(ImmutableSubstitution<ImmutableTerm> substitution,
+                                                              ImmutableSet<Variable> leftVariables) {
+            return substitution.getImmutableMap().entrySet().stream()
+                    .filter(e -> leftVariables.contains(e.getKey()) || leftVariables.contains(e.getValue()))
+                    .map(e -> termFactory.getStrictEquality(e.getKey(), e.getValue()));
+        }
+
+        /**
+         * The LJ condition is turned into conditional definitions (IF_ELSE_NULL) of the right-specific variables
+         * required above the LJ.
+         */
+        private JoinAndSubstitution liftCondition(ImmutableExpression ljCondition, IQTree leftChild,
+                                                  ExtensionalDataNode rightChild,
+                                                  ImmutableSet<Variable> requiredVariablesAboveLJ,
+                                                  Optional<ImmutableSubstitution<ImmutableTerm>> remainingRightSubstitution) {
+            ImmutableSet<Variable> leftVariables = leftChild.getVariables();
+            ImmutableSet<Variable> requiredRightVariables = requiredVariablesAboveLJ.stream()
+                    .filter(v -> !leftVariables.contains(v))
+                    .collect(ImmutableCollectors.toSet());
+
+            // Special case: ljCondition = IS_NOT_NULL(x) and x is a specific right variable
+            // --> x will not be affected by the condition
+            ImmutableSet<Variable> rightVariablesToUpdate = Optional.of(ljCondition)
+                    .filter(c -> c.getFunctionSymbol().equals(dbFunctionSymbolFactory.getDBIsNotNull()))
+                    .map(c -> c.getTerms().get(0))
+                    .filter(t -> t instanceof Variable)
+                    .map(v -> (Variable) v)
+                    .map(specialVariable -> requiredRightVariables.stream()
+                            .filter(v -> !v.equals(specialVariable))
+                            .collect(ImmutableCollectors.toSet()))
+                    .orElse(requiredRightVariables);
+
+            if (rightVariablesToUpdate.isEmpty() && (!remainingRightSubstitution.isPresent()))
+                return new JoinAndSubstitution(ImmutableList.of(leftChild, rightChild), Optional.empty());
+
+            ImmutableMap<Variable, Variable> newVariableMap = rightVariablesToUpdate.stream()
+                    .collect(ImmutableCollectors.toMap(
+                            v -> v,
+                            variableGenerator::generateNewVariableFromVar));
+
+            /*
+             * Update the right child
+             */
+            InjectiveVar2VarSubstitution localSubstitution = substitutionFactory.getInjectiveVar2VarSubstitution(newVariableMap);
+            ExtensionalDataNode newRightChild = iqFactory.createExtensionalDataNode(rightChild.getRelationDefinition(),
+                    localSubstitution.applyToArgumentMap(rightChild.getArgumentMap()));
+
+            ImmutableExpression newCondition = localSubstitution.applyToBooleanExpression(ljCondition);
+
+            ImmutableSubstitution<ImmutableTerm> conditionalVarSubstitution = substitutionFactory.getSubstitution(
+                    newVariableMap.entrySet().stream()
+                            .collect(ImmutableCollectors.toMap(
+                                    Map.Entry::getKey,
+                                    e -> termFactory.getIfElseNull(newCondition, e.getValue())
+                            )));
+
+            ImmutableSubstitution<ImmutableTerm> substitutionToLift = remainingRightSubstitution
+                    .map(localSubstitution::applyRenaming)
+                    .map(s -> s.composeWith(conditionalVarSubstitution))
+                    .orElse(conditionalVarSubstitution);
+
+            return new JoinAndSubstitution(ImmutableList.of(leftChild, newRightChild), Optional.of(substitutionToLift));
+        }
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static class JoinAndSubstitution {
+        private final ImmutableList<IQTree> joinChildren;
+        private final Optional<ImmutableSubstitution<ImmutableTerm>> substitution;
+
+        private JoinAndSubstitution(ImmutableList<IQTree> joinChildren,
+                                    Optional<ImmutableSubstitution<ImmutableTerm>> substitution) {
+            this.joinChildren = joinChildren;
+            this.substitution = substitution;
+        }
+    }
+
+    /**
+     * May represent the right part of a LJ
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static class DataNodeAndSubstitution {
+
+        private final ExtensionalDataNode dataNode;
+        private final Optional<FilterNode> filterNode;
+        private final Optional<ConstructionNode> constructionNode;
+
+        private DataNodeAndSubstitution(ExtensionalDataNode dataNode, Optional<FilterNode> filterNode,
+                                        Optional<ConstructionNode> constructionNode) {
+            this.dataNode = dataNode;
+            this.filterNode = filterNode;
+            this.constructionNode = constructionNode;
+        }
+
+        static Optional<DataNodeAndSubstitution> extract(IQTree rightChild) {
+            if (rightChild instanceof ExtensionalDataNode)
+                return Optional.of(new DataNodeAndSubstitution((ExtensionalDataNode) rightChild, Optional.empty(),
+                        Optional.empty()));
+
+            QueryNode rightNode = rightChild.getRootNode();
+            if (!(rightNode instanceof ConstructionNode))
+                return Optional.empty();
+
+            ConstructionNode constructionNode = (ConstructionNode) rightNode;
+            IQTree grandChild = ((UnaryIQTree) rightChild).getChild();
+
+            if (grandChild instanceof ExtensionalDataNode)
+                return Optional.of(new DataNodeAndSubstitution((ExtensionalDataNode) grandChild, Optional.empty(),
+                        Optional.of(constructionNode)));
+            else if (grandChild.getRootNode() instanceof FilterNode) {
+                FilterNode filterNode = (FilterNode) grandChild.getRootNode();
+
+                return Optional.of(((UnaryIQTree) grandChild).getChild())
+                        .filter(n -> n instanceof ExtensionalDataNode)
+                        .map(n -> (ExtensionalDataNode) n)
+                        .map(n -> new DataNodeAndSubstitution(n, Optional.of(filterNode), Optional.of(constructionNode)));
+            }
+            else
+                return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package it.unibz.inf.ontop.iq.planner;
+
+import it.unibz.inf.ontop.iq.IQTree;
+
+/**
+ * Estimates the number of rows produced by IQ trees, for comparing semantically equivalent query plans.
+ *
+ * Estimations are expected to rely on the statistics of the DBMS (see RelationStatistics), when available.
+ */
+public interface CardinalityEstimator {
+
+    /**
+     * Estimated number of rows returned by the tree
+     */
+    double estimateCardinality(IQTree tree);
+
+    /**
+     * Estimated cost of evaluating the tree: sum of the estimated cardinalities of all its sub-trees
+     * (i.e., of all the intermediate results)
+     */
+    double estimateCost(IQTree tree);
+}
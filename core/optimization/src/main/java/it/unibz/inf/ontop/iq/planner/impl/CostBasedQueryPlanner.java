@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.CardinalityEstimator;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Cost-based variant of AvoidJoinAboveUnionPlanner.
+ *
+ * The plan where the joins are pushed under the unions (re-optimized by the structural and semantic optimizations,
+ * which may for instance eliminate self-joins in the union branches) is compared with the initial plan.
+ * The pushed-down plan is only kept when its estimated cost is not higher.
+ *
+ * Estimations rely on the statistics of the DBMS, when available (see CardinalityEstimator).
+ * These statistics are only extracted when this planner is selected.
+ *
+ * Lifting the unions above the joins is not among the compared plans.
+ *
+ * Not used by default: to be selected by setting the implementation of QueryPlanner in the properties.
+ */
+@Singleton
+public class CostBasedQueryPlanner extends AvoidJoinAboveUnionPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CostBasedQueryPlanner.class);
+    private final CardinalityEstimator cardinalityEstimator;
+
+    @Inject
+    protected CostBasedQueryPlanner(GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
+                                    AvoidJoinAboveUnionTransformer transformer,
+                                    IntermediateQueryFactory iqFactory,
+                                    CardinalityEstimator cardinalityEstimator) {
+        super(generalOptimizer, transformer, iqFactory);
+        this.cardinalityEstimator = cardinalityEstimator;
+    }
+
+    @Override
+    public IQ optimize(IQ query, ExecutorRegistry executorRegistry) {
+        IQ pushedDownQuery = super.optimize(query, executorRegistry);
+        if (pushedDownQuery.equals(query))
+            return query;
+
+        double initialCost = cardinalityEstimator.estimateCost(query.getTree());
+        double pushedDownCost = cardinalityEstimator.estimateCost(pushedDownQuery.getTree());
+        if (LOGGER.isDebugEnabled())
+            LOGGER.debug(String.format("Estimated costs: %.1f (initial plan), %.1f (joins pushed under the unions)\n",
+                    initialCost, pushedDownCost));
+
+        return pushedDownCost <= initialCost
+                ? pushedDownQuery
+                : query;
+    }
+}
@@ -0,0 +1,266 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.planner.CardinalityEstimator;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Textbook estimations (uniformity and independence assumptions) based on the row counts and on the numbers
+ * of distinct values of the columns, as provided by the DBMS.
+ *
+ * When the statistics of a relation are not available, default values are used instead.
+ * Unique constraints are taken into account for the numbers of distinct values.
+ */
+@Singleton
+public class StatisticsBasedCardinalityEstimator implements CardinalityEstimator {
+
+    protected static final double DEFAULT_ROW_COUNT = 1000;
+    protected static final double DEFAULT_CONDITION_SELECTIVITY = 1.0 / 3;
+
+    @Inject
+    protected StatisticsBasedCardinalityEstimator() {
+    }
+
+    @Override
+    public double estimateCardinality(IQTree tree) {
+        return estimate(tree).cardinality;
+    }
+
+    @Override
+    public double estimateCost(IQTree tree) {
+        return estimate(tree).cost;
+    }
+
+    protected Estimation estimate(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof ExtensionalDataNode)
+            return estimateExtensionalDataNode((ExtensionalDataNode) rootNode);
+        if (rootNode instanceof EmptyNode)
+            return new Estimation(0, ImmutableMap.of(), 0);
+        if (rootNode instanceof TrueNode)
+            return new Estimation(1, ImmutableMap.of(), 1);
+
+        ImmutableList<Estimation> children = tree.getChildren().stream()
+                .map(this::estimate)
+                .collect(ImmutableCollectors.toList());
+        double childrenCost = children.stream().mapToDouble(e -> e.cost).sum();
+
+        if (rootNode instanceof InnerJoinNode)
+            return estimateJoin(children, ((InnerJoinNode) rootNode).getOptionalFilterCondition(), childrenCost);
+        if (rootNode instanceof LeftJoinNode)
+            return estimateLeftJoin(children.get(0), children.get(1),
+                    ((LeftJoinNode) rootNode).getOptionalFilterCondition(), childrenCost);
+        if (rootNode instanceof UnionNode)
+            return estimateUnion(children, childrenCost);
+        if (rootNode instanceof FilterNode)
+            return applyCondition(children.get(0), Optional.of(((FilterNode) rootNode).getFilterCondition()), childrenCost);
+        if (rootNode instanceof ConstructionNode)
+            return estimateConstruction((ConstructionNode) rootNode, children.get(0), childrenCost);
+        if (rootNode instanceof DistinctNode)
+            return estimateDistinct(tree.getVariables(), children.get(0), childrenCost);
+        if (rootNode instanceof SliceNode)
+            return estimateSlice((SliceNode) rootNode, children.get(0), childrenCost);
+        if (rootNode instanceof AggregationNode)
+            return estimateAggregation((AggregationNode) rootNode, children.get(0), childrenCost);
+
+        // Other nodes (e.g. ORDER BY, intensional and native nodes)
+        double cardinality = children.stream()
+                .mapToDouble(e -> e.cardinality)
+                .max()
+                .orElse(DEFAULT_ROW_COUNT);
+        return new Estimation(cardinality, children.isEmpty() ? ImmutableMap.of() : children.get(0).distinctValues,
+                cardinality + childrenCost);
+    }
+
+    /**
+     * Constants and repeated variables are treated as equality conditions
+     */
+    private Estimation estimateExtensionalDataNode(ExtensionalDataNode dataNode) {
+        RelationDefinition relation = dataNode.getRelationDefinition();
+        Optional<RelationStatistics> statistics = relation.getStatistics();
+        double rowCount = statistics
+                .map(s -> (double) s.getRowCount())
+                .orElse(DEFAULT_ROW_COUNT);
+
+        ImmutableSet<Integer> uniqueIndexes = relation.getUniqueConstraints().stream()
+                .map(UniqueConstraint::getAttributes)
+                .filter(as -> as.size() == 1)
+                .map(as -> as.get(0).getIndex())
+                .collect(ImmutableCollectors.toSet());
+
+        double cardinality = rowCount;
+        Map<Variable, Double> distinctValues = new HashMap<>();
+        for (Map.Entry<Integer, ? extends VariableOrGroundTerm> e : dataNode.getArgumentMap().entrySet()) {
+            int index = e.getKey() + 1;
+            // By default, the column is assumed to be "almost" unique (as for foreign key columns)
+            double columnDistinctValues = Math.max(1, uniqueIndexes.contains(index)
+                    ? rowCount
+                    : statistics
+                        .flatMap(s -> s.getDistinctValueCount(index))
+                        .map(c -> (double) c)
+                        .orElse(rowCount));
+
+            VariableOrGroundTerm term = e.getValue();
+            if (term instanceof Variable) {
+                Double previous = distinctValues.get(term);
+                if (previous != null) {
+                    cardinality /= Math.max(previous, columnDistinctValues);
+                    distinctValues.put((Variable) term, Math.min(previous, columnDistinctValues));
+                }
+                else
+                    distinctValues.put((Variable) term, columnDistinctValues);
+            }
+            else
+                cardinality /= columnDistinctValues;
+        }
+        return new Estimation(cardinality, capDistinctValues(distinctValues, cardinality), cardinality);
+    }
+
+    /**
+     * For each variable shared by several children, divides by the numbers of distinct values
+     * of all these children but the smallest one
+     */
+    private Estimation estimateJoin(ImmutableList<Estimation> children, Optional<ImmutableExpression> condition,
+                                    double childrenCost) {
+        double cardinality = 1;
+        Map<Variable, Double> distinctValues = new HashMap<>();
+        for (Estimation child : children) {
+            cardinality *= child.cardinality;
+            for (Map.Entry<Variable, Double> e : child.distinctValues.entrySet()) {
+                Double previous = distinctValues.get(e.getKey());
+                if (previous != null) {
+                    cardinality /= Math.max(1, Math.max(previous, e.getValue()));
+                    distinctValues.put(e.getKey(), Math.min(previous, e.getValue()));
+                }
+                else
+                    distinctValues.put(e.getKey(), e.getValue());
+            }
+        }
+        Estimation join = new Estimation(cardinality, capDistinctValues(distinctValues, cardinality), 0);
+        return applyCondition(join, condition, childrenCost);
+    }
+
+    /**
+     * At least as many rows as the left child
+     */
+    private Estimation estimateLeftJoin(Estimation left, Estimation right, Optional<ImmutableExpression> condition,
+                                        double childrenCost) {
+        Estimation join = estimateJoin(ImmutableList.of(left, right), condition, 0);
+        double cardinality = Math.max(left.cardinality, join.cardinality);
+
+        Map<Variable, Double> distinctValues = new HashMap<>(join.distinctValues);
+        distinctValues.putAll(left.distinctValues);
+        return new Estimation(cardinality, capDistinctValues(distinctValues, cardinality), cardinality + childrenCost);
+    }
+
+    private Estimation estimateUnion(ImmutableList<Estimation> children, double childrenCost) {
+        double cardinality = children.stream().mapToDouble(e -> e.cardinality).sum();
+        Map<Variable, Double> distinctValues = new HashMap<>();
+        for (Estimation child : children)
+            child.distinctValues.forEach((v, d) -> distinctValues.merge(v, d, Double::sum));
+        return new Estimation(cardinality, capDistinctValues(distinctValues, cardinality), cardinality + childrenCost);
+    }
+
+    private Estimation applyCondition(Estimation child, Optional<ImmutableExpression> condition, double childrenCost) {
+        double cardinality = child.cardinality * condition
+                .map(c -> Math.pow(DEFAULT_CONDITION_SELECTIVITY, c.flattenAND().count()))
+                .orElse(1.0);
+        return new Estimation(cardinality, capDistinctValues(child.distinctValues, cardinality),
+                cardinality + childrenCost);
+    }
+
+    /**
+     * A defined variable has at most as many distinct values as the variables of its definition.
+     *
+     * Projections and bindings are computed on the fly: no additional cost.
+     */
+    private Estimation estimateConstruction(ConstructionNode constructionNode, Estimation child, double childrenCost) {
+        Map<Variable, Double> distinctValues = new HashMap<>();
+        for (Variable variable : constructionNode.getChildVariables())
+            Optional.ofNullable(child.distinctValues.get(variable))
+                    .ifPresent(d -> distinctValues.put(variable, d));
+
+        for (Map.Entry<Variable, ImmutableTerm> e : constructionNode.getSubstitution().getImmutableMap().entrySet()) {
+            double definitionDistinctValues = e.getValue().getVariableStream()
+                    .map(v -> Optional.ofNullable(child.distinctValues.get(v)).orElse(child.cardinality))
+                    .reduce((d1, d2) -> d1 * d2)
+                    .orElse(1.0);
+            distinctValues.put(e.getKey(), definitionDistinctValues);
+        }
+        distinctValues.keySet().retainAll(constructionNode.getVariables());
+        return new Estimation(child.cardinality, capDistinctValues(distinctValues, child.cardinality),
+                childrenCost);
+    }
+
+    private Estimation estimateDistinct(ImmutableSet<Variable> variables, Estimation child, double childrenCost) {
+        double cardinality = Math.min(child.cardinality, getCombinationCount(variables, child));
+        return new Estimation(cardinality, capDistinctValues(child.distinctValues, cardinality),
+                cardinality + childrenCost);
+    }
+
+    private Estimation estimateSlice(SliceNode sliceNode, Estimation child, double childrenCost) {
+        double cardinality = Math.max(0, sliceNode.getLimit()
+                .map(l -> Math.min(l, child.cardinality - sliceNode.getOffset()))
+                .orElse(child.cardinality - sliceNode.getOffset()));
+        return new Estimation(cardinality, capDistinctValues(child.distinctValues, cardinality),
+                cardinality + childrenCost);
+    }
+
+    private Estimation estimateAggregation(AggregationNode aggregationNode, Estimation child, double childrenCost) {
+        ImmutableSet<Variable> groupingVariables = aggregationNode.getGroupingVariables();
+        double cardinality = groupingVariables.isEmpty()
+                ? 1
+                : Math.min(child.cardinality, getCombinationCount(groupingVariables, child));
+
+        Map<Variable, Double> distinctValues = new HashMap<>();
+        for (Variable variable : aggregationNode.getVariables())
+            distinctValues.put(variable, Optional.ofNullable(child.distinctValues.get(variable)).orElse(cardinality));
+        return new Estimation(cardinality, capDistinctValues(distinctValues, cardinality), cardinality + childrenCost);
+    }
+
+    private static double getCombinationCount(ImmutableSet<Variable> variables, Estimation child) {
+        return variables.stream()
+                .mapToDouble(v -> Optional.ofNullable(child.distinctValues.get(v)).orElse(child.cardinality))
+                .reduce(1, (d1, d2) -> d1 * d2);
+    }
+
+    private static ImmutableMap<Variable, Double> capDistinctValues(Map<Variable, Double> distinctValues,
+                                                                    double cardinality) {
+        return distinctValues.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> Math.min(e.getValue(), cardinality)));
+    }
+
+
+    protected static class Estimation {
+        protected final double cardinality;
+        // Estimated number of distinct values for each variable
+        protected final ImmutableMap<Variable, Double> distinctValues;
+        protected final double cost;
+
+        protected Estimation(double cardinality, ImmutableMap<Variable, Double> distinctValues, double cost) {
+            this.cardinality = cardinality;
+            this.distinctValues = distinctValues;
+            this.cost = cost;
+        }
+    }
+}
@@ -1,13 +0,0 @@
-package it.unibz.inf.ontop.iq.proposal;
-
-
-import it.unibz.inf.ontop.iq.node.InnerJoinNode;
-
-/**
- * TODO: explain
- *
- * TODO: describe precisely which join node we are considering
- *
- */
-public interface InnerJoinOptimizationProposal extends SimpleNodeCentricOptimizationProposal<InnerJoinNode> {
-}
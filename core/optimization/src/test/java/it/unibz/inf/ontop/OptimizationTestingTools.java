@@ -9,6 +9,8 @@ import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
 import it.unibz.inf.ontop.injection.*;
 import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
 import it.unibz.inf.ontop.iq.optimizer.*;
+import it.unibz.inf.ontop.iq.optimizer.impl.RedundantJoinFKIQOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.impl.lj.LeftToInnerJoinIQOptimizer;
 import it.unibz.inf.ontop.iq.tools.IQConverter;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
 import it.unibz.inf.ontop.iq.transformer.BooleanExpressionPushDownTransformer;
@@ -16,6 +18,9 @@ import it.unibz.inf.ontop.model.atom.AtomFactory;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.iq.IntermediateQueryBuilder;
+import it.unibz.inf.ontop.iq.planner.CardinalityEstimator;
+import it.unibz.inf.ontop.iq.planner.impl.AvoidJoinAboveUnionPlanner;
+import it.unibz.inf.ontop.iq.planner.impl.CostBasedQueryPlanner;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbolFactory;
 import it.unibz.inf.ontop.model.type.DBTermType;
@@ -35,6 +40,8 @@ public class OptimizationTestingTools {
     public static final ExecutorRegistry EXECUTOR_REGISTRY;
     public static final IntermediateQueryFactory IQ_FACTORY;
     public static final JoinLikeOptimizer JOIN_LIKE_OPTIMIZER;
+    public static final RedundantJoinFKIQOptimizer REDUNDANT_JOIN_FK_OPTIMIZER;
+    public static final LeftToInnerJoinIQOptimizer LEFT_TO_INNER_JOIN_OPTIMIZER;
     public static final BindingLiftOptimizer BINDING_LIFT_OPTIMIZER;
     public static final AtomFactory ATOM_FACTORY;
     public static final TypeFactory TYPE_FACTORY;
@@ -52,6 +59,9 @@ public class OptimizationTestingTools {
     public static final UnionBasedQueryMerger UNION_BASED_QUERY_MERGER;
     public static final RDF RDF_FACTORY;
     public static final CoreSingletons CORE_SINGLETONS;
+    public static final CardinalityEstimator CARDINALITY_ESTIMATOR;
+    public static final AvoidJoinAboveUnionPlanner AVOID_JOIN_ABOVE_UNION_PLANNER;
+    public static final CostBasedQueryPlanner COST_BASED_QUERY_PLANNER;
 
     public static final Variable X;
     public static final Variable Y;
@@ -110,6 +120,8 @@ public class OptimizationTestingTools {
         EXECUTOR_REGISTRY = defaultConfiguration.getExecutorRegistry();
         IQ_FACTORY = injector.getInstance(IntermediateQueryFactory.class);
         JOIN_LIKE_OPTIMIZER = injector.getInstance(JoinLikeOptimizer.class);
+        REDUNDANT_JOIN_FK_OPTIMIZER = injector.getInstance(RedundantJoinFKIQOptimizer.class);
+        LEFT_TO_INNER_JOIN_OPTIMIZER = injector.getInstance(LeftToInnerJoinIQOptimizer.class);
         BINDING_LIFT_OPTIMIZER = injector.getInstance(BindingLiftOptimizer.class);
         ATOM_FACTORY = injector.getInstance(AtomFactory.class);
         TYPE_FACTORY = injector.getInstance(TypeFactory.class);
@@ -123,6 +135,9 @@ public class OptimizationTestingTools {
         TRANSFORMER_FACTORY = injector.getInstance(QueryTransformerFactory.class);
         OPTIMIZER_FACTORY = injector.getInstance(OptimizerFactory.class);
         CORE_SINGLETONS = injector.getInstance(CoreSingletons.class);
+        CARDINALITY_ESTIMATOR = injector.getInstance(CardinalityEstimator.class);
+        AVOID_JOIN_ABOVE_UNION_PLANNER = injector.getInstance(AvoidJoinAboveUnionPlanner.class);
+        COST_BASED_QUERY_PLANNER = injector.getInstance(CostBasedQueryPlanner.class);
 
         UNION_BASED_QUERY_MERGER = injector.getInstance(UnionBasedQueryMerger.class);
 
@@ -10,19 +10,16 @@ import it.unibz.inf.ontop.iq.node.FilterNode;
 import it.unibz.inf.ontop.iq.node.InnerJoinNode;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.iq.*;
-import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
-import it.unibz.inf.ontop.iq.proposal.impl.InnerJoinOptimizationProposalImpl;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import org.junit.Test;
 
-import static junit.framework.TestCase.assertTrue;
-
 import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.assertEquals;
 
 /**
- * Optimizations for inner joins based on foreign keys
+ * Optimizations for inner joins based on foreign keys (see RedundantJoinFKIQOptimizer)
  */
 public class RedundantJoinFKTest {
 
@@ -97,10 +94,6 @@ public class RedundantJoinFKTest {
         IntermediateQuery query = queryBuilder.build();
         System.out.println("\nBefore optimization: \n" +  query);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
         IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder();
         expectedQueryBuilder.init(projectionAtom, constructionNode);
         FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getDBIsNotNull(A));
@@ -111,7 +104,7 @@ public class RedundantJoinFKTest {
 
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
 
@@ -137,11 +130,7 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
 
@@ -167,11 +156,7 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -199,11 +184,7 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -228,11 +209,7 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -266,10 +243,6 @@ public class RedundantJoinFKTest {
         IntermediateQuery query = queryBuilder.build();
         System.out.println("\nBefore optimization: \n" +  query);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
         IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder();
         DistinctVariableOnlyDataAtom projectionAtom1 = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_PREDICATE_1, A);
         expectedQueryBuilder.init(projectionAtom1, constructionNode);
@@ -288,7 +261,7 @@ public class RedundantJoinFKTest {
 
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -310,10 +283,6 @@ public class RedundantJoinFKTest {
         IntermediateQuery query = queryBuilder.build();
         System.out.println("\nBefore optimization: \n" +  query);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
         IntermediateQueryBuilder expectedQueryBuilder = createQueryBuilder();
         expectedQueryBuilder.init(projectionAtom, constructionNode);
         FilterNode filterNode = IQ_FACTORY.createFilterNode(TERM_FACTORY.getConjunction(
@@ -326,7 +295,7 @@ public class RedundantJoinFKTest {
 
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -351,11 +320,7 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-
-        System.out.println("\n After optimization: \n" +  query);
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        optimizeAndCompare(query, expectedQuery);
     }
 
     @Test
@@ -380,10 +345,16 @@ public class RedundantJoinFKTest {
         IntermediateQuery expectedQuery = query.createSnapshot();
         System.out.println("\n Expected query: \n" +  expectedQuery);
 
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
+        optimizeAndCompare(query, expectedQuery);
+    }
 
-        System.out.println("\n After optimization: \n" +  query);
+    private static void optimizeAndCompare(IntermediateQuery query, IntermediateQuery expectedQuery) {
+        IQ initialIQ = IQ_CONVERTER.convert(query);
+        IQ expectedIQ = IQ_CONVERTER.convert(expectedQuery);
+        IQ optimizedIQ = REDUNDANT_JOIN_FK_OPTIMIZER.optimize(initialIQ);
+        System.out.println("\n After optimization: \n" +  optimizedIQ);
 
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
+        // The optimized query is normalized when changed
+        assertEquals(optimizedIQ == initialIQ ? expectedIQ : expectedIQ.normalizeForOptimization(), optimizedIQ);
     }
 }
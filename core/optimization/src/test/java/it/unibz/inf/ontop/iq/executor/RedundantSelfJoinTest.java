@@ -12,9 +12,7 @@ import it.unibz.inf.ontop.iq.exception.IntermediateQueryBuilderException;
 import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.iq.*;
-import it.unibz.inf.ontop.iq.equivalence.IQSyntacticEquivalenceChecker;
 import it.unibz.inf.ontop.iq.exception.InvalidQueryOptimizationProposalException;
-import it.unibz.inf.ontop.iq.proposal.impl.InnerJoinOptimizationProposalImpl;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.type.DBTermType;
@@ -22,14 +20,12 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.Optional;
-import java.util.UUID;
 
 import static it.unibz.inf.ontop.OptimizationTestingTools.*;
 import static it.unibz.inf.ontop.iq.node.BinaryOrderedOperatorNode.ArgumentPosition.LEFT;
 import static it.unibz.inf.ontop.iq.node.BinaryOrderedOperatorNode.ArgumentPosition.RIGHT;
 import static it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel.LT;
 import static junit.framework.TestCase.assertEquals;
-import static junit.framework.TestCase.assertTrue;
 
 /**
  * Optimizations for inner joins based on unique constraints (like PKs).
@@ -809,18 +805,8 @@ public class RedundantSelfJoinTest {
         queryBuilder.addChild(joinNode, dataNode2);
 
         IntermediateQuery query = queryBuilder.build();
-        java.util.UUID initialVersion = query.getVersionNumber();
 
-        IntermediateQuery expectedQuery = query.createSnapshot();
-
-        System.out.println("\nBefore optimization: \n" +  query);
-
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
-        System.out.println("\nAfter optimization: \n" +  query);
-
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
-        assertEquals("The version number has changed", initialVersion, query.getVersionNumber());
+        assertNotOptimized(query);
     }
 
     @Test
@@ -840,19 +826,8 @@ public class RedundantSelfJoinTest {
         queryBuilder.addChild(joinNode, dataNode2);
 
         IntermediateQuery query = queryBuilder.build();
-        UUID initialVersion = query.getVersionNumber();
-
-        IntermediateQuery expectedQuery = query.createSnapshot();
-
-        System.out.println("\nBefore optimization: \n" +  query);
-
-        query.applyProposal(new InnerJoinOptimizationProposalImpl(joinNode));
 
-        System.out.println("\nAfter optimization: \n" +  query);
-
-
-        assertTrue(IQSyntacticEquivalenceChecker.areEquivalent(query, expectedQuery));
-        assertEquals("The version number has changed", initialVersion, query.getVersionNumber());
+        assertNotOptimized(query);
     }
 
     @Test
@@ -1390,6 +1365,17 @@ public class RedundantSelfJoinTest {
         optimizeAndCompare(IQ_CONVERTER.convert(initialQuery), IQ_CONVERTER.convert(expectedQuery));
     }
 
+    /**
+     * The join is kept: the optimized query is only normalized
+     */
+    private static void assertNotOptimized(IntermediateQuery query) {
+        IQ initialIQ = IQ_CONVERTER.convert(query);
+        System.out.println("Initial query: "+ initialIQ);
+        IQ optimizedIQ = JOIN_LIKE_OPTIMIZER.optimize(initialIQ, EXECUTOR_REGISTRY);
+        System.out.println("Optimized query: "+ optimizedIQ);
+        assertEquals(initialIQ.normalizeForOptimization(), optimizedIQ);
+    }
+
     private IntermediateQuery optimize(IntermediateQuery query) throws EmptyQueryException {
         IQ initialIQ =  IQ_CONVERTER.convert(query);
 
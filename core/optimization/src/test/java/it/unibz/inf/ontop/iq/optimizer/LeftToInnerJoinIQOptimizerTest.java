@@ -0,0 +1,108 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.ForeignKeyConstraint;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Left joins transformed into inner joins by LeftToInnerJoinIQOptimizer alone (without the other join optimizers).
+ */
+public class LeftToInnerJoinIQOptimizerTest {
+
+    private final static NamedRelationDefinition TABLE1;
+    private final static NamedRelationDefinition TABLE2;
+    private final static NamedRelationDefinition TABLE3;
+    private final static AtomPredicate ANS1_ARITY_3_PREDICATE = ATOM_FACTORY.getRDFAnswerPredicate(3);
+
+    private final static Variable M = TERM_FACTORY.getVariable("m");
+    private final static Variable M1 = TERM_FACTORY.getVariable("m1");
+    private final static Variable N1 = TERM_FACTORY.getVariable("n1");
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType integerDBType = builder.getDBTypeFactory().getDBLargeIntegerType();
+
+        TABLE1 = builder.createDatabaseRelation("TABLE1",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+        UniqueConstraint.primaryKeyOf(TABLE1.getAttribute(1));
+
+        /*
+         * Non-nullable foreign key towards TABLE1
+         */
+        TABLE2 = builder.createDatabaseRelation("TABLE2",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+        UniqueConstraint.primaryKeyOf(TABLE2.getAttribute(1));
+        ForeignKeyConstraint.of("fk2-1", TABLE2.getAttribute(2), TABLE1.getAttribute(1));
+
+        /*
+         * Nullable foreign key towards TABLE1
+         */
+        TABLE3 = builder.createDatabaseRelation("TABLE3",
+                "col1", integerDBType, false,
+                "col2", integerDBType, true);
+        UniqueConstraint.primaryKeyOf(TABLE3.getAttribute(1));
+        ForeignKeyConstraint.of("fk3-1", TABLE3.getAttribute(2), TABLE1.getAttribute(1));
+    }
+
+    @Test
+    public void testForeignKey() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_ARITY_3_PREDICATE, M, M1, N1);
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(TABLE2, ImmutableList.of(M, M1));
+        ExtensionalDataNode dataNode2 = createExtensionalDataNode(TABLE1, ImmutableList.of(M1, N1));
+
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(), dataNode1, dataNode2));
+
+        IQTree expectedTree = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(dataNode1, dataNode2));
+        IQ expectedIQ = IQ_FACTORY.createIQ(projectionAtom, expectedTree);
+
+        IQ optimizedIQ = LEFT_TO_INNER_JOIN_OPTIMIZER.optimize(initialIQ);
+        assertEquals(expectedIQ, optimizedIQ);
+    }
+
+    @Test
+    public void testNullableForeignKey() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_ARITY_3_PREDICATE, M, M1, N1);
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(TABLE3, ImmutableList.of(M, M1));
+        ExtensionalDataNode dataNode2 = createExtensionalDataNode(TABLE1, ImmutableList.of(M1, N1));
+
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(), dataNode1, dataNode2));
+
+        assertSame(initialIQ, LEFT_TO_INNER_JOIN_OPTIMIZER.optimize(initialIQ));
+    }
+
+    @Test
+    public void testNoForeignKey() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_ARITY_3_PREDICATE, M, M1, N1);
+        // TABLE1 does not refer to TABLE2
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(TABLE1, ImmutableList.of(M, M1));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(TABLE2, ImmutableMap.of(0, M1, 1, N1));
+
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(), dataNode1, dataNode2));
+
+        assertSame(initialIQ, LEFT_TO_INNER_JOIN_OPTIMIZER.optimize(initialIQ));
+    }
+}
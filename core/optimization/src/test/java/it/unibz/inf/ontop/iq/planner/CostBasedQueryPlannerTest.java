@@ -0,0 +1,125 @@
+package it.unibz.inf.ontop.iq.planner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.RelationStatisticsImpl;
+import it.unibz.inf.ontop.injection.OntopOptimizationConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.planner.impl.CostBasedQueryPlanner;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CostBasedQueryPlannerTest {
+
+    private final static NamedRelationDefinition TABLE1;
+    private final static NamedRelationDefinition TABLE2;
+    private final static NamedRelationDefinition TABLE3;
+    private final static NamedRelationDefinition TABLE4;
+
+    static {
+        OfflineMetadataProviderBuilder3 builder = createMetadataProviderBuilder();
+        TABLE1 = builder.createRelationWithPK(1, 2);
+        TABLE2 = builder.createRelationWithPK(2, 2);
+        TABLE3 = builder.createRelation(3, 2, TYPE_FACTORY.getDBTypeFactory().getDBStringType(), "STR_", false);
+        TABLE4 = builder.createRelation(4, 2, TYPE_FACTORY.getDBTypeFactory().getDBStringType(), "STR_", false);
+
+        TABLE1.setStatistics(new RelationStatisticsImpl(1000000, ImmutableMap.of(2, 10L)));
+        TABLE2.setStatistics(new RelationStatisticsImpl(100, ImmutableMap.of()));
+        TABLE3.setStatistics(new RelationStatisticsImpl(10, ImmutableMap.of(1, 10L)));
+        TABLE4.setStatistics(new RelationStatisticsImpl(10, ImmutableMap.of(1, 10L)));
+    }
+
+    @Test
+    public void testStatisticsOnlyRequiredByThisPlanner() {
+        assertFalse(OntopOptimizationConfiguration.defaultBuilder().build().getSettings().isDBStatisticsRequired());
+
+        Properties properties = new Properties();
+        properties.setProperty(QueryPlanner.class.getCanonicalName(), CostBasedQueryPlanner.class.getCanonicalName());
+        assertTrue(OntopOptimizationConfiguration.defaultBuilder()
+                .properties(properties)
+                .build().getSettings().isDBStatisticsRequired());
+    }
+
+    @Test
+    public void testCardinalityOfDataNodes() {
+        assertEquals(1000000, CARDINALITY_ESTIMATOR.estimateCardinality(
+                createExtensionalDataNode(TABLE1, ImmutableList.of(X, Y))), 0.01);
+        // Unique column
+        assertEquals(1, CARDINALITY_ESTIMATOR.estimateCardinality(
+                createExtensionalDataNode(TABLE1, ImmutableList.of(ONE_STR, Y))), 0.01);
+        // 10 distinct values
+        assertEquals(100000, CARDINALITY_ESTIMATOR.estimateCardinality(
+                createExtensionalDataNode(TABLE1, ImmutableList.of(X, ONE_STR))), 0.01);
+    }
+
+    @Test
+    public void testCardinalityOfJoin() {
+        IQTree joinTree = IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(
+                        createExtensionalDataNode(TABLE1, ImmutableList.of(X, Y)),
+                        createExtensionalDataNode(TABLE3, ImmutableList.of(X, Z))));
+
+        // Each row of TABLE3 matches at most one row of TABLE1
+        assertEquals(10, CARDINALITY_ESTIMATOR.estimateCardinality(joinTree), 0.01);
+    }
+
+    /**
+     * Pushing TABLE1 under the union would scan it twice
+     */
+    @Test
+    public void testJoinKeptAboveUnion() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_AR3_PREDICATE, X, Y, Z);
+
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(
+                        createExtensionalDataNode(TABLE1, ImmutableList.of(X, Y)),
+                        createUnion(
+                                createExtensionalDataNode(TABLE3, ImmutableList.of(X, Z)),
+                                createExtensionalDataNode(TABLE4, ImmutableList.of(X, Z))))));
+
+        assertNotEquals(initialIQ, AVOID_JOIN_ABOVE_UNION_PLANNER.optimize(initialIQ, EXECUTOR_REGISTRY));
+        assertEquals(initialIQ, COST_BASED_QUERY_PLANNER.optimize(initialIQ, EXECUTOR_REGISTRY));
+    }
+
+    /**
+     * Once pushed under the union, the join with TABLE2 is eliminated in one branch (self-join on the PK)
+     */
+    @Test
+    public void testJoinPushedUnderUnion() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_AR3_PREDICATE, X, Y, Z);
+
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(
+                        createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y)),
+                        createUnion(
+                                createExtensionalDataNode(TABLE2, ImmutableList.of(X, Z)),
+                                createExtensionalDataNode(TABLE4, ImmutableList.of(X, Z))))));
+
+        IQ expectedIQ = AVOID_JOIN_ABOVE_UNION_PLANNER.optimize(initialIQ, EXECUTOR_REGISTRY);
+        assertNotEquals(initialIQ, expectedIQ);
+        assertEquals(expectedIQ, COST_BASED_QUERY_PLANNER.optimize(initialIQ, EXECUTOR_REGISTRY));
+    }
+
+    private static IQTree createUnion(ExtensionalDataNode child1, ExtensionalDataNode child2) {
+        return IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Z)),
+                ImmutableList.of(child1, child2));
+    }
+}
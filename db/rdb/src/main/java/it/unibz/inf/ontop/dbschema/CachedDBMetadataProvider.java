@@ -0,0 +1,24 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+
+import java.io.Reader;
+
+/**
+ * Combines DB metadata serialized by a previous extraction with the DB itself:
+ * relations whose fingerprints (see {@link DBMetadataProvider#getRelationFingerprints})
+ * have not changed since are taken from the serialization, the other ones are extracted from the DB.
+ */
+public interface CachedDBMetadataProvider extends MetadataProvider {
+
+    /**
+     * IDs of the relations taken from the serialization
+     */
+    ImmutableSet<RelationID> getCachedRelationIDs();
+
+    interface Factory {
+        CachedDBMetadataProvider getMetadataProvider(DBMetadataProvider dbMetadataProvider,
+                                                     Reader dbMetadataReader) throws MetadataExtractionException;
+    }
+}
@@ -1,6 +1,9 @@
 package it.unibz.inf.ontop.dbschema;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
 
 /**
  * Extracts DB metadata directly from the DB through a connection
@@ -9,4 +12,12 @@ import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
  *
  */
 public interface DBMetadataProvider extends MetadataProvider {
+
+    /**
+     * Fingerprints of the definitions (columns and integrity constraints) of the given relations:
+     * the fingerprint of a relation changes whenever its definition changes.
+     *
+     * Relations whose fingerprints cannot be obtained cheaply (in bulk) from the DBMS are omitted.
+     */
+    ImmutableMap<RelationID, String> getRelationFingerprints(ImmutableList<RelationID> relationIds) throws MetadataExtractionException;
 }
@@ -1,18 +1,22 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.exception.RelationNotFoundInMetadataException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.DBTypeFactory;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
@@ -24,6 +28,9 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     protected final QuotedIDFactory rawIdFactory;
 
+    // relations retrieved in bulk, not requested yet
+    private final Map<RelationID, RelationDefinition.AttributeListBuilder> prefetchedRelations = new HashMap<>();
+
     protected interface QuotedIDFactoryFactory {
         QuotedIDFactory create(DatabaseMetaData m) throws SQLException;
     }
@@ -91,47 +98,16 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     @Override
     public NamedRelationDefinition getRelation(RelationID id0) throws MetadataExtractionException {
-        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
         RelationID id = getCanonicalRelationId(id0);
-        try (ResultSet rs = metadata.getColumns(getRelationCatalog(id), getRelationSchema(id), getRelationName(id), null)) {
-            Map<RelationID, RelationDefinition.AttributeListBuilder> relations = new HashMap<>();
+        RelationDefinition.AttributeListBuilder prefetched = prefetchedRelations.remove(id);
+        if (prefetched != null)
+            return new DatabaseTableDefinition(getAllIDs(id), prefetched);
 
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+        try (ResultSet rs = metadata.getColumns(getRelationCatalog(id), getRelationSchema(id), getRelationName(id), null)) {
+            Map<RelationID, RelationDefinition.AttributeListBuilder> relations = extractAttributes(rs, extractedId -> {
                 checkSameRelationID(extractedId, id);
-
-                RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
-                        i -> DatabaseTableDefinition.attributeListBuilder());
-
-                QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                // columnNoNulls, columnNullable, columnNullableUnknown
-                boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-                String typeName = rs.getString("TYPE_NAME");
-                int columnSize = rs.getInt("COLUMN_SIZE");
-                DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
-
-                String sqlTypeName;
-                switch (rs.getInt("DATA_TYPE")) {
-                    case Types.CHAR:
-                    case Types.VARCHAR:
-                    case Types.NVARCHAR:
-                        sqlTypeName = (columnSize != 0) ? typeName + "(" + columnSize + ")" : typeName;
-                        break;
-                    case Types.DECIMAL:
-                    case Types.NUMERIC:
-                        int decimalDigits = rs.getInt("DECIMAL_DIGITS");
-                        if (columnSize == 0)
-                            sqlTypeName = typeName;
-                        else if (decimalDigits == 0)
-                            sqlTypeName = typeName + "(" + columnSize + ")";
-                        else
-                            sqlTypeName = typeName + "(" + columnSize + ", " + decimalDigits + ")";
-                        break;
-                    default:
-                        sqlTypeName = typeName;
-                }
-                builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
-            }
+                return true;
+            });
 
             if (relations.entrySet().size() == 1) {
                 Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> r = relations.entrySet().iterator().next();
@@ -146,152 +122,543 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         }
     }
 
+    /**
+     * In bulk mode, retrieves the columns of all the relations of the schemas of the given relations
+     * (one DatabaseMetaData.getColumns call per schema)
+     */
+    @Override
+    public void prefetchRelations(ImmutableList<RelationID> relationIds) throws MetadataExtractionException {
+        if (!getIntegrityConstraintQueries().isPresent() || relationIds.size() < 2)
+            return;
+
+        Map<List<String>, Set<RelationID>> relationIdsBySchema = new LinkedHashMap<>();
+        for (RelationID relationId : relationIds) {
+            RelationID id = getCanonicalRelationId(relationId);
+            if (getRelationSchema(id) != null || getRelationCatalog(id) != null)
+                relationIdsBySchema.computeIfAbsent(Arrays.asList(getRelationCatalog(id), getRelationSchema(id)),
+                        k -> new HashSet<>()).add(id);
+        }
+
+        try {
+            for (Map.Entry<List<String>, Set<RelationID>> e : relationIdsBySchema.entrySet()) {
+                try (ResultSet rs = metadata.getColumns(e.getKey().get(0), e.getKey().get(1), "%", null)) {
+                    prefetchedRelations.putAll(extractAttributes(rs, e.getValue()::contains));
+                }
+            }
+        }
+        catch (SQLException e) {
+            LOGGER.warn("Cannot retrieve the columns in bulk, falling back to one relation at a time: {}", e.getMessage());
+            prefetchedRelations.clear();
+        }
+    }
+
+    /**
+     * Rows of DatabaseMetaData.getColumns
+     */
+    private Map<RelationID, RelationDefinition.AttributeListBuilder> extractAttributes(ResultSet rs, RelationIdFilter filter) throws SQLException, MetadataExtractionException {
+        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
+        Map<RelationID, RelationDefinition.AttributeListBuilder> relations = new HashMap<>();
+
+        while (rs.next()) {
+            RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+            if (!filter.test(extractedId))
+                continue;
+
+            RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
+                    i -> DatabaseTableDefinition.attributeListBuilder());
+
+            QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+            // columnNoNulls, columnNullable, columnNullableUnknown
+            boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+            String typeName = rs.getString("TYPE_NAME");
+            int columnSize = rs.getInt("COLUMN_SIZE");
+            DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
+
+            String sqlTypeName;
+            switch (rs.getInt("DATA_TYPE")) {
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.NVARCHAR:
+                    sqlTypeName = (columnSize != 0) ? typeName + "(" + columnSize + ")" : typeName;
+                    break;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    int decimalDigits = rs.getInt("DECIMAL_DIGITS");
+                    if (columnSize == 0)
+                        sqlTypeName = typeName;
+                    else if (decimalDigits == 0)
+                        sqlTypeName = typeName + "(" + columnSize + ")";
+                    else
+                        sqlTypeName = typeName + "(" + columnSize + ", " + decimalDigits + ")";
+                    break;
+                default:
+                    sqlTypeName = typeName;
+            }
+            builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
+        }
+        return relations;
+    }
+
 
     @Override
     public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        RelationID id = getCanonicalRelationId(relation.getID());
+        RelationResolver resolver = extractedId -> {
+            checkSameRelationID(extractedId, id);
+            return relation;
+        };
         try {
-            insertPrimaryKey(relation);
-            insertUniqueAttributes(relation);
-            insertForeignKeys(relation, metadataLookup);
+            // Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
+            try (ResultSet rs = metadata.getPrimaryKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+                insertPrimaryKeys(rs, resolver);
+            }
+            try (ResultSet rs = metadata.getIndexInfo(getRelationCatalog(id), getRelationSchema(id), getRelationName(id), true, true)) {
+                insertUniqueAttributes(rs, resolver);
+            }
+            try (ResultSet rs = metadata.getImportedKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+                insertForeignKeys(rs, resolver, metadataLookup);
+            }
         }
         catch (SQLException e) {
             throw new MetadataExtractionException(e);
         }
     }
 
-    private void insertPrimaryKey(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
-        // Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
-        try (ResultSet rs = metadata.getPrimaryKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            Map<Integer, QuotedID> primaryKeyAttributes = new HashMap<>();
-            String currentName = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
-                checkSameRelationID(extractedId, id);
+    /**
+     * In bulk mode, the primary keys, unique constraints and foreign keys of all the relations
+     * are retrieved by three set-based queries (on all the relations of their schemas).
+     * Otherwise (or if a bulk query fails), they are retrieved one relation at a time.
+     */
+    @Override
+    public void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        Optional<IntegrityConstraintQueries> queries = getIntegrityConstraintQueries();
+        if (!queries.isPresent() || relations.size() < 2) {
+            for (NamedRelationDefinition relation : relations)
+                insertIntegrityConstraints(relation, metadataLookup);
+            return;
+        }
 
-                currentName = rs.getString("PK_NAME"); // may be null
-                QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                int seq = rs.getShort("KEY_SEQ");
-                primaryKeyAttributes.put(seq, attrId);
+        Map<RelationID, NamedRelationDefinition> bulkRelations = new LinkedHashMap<>();
+        Set<String> schemas = new LinkedHashSet<>();
+        ImmutableList.Builder<NamedRelationDefinition> otherRelationsBuilder = ImmutableList.builder();
+        for (NamedRelationDefinition relation : relations) {
+            RelationID id = getCanonicalRelationId(relation.getID());
+            Optional<String> schema = getCatalogQuerySchema(id);
+            if (schema.isPresent()) {
+                bulkRelations.put(id, relation);
+                schemas.add(schema.get());
             }
-            if (!primaryKeyAttributes.isEmpty()) {
-                try {
-                    // use the KEY_SEQ values to restore the correct order of attributes in the PK
-                    UniqueConstraint.Builder builder = UniqueConstraint.primaryKeyBuilder(relation, currentName);
-                    for (int i = 1; i <= primaryKeyAttributes.size(); i++)
-                        builder.addDeterminant(primaryKeyAttributes.get(i));
-                    builder.build();
+            else
+                otherRelationsBuilder.add(relation);
+        }
+        ImmutableList<RelationID> bulkRelationIds = ImmutableList.copyOf(bulkRelations.keySet());
+
+        RelationResolver resolver = bulkRelations::get;
+        String parameters = schemas.stream().map(n -> "?").collect(Collectors.joining(", "));
+        try {
+            if (!executeBulkQuery(queries.get().getPrimaryKeysQuery(parameters), schemas,
+                    rs -> insertPrimaryKeys(rs, resolver)))
+                for (RelationID id : bulkRelationIds) {
+                    try (ResultSet rs = metadata.getPrimaryKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+                        insertPrimaryKeys(rs, resolver);
+                    }
                 }
-                catch (AttributeNotFoundException e) {
-                    throw new MetadataExtractionException(e);
+
+            if (!executeBulkQuery(queries.get().getUniqueIndexesQuery(parameters), schemas,
+                    rs -> insertUniqueAttributes(rs, resolver)))
+                for (RelationID id : bulkRelationIds) {
+                    try (ResultSet rs = metadata.getIndexInfo(getRelationCatalog(id), getRelationSchema(id), getRelationName(id), true, true)) {
+                        insertUniqueAttributes(rs, resolver);
+                    }
+                }
+
+            if (!executeBulkQuery(queries.get().getForeignKeysQuery(parameters), schemas,
+                    rs -> insertForeignKeys(rs, resolver, metadataLookup)))
+                for (RelationID id : bulkRelationIds) {
+                    try (ResultSet rs = metadata.getImportedKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+                        insertForeignKeys(rs, resolver, metadataLookup);
+                    }
                 }
-            }
         }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e);
+        }
+
+        for (NamedRelationDefinition relation : otherRelationsBuilder.build())
+            insertIntegrityConstraints(relation, metadataLookup);
     }
 
-    private void insertUniqueAttributes(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
-        // extracting unique
-        try (ResultSet rs = metadata.getIndexInfo(getRelationCatalog(id), getRelationSchema(id), getRelationName(id), true, true)) {
-            UniqueConstraint.Builder builder = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
-                checkSameRelationID(extractedId, id);
+    /**
+     * The row counts and the numbers of distinct values are retrieved by two set-based queries
+     * on the statistics kept by the DBMS in its catalog.
+     * No statistics are inserted if these queries are not provided or cannot be executed.
+     */
+    @Override
+    public void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+        Optional<StatisticsQueries> queries = getStatisticsQueries();
+        if (!queries.isPresent())
+            return;
+
+        Map<RelationID, NamedRelationDefinition> relationMap = new HashMap<>();
+        Set<String> schemas = new LinkedHashSet<>();
+        for (NamedRelationDefinition relation : relations) {
+            RelationID id = getCanonicalRelationId(relation.getID());
+            Optional<String> schema = getCatalogQuerySchema(id);
+            if (schema.isPresent()) {
+                relationMap.put(id, relation);
+                schemas.add(schema.get());
+            }
+        }
+        if (schemas.isEmpty())
+            return;
 
-                // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
-                //       tableIndexClustered - this is a clustered index
-                //       tableIndexHashed - this is a hashed index
-                //       tableIndexOther (all are static final int in DatabaseMetaData)
-                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
-                    if (builder != null)
-                        builder.build();
+        Map<NamedRelationDefinition, Long> rowCounts = new LinkedHashMap<>();
+        Map<NamedRelationDefinition, Map<Integer, Long>> distinctValueCounts = new HashMap<>();
+        String parameters = schemas.stream().map(n -> "?").collect(Collectors.joining(", "));
+        try {
+            executeBulkQuery(queries.get().getRowCountsQuery(parameters), schemas, rs -> {
+                while (rs.next()) {
+                    NamedRelationDefinition relation = relationMap.get(getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME"));
+                    double rowCount = rs.getDouble("ROW_COUNT");
+                    // negative or NULL when the relation has never been analyzed
+                    if (relation != null && !rs.wasNull() && rowCount >= 0)
+                        rowCounts.put(relation, Math.round(rowCount));
+                }
+            });
+
+            Optional<String> distinctValuesQuery = queries.get().getDistinctValuesQuery(parameters);
+            if (distinctValuesQuery.isPresent() && !rowCounts.isEmpty())
+                executeBulkQuery(distinctValuesQuery.get(), schemas, rs -> {
+                    while (rs.next()) {
+                        NamedRelationDefinition relation = relationMap.get(getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME"));
+                        double distinctValues = rs.getDouble("DISTINCT_VALUES");
+                        if (relation == null || !rowCounts.containsKey(relation) || rs.wasNull() || distinctValues < 0)
+                            continue;
+                        try {
+                            Attribute attribute = relation.getAttribute(rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME")));
+                            distinctValueCounts.computeIfAbsent(relation, r -> new HashMap<>())
+                                    .put(attribute.getIndex(), Math.round(distinctValues));
+                        }
+                        catch (AttributeNotFoundException e) {
+                            // e.g., system columns: ignored
+                        }
+                    }
+                });
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e);
+        }
 
-                    builder = null;
-                    continue;
+        for (Map.Entry<NamedRelationDefinition, Long> e : rowCounts.entrySet())
+            e.getKey().setStatistics(new RelationStatisticsImpl(e.getValue(),
+                    ImmutableMap.copyOf(distinctValueCounts.getOrDefault(e.getKey(), ImmutableMap.of()))));
+    }
+
+    @Override
+    public ImmutableMap<RelationID, String> getRelationFingerprints(ImmutableList<RelationID> relationIds) throws MetadataExtractionException {
+        Optional<String> query = getRelationFingerprintQuery();
+        if (!query.isPresent())
+            return ImmutableMap.of();
+
+        Map<RelationID, RelationID> requestedIds = new HashMap<>();
+        Set<String> schemas = new LinkedHashSet<>();
+        for (RelationID relationId : relationIds) {
+            RelationID id = getCanonicalRelationId(relationId);
+            Optional<String> schema = getCatalogQuerySchema(id);
+            if (schema.isPresent()) {
+                requestedIds.put(id, relationId);
+                schemas.add(schema.get());
+            }
+        }
+        if (schemas.isEmpty())
+            return ImmutableMap.of();
+
+        ImmutableMap.Builder<RelationID, String> builder = ImmutableMap.builder();
+        String parameters = schemas.stream().map(n -> "?").collect(Collectors.joining(", "));
+        try {
+            executeBulkQuery(String.format(query.get(), parameters), schemas, rs -> {
+                while (rs.next()) {
+                    RelationID id = requestedIds.get(getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME"));
+                    String fingerprint = rs.getString("FINGERPRINT");
+                    if (id != null && fingerprint != null)
+                        builder.put(id, Hashing.sha256().hashString(fingerprint, StandardCharsets.UTF_8).toString());
                 }
-                if (rs.getShort("ORDINAL_POSITION") == 1) {
-                    if (builder != null)
-                        builder.build();
+            });
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e);
+        }
+        return builder.build();
+    }
 
-                    if (!rs.getBoolean("NON_UNIQUE")) {
-                        String name = rs.getString("INDEX_NAME");
-                        builder = UniqueConstraint.builder(relation, name);
-                    }
-                    else
-                        builder = null;
+    /**
+     * Returns false if the query cannot be executed (e.g., insufficient privileges on the catalog)
+     */
+    private boolean executeBulkQuery(String query, Set<String> schemas, ResultSetConsumer consumer) throws SQLException, MetadataExtractionException {
+        PreparedStatement stmt = null;
+        ResultSet rs;
+        try {
+            stmt = connection.prepareStatement(query);
+            int i = 1;
+            for (String schema : schemas)
+                stmt.setString(i++, schema);
+            rs = stmt.executeQuery();
+        }
+        catch (SQLException e) {
+            if (stmt != null)
+                stmt.close();
+            LOGGER.warn("Cannot execute the catalog query: {}", e.getMessage());
+            return false;
+        }
+        try (PreparedStatement s = stmt; ResultSet r = rs) {
+            consumer.accept(r);
+        }
+        return true;
+    }
+
+    /**
+     * Rows of DatabaseMetaData.getPrimaryKeys
+     */
+    private void insertPrimaryKeys(ResultSet rs, RelationResolver resolver) throws MetadataExtractionException, SQLException {
+        Map<NamedRelationDefinition, String> names = new LinkedHashMap<>();
+        Map<NamedRelationDefinition, Map<Integer, QuotedID>> attributes = new LinkedHashMap<>();
+        while (rs.next()) {
+            RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+            NamedRelationDefinition relation = resolver.resolve(extractedId);
+            if (relation == null)
+                continue;
+
+            String name = rs.getString("PK_NAME"); // may be null
+            if (name != null)
+                names.put(relation, name);
+            QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+            int seq = rs.getShort("KEY_SEQ");
+            attributes.computeIfAbsent(relation, r -> new HashMap<>()).put(seq, attrId);
+        }
+        for (Map.Entry<NamedRelationDefinition, Map<Integer, QuotedID>> e : attributes.entrySet()) {
+            Map<Integer, QuotedID> primaryKeyAttributes = e.getValue();
+            try {
+                // use the KEY_SEQ values to restore the correct order of attributes in the PK
+                UniqueConstraint.Builder builder = UniqueConstraint.primaryKeyBuilder(e.getKey(), names.get(e.getKey()));
+                for (int i = 1; i <= primaryKeyAttributes.size(); i++)
+                    builder.addDeterminant(primaryKeyAttributes.get(i));
+                builder.build();
+            }
+            catch (AttributeNotFoundException ex) {
+                throw new MetadataExtractionException(ex);
+            }
+        }
+    }
+
+    /**
+     * Rows of DatabaseMetaData.getIndexInfo (grouped by index, in the order of the columns)
+     */
+    private void insertUniqueAttributes(ResultSet rs, RelationResolver resolver) throws MetadataExtractionException, SQLException {
+        UniqueConstraint.Builder builder = null;
+        while (rs.next()) {
+            RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+            NamedRelationDefinition relation = resolver.resolve(extractedId);
+            if (relation == null) {
+                if (builder != null)
+                    builder.build();
+
+                builder = null;
+                continue;
+            }
+
+            // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
+            //       tableIndexClustered - this is a clustered index
+            //       tableIndexHashed - this is a hashed index
+            //       tableIndexOther (all are static final int in DatabaseMetaData)
+            if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                if (builder != null)
+                    builder.build();
+
+                builder = null;
+                continue;
+            }
+            if (rs.getShort("ORDINAL_POSITION") == 1) {
+                if (builder != null)
+                    builder.build();
+
+                if (!rs.getBoolean("NON_UNIQUE")) {
+                    String name = rs.getString("INDEX_NAME");
+                    builder = UniqueConstraint.builder(relation, name);
                 }
+                else
+                    builder = null;
+            }
 
-                if (builder != null) {
-                    QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                    // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
-                    //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
-                    // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
-                    //                      otherwise, it is the number of unique values in the index.
-                    // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
-                    //                    otherwise it is the number of pages used for the current index.
-                    // FILTER_CONDITION String => Filter condition, if any. (may be null)
+            if (builder != null) {
+                QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+                // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
+                //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
+                // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
+                //                      otherwise, it is the number of unique values in the index.
+                // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
+                //                    otherwise it is the number of pages used for the current index.
+                // FILTER_CONDITION String => Filter condition, if any. (may be null)
+                try {
+                    builder.addDeterminant(attrId);
+                }
+                catch (AttributeNotFoundException e) {
                     try {
+                        // bug in PostgreSQL JBDC driver: it strips off the quotation marks
+                        attrId = rawIdFactory.createAttributeID("\"" + rs.getString("COLUMN_NAME") + "\"");
                         builder.addDeterminant(attrId);
                     }
-                    catch (AttributeNotFoundException e) {
-                        try {
-                            // bug in PostgreSQL JBDC driver: it strips off the quotation marks
-                            attrId = rawIdFactory.createAttributeID("\"" + rs.getString("COLUMN_NAME") + "\"");
-                            builder.addDeterminant(attrId);
-                        }
-                        catch (AttributeNotFoundException ex) {
-                            throw new MetadataExtractionException(e);
-                        }
+                    catch (AttributeNotFoundException ex) {
+                        throw new MetadataExtractionException(e);
                     }
                 }
             }
-            if (builder != null)
-                builder.build();
         }
+        if (builder != null)
+            builder.build();
     }
 
-    private void insertForeignKeys(NamedRelationDefinition relation, MetadataLookup dbMetadata) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
-        try (ResultSet rs = metadata.getImportedKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            ForeignKeyConstraint.Builder builder = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "FKTABLE_CAT", "FKTABLE_SCHEM","FKTABLE_NAME");
-                checkSameRelationID(extractedId, id);
-                RelationID pkId = getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME");
+    /**
+     * Rows of DatabaseMetaData.getImportedKeys (grouped by foreign key, in the order of the columns)
+     */
+    private void insertForeignKeys(ResultSet rs, RelationResolver resolver, MetadataLookup dbMetadata) throws MetadataExtractionException, SQLException {
+        ForeignKeyConstraint.Builder builder = null;
+        while (rs.next()) {
+            RelationID extractedId = getRelationID(rs, "FKTABLE_CAT", "FKTABLE_SCHEM","FKTABLE_NAME");
+            NamedRelationDefinition relation = resolver.resolve(extractedId);
+            if (relation == null) {
+                if (builder != null)
+                    builder.build();
 
-                try {
-                    int seq = rs.getShort("KEY_SEQ");
-                    if (seq == 1) {
-                        if (builder != null)
-                            builder.build();
+                builder = null;
+                continue;
+            }
+            RelationID pkId = getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME");
 
-                        String name = rs.getString("FK_NAME"); // String => foreign key name (may be null)
+            try {
+                int seq = rs.getShort("KEY_SEQ");
+                if (seq == 1) {
+                    if (builder != null)
+                        builder.build();
 
-                        NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
+                    String name = rs.getString("FK_NAME"); // String => foreign key name (may be null)
 
-                        builder = ForeignKeyConstraint.builder(name, relation, ref);
+                    NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
+
+                    builder = ForeignKeyConstraint.builder(name, relation, ref);
+                }
+                if (builder != null) {
+                    try {
+                        QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("FKCOLUMN_NAME"));
+                        QuotedID refAttrId = rawIdFactory.createAttributeID(rs.getString("PKCOLUMN_NAME"));
+                        builder.add(attrId, refAttrId);
                     }
-                    if (builder != null) {
-                        try {
-                            QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("FKCOLUMN_NAME"));
-                            QuotedID refAttrId = rawIdFactory.createAttributeID(rs.getString("PKCOLUMN_NAME"));
-                            builder.add(attrId, refAttrId);
-                        }
-                        catch (AttributeNotFoundException e) {
-                            throw new MetadataExtractionException(e);
-                        }
+                    catch (AttributeNotFoundException e) {
+                        throw new MetadataExtractionException(e);
                     }
                 }
-                catch (MetadataExtractionException e) {
-                    LOGGER.warn("Cannot find table {} for FK {}", pkId, rs.getString("FK_NAME"));
-                    builder = null; // do not add this foreign key because there is no table it refers to
-                }
             }
-            if (builder != null)
-                builder.build();
+            catch (MetadataExtractionException e) {
+                LOGGER.warn("Cannot find table {} for FK {}", pkId, rs.getString("FK_NAME"));
+                builder = null; // do not add this foreign key because there is no table it refers to
+            }
         }
+        if (builder != null)
+            builder.build();
     }
 
+    @FunctionalInterface
+    private interface RelationIdFilter {
+        boolean test(RelationID id) throws MetadataExtractionException;
+    }
+
+    /**
+     * Returns the relation whose constraints are described by the row (or null if it is not among the requested ones)
+     */
+    @FunctionalInterface
+    private interface RelationResolver {
+        NamedRelationDefinition resolve(RelationID id) throws MetadataExtractionException;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetConsumer {
+        void accept(ResultSet rs) throws SQLException, MetadataExtractionException;
+    }
+
+    /**
+     * Set-based catalog queries for bulk mode, with the same columns as DatabaseMetaData.getPrimaryKeys,
+     * getIndexInfo (unique indexes only) and getImportedKeys respectively,
+     * and with the rows of each key grouped together and sorted by position.
+     *
+     * Each query is a format string taking the list of parameters for the names of the schemas.
+     */
+    protected static final class IntegrityConstraintQueries {
+        private final String primaryKeysQuery, uniqueIndexesQuery, foreignKeysQuery;
+
+        protected IntegrityConstraintQueries(String primaryKeysQuery, String uniqueIndexesQuery, String foreignKeysQuery) {
+            this.primaryKeysQuery = primaryKeysQuery;
+            this.uniqueIndexesQuery = uniqueIndexesQuery;
+            this.foreignKeysQuery = foreignKeysQuery;
+        }
+
+        String getPrimaryKeysQuery(String schemaParameters) { return String.format(primaryKeysQuery, schemaParameters); }
+
+        String getUniqueIndexesQuery(String schemaParameters) { return String.format(uniqueIndexesQuery, schemaParameters); }
+
+        String getForeignKeysQuery(String schemaParameters) { return String.format(foreignKeysQuery, schemaParameters); }
+    }
+
+    /**
+     * Bulk mode is enabled by providing the catalog queries
+     */
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.empty(); }
+
+    /**
+     * Catalog query with the same columns as DatabaseMetaData.getTables and a FINGERPRINT column,
+     * which changes whenever the columns or the integrity constraints of the relation change
+     * (e.g., the time of the last DDL statement on the relation).
+     *
+     * The query is a format string taking the list of parameters for the names of the schemas.
+     */
+    protected Optional<String> getRelationFingerprintQuery() { return Optional.empty(); }
+
+    /**
+     * Set-based catalog queries on the statistics of the DBMS, with the same TABLE_CAT, TABLE_SCHEM and TABLE_NAME
+     * columns as DatabaseMetaData.getTables and
+     *   - a ROW_COUNT column for the estimated number of rows of each relation
+     *   - COLUMN_NAME and DISTINCT_VALUES columns for the estimated number of distinct values of each column
+     *     (optional query)
+     *
+     * Each query is a format string taking the list of parameters for the names of the schemas.
+     */
+    protected static final class StatisticsQueries {
+        private final String rowCountsQuery;
+        private final Optional<String> distinctValuesQuery;
+
+        protected StatisticsQueries(String rowCountsQuery, String distinctValuesQuery) {
+            this.rowCountsQuery = rowCountsQuery;
+            this.distinctValuesQuery = Optional.of(distinctValuesQuery);
+        }
+
+        protected StatisticsQueries(String rowCountsQuery) {
+            this.rowCountsQuery = rowCountsQuery;
+            this.distinctValuesQuery = Optional.empty();
+        }
+
+        String getRowCountsQuery(String schemaParameters) { return String.format(rowCountsQuery, schemaParameters); }
+
+        Optional<String> getDistinctValuesQuery(String schemaParameters) { return distinctValuesQuery.map(q -> String.format(q, schemaParameters)); }
+    }
+
+    /**
+     * Statistics are only extracted when the catalog queries are provided
+     */
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.empty(); }
+
+    /**
+     * Name of the schema to pass to the catalog queries (empty if the relation is not covered by them)
+     */
+    protected Optional<String> getCatalogQuerySchema(RelationID id) { return Optional.ofNullable(getRelationSchema(id)); }
+
     protected abstract RelationID getCanonicalRelationId(RelationID id);
 
     protected abstract ImmutableList<RelationID> getAllIDs(RelationID id);
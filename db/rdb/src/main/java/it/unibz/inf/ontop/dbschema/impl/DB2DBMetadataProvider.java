@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -41,4 +42,55 @@ public class DB2DBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 			       "WHERE OWNERTYPE='U' AND (TYPE='T' OR TYPE='V') " +
 			       "     AND TBSPACEID IN (SELECT TBSPACEID FROM SYSCAT.TABLESPACES WHERE TBSPACE LIKE 'USERSPACE%')";
     */
+
+    // https://www.ibm.com/support/knowledgecenter/en/SSEPGG_11.5.0/com.ibm.db2.luw.sql.ref.doc/doc/r0001038.html (SYSCAT.TABCONST)
+    // https://www.ibm.com/support/knowledgecenter/en/SSEPGG_11.5.0/com.ibm.db2.luw.sql.ref.doc/doc/r0001047.html (SYSCAT.INDEXES)
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT CAST(NULL AS VARCHAR(128)) AS TABLE_CAT, RTRIM(tc.TABSCHEMA) AS TABLE_SCHEM, tc.TABNAME AS TABLE_NAME, " +
+                    "k.COLNAME AS COLUMN_NAME, k.COLSEQ AS KEY_SEQ, tc.CONSTNAME AS PK_NAME " +
+                    "FROM SYSCAT.TABCONST tc " +
+                    "JOIN SYSCAT.KEYCOLUSE k ON k.TABSCHEMA = tc.TABSCHEMA AND k.TABNAME = tc.TABNAME AND k.CONSTNAME = tc.CONSTNAME " +
+                    "WHERE tc.TYPE = 'P' AND tc.TABSCHEMA IN (%s) " +
+                    "ORDER BY tc.TABSCHEMA, tc.TABNAME, k.COLSEQ",
+            // INCLUDE columns are not part of the key
+            "SELECT CAST(NULL AS VARCHAR(128)) AS TABLE_CAT, RTRIM(i.TABSCHEMA) AS TABLE_SCHEM, i.TABNAME AS TABLE_NAME, 0 AS NON_UNIQUE, " +
+                    "i.INDNAME AS INDEX_NAME, 3 AS TYPE, c.COLSEQ AS ORDINAL_POSITION, c.COLNAME AS COLUMN_NAME " +
+                    "FROM SYSCAT.INDEXES i " +
+                    "JOIN SYSCAT.INDEXCOLUSE c ON c.INDSCHEMA = i.INDSCHEMA AND c.INDNAME = i.INDNAME " +
+                    "WHERE i.UNIQUERULE IN ('U', 'P') AND c.COLORDER <> 'I' AND i.TABSCHEMA IN (%s) " +
+                    "ORDER BY i.TABSCHEMA, i.TABNAME, i.INDNAME, c.COLSEQ",
+            "SELECT CAST(NULL AS VARCHAR(128)) AS PKTABLE_CAT, RTRIM(r.REFTABSCHEMA) AS PKTABLE_SCHEM, r.REFTABNAME AS PKTABLE_NAME, " +
+                    "pk.COLNAME AS PKCOLUMN_NAME, CAST(NULL AS VARCHAR(128)) AS FKTABLE_CAT, RTRIM(r.TABSCHEMA) AS FKTABLE_SCHEM, " +
+                    "r.TABNAME AS FKTABLE_NAME, fk.COLNAME AS FKCOLUMN_NAME, fk.COLSEQ AS KEY_SEQ, r.CONSTNAME AS FK_NAME " +
+                    "FROM SYSCAT.REFERENCES r " +
+                    "JOIN SYSCAT.KEYCOLUSE fk ON fk.TABSCHEMA = r.TABSCHEMA AND fk.TABNAME = r.TABNAME AND fk.CONSTNAME = r.CONSTNAME " +
+                    "JOIN SYSCAT.KEYCOLUSE pk ON pk.TABSCHEMA = r.REFTABSCHEMA AND pk.TABNAME = r.REFTABNAME " +
+                    "AND pk.CONSTNAME = r.REFKEYNAME AND pk.COLSEQ = fk.COLSEQ " +
+                    "WHERE r.TABSCHEMA IN (%s) " +
+                    "ORDER BY r.TABSCHEMA, r.TABNAME, r.CONSTNAME, fk.COLSEQ");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT CAST(NULL AS VARCHAR(128)) AS TABLE_CAT, RTRIM(TABSCHEMA) AS TABLE_SCHEM, TABNAME AS TABLE_NAME, " +
+                "VARCHAR(ALTER_TIME) AS FINGERPRINT " +
+                "FROM SYSCAT.TABLES " +
+                "WHERE TABSCHEMA IN (%s)");
+    }
+
+    // -1 when the statistics have not been collected (RUNSTATS)
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT CAST(NULL AS VARCHAR(128)) AS TABLE_CAT, RTRIM(TABSCHEMA) AS TABLE_SCHEM, TABNAME AS TABLE_NAME, " +
+                    "CARD AS ROW_COUNT " +
+                    "FROM SYSCAT.TABLES " +
+                    "WHERE TYPE = 'T' AND TABSCHEMA IN (%s)",
+            "SELECT CAST(NULL AS VARCHAR(128)) AS TABLE_CAT, RTRIM(TABSCHEMA) AS TABLE_SCHEM, TABNAME AS TABLE_NAME, " +
+                    "COLNAME AS COLUMN_NAME, COLCARD AS DISTINCT_VALUES " +
+                    "FROM SYSCAT.COLUMNS " +
+                    "WHERE TABSCHEMA IN (%s)");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.RelationID;
@@ -105,4 +106,12 @@ public abstract class DefaultSchemaCatalogDBMetadataProvider extends AbstractDBM
     protected RelationID getRelationID(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn) throws SQLException {
         return rawIdFactory.createRelationID(rs.getString(catalogNameColumn), rs.getString(schemaNameColumn), rs.getString(tableNameColumn));
     }
+
+    // the catalog queries are executed against the current catalog only
+    @Override
+    protected Optional<String> getCatalogQuerySchema(RelationID id) {
+        return defaultCatalog.equals(id.getComponents().get(CATALOG_INDEX))
+                ? Optional.of(getRelationSchema(id))
+                : Optional.empty();
+    }
 }
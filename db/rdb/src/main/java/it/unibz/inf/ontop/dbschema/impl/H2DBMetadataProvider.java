@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
@@ -17,4 +18,54 @@ public class H2DBMetadataProvider extends DefaultSchemaCatalogDBMetadataProvider
         // http://www.h2database.com/html/functions.html#current_schema
         // the .getSchema() does work for OntopExtractDBMetadataTest
     }
+
+    // the same views as the ones used by the H2 JDBC driver
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT TABLE_CATALOG AS TABLE_CAT, TABLE_SCHEMA AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, " +
+                    "ORDINAL_POSITION AS KEY_SEQ, IFNULL(CONSTRAINT_NAME, INDEX_NAME) AS PK_NAME " +
+                    "FROM INFORMATION_SCHEMA.INDEXES " +
+                    "WHERE PRIMARY_KEY = TRUE AND TABLE_CATALOG = DATABASE() AND TABLE_SCHEMA IN (%s) " +
+                    "ORDER BY TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION",
+            "SELECT TABLE_CATALOG AS TABLE_CAT, TABLE_SCHEMA AS TABLE_SCHEM, TABLE_NAME, NON_UNIQUE, INDEX_NAME, " +
+                    "INDEX_TYPE AS TYPE, ORDINAL_POSITION, COLUMN_NAME " +
+                    "FROM INFORMATION_SCHEMA.INDEXES " +
+                    "WHERE NON_UNIQUE = FALSE AND TABLE_CATALOG = DATABASE() AND TABLE_SCHEMA IN (%s) " +
+                    "ORDER BY TABLE_SCHEMA, TABLE_NAME, INDEX_NAME, ORDINAL_POSITION",
+            "SELECT PKTABLE_CATALOG AS PKTABLE_CAT, PKTABLE_SCHEMA AS PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME, " +
+                    "FKTABLE_CATALOG AS FKTABLE_CAT, FKTABLE_SCHEMA AS FKTABLE_SCHEM, FKTABLE_NAME, FKCOLUMN_NAME, " +
+                    "ORDINAL_POSITION AS KEY_SEQ, FK_NAME " +
+                    "FROM INFORMATION_SCHEMA.CROSS_REFERENCES " +
+                    "WHERE FKTABLE_CATALOG = DATABASE() AND FKTABLE_SCHEMA IN (%s) " +
+                    "ORDER BY FKTABLE_SCHEMA, FKTABLE_NAME, FK_NAME, ORDINAL_POSITION");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    // H2 regenerates the DDL statements of the tables and constraints from their current definitions
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT t.TABLE_CATALOG AS TABLE_CAT, t.TABLE_SCHEMA AS TABLE_SCHEM, t.TABLE_NAME, CONCAT(t.SQL, " +
+                "(SELECT GROUP_CONCAT(c.SQL ORDER BY c.CONSTRAINT_NAME SEPARATOR ';') FROM INFORMATION_SCHEMA.CONSTRAINTS c " +
+                "WHERE c.TABLE_CATALOG = t.TABLE_CATALOG AND c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME), " +
+                "(SELECT GROUP_CONCAT(DISTINCT i.SQL ORDER BY i.SQL SEPARATOR ';') FROM INFORMATION_SCHEMA.INDEXES i " +
+                "WHERE i.TABLE_CATALOG = t.TABLE_CATALOG AND i.TABLE_SCHEMA = t.TABLE_SCHEMA AND i.TABLE_NAME = t.TABLE_NAME " +
+                "AND i.NON_UNIQUE = FALSE)) AS FINGERPRINT " +
+                "FROM INFORMATION_SCHEMA.TABLES t " +
+                "WHERE t.TABLE_CATALOG = DATABASE() AND t.TABLE_SCHEMA IN (%s)");
+    }
+
+    // the selectivity of a column is a percentage (100 means unique), updated by ANALYZE
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT TABLE_CATALOG AS TABLE_CAT, TABLE_SCHEMA AS TABLE_SCHEM, TABLE_NAME, ROW_COUNT_ESTIMATE AS ROW_COUNT " +
+                    "FROM INFORMATION_SCHEMA.TABLES " +
+                    "WHERE TABLE_TYPE = 'TABLE' AND TABLE_CATALOG = DATABASE() AND TABLE_SCHEMA IN (%s)",
+            "SELECT c.TABLE_CATALOG AS TABLE_CAT, c.TABLE_SCHEMA AS TABLE_SCHEM, c.TABLE_NAME, c.COLUMN_NAME, " +
+                    "t.ROW_COUNT_ESTIMATE * c.SELECTIVITY / 100.0 AS DISTINCT_VALUES " +
+                    "FROM INFORMATION_SCHEMA.COLUMNS c " +
+                    "JOIN INFORMATION_SCHEMA.TABLES t ON t.TABLE_CATALOG = c.TABLE_CATALOG " +
+                    "AND t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME " +
+                    "WHERE t.TABLE_TYPE = 'TABLE' AND c.TABLE_CATALOG = DATABASE() AND c.TABLE_SCHEMA IN (%s)");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
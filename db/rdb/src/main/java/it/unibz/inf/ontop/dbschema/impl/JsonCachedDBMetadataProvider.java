@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonDatabaseTable;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class JsonCachedDBMetadataProvider implements CachedDBMetadataProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonCachedDBMetadataProvider.class);
+
+    private final DBMetadataProvider provider;
+    private final ImmutableList<RelationID> relationIds;
+    // valid serialized relations, under all their IDs
+    private final ImmutableMap<RelationID, JsonDatabaseTable> relationMap;
+
+    @AssistedInject
+    protected JsonCachedDBMetadataProvider(@Assisted DBMetadataProvider provider,
+                                           @Assisted Reader dbMetadataReader) throws MetadataExtractionException, IOException {
+        this.provider = provider;
+        JsonMetadata jsonMetadata = JsonSerializedMetadataProvider.loadAndDeserialize(dbMetadataReader);
+        QuotedIDFactory idFactory = provider.getQuotedIDFactory();
+
+        this.relationIds = provider.getRelationIDs();
+        ImmutableMap<RelationID, String> fingerprints = provider.getRelationFingerprints(relationIds);
+
+        Map<RelationID, JsonDatabaseTable> unchanged = new HashMap<>();
+        for (JsonDatabaseTable table : jsonMetadata.relations) {
+            ImmutableList<RelationID> ids = getAllIDs(idFactory, table);
+            if (table.fingerprint != null
+                    && ids.stream().anyMatch(id -> table.fingerprint.equals(fingerprints.get(id))))
+                ids.forEach(id -> unchanged.put(id, table));
+        }
+
+        // the foreign keys of a relation are up to date only if the referenced relation has not changed either
+        relationMap = unchanged.entrySet().stream()
+                .filter(e -> e.getValue().foreignKeys.stream()
+                        .map(fk -> JsonMetadata.deserializeRelationID(idFactory, fk.to.relation))
+                        .allMatch(unchanged::containsKey))
+                .collect(ImmutableCollectors.toMap());
+
+        LOGGER.debug("{} out of {} relations taken from the serialized DB metadata",
+                getCachedRelationIDs().size(), relationIds.size());
+    }
+
+    private static ImmutableList<RelationID> getAllIDs(QuotedIDFactory idFactory, JsonDatabaseTable table) {
+        return Stream.concat(Stream.of(table.name), table.otherNames.stream())
+                .map(s -> JsonMetadata.deserializeRelationID(idFactory, s))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public ImmutableSet<RelationID> getCachedRelationIDs() {
+        return relationIds.stream()
+                .filter(relationMap::containsKey)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public NamedRelationDefinition getRelation(RelationID id) throws MetadataExtractionException {
+        JsonDatabaseTable jsonTable = relationMap.get(id);
+        if (jsonTable == null)
+            return provider.getRelation(id);
+
+        return jsonTable.createDatabaseTableDefinition(provider.getDBParameters());
+    }
+
+    @Override
+    public void prefetchRelations(ImmutableList<RelationID> relationIds) throws MetadataExtractionException {
+        provider.prefetchRelations(relationIds.stream()
+                .filter(id -> !relationMap.containsKey(id))
+                .collect(ImmutableCollectors.toList()));
+    }
+
+    @Override
+    public QuotedIDFactory getQuotedIDFactory() {
+        return provider.getQuotedIDFactory();
+    }
+
+    @Override
+    public ImmutableList<RelationID> getRelationIDs() {
+        return relationIds;
+    }
+
+    @Override
+    public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        JsonDatabaseTable jsonTable = relationMap.get(relation.getID());
+        if (jsonTable == null)
+            provider.insertIntegrityConstraints(relation, metadataLookup);
+        else
+            jsonTable.insertIntegrityConstraints(relation, metadataLookup);
+    }
+
+    @Override
+    public void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        ImmutableList.Builder<NamedRelationDefinition> extracted = ImmutableList.builder();
+        for (NamedRelationDefinition relation : relations) {
+            JsonDatabaseTable jsonTable = relationMap.get(relation.getID());
+            if (jsonTable == null)
+                extracted.add(relation);
+            else
+                jsonTable.insertIntegrityConstraints(relation, metadataLookup);
+        }
+        provider.insertIntegrityConstraints(extracted.build(), metadataLookup);
+    }
+
+    /**
+     * The statistics of the unchanged relations are also taken from the serialized DB metadata
+     */
+    @Override
+    public void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+        ImmutableList.Builder<NamedRelationDefinition> extracted = ImmutableList.builder();
+        for (NamedRelationDefinition relation : relations) {
+            JsonDatabaseTable jsonTable = relationMap.get(relation.getID());
+            if (jsonTable == null)
+                extracted.add(relation);
+            else
+                jsonTable.insertStatistics(relation, provider.getQuotedIDFactory());
+        }
+        provider.insertStatistics(extracted.build());
+    }
+
+    @Override
+    public DBParameters getDBParameters() {
+        return provider.getDBParameters();
+    }
+}
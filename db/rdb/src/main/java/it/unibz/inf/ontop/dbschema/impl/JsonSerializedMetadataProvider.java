@@ -96,6 +96,15 @@ public class JsonSerializedMetadataProvider implements SerializedMetadataProvide
         jsonTable.insertIntegrityConstraints(relation, metadataLookupForFk);
     }
 
+    @Override
+    public void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+        for (NamedRelationDefinition relation : relations) {
+            JsonDatabaseTable jsonTable = relationMap.get(relation.getID());
+            if (jsonTable != null)
+                jsonTable.insertStatistics(relation, dbParameters.getQuotedIDFactory());
+        }
+    }
+
     @Override
     public DBParameters getDBParameters() {
         return dbParameters;
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.dbschema.RelationID;
@@ -39,4 +40,61 @@ public class MySQLDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
     protected RelationID getRelationID(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn) throws SQLException {
         return rawIdFactory.createRelationID(rs.getString(catalogNameColumn), rs.getString(tableNameColumn));
     }
+
+    @Override
+    protected Optional<String> getCatalogQuerySchema(RelationID relationID) { return Optional.ofNullable(getRelationCatalog(relationID)); }
+
+    // https://dev.mysql.com/doc/refman/8.0/en/information-schema-statistics-table.html
+    // https://dev.mysql.com/doc/refman/8.0/en/information-schema-key-column-usage-table.html
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, SEQ_IN_INDEX AS KEY_SEQ, INDEX_NAME AS PK_NAME " +
+                    "FROM information_schema.STATISTICS " +
+                    "WHERE INDEX_NAME = 'PRIMARY' AND TABLE_SCHEMA IN (%s) " +
+                    "ORDER BY TABLE_SCHEMA, TABLE_NAME, SEQ_IN_INDEX",
+            "SELECT s.TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, s.TABLE_NAME, s.NON_UNIQUE, s.INDEX_NAME, 3 AS TYPE, " +
+                    "s.SEQ_IN_INDEX AS ORDINAL_POSITION, s.COLUMN_NAME " +
+                    "FROM information_schema.STATISTICS s " +
+                    "WHERE s.NON_UNIQUE = 0 AND s.TABLE_SCHEMA IN (%s) " +
+                    // functional key parts (MySQL 8) have no column
+                    "AND NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS e " +
+                    "WHERE e.TABLE_SCHEMA = s.TABLE_SCHEMA AND e.TABLE_NAME = s.TABLE_NAME AND e.INDEX_NAME = s.INDEX_NAME AND e.COLUMN_NAME IS NULL) " +
+                    "ORDER BY s.TABLE_SCHEMA, s.TABLE_NAME, s.INDEX_NAME, s.SEQ_IN_INDEX",
+            "SELECT REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, NULL AS PKTABLE_SCHEM, REFERENCED_TABLE_NAME AS PKTABLE_NAME, REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, " +
+                    "TABLE_SCHEMA AS FKTABLE_CAT, NULL AS FKTABLE_SCHEM, TABLE_NAME AS FKTABLE_NAME, COLUMN_NAME AS FKCOLUMN_NAME, " +
+                    "ORDINAL_POSITION AS KEY_SEQ, CONSTRAINT_NAME AS FK_NAME " +
+                    "FROM information_schema.KEY_COLUMN_USAGE " +
+                    "WHERE REFERENCED_TABLE_NAME IS NOT NULL AND TABLE_SCHEMA IN (%s) " +
+                    "ORDER BY TABLE_SCHEMA, TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    // CREATE_TIME is not reliably updated by ALTER TABLE: checksums of the definitions are compared as well
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT t.TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, t.TABLE_NAME, CONCAT_WS('|', t.CREATE_TIME, " +
+                "(SELECT CONCAT(COUNT(*), ':', SUM(CRC32(CONCAT_WS(',', c.ORDINAL_POSITION, c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE)))) " +
+                "FROM information_schema.COLUMNS c WHERE c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', SUM(CRC32(CONCAT_WS(',', s.INDEX_NAME, s.SEQ_IN_INDEX, s.COLUMN_NAME, s.NON_UNIQUE)))) " +
+                "FROM information_schema.STATISTICS s WHERE s.TABLE_SCHEMA = t.TABLE_SCHEMA AND s.TABLE_NAME = t.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', SUM(CRC32(CONCAT_WS(',', k.CONSTRAINT_NAME, k.ORDINAL_POSITION, k.COLUMN_NAME, " +
+                "k.REFERENCED_TABLE_SCHEMA, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME)))) " +
+                "FROM information_schema.KEY_COLUMN_USAGE k WHERE k.TABLE_SCHEMA = t.TABLE_SCHEMA AND k.TABLE_NAME = t.TABLE_NAME)) AS FINGERPRINT " +
+                "FROM information_schema.TABLES t " +
+                "WHERE t.TABLE_SCHEMA IN (%s)");
+    }
+
+    // https://dev.mysql.com/doc/refman/8.0/en/information-schema-tables-table.html
+    // the number of distinct values is only known for the leading columns of the indexes
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, TABLE_ROWS AS ROW_COUNT " +
+                    "FROM information_schema.TABLES " +
+                    "WHERE TABLE_TYPE = 'BASE TABLE' AND TABLE_SCHEMA IN (%s)",
+            "SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, MAX(CARDINALITY) AS DISTINCT_VALUES " +
+                    "FROM information_schema.STATISTICS " +
+                    "WHERE SEQ_IN_INDEX = 1 AND TABLE_SCHEMA IN (%s) " +
+                    "GROUP BY TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
@@ -16,6 +16,8 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -107,6 +109,23 @@ public class OntopViewMetadataProviderImpl implements OntopViewMetadataProvider
         }
     }
 
+    /**
+     * Ontop views have no statistics: the ones of their base relations are inserted instead
+     */
+    @Override
+    public void insertStatistics(ImmutableList<NamedRelationDefinition> relations) throws MetadataExtractionException {
+        Map<RelationID, NamedRelationDefinition> parentRelations = new LinkedHashMap<>();
+        for (NamedRelationDefinition relation : relations) {
+            if (jsonMap.containsKey(relation.getID())) {
+                for (NamedRelationDefinition baseRelation : parentCacheMetadataLookup.getBaseRelations(relation.getID()))
+                    parentRelations.putIfAbsent(baseRelation.getID(), baseRelation);
+            }
+            else
+                parentRelations.putIfAbsent(relation.getID(), relation);
+        }
+        parentMetadataProvider.insertStatistics(ImmutableList.copyOf(parentRelations.values()));
+    }
+
     @Override
     public QuotedIDFactory getQuotedIDFactory() {
         return parentMetadataProvider.getQuotedIDFactory();
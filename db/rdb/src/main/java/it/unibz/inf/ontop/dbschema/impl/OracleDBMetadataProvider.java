@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -84,4 +85,56 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
                 "   NOT view_name LIKE 'LOGMNR_%' AND " +
                 "   NOT view_name LIKE 'AQ$_%'");
     }
+
+    // https://docs.oracle.com/database/121/REFRN/GUID-9C96DA92-CFE0-4A3F-9061-C5ED17B43EFE.htm (ALL_CONSTRAINTS)
+    // https://docs.oracle.com/database/121/REFRN/GUID-E39825BA-70AC-45D8-AF30-C7FF561373B6.htm (ALL_INDEXES)
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT NULL AS TABLE_CAT, c.owner AS TABLE_SCHEM, c.table_name AS TABLE_NAME, cc.column_name AS COLUMN_NAME, " +
+                    "cc.position AS KEY_SEQ, c.constraint_name AS PK_NAME " +
+                    "FROM all_constraints c " +
+                    "JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name AND cc.table_name = c.table_name " +
+                    "WHERE c.constraint_type = 'P' AND c.owner IN (%s) " +
+                    "ORDER BY c.owner, c.table_name, cc.position",
+            // function-based indexes are not unique constraints on attributes
+            "SELECT NULL AS TABLE_CAT, i.table_owner AS TABLE_SCHEM, i.table_name AS TABLE_NAME, 0 AS NON_UNIQUE, " +
+                    "i.index_name AS INDEX_NAME, 3 AS TYPE, ic.column_position AS ORDINAL_POSITION, ic.column_name AS COLUMN_NAME " +
+                    "FROM all_indexes i " +
+                    "JOIN all_ind_columns ic ON ic.index_owner = i.owner AND ic.index_name = i.index_name " +
+                    "WHERE i.uniqueness = 'UNIQUE' AND i.table_owner IN (%s) " +
+                    "AND NOT EXISTS (SELECT 1 FROM all_ind_expressions e WHERE e.index_owner = i.owner AND e.index_name = i.index_name) " +
+                    "ORDER BY i.table_owner, i.table_name, i.index_name, ic.column_position",
+            "SELECT NULL AS PKTABLE_CAT, p.owner AS PKTABLE_SCHEM, p.table_name AS PKTABLE_NAME, pc.column_name AS PKCOLUMN_NAME, " +
+                    "NULL AS FKTABLE_CAT, f.owner AS FKTABLE_SCHEM, f.table_name AS FKTABLE_NAME, fc.column_name AS FKCOLUMN_NAME, " +
+                    "fc.position AS KEY_SEQ, f.constraint_name AS FK_NAME " +
+                    "FROM all_constraints f " +
+                    "JOIN all_cons_columns fc ON fc.owner = f.owner AND fc.constraint_name = f.constraint_name " +
+                    "JOIN all_constraints p ON p.owner = f.r_owner AND p.constraint_name = f.r_constraint_name " +
+                    "JOIN all_cons_columns pc ON pc.owner = p.owner AND pc.constraint_name = p.constraint_name AND pc.position = fc.position " +
+                    "WHERE f.constraint_type = 'R' AND f.owner IN (%s) " +
+                    "ORDER BY f.owner, f.table_name, f.constraint_name, fc.position");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT NULL AS TABLE_CAT, owner AS TABLE_SCHEM, object_name AS TABLE_NAME, " +
+                "TO_CHAR(last_ddl_time, 'YYYY-MM-DD HH24:MI:SS') AS FINGERPRINT " +
+                "FROM all_objects " +
+                "WHERE object_type IN ('TABLE', 'VIEW') AND owner IN (%s)");
+    }
+
+    // https://docs.oracle.com/en/database/oracle/oracle-database/19/refrn/ALL_TAB_STATISTICS.html
+    // https://docs.oracle.com/en/database/oracle/oracle-database/19/refrn/ALL_TAB_COL_STATISTICS.html
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT NULL AS TABLE_CAT, owner AS TABLE_SCHEM, table_name AS TABLE_NAME, num_rows AS ROW_COUNT " +
+                    "FROM all_tab_statistics " +
+                    "WHERE object_type = 'TABLE' AND owner IN (%s)",
+            "SELECT NULL AS TABLE_CAT, owner AS TABLE_SCHEM, table_name AS TABLE_NAME, column_name AS COLUMN_NAME, " +
+                    "num_distinct AS DISTINCT_VALUES " +
+                    "FROM all_tab_col_statistics " +
+                    "WHERE owner IN (%s)");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
@@ -20,4 +21,76 @@ public class PostgreSQLDBMetadataProvider extends DefaultSchemaDBMetadataProvide
         // https://www.postgresql.org/docs/current/ddl-schemas.html
         // If you write a database name, it must be the same as the database you are connected to.
     }
+
+    // https://www.postgresql.org/docs/current/catalog-pg-constraint.html
+    // https://www.postgresql.org/docs/current/catalog-pg-index.html
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, c.relname AS TABLE_NAME, a.attname AS COLUMN_NAME, " +
+                    "k.ord AS KEY_SEQ, con.conname AS PK_NAME " +
+                    "FROM pg_catalog.pg_constraint con " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = con.conrelid " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+                    "CROSS JOIN LATERAL unnest(con.conkey) WITH ORDINALITY AS k(attnum, ord) " +
+                    "JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = k.attnum " +
+                    "WHERE con.contype = 'p' AND n.nspname IN (%s) " +
+                    "ORDER BY n.nspname, c.relname, k.ord",
+            // expression indexes are not unique constraints on attributes
+            "SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, c.relname AS TABLE_NAME, NOT i.indisunique AS NON_UNIQUE, " +
+                    "ci.relname AS INDEX_NAME, 3 AS TYPE, k.ord AS ORDINAL_POSITION, a.attname AS COLUMN_NAME " +
+                    "FROM pg_catalog.pg_index i " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = i.indrelid " +
+                    "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+                    "CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord) " +
+                    "JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = k.attnum " +
+                    "WHERE i.indisunique AND i.indexprs IS NULL AND n.nspname IN (%s) " +
+                    "ORDER BY n.nspname, c.relname, ci.relname, k.ord",
+            "SELECT NULL AS PKTABLE_CAT, pkn.nspname AS PKTABLE_SCHEM, pkc.relname AS PKTABLE_NAME, pka.attname AS PKCOLUMN_NAME, " +
+                    "NULL AS FKTABLE_CAT, fkn.nspname AS FKTABLE_SCHEM, fkc.relname AS FKTABLE_NAME, fka.attname AS FKCOLUMN_NAME, " +
+                    "k.ord AS KEY_SEQ, con.conname AS FK_NAME " +
+                    "FROM pg_catalog.pg_constraint con " +
+                    "JOIN pg_catalog.pg_class fkc ON fkc.oid = con.conrelid " +
+                    "JOIN pg_catalog.pg_namespace fkn ON fkn.oid = fkc.relnamespace " +
+                    "JOIN pg_catalog.pg_class pkc ON pkc.oid = con.confrelid " +
+                    "JOIN pg_catalog.pg_namespace pkn ON pkn.oid = pkc.relnamespace " +
+                    "CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(fkattnum, pkattnum, ord) " +
+                    "JOIN pg_catalog.pg_attribute fka ON fka.attrelid = fkc.oid AND fka.attnum = k.fkattnum " +
+                    "JOIN pg_catalog.pg_attribute pka ON pka.attrelid = pkc.oid AND pka.attnum = k.pkattnum " +
+                    "WHERE con.contype = 'f' AND fkn.nspname IN (%s) " +
+                    "ORDER BY fkn.nspname, fkc.relname, con.conname, k.ord");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    // no DDL timestamps in PostgreSQL: the definitions themselves are compared
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, c.relname AS TABLE_NAME, md5(concat_ws('|', " +
+                "(SELECT string_agg(a.attname || ':' || format_type(a.atttypid, a.atttypmod) || ':' || a.attnotnull, ',' ORDER BY a.attnum) " +
+                "FROM pg_catalog.pg_attribute a WHERE a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped), " +
+                "(SELECT string_agg(con.conname || ':' || pg_get_constraintdef(con.oid), ',' ORDER BY con.conname) " +
+                "FROM pg_catalog.pg_constraint con WHERE con.conrelid = c.oid), " +
+                "(SELECT string_agg(pg_get_indexdef(i.indexrelid), ',' ORDER BY i.indexrelid) " +
+                "FROM pg_catalog.pg_index i WHERE i.indrelid = c.oid AND i.indisunique))) AS FINGERPRINT " +
+                "FROM pg_catalog.pg_class c " +
+                "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relkind IN ('r', 'v', 'm', 'f', 'p') AND n.nspname IN (%s)");
+    }
+
+    // https://www.postgresql.org/docs/current/view-pg-stats.html
+    // negative n_distinct values are ratios of the number of rows
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, c.relname AS TABLE_NAME, c.reltuples AS ROW_COUNT " +
+                    "FROM pg_catalog.pg_class c " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+                    "WHERE c.relkind IN ('r', 'm', 'p') AND n.nspname IN (%s)",
+            "SELECT NULL AS TABLE_CAT, s.schemaname AS TABLE_SCHEM, s.tablename AS TABLE_NAME, s.attname AS COLUMN_NAME, " +
+                    "CASE WHEN s.n_distinct < 0 THEN -s.n_distinct * c.reltuples ELSE s.n_distinct END AS DISTINCT_VALUES " +
+                    "FROM pg_catalog.pg_stats s " +
+                    "JOIN pg_catalog.pg_namespace n ON n.nspname = s.schemaname " +
+                    "JOIN pg_catalog.pg_class c ON c.relnamespace = n.oid AND c.relname = s.tablename " +
+                    "WHERE NOT s.inherited AND s.schemaname IN (%s)");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.dbschema.impl;
 
+import java.util.Optional;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -34,4 +35,64 @@ public class SQLServerDBMetadataProvider extends DefaultSchemaCatalogDBMetadataP
 					"FROM INFORMATION_SCHEMA.TABLES " +
 					"WHERE TABLE_TYPE='BASE TABLE' OR TABLE_TYPE='VIEW'";
     */
+
+    // https://docs.microsoft.com/en-us/sql/relational-databases/system-catalog-views/sys-indexes-transact-sql
+    // https://docs.microsoft.com/en-us/sql/relational-databases/system-catalog-views/sys-foreign-key-columns-transact-sql
+    private static final IntegrityConstraintQueries INTEGRITY_CONSTRAINT_QUERIES = new IntegrityConstraintQueries(
+            "SELECT DB_NAME() AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, c.name AS COLUMN_NAME, " +
+                    "ic.key_ordinal AS KEY_SEQ, i.name AS PK_NAME " +
+                    "FROM sys.indexes i " +
+                    "JOIN sys.tables t ON t.object_id = i.object_id " +
+                    "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+                    "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+                    "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+                    "WHERE i.is_primary_key = 1 AND ic.key_ordinal > 0 AND s.name IN (%s) " +
+                    "ORDER BY s.name, t.name, ic.key_ordinal",
+            "SELECT DB_NAME() AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, 0 AS NON_UNIQUE, " +
+                    "i.name AS INDEX_NAME, 3 AS TYPE, ic.key_ordinal AS ORDINAL_POSITION, c.name AS COLUMN_NAME " +
+                    "FROM sys.indexes i " +
+                    "JOIN sys.tables t ON t.object_id = i.object_id " +
+                    "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+                    "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+                    "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+                    "WHERE i.is_unique = 1 AND ic.key_ordinal > 0 AND s.name IN (%s) " +
+                    "ORDER BY s.name, t.name, i.name, ic.key_ordinal",
+            "SELECT DB_NAME() AS PKTABLE_CAT, ps.name AS PKTABLE_SCHEM, pt.name AS PKTABLE_NAME, pc.name AS PKCOLUMN_NAME, " +
+                    "DB_NAME() AS FKTABLE_CAT, fs.name AS FKTABLE_SCHEM, ft.name AS FKTABLE_NAME, fc.name AS FKCOLUMN_NAME, " +
+                    "fkc.constraint_column_id AS KEY_SEQ, fk.name AS FK_NAME " +
+                    "FROM sys.foreign_keys fk " +
+                    "JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id " +
+                    "JOIN sys.tables ft ON ft.object_id = fk.parent_object_id " +
+                    "JOIN sys.schemas fs ON fs.schema_id = ft.schema_id " +
+                    "JOIN sys.columns fc ON fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id " +
+                    "JOIN sys.tables pt ON pt.object_id = fk.referenced_object_id " +
+                    "JOIN sys.schemas ps ON ps.schema_id = pt.schema_id " +
+                    "JOIN sys.columns pc ON pc.object_id = fkc.referenced_object_id AND pc.column_id = fkc.referenced_column_id " +
+                    "WHERE fs.name IN (%s) " +
+                    "ORDER BY fs.name, ft.name, fk.name, fkc.constraint_column_id");
+
+    @Override
+    protected Optional<IntegrityConstraintQueries> getIntegrityConstraintQueries() { return Optional.of(INTEGRITY_CONSTRAINT_QUERIES); }
+
+    // modify_date also changes when an index on the table is created or altered
+    @Override
+    protected Optional<String> getRelationFingerprintQuery() {
+        return Optional.of("SELECT DB_NAME() AS TABLE_CAT, s.name AS TABLE_SCHEM, o.name AS TABLE_NAME, " +
+                "CONVERT(VARCHAR(23), o.modify_date, 126) AS FINGERPRINT " +
+                "FROM sys.objects o " +
+                "JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                "WHERE o.type IN ('U', 'V') AND s.name IN (%s)");
+    }
+
+    // the numbers of distinct values are only available through DBCC SHOW_STATISTICS (one statistics object at a time)
+    private static final StatisticsQueries STATISTICS_QUERIES = new StatisticsQueries(
+            "SELECT DB_NAME() AS TABLE_CAT, s.name AS TABLE_SCHEM, o.name AS TABLE_NAME, SUM(p.rows) AS ROW_COUNT " +
+                    "FROM sys.objects o " +
+                    "JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                    "JOIN sys.partitions p ON p.object_id = o.object_id AND p.index_id IN (0, 1) " +
+                    "WHERE o.type = 'U' AND s.name IN (%s) " +
+                    "GROUP BY s.name, o.name");
+
+    @Override
+    protected Optional<StatisticsQueries> getStatisticsQueries() { return Optional.of(STATISTICS_QUERIES); }
 }
@@ -20,7 +20,10 @@ import java.util.stream.Stream;
     "otherFunctionalDependencies",
     "foreignKeys",
     "columns",
-    "name"
+    "name",
+    "otherNames",
+    "fingerprint",
+    "statistics"
 })
 public class JsonDatabaseTable extends JsonOpenObject {
     @JsonInclude(value= JsonInclude.Include.NON_EMPTY)
@@ -33,6 +36,8 @@ public class JsonDatabaseTable extends JsonOpenObject {
     public final List<String> name;
     @JsonInclude(value= JsonInclude.Include.NON_EMPTY)
     public final List<List<String>> otherNames;
+    public final String fingerprint;
+    public final JsonStatistics statistics;
 
     @JsonCreator
     public JsonDatabaseTable(@JsonProperty("uniqueConstraints") List<JsonUniqueConstraint> uniqueConstraints,
@@ -40,16 +45,28 @@ public class JsonDatabaseTable extends JsonOpenObject {
                              @JsonProperty("foreignKeys") List<JsonForeignKey> foreignKeys,
                              @JsonProperty("columns") List<Column> columns,
                              @JsonProperty("name") List<String> name,
-                             @JsonProperty("otherNames") List<List<String>> otherNames) {
+                             @JsonProperty("otherNames") List<List<String>> otherNames,
+                             @JsonProperty("fingerprint") String fingerprint,
+                             @JsonProperty("statistics") JsonStatistics statistics) {
         this.uniqueConstraints = Optional.ofNullable(uniqueConstraints).orElse(ImmutableList.of());
         this.otherFunctionalDependencies = Optional.ofNullable(otherFunctionalDependencies).orElse(ImmutableList.of());
         this.foreignKeys =  Optional.ofNullable(foreignKeys).orElse(ImmutableList.of());
         this.columns = columns;
         this.name = name;
         this.otherNames = Optional.ofNullable(otherNames).orElse(ImmutableList.of());
+        this.fingerprint = fingerprint;
+        this.statistics = statistics;
     }
 
     public JsonDatabaseTable(NamedRelationDefinition relation) {
+        this(relation, null);
+    }
+
+    /**
+     * @param fingerprint of the definition of the relation in the DB (see DBMetadataProvider), may be null
+     */
+    public JsonDatabaseTable(NamedRelationDefinition relation, String fingerprint) {
+        this.fingerprint = fingerprint;
         this.name = JsonMetadata.serializeRelationID(relation.getID());
         this.otherNames = relation.getAllIDs().stream()
                 .filter(id -> !id.equals(relation.getID()))
@@ -67,6 +84,9 @@ public class JsonDatabaseTable extends JsonOpenObject {
         this.otherFunctionalDependencies = relation.getOtherFunctionalDependencies().stream()
                 .map(JsonFunctionalDependency::new)
                 .collect(ImmutableCollectors.toList());
+        this.statistics = relation.getStatistics()
+                .map(s -> new JsonStatistics(relation, s))
+                .orElse(null);
     }
 
     public DatabaseTableDefinition createDatabaseTableDefinition(DBParameters dbParameters) {
@@ -77,6 +97,7 @@ public class JsonDatabaseTable extends JsonOpenObject {
             attributeListBuilder.addAttribute(
                     idFactory.createAttributeID(attribute.name),
                     dbTypeFactory.getDBTermType(attribute.datatype),
+                    attribute.datatype,
                     attribute.isNullable);
 
         ImmutableList<RelationID> allIDs = Stream.concat(Stream.of(name), otherNames.stream())
@@ -102,6 +123,11 @@ public class JsonDatabaseTable extends JsonOpenObject {
         }
     }
 
+    public void insertStatistics(NamedRelationDefinition relation, QuotedIDFactory idFactory) throws MetadataExtractionException {
+        if (statistics != null)
+            statistics.insert(relation, idFactory);
+    }
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonPropertyOrder({
             "name",
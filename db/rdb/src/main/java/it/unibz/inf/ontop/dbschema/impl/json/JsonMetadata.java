@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.dbschema.impl.json;
 import com.fasterxml.jackson.annotation.*;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.dbschema.impl.*;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
@@ -12,6 +13,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -30,8 +32,19 @@ public class JsonMetadata extends JsonOpenObject {
     }
 
     public JsonMetadata(ImmutableMetadata metadata) {
+        this(metadata, ImmutableMap.of());
+    }
+
+    /**
+     * @param fingerprints of the relations, under any of their IDs
+     */
+    public JsonMetadata(ImmutableMetadata metadata, ImmutableMap<RelationID, String> fingerprints) {
         this.relations = metadata.getAllRelations().stream()
-                .map(JsonDatabaseTable::new)
+                .map(r -> new JsonDatabaseTable(r, r.getAllIDs().stream()
+                        .map(fingerprints::get)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null)))
                 .collect(ImmutableCollectors.toList());
         this.metadata = new Parameters(metadata.getDBParameters());
     }
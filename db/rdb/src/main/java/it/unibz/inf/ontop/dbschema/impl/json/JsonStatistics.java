@@ -0,0 +1,53 @@
+package it.unibz.inf.ontop.dbschema.impl.json;
+
+import com.fasterxml.jackson.annotation.*;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.dbschema.impl.RelationStatisticsImpl;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        "rowCount",
+        "distinctValues"
+})
+public class JsonStatistics extends JsonOpenObject {
+    public final Long rowCount;
+    @JsonInclude(value= JsonInclude.Include.NON_EMPTY)
+    public final Map<String, Long> distinctValues;
+
+    @JsonCreator
+    public JsonStatistics(@JsonProperty("rowCount") Long rowCount,
+                          @JsonProperty("distinctValues") Map<String, Long> distinctValues) {
+        this.rowCount = rowCount;
+        this.distinctValues = Optional.ofNullable(distinctValues).orElse(ImmutableMap.of());
+    }
+
+    public JsonStatistics(RelationDefinition relation, RelationStatistics statistics) {
+        this.rowCount = statistics.getRowCount();
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Attribute attribute : relation.getAttributes())
+            statistics.getDistinctValueCount(attribute.getIndex())
+                    .ifPresent(c -> map.put(attribute.getID().getSQLRendering(), c));
+        this.distinctValues = map;
+    }
+
+    public void insert(NamedRelationDefinition relation, QuotedIDFactory idFactory) throws MetadataExtractionException {
+        if (rowCount == null)
+            return;
+
+        ImmutableMap.Builder<Integer, Long> builder = ImmutableMap.builder();
+        try {
+            for (Map.Entry<String, Long> e : distinctValues.entrySet())
+                builder.put(relation.getAttribute(idFactory.createAttributeID(e.getKey())).getIndex(), e.getValue());
+        }
+        catch (AttributeNotFoundException e) {
+            throw new MetadataExtractionException(e);
+        }
+        relation.setStatistics(new RelationStatisticsImpl(rowCount, builder.build()));
+    }
+}
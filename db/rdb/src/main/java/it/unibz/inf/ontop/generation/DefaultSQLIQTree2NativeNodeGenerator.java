@@ -1,8 +1,11 @@
 package it.unibz.inf.ontop.generation;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.inject.Inject;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
 import it.unibz.inf.ontop.generation.algebra.IQTree2SelectFromWhereConverter;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
@@ -12,54 +15,169 @@ import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQTree;
-import it.unibz.inf.ontop.iq.node.NativeNode;
 import it.unibz.inf.ontop.iq.type.UniqueTermTypeExtractor;
-import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGenerator {
 
+    // Random, so that markers are very unlikely to collide with values from the query
+    private static final String MARKER_PREFIX = "ontopbind" + Long.toHexString(new SecureRandom().nextLong()) + "p";
+    private static final String MARKER_SUFFIX = "x";
+    private static final String PARAMETER_MARKER = "?";
+
     private final SelectFromWhereSerializer serializer;
     private final IQTree2SelectFromWhereConverter converter;
     private final IntermediateQueryFactory iqFactory;
     private final UniqueTermTypeExtractor uniqueTermTypeExtractor;
+    private final TermFactory termFactory;
     private final DBTermType abstractRootDBType;
+    private final FunctionSymbol nowFunctionSymbol;
 
     @Inject
     private DefaultSQLIQTree2NativeNodeGenerator(SelectFromWhereSerializer serializer,
                                                  IQTree2SelectFromWhereConverter converter,
                                                  IntermediateQueryFactory iqFactory,
                                                  UniqueTermTypeExtractor uniqueTermTypeExtractor,
-                                                 TypeFactory typeFactory) {
+                                                 TermFactory termFactory, TypeFactory typeFactory) {
         this.serializer = serializer;
         this.converter = converter;
         this.iqFactory = iqFactory;
         this.uniqueTermTypeExtractor = uniqueTermTypeExtractor;
+        this.termFactory = termFactory;
         abstractRootDBType = typeFactory.getDBTypeFactory().getAbstractRootDBType();
+        nowFunctionSymbol = termFactory.getDBFunctionSymbolFactory().getDBNow();
     }
 
 
     @Override
     public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes) {
-        ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
+        return generate(iqTree, dbParameters, tolerateUnknownTypes, false);
+    }
 
-        SelectFromWhereWithModifiers selectFromWhere = converter.convert(iqTree, signature);
-        SelectFromWhereSerializer.QuerySerialization serializedQuery = serializer.serialize(selectFromWhere, dbParameters);
+    @Override
+    public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes,
+                               boolean bindParameters) {
+        ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
 
         ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
+        boolean isDeterministic = isDeterministic(iqTree);
+
+        if (bindParameters) {
+            Optional<NativeNode> parameterizedNativeNode = generateWithParameters(iqTree, signature, variableTypeMap,
+                    isDeterministic, dbParameters);
+            if (parameterizedNativeNode.isPresent())
+                return parameterizedNativeNode.get();
+        }
+
+        SelectFromWhereSerializer.QuerySerialization serializedQuery = serialize(iqTree, signature, dbParameters);
+
+        return iqFactory.createNativeNode(signature, variableTypeMap, extractColumnNames(serializedQuery),
+                serializedQuery.getString(), ImmutableList.of(), isDeterministic, iqTree.getVariableNullability());
+    }
+
+    /**
+     * NOW() is not considered as non-deterministic by the function symbol (constant within a query),
+     * but its value changes from one evaluation to the other.
+     */
+    private boolean isDeterministic(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        Stream<? extends ImmutableTerm> localTerms;
+        if (rootNode instanceof ExtendedProjectionNode)
+            localTerms = ((ExtendedProjectionNode) rootNode).getSubstitution().getImmutableMap().values().stream();
+        else if (rootNode instanceof JoinOrFilterNode)
+            localTerms = ((JoinOrFilterNode) rootNode).getOptionalFilterCondition().map(Stream::of)
+                    .orElseGet(Stream::empty);
+        else if (rootNode instanceof OrderByNode)
+            localTerms = ((OrderByNode) rootNode).getComparators().stream()
+                    .map(OrderByNode.OrderComparator::getTerm);
+        else
+            localTerms = Stream.empty();
 
-        ImmutableMap<Variable, QuotedID> columnNames = serializedQuery.getColumnIDs().entrySet().stream()
+        return localTerms.allMatch(this::isDeterministic)
+                && tree.getChildren().stream().allMatch(this::isDeterministic);
+    }
+
+    private boolean isDeterministic(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return true;
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+        return functionSymbol.isDeterministic()
+                && !functionSymbol.equals(nowFunctionSymbol)
+                && functionalTerm.getTerms().stream().allMatch(this::isDeterministic);
+    }
+
+    private SelectFromWhereSerializer.QuerySerialization serialize(IQTree iqTree, ImmutableSortedSet<Variable> signature,
+                                                                   DBParameters dbParameters) {
+        SelectFromWhereWithModifiers selectFromWhere = converter.convert(iqTree, signature);
+        return serializer.serialize(selectFromWhere, dbParameters);
+    }
+
+    private ImmutableMap<Variable, QuotedID> extractColumnNames(SelectFromWhereSerializer.QuerySerialization serializedQuery) {
+        return serializedQuery.getColumnIDs().entrySet().stream()
                 .collect(ImmutableCollectors.toMap(
                         Map.Entry::getKey,
                         e -> e.getValue().getAttribute()));
+    }
+
+    /**
+     * The string constants of the filtering conditions are first replaced by markers, which are then
+     * located in the serialized query and replaced by parameter markers.
+     *
+     * Returns empty when no constant can be turned into a parameter, or when a marker has not been serialized
+     * as a regular string constant (e.g. because it has been embedded into a larger string by a function symbol).
+     */
+    private Optional<NativeNode> generateWithParameters(IQTree iqTree, ImmutableSortedSet<Variable> signature,
+                                                        ImmutableMap<Variable, DBTermType> variableTypeMap,
+                                                        boolean isDeterministic, DBParameters dbParameters) {
+        ConditionConstantReplacer replacer = new ConditionConstantReplacer();
+        IQTree markedTree = iqTree.acceptTransformer(replacer);
+        ImmutableMap<String, DBConstant> markerMap = replacer.getMarkerMap();
+        if (markerMap.isEmpty())
+            return Optional.empty();
+
+        SelectFromWhereSerializer.QuerySerialization serializedQuery = serialize(markedTree, signature, dbParameters);
 
-        return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
-                serializedQuery.getString(), iqTree.getVariableNullability());
+        ImmutableMap<String, DBConstant> serializedMarkerMap = markerMap.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        e -> serializer.getTermSerializer().serialize(
+                                termFactory.getDBConstant(e.getKey(), e.getValue().getType()), ImmutableMap.of()),
+                        Map.Entry::getValue));
+
+        Pattern serializedMarkerPattern = Pattern.compile(serializedMarkerMap.keySet().stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|")));
+
+        ImmutableList.Builder<DBConstant> parameterBuilder = ImmutableList.builder();
+        Matcher matcher = serializedMarkerPattern.matcher(serializedQuery.getString());
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            parameterBuilder.add(serializedMarkerMap.get(matcher.group()));
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(PARAMETER_MARKER));
+        }
+        matcher.appendTail(sb);
+        String queryString = sb.toString();
+        ImmutableList<DBConstant> parameters = parameterBuilder.build();
+
+        // Some markers have been transformed during the serialization or have disappeared
+        if (queryString.contains(MARKER_PREFIX) || !parameters.containsAll(markerMap.values()))
+            return Optional.empty();
+
+        return Optional.of(iqFactory.createNativeNode(signature, variableTypeMap, extractColumnNames(serializedQuery),
+                queryString, parameters, isDeterministic, iqTree.getVariableNullability()));
     }
 
     private ImmutableMap<Variable, DBTermType> extractVariableTypeMap(IQTree tree, boolean tolerateUnknownTypes) {
@@ -80,4 +198,81 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                         "Was expecting a unique and known DB term type to be extracted " +
                                 "for the SQL variable " + v));
     }
+
+
+    /**
+     * Replaces the string constants appearing in filtering conditions (WHERE and ON clauses) by markers.
+     *
+     * Constants outside the filtering conditions (e.g. in the projection) are left untouched, as some DB engines
+     * cannot infer the type of a parameter there.
+     *
+     * Mutable: one instance per native query to generate
+     */
+    private class ConditionConstantReplacer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final Map<DBConstant, String> markers = new LinkedHashMap<>();
+
+        ConditionConstantReplacer() {
+            super(DefaultSQLIQTree2NativeNodeGenerator.this.iqFactory);
+        }
+
+        ImmutableMap<String, DBConstant> getMarkerMap() {
+            return markers.entrySet().stream()
+                    .collect(ImmutableCollectors.toMap(
+                            Map.Entry::getValue,
+                            Map.Entry::getKey));
+        }
+
+        @Override
+        public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+            FilterNode newFilterNode = rootNode.changeFilterCondition(
+                    replaceConstants(rootNode.getFilterCondition()));
+            return super.transformFilter(tree, newFilterNode, child);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            InnerJoinNode newJoinNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition().map(this::replaceConstants));
+            return super.transformInnerJoin(tree, newJoinNode, children);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            LeftJoinNode newLeftJoinNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition().map(this::replaceConstants));
+            return super.transformLeftJoin(tree, newLeftJoinNode, leftChild, rightChild);
+        }
+
+        private ImmutableExpression replaceConstants(ImmutableExpression expression) {
+            return (ImmutableExpression) replaceConstants((ImmutableTerm) expression);
+        }
+
+        private ImmutableTerm replaceConstants(ImmutableTerm term) {
+            if (term instanceof DBConstant) {
+                DBConstant constant = (DBConstant) term;
+                if (constant.getType().getCategory() != DBTermType.Category.STRING)
+                    return constant;
+
+                String marker = markers.computeIfAbsent(constant,
+                        c -> MARKER_PREFIX + markers.size() + MARKER_SUFFIX);
+                return termFactory.getDBConstant(marker, constant.getType());
+            }
+            else if (term instanceof ImmutableFunctionalTerm) {
+                ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+
+                ImmutableList<? extends ImmutableTerm> initialTerms = functionalTerm.getTerms();
+
+                ImmutableList<ImmutableTerm> newTerms = initialTerms.stream()
+                        .map(this::replaceConstants)
+                        .collect(ImmutableCollectors.toList());
+
+                return initialTerms.equals(newTerms)
+                        ? functionalTerm
+                        : termFactory.getImmutableFunctionalTerm(functionalTerm.getFunctionSymbol(), newTerms);
+            }
+            else
+                return term;
+        }
+    }
 }
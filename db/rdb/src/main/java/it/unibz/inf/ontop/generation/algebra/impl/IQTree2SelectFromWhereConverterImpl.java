@@ -173,6 +173,9 @@ public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhe
         QueryNode rootNode = tree.getRootNode();
         if (rootNode instanceof NativeNode) {
             NativeNode nativeNode = (NativeNode) rootNode;
+            if (!nativeNode.getParameters().isEmpty())
+                throw new MinorOntopInternalBugException("Native nodes with bind parameters cannot be nested into " +
+                        "another SQL query");
             String sqlQuery = nativeNode.getNativeQueryString();
             return sqlAlgebraFactory.createSQLSerializedQuery(sqlQuery, nativeNode.getColumnNames());
         }
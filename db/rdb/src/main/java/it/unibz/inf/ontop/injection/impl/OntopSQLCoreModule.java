@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.dbschema.CachedDBMetadataProvider;
 import it.unibz.inf.ontop.dbschema.SerializedMetadataProvider;
 import it.unibz.inf.ontop.generation.algebra.*;
 import it.unibz.inf.ontop.generation.normalization.DialectExtraNormalizer;
@@ -53,6 +54,13 @@ public class OntopSQLCoreModule extends OntopAbstractModule {
                 SerializedMetadataProvider.Factory.class);
         install(serializedMetadataProviderFactory);
 
+        Module cachedDBMetadataProviderFactory = buildFactory(
+                ImmutableList.of(
+                        CachedDBMetadataProvider.class
+                ),
+                CachedDBMetadataProvider.Factory.class);
+        install(cachedDBMetadataProviderFactory);
+
         Module ontopViewMetadataProviderFactory = buildFactory(
                 ImmutableList.of(
                         OntopViewMetadataProvider.class
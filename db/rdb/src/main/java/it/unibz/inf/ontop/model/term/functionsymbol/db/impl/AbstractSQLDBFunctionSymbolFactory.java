@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.model.term.functionsymbol.db.*;
 import it.unibz.inf.ontop.model.type.*;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -41,6 +42,7 @@ public abstract class AbstractSQLDBFunctionSymbolFactory extends AbstractDBFunct
     protected static final String ROUND_STR = "ROUND";
     protected static final String FLOOR_STR = "FLOOR";
     protected static final String RAND_STR = "RAND";
+    protected static final String MOD_STR = "MOD";
     protected static final String CURRENT_TIMESTAMP_STR = "CURRENT_TIMESTAMP";
     protected static final String COALESCE_STR = "COALESCE";
     protected static final String CONCAT_OP_STR = "||";
@@ -108,6 +110,8 @@ public abstract class AbstractSQLDBFunctionSymbolFactory extends AbstractDBFunct
     private DBIsNullOrNotFunctionSymbol isNotNull;
     // Created in init()
     private DBIsTrueFunctionSymbol isTrue;
+    // Created in init()
+    private Optional<DBFunctionSymbol> integerRemainder;
 
 
     protected AbstractSQLDBFunctionSymbolFactory(ImmutableTable<String, Integer, DBFunctionSymbol> regularFunctionTable,
@@ -135,6 +139,7 @@ public abstract class AbstractSQLDBFunctionSymbolFactory extends AbstractDBFunct
         isNull = createDBIsNull(dbBooleanType, abstractRootDBType);
         isNotNull = createDBIsNotNull(dbBooleanType, abstractRootDBType);
         isTrue = createDBIsTrue(dbBooleanType);
+        integerRemainder = createDBIntegerRemainder();
     }
 
     @Override
@@ -902,6 +907,20 @@ public abstract class AbstractSQLDBFunctionSymbolFactory extends AbstractDBFunct
         return isTrue;
     }
 
+    @Override
+    public Optional<DBFunctionSymbol> getDBIntegerRemainder() {
+        return integerRemainder;
+    }
+
+    /**
+     * Can be overridden. Empty if the DB system has no remainder function.
+     */
+    protected Optional<DBFunctionSymbol> createDBIntegerRemainder() {
+        return Optional.of(new DBFunctionSymbolWithSerializerImpl(MOD_STR,
+                ImmutableList.of(dbIntegerType, dbIntegerType), dbIntegerType, false,
+                Serializers.getRegularSerializer(MOD_STR)));
+    }
+
     @Override
     public NonDeterministicDBFunctionSymbol getDBRand(UUID uuid) {
         return new DefaultNonDeterministicNullaryFunctionSymbol(getRandNameInDialect(), uuid, dbDoubleType);
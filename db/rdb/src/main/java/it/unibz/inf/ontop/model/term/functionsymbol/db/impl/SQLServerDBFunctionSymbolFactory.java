@@ -17,6 +17,7 @@ import it.unibz.inf.ontop.model.type.RDFDatatype;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.model.type.impl.SQLServerDBTypeFactory;
 
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -67,6 +68,16 @@ public class SQLServerDBFunctionSymbolFactory extends AbstractSQLDBFunctionSymbo
         return new ExpressionSensitiveSQLDBIsNullOrNotFunctionSymbolImpl(false, dbBooleanType, rootDBTermType);
     }
 
+    /**
+     * No MOD function: uses the operator %
+     */
+    @Override
+    protected Optional<DBFunctionSymbol> createDBIntegerRemainder() {
+        return Optional.of(new DBFunctionSymbolWithSerializerImpl(MOD_STR,
+                ImmutableList.of(dbIntegerType, dbIntegerType), dbIntegerType, false,
+                Serializers.getOperatorSerializer("%")));
+    }
+
     /**
      * Uses the operator +
      *
@@ -0,0 +1,137 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BulkMetadataExtractionTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:bulk_metadata";
+
+    private static Connection connection;
+    private static JDBCMetadataProviderFactory metadataProviderFactory;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE SCHEMA other");
+            stmt.execute("CREATE TABLE other.country (code VARCHAR(2) PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+            stmt.execute("CREATE TABLE person (id INT, branch INT, name VARCHAR(100), country VARCHAR(2), " +
+                    "PRIMARY KEY (branch, id), " +
+                    "CONSTRAINT person_name UNIQUE (country, name), " +
+                    "CONSTRAINT person_country FOREIGN KEY (country) REFERENCES other.country(code))");
+            stmt.execute("CREATE TABLE address (person_id INT, person_branch INT, street VARCHAR(100), " +
+                    "CONSTRAINT address_person FOREIGN KEY (person_branch, person_id) REFERENCES person(branch, id))");
+            stmt.execute("CREATE TABLE log (message VARCHAR(100))");
+            for (int i = 0; i < 10; i++)
+                stmt.execute("INSERT INTO log VALUES ('message" + (i % 5) + "')");
+            stmt.execute("ANALYZE");
+        }
+
+        OntopSQLCoreConfiguration configuration = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(JDBC_URL)
+                .jdbcDriver("org.h2.Driver")
+                .build();
+        metadataProviderFactory = configuration.getInjector().getInstance(JDBCMetadataProviderFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testSameConstraintsAsPerRelationExtraction() throws MetadataExtractionException {
+        DBMetadataProvider provider = metadataProviderFactory.getMetadataProvider(connection);
+        ImmutableMap<String, String> bulk = describe(ImmutableMetadata.extractImmutableMetadata(provider));
+
+        MetadataProvider perRelationProvider = new DelegatingMetadataProvider(metadataProviderFactory.getMetadataProvider(connection)) {
+            @Override
+            public void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+                for (NamedRelationDefinition relation : relations)
+                    insertIntegrityConstraints(relation, metadataLookup);
+            }
+
+            @Override
+            public void prefetchRelations(ImmutableList<RelationID> relationIds) { }
+        };
+        ImmutableMap<String, String> perRelation = describe(ImmutableMetadata.extractImmutableMetadata(perRelationProvider));
+
+        assertEquals(perRelation, bulk);
+        assertEquals(ImmutableSet.of("COUNTRY", "PERSON", "ADDRESS", "LOG"), bulk.keySet());
+        assertEquals("[ID NOT NULL, BRANCH NOT NULL, NAME, COUNTRY]" +
+                " PK[BRANCH, ID] UC[COUNTRY, NAME] FK[COUNTRY->COUNTRY.CODE]", bulk.get("PERSON"));
+        assertEquals("[PERSON_ID, PERSON_BRANCH, STREET]" +
+                " FK[PERSON_BRANCH->PERSON.BRANCH, PERSON_ID->PERSON.ID]", bulk.get("ADDRESS"));
+    }
+
+    @Test
+    public void testStatistics() throws MetadataExtractionException {
+        DBMetadataProvider provider = metadataProviderFactory.getMetadataProvider(connection);
+        ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(provider, true);
+
+        RelationStatistics statistics = getLog(metadata).getStatistics().get();
+        assertEquals(10, statistics.getRowCount());
+        assertEquals(Optional.of(5L), statistics.getDistinctValueCount(1));
+    }
+
+    @Test
+    public void testNoStatisticsByDefault() throws MetadataExtractionException {
+        DBMetadataProvider provider = metadataProviderFactory.getMetadataProvider(connection);
+        ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(provider);
+
+        assertFalse(getLog(metadata).getStatistics().isPresent());
+    }
+
+    private static NamedRelationDefinition getLog(ImmutableMetadata metadata) {
+        return metadata.getAllRelations().stream()
+                .filter(r -> r.getID().getComponents().get(RelationID.TABLE_INDEX).getName().equals("LOG"))
+                .findFirst()
+                .get();
+    }
+
+    private static ImmutableMap<String, String> describe(ImmutableMetadata metadata) {
+        return metadata.getAllRelations().stream()
+                .collect(ImmutableCollectors.toMap(
+                        r -> r.getID().getComponents().get(RelationID.TABLE_INDEX).getName(),
+                        BulkMetadataExtractionTest::describe));
+    }
+
+    private static String describe(NamedRelationDefinition relation) {
+        return relation.getAttributes().stream()
+                        .map(a -> a.getID().getName() + (a.isNullable() ? "" : " NOT NULL"))
+                        .collect(Collectors.joining(", ", "[", "]"))
+                + relation.getUniqueConstraints().stream()
+                        .map(uc -> (uc.isPrimaryKey() ? " PK" : " UC") + uc.getAttributes().stream()
+                                .map(a -> a.getID().getName())
+                                .collect(Collectors.joining(", ", "[", "]")))
+                        .sorted()
+                        .collect(Collectors.joining())
+                + relation.getForeignKeys().stream()
+                        .map(fk -> fk.getComponents().stream()
+                                .map(c -> c.getAttribute().getID().getName() + "->"
+                                        + fk.getReferencedRelation().getID().getComponents().get(RelationID.TABLE_INDEX).getName()
+                                        + "." + c.getReferencedAttribute().getID().getName())
+                                .collect(Collectors.joining(", ", " FK[", "]")))
+                        .sorted()
+                        .collect(Collectors.joining());
+    }
+}
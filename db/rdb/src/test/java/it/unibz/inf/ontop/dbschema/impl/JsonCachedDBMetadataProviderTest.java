@@ -0,0 +1,127 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class JsonCachedDBMetadataProviderTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:cached_metadata";
+
+    private Connection connection;
+    private JDBCMetadataProviderFactory metadataProviderFactory;
+    private CachedDBMetadataProvider.Factory cachedMetadataProviderFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+        execute("CREATE TABLE country (code VARCHAR(2) PRIMARY KEY, name VARCHAR(100))",
+                "CREATE TABLE person (id INT PRIMARY KEY, name VARCHAR(100), country VARCHAR(2), " +
+                        "CONSTRAINT person_country FOREIGN KEY (country) REFERENCES country(code))",
+                "CREATE TABLE log (message VARCHAR(100))");
+
+        OntopSQLCoreConfiguration configuration = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(JDBC_URL)
+                .jdbcDriver("org.h2.Driver")
+                .build();
+        Injector injector = configuration.getInjector();
+        metadataProviderFactory = injector.getInstance(JDBCMetadataProviderFactory.class);
+        cachedMetadataProviderFactory = injector.getInstance(CachedDBMetadataProvider.Factory.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        String serialized = extractAndSerialize();
+
+        CachedDBMetadataProvider provider = cachedMetadataProviderFactory.getMetadataProvider(
+                metadataProviderFactory.getMetadataProvider(connection), new StringReader(serialized));
+
+        assertEquals(ImmutableSet.of("COUNTRY", "PERSON", "LOG"), getTableNames(provider.getCachedRelationIDs()));
+        assertEquals(extractAndSerializeWithoutFingerprints(), serialize(ImmutableMetadata.extractImmutableMetadata(provider)));
+    }
+
+    @Test
+    public void testChangedRelationAndReferencingRelationExtracted() throws Exception {
+        String serialized = extractAndSerialize();
+        execute("ALTER TABLE country ADD COLUMN population INT");
+
+        CachedDBMetadataProvider provider = cachedMetadataProviderFactory.getMetadataProvider(
+                metadataProviderFactory.getMetadataProvider(connection), new StringReader(serialized));
+
+        assertEquals(ImmutableSet.of("LOG"), getTableNames(provider.getCachedRelationIDs()));
+        ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(provider);
+        assertNotNull(getRelation(metadata, "COUNTRY")
+                .getAttribute(provider.getQuotedIDFactory().createAttributeID("POPULATION")));
+        assertEquals(extractAndSerializeWithoutFingerprints(), serialize(metadata));
+    }
+
+    @Test
+    public void testNewConstraintDetected() throws Exception {
+        String serialized = extractAndSerialize();
+        execute("ALTER TABLE log ADD CONSTRAINT log_message UNIQUE (message)");
+
+        CachedDBMetadataProvider provider = cachedMetadataProviderFactory.getMetadataProvider(
+                metadataProviderFactory.getMetadataProvider(connection), new StringReader(serialized));
+
+        assertEquals(ImmutableSet.of("COUNTRY", "PERSON"), getTableNames(provider.getCachedRelationIDs()));
+        ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(provider);
+        assertEquals(1, getRelation(metadata, "LOG").getUniqueConstraints().size());
+    }
+
+    private String extractAndSerialize() throws Exception {
+        DBMetadataProvider provider = metadataProviderFactory.getMetadataProvider(connection);
+        ImmutableMap<RelationID, String> fingerprints = provider.getRelationFingerprints(provider.getRelationIDs());
+        return new ObjectMapper().writeValueAsString(
+                new JsonMetadata(ImmutableMetadata.extractImmutableMetadata(provider), fingerprints));
+    }
+
+    private String extractAndSerializeWithoutFingerprints() throws Exception {
+        return serialize(ImmutableMetadata.extractImmutableMetadata(metadataProviderFactory.getMetadataProvider(connection)));
+    }
+
+    private static String serialize(ImmutableMetadata metadata) throws Exception {
+        return new ObjectMapper().writeValueAsString(new JsonMetadata(metadata));
+    }
+
+    private static NamedRelationDefinition getRelation(ImmutableMetadata metadata, String tableName) {
+        return metadata.getAllRelations().stream()
+                .filter(r -> r.getID().getComponents().get(RelationID.TABLE_INDEX).getName().equals(tableName))
+                .findFirst()
+                .get();
+    }
+
+    private static ImmutableSet<String> getTableNames(ImmutableSet<RelationID> ids) {
+        return ids.stream()
+                .map(id -> id.getComponents().get(RelationID.TABLE_INDEX).getName())
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private void execute(String... statements) throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements)
+                stmt.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.generation;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.dbschema.MetadataProvider;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbolFactory;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The determinism of the native query is decided on the IQ tree, whatever the SQL dialect
+ * (e.g. DBMS_RANDOM.VALUE for Oracle, CURRENT TIMESTAMP for DB2).
+ */
+public class NativeNodeDeterminismTest {
+
+    private static final String H2_DRIVER = "org.h2.Driver";
+    private static final String ORACLE_DRIVER = "oracle.jdbc.OracleDriver";
+    private static final String DB2_DRIVER = "com.ibm.db2.jcc.DB2Driver";
+
+    @Test
+    public void testDeterministic() {
+        NativeNode nativeNode = generate(H2_DRIVER, f -> null);
+        assertTrue(nativeNode.isDeterministic());
+    }
+
+    @Test
+    public void testOracleRand() {
+        NativeNode nativeNode = generate(ORACLE_DRIVER, f -> f.getDBRand(UUID.randomUUID()));
+        assertTrue(nativeNode.getNativeQueryString().contains("DBMS_RANDOM.VALUE"));
+        assertFalse(nativeNode.isDeterministic());
+    }
+
+    @Test
+    public void testOracleNow() {
+        NativeNode nativeNode = generate(ORACLE_DRIVER, DBFunctionSymbolFactory::getDBNow);
+        assertFalse(nativeNode.isDeterministic());
+    }
+
+    @Test
+    public void testDB2Now() {
+        NativeNode nativeNode = generate(DB2_DRIVER, DBFunctionSymbolFactory::getDBNow);
+        assertTrue(nativeNode.getNativeQueryString().contains("CURRENT TIMESTAMP"));
+        assertFalse(nativeNode.isDeterministic());
+    }
+
+    @Test
+    public void testH2UUID() {
+        NativeNode nativeNode = generate(H2_DRIVER, f -> f.getDBUUID(UUID.randomUUID()));
+        assertFalse(nativeNode.isDeterministic());
+    }
+
+    /**
+     * SELECT a, f() AS v FROM T (only SELECT a when no function symbol is given)
+     */
+    private static NativeNode generate(String jdbcDriver,
+                                       Function<DBFunctionSymbolFactory, FunctionSymbol> functionSymbolProvider) {
+        OntopSQLCoreConfiguration configuration = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcDriver(jdbcDriver)
+                .jdbcUrl("jdbc:fake://do.not.use/")
+                .build();
+        Injector injector = configuration.getInjector();
+        IntermediateQueryFactory iqFactory = configuration.getIQFactory();
+        TermFactory termFactory = configuration.getTermFactory();
+        SubstitutionFactory substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(
+                injector.getInstance(CoreSingletons.class));
+        NamedRelationDefinition table = builder.createDatabaseRelation("T", "A",
+                builder.getDBTypeFactory().getDBLargeIntegerType(), false);
+        MetadataProvider metadataProvider = builder.build();
+
+        Variable a = termFactory.getVariable("a");
+        Variable v = termFactory.getVariable("v");
+        IQTree dataTree = iqFactory.createExtensionalDataNode(table, ImmutableMap.of(0, a));
+
+        FunctionSymbol functionSymbol = functionSymbolProvider.apply(termFactory.getDBFunctionSymbolFactory());
+        IQTree tree = functionSymbol == null
+                ? dataTree
+                : iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(ImmutableSet.of(a, v),
+                                substitutionFactory.getSubstitution(v,
+                                        (ImmutableTerm) termFactory.getImmutableFunctionalTerm(functionSymbol))),
+                        dataTree);
+
+        return injector.getInstance(IQTree2NativeNodeGenerator.class)
+                .generate(tree, metadataProvider.getDBParameters(), false);
+    }
+}
@@ -0,0 +1,36 @@
+package it.unibz.inf.ontop.answering.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Destination of the messages of the query loggers (one JSON object per line).
+ *
+ * Shared by all the query loggers.
+ */
+public interface QueryLogSink extends AutoCloseable {
+
+    /**
+     * The message may be serialized later, in another thread.
+     */
+    void submit(Message message);
+
+    /**
+     * Writes the pending messages and releases the resources (e.g. the background thread).
+     *
+     * Called when the query engine is closed.
+     */
+    @Override
+    void close();
+
+    @FunctionalInterface
+    interface Message {
+        /**
+         * Writes the message as one JSON object.
+         *
+         * Must only read data that is not modified after the submission of the message.
+         */
+        void serialize(JsonGenerator generator) throws IOException;
+    }
+}
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.logging;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
@@ -13,6 +14,19 @@ public interface QueryLogger {
 
     void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached);
 
+    /**
+     * For queries reformulated into several executable queries (partitions or union branches).
+     */
+    void declareReformulationFinishedAndSerialize(ImmutableList<IQ> reformulatedQueries, boolean wasCached);
+
+    /**
+     * To be called before declareReformulationFinishedAndSerialize(...).
+     *
+     * wasTemplateInstantiated: true if the reformulated query has been obtained from a cached query template
+     * cacheHitRate: hit rate of the query cache, all queries considered
+     */
+    void setReformulationCacheStatistics(boolean wasTemplateInstantiated, double cacheHitRate);
+
     void declareResultSetUnblockedAndSerialize();
 
     void declareLastResultRetrievedAndSerialize(long rowCount);
@@ -0,0 +1,235 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serializes and writes the messages in a background thread, so that the query threads
+ * neither wait for the output nor contend for it.
+ *
+ * The messages are exchanged through a lock-free ring buffer. When it is full, the message
+ * is either dropped (and counted) or the query thread waits, depending on the settings.
+ * The messages are written by batches, the output being flushed after each batch.
+ *
+ * The output is the standard output or a rotated file.
+ *
+ * The background thread is started when the first message is submitted.
+ * It is stopped, after writing the remaining messages, when the sink is closed (i.e. when the query engine is closed)
+ * or otherwise when the JVM shuts down. A message submitted after closing restarts it, once the previous thread
+ * has terminated (the ring buffer has a single consumer).
+ */
+@Singleton
+public class AsyncQueryLogSink implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncQueryLogSink.class);
+    private static final String DROP_POLICY = "drop";
+    private static final String BLOCK_POLICY = "block";
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_BUFFER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final OntopReformulationSettings settings;
+    private final QueryLogRingBuffer<Message> buffer;
+    private final int batchSize;
+    private final boolean isBlockingWhenFull;
+    private final JsonFactory jsonFactory;
+    private final AtomicLong droppedMessageCount;
+
+    private volatile boolean isStarted = false;
+
+    // Guarded by this (null when not started)
+    private Thread serializerThread;
+    private AtomicBoolean isStopping;
+    private Thread shutdownHook;
+    // Guarded by this. Thread still writing the remaining messages after closing (null if none)
+    private Thread stoppingThread;
+
+    @Inject
+    protected AsyncQueryLogSink(OntopReformulationSettings settings) {
+        this.settings = settings;
+        this.buffer = new QueryLogRingBuffer<>(settings.getQueryLogBufferSize());
+        this.batchSize = settings.getQueryLogBatchSize();
+
+        String policy = settings.getQueryLogFullBufferPolicy();
+        switch (policy) {
+            case DROP_POLICY:
+                this.isBlockingWhenFull = false;
+                break;
+            case BLOCK_POLICY:
+                this.isBlockingWhenFull = true;
+                break;
+            default:
+                throw new InvalidOntopConfigurationException("Unknown full buffer policy for the query log: " + policy
+                        + ". Expected: " + DROP_POLICY + " or " + BLOCK_POLICY);
+        }
+        this.jsonFactory = new JsonFactory();
+        this.droppedMessageCount = new AtomicLong();
+    }
+
+    @Override
+    public void submit(Message message) {
+        if (!isStarted)
+            start();
+
+        while (!buffer.offer(message)) {
+            if (!isBlockingWhenFull) {
+                droppedMessageCount.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+        }
+    }
+
+    private synchronized void start() {
+        if (isStarted)
+            return;
+
+        if (stoppingThread != null) {
+            // The buffer (and the output file) are only handed over after the termination of the previous consumer
+            Uninterruptibles.joinUninterruptibly(stoppingThread);
+            stoppingThread = null;
+        }
+
+        Writer output = createOutput();
+        // One flag per thread: a thread that did not stop in time must not be revived by a restart
+        AtomicBoolean isStopping = new AtomicBoolean(false);
+        Thread serializerThread = new Thread(() -> serialize(output, isStopping), "ontop-query-log");
+        serializerThread.setDaemon(true);
+        serializerThread.start();
+
+        Thread shutdownHook = new Thread(() -> stop(serializerThread, isStopping));
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        this.serializerThread = serializerThread;
+        this.isStopping = isStopping;
+        this.shutdownHook = shutdownHook;
+        isStarted = true;
+    }
+
+    /**
+     * Writes the remaining messages (waits at most SHUTDOWN_TIMEOUT_MS), stops the background thread
+     * and removes the shutdown hook.
+     */
+    @Override
+    public synchronized void close() {
+        if (!isStarted)
+            return;
+        isStarted = false;
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down: the hook is running
+        }
+        stop(serializerThread, isStopping);
+        if (serializerThread.isAlive())
+            stoppingThread = serializerThread;
+
+        serializerThread = null;
+        isStopping = null;
+        shutdownHook = null;
+    }
+
+    private static void stop(Thread serializerThread, AtomicBoolean isStopping) {
+        isStopping.set(true);
+        try {
+            serializerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Writer createOutput() {
+        Optional<String> file = settings.getQueryLogFile();
+        if (file.isPresent()) {
+            try {
+                return new RotatingFileWriter(Paths.get(file.get()),
+                        settings.getQueryLogFileMaxSizeInMB() * 1024L * 1024L,
+                        settings.getQueryLogFileMaxBackups());
+            } catch (IOException e) {
+                LOGGER.error("Cannot open the query log file {}. Using the standard output instead. {}",
+                        file.get(), e.toString());
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loop of the background thread.
+     *
+     * The file output is closed when stopping (but not the standard output).
+     */
+    private void serialize(Writer output, AtomicBoolean isStopping) {
+        // Reused for each message, so that a failing message does not leave a partial line in the output
+        StringWriter messageWriter = new StringWriter();
+        long reportedDroppedMessageCount = 0;
+
+        while (true) {
+            int count = 0;
+            Message message;
+            while (count < batchSize && (message = buffer.poll()) != null) {
+                count++;
+                messageWriter.getBuffer().setLength(0);
+                try (JsonGenerator js = jsonFactory.createGenerator(messageWriter)) {
+                    message.serialize(js);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+                    continue;
+                }
+                try {
+                    output.write(messageWriter.getBuffer().toString());
+                    output.write('\n');
+                } catch (IOException e) {
+                    LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+                }
+            }
+
+            if (count > 0) {
+                try {
+                    output.flush();
+                } catch (IOException e) {
+                    LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+                }
+                long droppedCount = droppedMessageCount.get();
+                if (droppedCount > reportedDroppedMessageCount) {
+                    LOGGER.warn("{} query log messages dropped so far (full buffer)", droppedCount);
+                    reportedDroppedMessageCount = droppedCount;
+                }
+            }
+            // Waits only when the buffer is empty
+            else if (isStopping.get()) {
+                if (output instanceof RotatingFileWriter) {
+                    try {
+                        output.close();
+                    } catch (IOException e) {
+                        LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+                    }
+                }
+                return;
+            }
+            else
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+        }
+    }
+
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+}
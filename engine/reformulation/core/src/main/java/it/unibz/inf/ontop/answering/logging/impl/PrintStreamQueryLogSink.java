@@ -0,0 +1,46 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+
+/**
+ * Serializes and prints the messages synchronously, in the thread of the query
+ */
+public class PrintStreamQueryLogSink implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrintStreamQueryLogSink.class);
+
+    private final PrintStream outputStream;
+    private final JsonFactory jsonFactory;
+
+    public PrintStreamQueryLogSink(PrintStream outputStream) {
+        this.outputStream = outputStream;
+        this.jsonFactory = new JsonFactory();
+    }
+
+    @Override
+    public void submit(Message message) {
+        StringWriter stringWriter = new StringWriter();
+        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+            message.serialize(js);
+        } catch (IOException e) {
+            LOGGER.error(QueryLoggerImpl.OUTPUT_STREAM_JSON_ERROR + e);
+            return;
+        }
+        outputStream.println(stringWriter.toString());
+    }
+
+    /**
+     * Nothing to release: the output stream is not owned by the sink
+     */
+    @Override
+    public void close() {
+    }
+}
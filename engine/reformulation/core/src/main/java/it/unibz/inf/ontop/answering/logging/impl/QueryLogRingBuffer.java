@@ -0,0 +1,82 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue with multiple producers and a single consumer.
+ *
+ * Each slot has a sequence number telling whether it is free for the producer claiming the position
+ * or filled for the consumer (see D. Vyukov's bounded MPMC queue).
+ */
+class QueryLogRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // Next position claimed by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // Next position read by the consumer (only accessed by the consumer; successive consumers must not overlap)
+    private long head = 0;
+
+    /**
+     * The capacity is rounded to the next power of 2
+     */
+    QueryLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            sequences.set(i, i);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns false if the buffer is full. Can be called by any thread.
+     */
+    boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // Publishes the element
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            // Not consumed yet since the previous round
+            else if (difference < 0)
+                return false;
+            // Claimed by another producer
+            else
+                position = tail.get();
+        }
+    }
+
+    /**
+     * Returns null if the buffer is empty. Must only be called by the consumer thread.
+     */
+    @Nullable
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1)
+            return null;
+
+        T element = elements.get(index);
+        elements.lazySet(index, null);
+        // Frees the slot for the next round
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -1,14 +1,16 @@
 package it.unibz.inf.ontop.answering.logging.impl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.Hashing;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.logging.impl.ClassAndPropertyExtractor.ClassesAndProperties;
 import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
@@ -18,13 +20,10 @@ import it.unibz.inf.ontop.model.term.GroundTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
 import org.apache.commons.rdf.api.IRI;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.text.DateFormat;
@@ -36,6 +35,9 @@ import java.util.UUID;
 
 /**
  * See QueryLogger.Factory for constructing new instances
+ *
+ * The messages are serialized by the QueryLogSink (possibly in another thread),
+ * so the data they include must not be modified after their submission.
  */
 public class QueryLoggerImpl implements QueryLogger {
 
@@ -47,6 +49,7 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String CONVERSION_EXC_MSG = "query:exception-conversion";
     protected static final String SPARQL_QUERY_KEY = "sparqlQuery";
     protected static final String REFORMULATED_QUERY_KEY = "reformulatedQuery";
+    protected static final String REFORMULATED_QUERIES_KEY = "reformulatedQueries";
     protected static final String TIMESTAMP_KEY = "@timestamp";
     protected static final String MESSAGE_KEY = "message";
     protected static final String QUERY_ID_KEY = "queryId";
@@ -61,6 +64,8 @@ public class QueryLoggerImpl implements QueryLogger {
     public static final String EXCEPTION_KEY = "exception";
     public static final String REFORMULATION_DURATION_KEY = "reformulationDuration";
     public static final String REFORMULATION_CACHE_HIT_KEY = "reformulationCacheHit";
+    public static final String REFORMULATION_TEMPLATE_INSTANTIATED_KEY = "reformulationTemplateInstantiated";
+    public static final String REFORMULATION_CACHE_HIT_RATE_KEY = "reformulationCacheHitRate";
     public static final String QUERY_REFORMULATED = "query:reformulated";
 
     protected static final String CLASSES_KEY = "classesUsedInQuery";
@@ -75,22 +80,25 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String BINDINGS_KEY = "bindings";
 
     private static final DateFormat  DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-    private static final Logger REGULAR_LOGGER = LoggerFactory.getLogger(QueryLoggerImpl.class);
     ;
 
 
     private final UUID queryId;
     private final long creationTime;
-    private final PrintStream outputStream;
+    private final QueryLogSink sink;
     private final ImmutableMultimap<String, String> httpHeaders;
     private final OntopReformulationSettings settings;
     private final boolean disabled;
     private final String applicationName;
-    private final JsonFactory jsonFactory;
     private final boolean isDecompositionEnabled;
     private final boolean isMergingEnabled;
     private long reformulationTime;
     private long unblockedResulSetTime;
+    private final QueryMetrics queryMetrics;
+    // For the metrics (nanoseconds)
+    private long reformulationNanoTime = -1;
+    private long unblockedResultSetNanoTime = -1;
+    private boolean isFetchingRecorded = false;
     private final ClassAndPropertyExtractor classAndPropertyExtractor;
     private final RelationNameExtractor relationNameExtractor;
     private final QueryTemplateExtractor queryTemplateExtractor;
@@ -107,9 +115,13 @@ public class QueryLoggerImpl implements QueryLogger {
     private QueryTemplateExtraction queryTemplate;
 
     @Nullable
-    private IQ reformulatedQuery;
+    private ImmutableList<IQ> reformulatedQueries;
     @Nullable
     private Boolean wasReformulationCached;
+    @Nullable
+    private Boolean wasTemplateInstantiated;
+    @Nullable
+    private Double cacheHitRate;
 
     @Nullable
     private String predefinedQueryId;
@@ -120,17 +132,13 @@ public class QueryLoggerImpl implements QueryLogger {
     @AssistedInject
     protected QueryLoggerImpl(@Assisted ImmutableMultimap<String, String> httpHeaders,
                               OntopReformulationSettings settings,
+                              QueryLogSink sink,
+                              QueryMetrics queryMetrics,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
                               RelationNameExtractor relationNameExtractor,
                               QueryTemplateExtractor queryTemplateExtractor) {
-        this(System.out, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
-    }
-
-    protected QueryLoggerImpl(PrintStream outputStream, ImmutableMultimap<String, String> httpHeaders,
-                              OntopReformulationSettings settings,
-                              ClassAndPropertyExtractor classAndPropertyExtractor,
-                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
-        this.outputStream = outputStream;
+        this.sink = sink;
+        this.queryMetrics = queryMetrics;
         this.httpHeaders = httpHeaders;
         this.settings = settings;
         this.classAndPropertyExtractor = classAndPropertyExtractor;
@@ -141,46 +149,69 @@ public class QueryLoggerImpl implements QueryLogger {
         applicationName = settings.getApplicationName();
         reformulationTime = -1;
         unblockedResulSetTime = -1;
-        jsonFactory = new JsonFactory();
 
         this.disabled = !settings.isQueryLoggingEnabled();
         this.isDecompositionEnabled = settings.isQueryLoggingDecompositionEnabled();
         this.isMergingEnabled = (!isDecompositionEnabled) || (!settings.areQueryLoggingDecompositionAndMergingMutuallyExclusive());
     }
 
+    /**
+     * Messages printed synchronously to the output stream
+     */
+    protected QueryLoggerImpl(PrintStream outputStream, ImmutableMultimap<String, String> httpHeaders,
+                              OntopReformulationSettings settings, QueryMetrics queryMetrics,
+                              ClassAndPropertyExtractor classAndPropertyExtractor,
+                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
+        this(httpHeaders, settings, new PrintStreamQueryLogSink(outputStream), queryMetrics, classAndPropertyExtractor,
+                relationNameExtractor, queryTemplateExtractor);
+    }
+
     @Override
     public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        declareReformulationFinishedAndSerialize(ImmutableList.of(reformulatedQuery), wasCached);
+    }
+
+    @Override
+    public void declareReformulationFinishedAndSerialize(ImmutableList<IQ> reformulatedQueries, boolean wasCached) {
+        reformulationNanoTime = System.nanoTime();
         if (disabled)
             return;
 
         reformulationTime = System.currentTimeMillis();
 
         if (isDecompositionEnabled) {
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+            long timestamp = System.currentTimeMillis();
+            sink.submit(js -> {
                 js.writeStartObject();
-                js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
+                js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(timestamp));
                 js.writeStringField(MESSAGE_KEY, QUERY_REFORMULATED);
                 js.writeStringField(APPLICATION_KEY, applicationName);
                 js.writeObjectFieldStart(PAYLOAD_KEY);
                 js.writeStringField(QUERY_ID_KEY, queryId.toString());
-                writeReformulationSpecificFields(reformulatedQuery, wasCached, js);
+                writeReformulationSpecificFields(reformulatedQueries, wasCached, js);
                 js.writeEndObject();
                 js.writeEndObject();
-            } catch (IOException ex) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-            }
-            outputStream.println(stringWriter.toString());
+            });
         }
 
         if (isMergingEnabled) {
-            this.reformulatedQuery = reformulatedQuery;
+            this.reformulatedQueries = reformulatedQueries;
             this.wasReformulationCached = wasCached;
         }
 
     }
 
-    protected void writeReformulationSpecificFields(IQ reformulatedQuery, boolean wasCached, JsonGenerator js) throws IOException {
+    @Override
+    public void setReformulationCacheStatistics(boolean wasTemplateInstantiated, double cacheHitRate) {
+        if (disabled)
+            return;
+
+        this.wasTemplateInstantiated = wasTemplateInstantiated;
+        this.cacheHitRate = cacheHitRate;
+    }
+
+    protected void writeReformulationSpecificFields(ImmutableList<IQ> reformulatedQueries, boolean wasCached,
+                                                    JsonGenerator js) throws IOException {
         // Classes
         if (classes != null) {
             js.writeArrayFieldStart(CLASSES_KEY);
@@ -204,6 +235,10 @@ public class QueryLoggerImpl implements QueryLogger {
         }
         js.writeNumberField(REFORMULATION_DURATION_KEY, reformulationTime - creationTime);
         js.writeBooleanField(REFORMULATION_CACHE_HIT_KEY, wasCached);
+        if (wasTemplateInstantiated != null)
+            js.writeBooleanField(REFORMULATION_TEMPLATE_INSTANTIATED_KEY, wasTemplateInstantiated);
+        if (cacheHitRate != null)
+            js.writeNumberField(REFORMULATION_CACHE_HIT_RATE_KEY, cacheHitRate);
 
         writeHttpHeaders(js);
         writeQueryTemplateExtraction(js);
@@ -212,7 +247,21 @@ public class QueryLoggerImpl implements QueryLogger {
         if (sparqlQueryString != null)
             js.writeStringField(SPARQL_QUERY_KEY, sparqlQueryString);
         if (settings.isReformulatedQueryIncludedIntoQueryLog())
-            js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
+            writeReformulatedQueries(reformulatedQueries, js);
+    }
+
+    /**
+     * A single query is written as a string, several ones (partitions or union branches) as an array
+     */
+    private void writeReformulatedQueries(ImmutableList<IQ> reformulatedQueries, JsonGenerator js) throws IOException {
+        if (reformulatedQueries.size() == 1)
+            js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQueries.get(0).toString());
+        else {
+            js.writeArrayFieldStart(REFORMULATED_QUERIES_KEY);
+            for (IQ query : reformulatedQueries)
+                js.writeString(query.toString());
+            js.writeEndArray();
+        }
     }
 
     private void writeHttpHeaders(JsonGenerator js) throws IOException {
@@ -267,14 +316,17 @@ public class QueryLoggerImpl implements QueryLogger {
 
     @Override
     public void declareResultSetUnblockedAndSerialize() {
+        unblockedResultSetNanoTime = System.nanoTime();
+        // For DESCRIBE, reformulation time is not provided
+        if (reformulationNanoTime != -1)
+            queryMetrics.recordExecution(unblockedResultSetNanoTime - reformulationNanoTime);
+
         if (disabled)
             return;
         unblockedResulSetTime = System.currentTimeMillis();
 
         if (isDecompositionEnabled) {
-
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+            sink.submit(js -> {
                 js.writeStartObject();
                 js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(unblockedResulSetTime));
                 js.writeStringField(MESSAGE_KEY, QUERY_RESULT_SET_UNBLOCKED);
@@ -284,11 +336,7 @@ public class QueryLoggerImpl implements QueryLogger {
                 writeResultSetUnblockedSpecificFields(js);
                 js.writeEndObject();
                 js.writeEndObject();
-            } catch (IOException e) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-                return;
-            }
-            outputStream.println(stringWriter.toString());
+            });
         }
     }
 
@@ -300,6 +348,10 @@ public class QueryLoggerImpl implements QueryLogger {
 
     @Override
     public void declareLastResultRetrievedAndSerialize(long resultCount) {
+        if (unblockedResultSetNanoTime != -1 && !isFetchingRecorded) {
+            queryMetrics.recordFetching(System.nanoTime() - unblockedResultSetNanoTime, resultCount);
+            isFetchingRecorded = true;
+        }
         if (disabled)
             return;
 
@@ -308,9 +360,7 @@ public class QueryLoggerImpl implements QueryLogger {
             throw new IllegalStateException("Result set should have been declared as unblocked");
 
         if (isDecompositionEnabled) {
-
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+            sink.submit(js -> {
                 js.writeStartObject();
                 js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(lastResultFetchedTime));
                 js.writeStringField(MESSAGE_KEY, QUERY_LAST_RESULT_FETCHED);
@@ -320,10 +370,7 @@ public class QueryLoggerImpl implements QueryLogger {
                 writeLastResultRetrievedSpecificFields(js, lastResultFetchedTime, resultCount);
                 js.writeEndObject();
                 js.writeEndObject();
-            } catch (IOException e) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-            }
-            outputStream.println(stringWriter.toString());
+            });
         }
 
         if (isMergingEnabled) {
@@ -409,25 +456,25 @@ public class QueryLoggerImpl implements QueryLogger {
         if (disabled)
             return;
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+        long timestamp = System.currentTimeMillis();
+        String exceptionMessage = e.getMessage();
+        String sparqlQuery = sparqlQueryString;
+        ImmutableList<IQ> queries = reformulatedQueries;
+        sink.submit(js -> {
             js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
+            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(timestamp));
             js.writeStringField(MESSAGE_KEY, exceptionType);
             js.writeStringField(APPLICATION_KEY, applicationName);
             js.writeObjectFieldStart(PAYLOAD_KEY);
             js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            js.writeStringField(EXCEPTION_KEY, e.getMessage());
-            if (sparqlQueryString != null)
-                js.writeStringField(SPARQL_QUERY_KEY, sparqlQueryString);
-            if (reformulatedQuery != null)
-                js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
+            js.writeStringField(EXCEPTION_KEY, exceptionMessage);
+            if (sparqlQuery != null)
+                js.writeStringField(SPARQL_QUERY_KEY, sparqlQuery);
+            if (queries != null)
+                writeReformulatedQueries(queries, js);
             js.writeEndObject();
             js.writeEndObject();
-        } catch (IOException ex) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-        }
-        outputStream.println(stringWriter.toString());
+        });
     }
 
     protected String serializeTimestamp(long time) {
@@ -438,24 +485,20 @@ public class QueryLoggerImpl implements QueryLogger {
      * Optional summary message
      */
     protected void serializeMergedMessage(long lastResultFetchedTime, long resultCount) {
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
+        sink.submit(js -> {
             js.writeStartObject();
             js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(lastResultFetchedTime));
             js.writeStringField(MESSAGE_KEY, MERGED_MSG);
             js.writeStringField(APPLICATION_KEY, applicationName);
             js.writeObjectFieldStart(PAYLOAD_KEY);
             js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            if (reformulatedQuery != null)
+            if (reformulatedQueries != null)
                 //noinspection ConstantConditions
-                writeReformulationSpecificFields(reformulatedQuery, wasReformulationCached, js);
+                writeReformulationSpecificFields(reformulatedQueries, wasReformulationCached, js);
             writeResultSetUnblockedSpecificFields(js);
             writeLastResultRetrievedSpecificFields(js, lastResultFetchedTime, resultCount);
             js.writeEndObject();
             js.writeEndObject();
-        } catch (IOException e) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-        }
-        outputStream.println(stringWriter.toString());
+        });
     }
 }
@@ -0,0 +1,87 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends to a file, which is rotated (file -> file.1 -> file.2 ...) when its size exceeds the maximum.
+ *
+ * The rotation only happens when flushing, so that the writer can be flushed at the end of complete lines.
+ * The size is estimated from the number of chars written.
+ *
+ * Not thread-safe.
+ */
+class RotatingFileWriter extends Writer {
+
+    private final Path file;
+    private final long maxSize;
+    private final int maxBackups;
+    private Writer writer;
+    private long size;
+
+    RotatingFileWriter(Path file, long maxSize, int maxBackups) throws IOException {
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxBackups = maxBackups;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        this.size = Files.exists(file) ? Files.size(file) : 0;
+        this.writer = open();
+    }
+
+    private Writer open() throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        writer.write(chars, offset, length);
+        size += length;
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        writer.write(string, offset, length);
+        size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+        if (size >= maxSize)
+            rotate();
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        if (maxBackups > 0) {
+            for (int i = maxBackups - 1; i > 0; i--) {
+                Path backup = getBackup(i);
+                if (Files.exists(backup))
+                    Files.move(backup, getBackup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(file, getBackup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        else
+            Files.deleteIfExists(file);
+
+        writer = open();
+        size = 0;
+    }
+
+    private Path getBackup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,87 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations (in nanoseconds) over fixed buckets, from 10 µs to 10 s.
+ *
+ * Thread-safe and lock-free. The snapshot methods are not atomic: concurrent recordings may be partially observed.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS = {
+            TimeUnit.MICROSECONDS.toNanos(10),
+            TimeUnit.MICROSECONDS.toNanos(50),
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10)
+    };
+
+    // The last bucket is unbounded
+    private final LongAdder[] bucketCounts;
+    private final LongAdder totalDuration;
+
+    public LatencyHistogram() {
+        bucketCounts = new LongAdder[BUCKET_UPPER_BOUNDS.length + 1];
+        for (int i = 0; i < bucketCounts.length; i++)
+            bucketCounts[i] = new LongAdder();
+        totalDuration = new LongAdder();
+    }
+
+    public void record(long durationInNanos) {
+        int i = 0;
+        while (i < BUCKET_UPPER_BOUNDS.length && durationInNanos > BUCKET_UPPER_BOUNDS[i])
+            i++;
+        bucketCounts[i].increment();
+        totalDuration.add(durationInNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucketCount : bucketCounts)
+            count += bucketCount.sum();
+        return count;
+    }
+
+    public long getTotalDurationInNanos() {
+        return totalDuration.sum();
+    }
+
+    /**
+     * In milliseconds. 0 if nothing has been recorded.
+     */
+    public double getMeanDurationInMs() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalDurationInNanos() / (count * 1e6);
+    }
+
+    /**
+     * Upper bounds (inclusive, in nanoseconds) of the bounded buckets
+     */
+    public long[] getBucketUpperBounds() {
+        return BUCKET_UPPER_BOUNDS.clone();
+    }
+
+    /**
+     * For each bounded bucket, number of durations lower than or equal to its upper bound,
+     * followed by the total number of durations (unbounded bucket)
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[bucketCounts.length];
+        long count = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            count += bucketCounts[i].sum();
+            counts[i] = count;
+        }
+        return counts;
+    }
+}
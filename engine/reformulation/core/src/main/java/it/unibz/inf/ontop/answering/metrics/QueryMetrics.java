@@ -0,0 +1,81 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+/**
+ * Aggregated metrics about the queries answered by an Ontop engine (shared by all its connections).
+ *
+ * Durations are measured in nanoseconds (System.nanoTime()).
+ */
+public interface QueryMetrics {
+
+    enum ReformulationPhase {
+        TRANSLATION,
+        REWRITING,
+        UNFOLDING,
+        OPTIMIZATION,
+        PLANNING,
+        NATIVE_QUERY_GENERATION
+    }
+
+    void recordPhase(ReformulationPhase phase, long durationInNanos);
+
+    /**
+     * A hit is a query whose reformulation has been obtained from the query cache
+     * (possibly by instantiating a cached query template)
+     */
+    void recordCacheLookup(boolean isHit);
+
+    /**
+     * A hit is a query whose results have been obtained from the result cache (possibly stale)
+     */
+    void recordResultCacheLookup(boolean isHit);
+
+    void declareQueryStarted();
+
+    void declareQueryFinished();
+
+    /**
+     * Time spent waiting for the DB, from the end of the reformulation until the result set is unblocked
+     */
+    void recordExecution(long waitingTimeInNanos);
+
+    /**
+     * Time spent fetching the results, from the unblocking of the result set until the last result
+     */
+    void recordFetching(long fetchingTimeInNanos, long rowCount);
+
+    LatencyHistogram getPhaseHistogram(ReformulationPhase phase);
+
+    LatencyHistogram getExecutionHistogram();
+
+    LatencyHistogram getFetchingHistogram();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    /**
+     * 0 if no lookup has been recorded
+     */
+    double getCacheHitRatio();
+
+    long getResultCacheHitCount();
+
+    long getResultCacheMissCount();
+
+    /**
+     * 0 if no lookup has been recorded
+     */
+    double getResultCacheHitRatio();
+
+    /**
+     * Number of queries being reformulated or executed (the fetching of their results is not considered)
+     */
+    int getActiveQueryCount();
+
+    long getFetchedRowCount();
+
+    /**
+     * Number of rows fetched per second spent fetching
+     */
+    double getFetchedRowsPerSecond();
+}
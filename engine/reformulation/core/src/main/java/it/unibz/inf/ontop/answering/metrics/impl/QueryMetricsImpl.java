@@ -0,0 +1,193 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.metrics.LatencyHistogram;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Lock-free recording. Optionally registered as an MXBean (it.unibz.inf.ontop:type=QueryMetrics,name=[application name]).
+ */
+@Singleton
+public class QueryMetricsImpl implements QueryMetrics, QueryMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryMetricsImpl.class);
+    private static final String EXECUTION_KEY = "EXECUTION";
+    private static final String FETCHING_KEY = "FETCHING";
+
+    private final Map<ReformulationPhase, LatencyHistogram> phaseHistograms;
+    private final LatencyHistogram executionHistogram;
+    private final LatencyHistogram fetchingHistogram;
+    private final LongAdder cacheHitCount;
+    private final LongAdder cacheMissCount;
+    private final LongAdder resultCacheHitCount;
+    private final LongAdder resultCacheMissCount;
+    private final AtomicInteger activeQueryCount;
+    private final LongAdder fetchedRowCount;
+
+    @Inject
+    protected QueryMetricsImpl(OntopReformulationSettings settings) {
+        phaseHistograms = new EnumMap<>(ReformulationPhase.class);
+        for (ReformulationPhase phase : ReformulationPhase.values())
+            phaseHistograms.put(phase, new LatencyHistogram());
+        executionHistogram = new LatencyHistogram();
+        fetchingHistogram = new LatencyHistogram();
+        cacheHitCount = new LongAdder();
+        cacheMissCount = new LongAdder();
+        resultCacheHitCount = new LongAdder();
+        resultCacheMissCount = new LongAdder();
+        activeQueryCount = new AtomicInteger();
+        fetchedRowCount = new LongAdder();
+
+        if (settings.isQueryMetricsJMXEnabled())
+            registerMXBean(settings.getApplicationName());
+    }
+
+    private void registerMXBean(String applicationName) {
+        try {
+            ObjectName name = new ObjectName("it.unibz.inf.ontop:type=QueryMetrics,name="
+                    + ObjectName.quote(applicationName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        } catch (JMException e) {
+            LOGGER.warn("Could not register the query metrics as an MXBean: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void recordPhase(ReformulationPhase phase, long durationInNanos) {
+        phaseHistograms.get(phase).record(durationInNanos);
+    }
+
+    @Override
+    public void recordCacheLookup(boolean isHit) {
+        if (isHit)
+            cacheHitCount.increment();
+        else
+            cacheMissCount.increment();
+    }
+
+    @Override
+    public void recordResultCacheLookup(boolean isHit) {
+        if (isHit)
+            resultCacheHitCount.increment();
+        else
+            resultCacheMissCount.increment();
+    }
+
+    @Override
+    public void declareQueryStarted() {
+        activeQueryCount.incrementAndGet();
+    }
+
+    @Override
+    public void declareQueryFinished() {
+        activeQueryCount.decrementAndGet();
+    }
+
+    @Override
+    public void recordExecution(long waitingTimeInNanos) {
+        executionHistogram.record(waitingTimeInNanos);
+    }
+
+    @Override
+    public void recordFetching(long fetchingTimeInNanos, long rowCount) {
+        fetchingHistogram.record(fetchingTimeInNanos);
+        fetchedRowCount.add(rowCount);
+    }
+
+    @Override
+    public LatencyHistogram getPhaseHistogram(ReformulationPhase phase) {
+        return phaseHistograms.get(phase);
+    }
+
+    @Override
+    public LatencyHistogram getExecutionHistogram() {
+        return executionHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getFetchingHistogram() {
+        return fetchingHistogram;
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hitCount = getCacheHitCount();
+        long lookupCount = hitCount + getCacheMissCount();
+        return lookupCount == 0 ? 0 : ((double) hitCount) / lookupCount;
+    }
+
+    @Override
+    public long getResultCacheHitCount() {
+        return resultCacheHitCount.sum();
+    }
+
+    @Override
+    public long getResultCacheMissCount() {
+        return resultCacheMissCount.sum();
+    }
+
+    @Override
+    public double getResultCacheHitRatio() {
+        long hitCount = getResultCacheHitCount();
+        long lookupCount = hitCount + getResultCacheMissCount();
+        return lookupCount == 0 ? 0 : ((double) hitCount) / lookupCount;
+    }
+
+    @Override
+    public int getActiveQueryCount() {
+        return activeQueryCount.get();
+    }
+
+    @Override
+    public long getFetchedRowCount() {
+        return fetchedRowCount.sum();
+    }
+
+    @Override
+    public double getFetchedRowsPerSecond() {
+        long fetchingTime = fetchingHistogram.getTotalDurationInNanos();
+        return fetchingTime == 0 ? 0 : getFetchedRowCount() * 1e9 / fetchingTime;
+    }
+
+    @Override
+    public Map<String, Double> getMeanDurationsInMs() {
+        return collectPerHistogram(LatencyHistogram::getMeanDurationInMs);
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        return collectPerHistogram(LatencyHistogram::getCount);
+    }
+
+    private <T> Map<String, T> collectPerHistogram(Function<LatencyHistogram, T> function) {
+        ImmutableMap.Builder<String, T> builder = ImmutableMap.builder();
+        phaseHistograms.forEach((p, h) -> builder.put(p.name(), function.apply(h)));
+        builder.put(EXECUTION_KEY, function.apply(executionHistogram));
+        builder.put(FETCHING_KEY, function.apply(fetchingHistogram));
+        return builder.build();
+    }
+}
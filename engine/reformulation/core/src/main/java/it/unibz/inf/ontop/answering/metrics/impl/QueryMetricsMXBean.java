@@ -0,0 +1,29 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import java.util.Map;
+
+/**
+ * JMX view of the query metrics
+ */
+public interface QueryMetricsMXBean {
+
+    int getActiveQueryCount();
+
+    double getCacheHitRatio();
+
+    double getResultCacheHitRatio();
+
+    long getFetchedRowCount();
+
+    double getFetchedRowsPerSecond();
+
+    /**
+     * Per reformulation phase, execution and fetching
+     */
+    Map<String, Double> getMeanDurationsInMs();
+
+    /**
+     * Per reformulation phase, execution and fetching
+     */
+    Map<String, Long> getCounts();
+}
@@ -1,11 +1,18 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.iq.IQ;
 
 /**
  * Cache of queries.
  *
+ * Besides the executable queries indexed by input query, also stores executable query templates
+ * indexed by query shape (see InputQuery.parameterize()) and the executable queries of the union branches
+ * evaluated in parallel (see QueryReformulator.reformulateIntoUnionBranchNativeQueries(...)).
+ *
+ * The input queries that are not cacheable (see InputQuery.isCacheable()) are neither looked up nor stored.
+ *
  * Mutable class.
  *
  */
@@ -14,5 +21,39 @@ public interface QueryCache {
 
     void put(InputQuery inputQuery, IQ executableQuery);
 
+    /**
+     * Returns the executable query template (with placeholders) registered for the query shape, or null if none.
+     */
+    IQ getTemplate(InputQuery templateQuery);
+
+    /**
+     * Returns true if the query shape has already been processed, that is if a template has been registered
+     * or if it has been declared as non-parameterizable.
+     */
+    boolean isShapeKnown(InputQuery templateQuery);
+
+    void putTemplate(InputQuery templateQuery, IQ executableTemplate);
+
+    /**
+     * For query shapes for which no template can be safely reused.
+     */
+    void declareNonParameterizable(InputQuery templateQuery);
+
+    /**
+     * Returns the executable queries of the union branches registered for the input query
+     * and the maximum number of branches, or null if none.
+     *
+     * To be called after a lookup with get(...) has failed.
+     */
+    ImmutableList<IQ> getUnionBranches(InputQuery inputQuery, int maxBranchCount);
+
+    void putUnionBranches(InputQuery inputQuery, int maxBranchCount, ImmutableList<IQ> executableQueries);
+
+    /**
+     * Ratio of the lookups having found an executable query, either directly, as union branches
+     * or by instantiating a template.
+     */
+    double getHitRate();
+
     void clear();
 }
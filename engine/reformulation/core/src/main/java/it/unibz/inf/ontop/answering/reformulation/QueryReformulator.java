@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
@@ -14,6 +15,32 @@ public interface QueryReformulator {
 
     IQ reformulateIntoNativeQuery(InputQuery inputQuery, QueryLogger queryLogger) throws OntopReformulationException;
 
+    /**
+     * Reformulates the query into executable queries whose results are disjoint and together form
+     * the results of the query. They can therefore be evaluated independently (e.g. concurrently).
+     *
+     * Returns a single executable query if the query cannot be partitioned (e.g. no suitable key has been found).
+     *
+     * Not cached.
+     */
+    ImmutableList<IQ> reformulateIntoPartitionedNativeQueries(InputQuery inputQuery, int partitionCount,
+                                                              QueryLogger queryLogger)
+            throws OntopReformulationException;
+
+    /**
+     * Reformulates the query into executable queries over groups of the children of its top-level union
+     * (at most maxBranchCount queries). The concatenation of their results forms the results of the query.
+     * They can therefore be evaluated independently (e.g. concurrently).
+     *
+     * Returns a single executable query if the query is not a union or if its results need
+     * a global post-processing (e.g. DISTINCT, ORDER BY, LIMIT).
+     *
+     * The executable queries are cached, the union branches being indexed by the maximum number of branches.
+     */
+    ImmutableList<IQ> reformulateIntoUnionBranchNativeQueries(InputQuery inputQuery, int maxBranchCount,
+                                                              QueryLogger queryLogger)
+            throws OntopReformulationException;
+
     /**
      * For analysis purposes
      */
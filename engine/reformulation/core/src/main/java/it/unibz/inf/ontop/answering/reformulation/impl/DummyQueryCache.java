@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.iq.IQ;
@@ -18,6 +19,41 @@ public class DummyQueryCache implements QueryCache {
     public void put(InputQuery inputQuery, IQ executableQuery) {
     }
 
+    @Override
+    public IQ getTemplate(InputQuery templateQuery) {
+        return null;
+    }
+
+    /**
+     * Pretends that all the shapes are known, so that no template is computed.
+     */
+    @Override
+    public boolean isShapeKnown(InputQuery templateQuery) {
+        return true;
+    }
+
+    @Override
+    public void putTemplate(InputQuery templateQuery, IQ executableTemplate) {
+    }
+
+    @Override
+    public void declareNonParameterizable(InputQuery templateQuery) {
+    }
+
+    @Override
+    public ImmutableList<IQ> getUnionBranches(InputQuery inputQuery, int maxBranchCount) {
+        return null;
+    }
+
+    @Override
+    public void putUnionBranches(InputQuery inputQuery, int maxBranchCount, ImmutableList<IQ> executableQueries) {
+    }
+
+    @Override
+    public double getHitRate() {
+        return 0;
+    }
+
     @Override
     public void clear() {
     }
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
@@ -9,6 +11,9 @@ import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.iq.IQ;
 
 import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GuiceBasedQueryCache implements QueryCache {
 
@@ -16,26 +21,110 @@ public class GuiceBasedQueryCache implements QueryCache {
     @SuppressWarnings("UnstableApiUsage")
     private final Cache<InputQuery, IQ> cache;
 
+    /**
+     * Empty for the shapes declared as non-parameterizable
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<InputQuery, Optional<IQ>> templateCache;
+
+    /**
+     * Indexed by input query and maximum number of branches
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<Map.Entry<InputQuery, Integer>, ImmutableList<IQ>> unionBranchCache;
+
+    private final AtomicLong lookupCount;
+    private final AtomicLong hitCount;
+
     @Inject
     private GuiceBasedQueryCache(OntopReformulationSettings settings) {
         cache = CacheBuilder.newBuilder()
                 .maximumSize(settings.getQueryCacheMaxSize())
                 .build();
+        templateCache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryCacheMaxSize())
+                .build();
+        unionBranchCache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryCacheMaxSize())
+                .build();
+        lookupCount = new AtomicLong();
+        hitCount = new AtomicLong();
     }
 
     @Nullable
     @Override
     public IQ get(InputQuery inputQuery) {
-        return cache.getIfPresent(inputQuery);
+        if (!inputQuery.isCacheable())
+            return null;
+
+        lookupCount.incrementAndGet();
+        IQ executableQuery = cache.getIfPresent(inputQuery);
+        if (executableQuery != null)
+            hitCount.incrementAndGet();
+        return executableQuery;
     }
 
     @Override
     public void put(InputQuery inputQuery, IQ executableQuery) {
-        cache.put(inputQuery, executableQuery);
+        if (inputQuery.isCacheable())
+            cache.put(inputQuery, executableQuery);
+    }
+
+    @Nullable
+    @Override
+    public IQ getTemplate(InputQuery templateQuery) {
+        Optional<IQ> template = templateCache.getIfPresent(templateQuery);
+        if (template == null || !template.isPresent())
+            return null;
+
+        hitCount.incrementAndGet();
+        return template.get();
+    }
+
+    @Override
+    public boolean isShapeKnown(InputQuery templateQuery) {
+        return templateCache.getIfPresent(templateQuery) != null;
+    }
+
+    @Override
+    public void putTemplate(InputQuery templateQuery, IQ executableTemplate) {
+        templateCache.put(templateQuery, Optional.of(executableTemplate));
+    }
+
+    @Override
+    public void declareNonParameterizable(InputQuery templateQuery) {
+        templateCache.put(templateQuery, Optional.empty());
+    }
+
+    /**
+     * The lookup has already been counted by get(...)
+     */
+    @Nullable
+    @Override
+    public ImmutableList<IQ> getUnionBranches(InputQuery inputQuery, int maxBranchCount) {
+        ImmutableList<IQ> executableQueries = unionBranchCache.getIfPresent(
+                Maps.immutableEntry(inputQuery, maxBranchCount));
+        if (executableQueries != null)
+            hitCount.incrementAndGet();
+        return executableQueries;
+    }
+
+    @Override
+    public void putUnionBranches(InputQuery inputQuery, int maxBranchCount, ImmutableList<IQ> executableQueries) {
+        if (inputQuery.isCacheable())
+            unionBranchCache.put(Maps.immutableEntry(inputQuery, maxBranchCount), executableQueries);
+    }
+
+    @Override
+    public double getHitRate() {
+        long lookups = lookupCount.get();
+        return lookups == 0 ? 0 : ((double) hitCount.get()) / lookups;
     }
 
     @Override
     public void clear() {
         cache.invalidateAll();
+        templateCache.invalidateAll();
+        unionBranchCache.invalidateAll();
     }
 }
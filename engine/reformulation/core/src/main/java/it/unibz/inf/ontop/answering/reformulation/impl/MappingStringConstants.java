@@ -0,0 +1,95 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBConcatFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * String constants of the saturated mapping, to which the reformulation may compare the parameters
+ * of a query template (see InputQuery.parameterize()).
+ *
+ * The reformulation may prune or keep a mapping assertion depending on whether a parameter value is equal
+ * to such a constant (e.g. :status "active"), or contains a constant part of a literal template
+ * (e.g. "Mr. {name}"). A template validated with other values must therefore not be used for such values.
+ *
+ * Immutable
+ */
+class MappingStringConstants {
+
+    private final ImmutableSet<String> constants;
+    private final ImmutableSet<String> templateParts;
+
+    MappingStringConstants(Mapping mapping) {
+        Set<String> constants = new HashSet<>();
+        Set<String> templateParts = new HashSet<>();
+
+        mapping.getRDFAtomPredicates().stream()
+                .flatMap(p -> mapping.getQueries(p).stream())
+                .map(IQ::getTree)
+                .flatMap(MappingStringConstants::extractTerms)
+                .forEach(t -> collect(t, constants, templateParts));
+
+        this.constants = ImmutableSet.copyOf(constants);
+        this.templateParts = ImmutableSet.copyOf(templateParts);
+    }
+
+    /**
+     * True if the reformulation may depend on the value of a parameter
+     */
+    boolean mayMatchAny(Collection<String> parameterValues) {
+        return parameterValues.stream().anyMatch(this::mayMatch);
+    }
+
+    private boolean mayMatch(String value) {
+        return constants.contains(value)
+                || templateParts.stream().anyMatch(value::contains);
+    }
+
+    private static Stream<ImmutableTerm> extractTerms(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        Stream<? extends ImmutableTerm> localTerms;
+        if (rootNode instanceof ExtendedProjectionNode)
+            localTerms = ((ExtendedProjectionNode) rootNode).getSubstitution().getImmutableMap().values().stream();
+        else if (rootNode instanceof JoinOrFilterNode)
+            localTerms = ((JoinOrFilterNode) rootNode).getOptionalFilterCondition().map(Stream::of)
+                    .orElseGet(Stream::empty);
+        else if (rootNode instanceof ExtensionalDataNode)
+            localTerms = ((ExtensionalDataNode) rootNode).getArgumentMap().values().stream();
+        else
+            localTerms = Stream.empty();
+
+        return Stream.concat(
+                localTerms,
+                tree.getChildren().stream().flatMap(MappingStringConstants::extractTerms));
+    }
+
+    private static void collect(ImmutableTerm term, Set<String> constants, Set<String> templateParts) {
+        if (term instanceof RDFLiteralConstant)
+            constants.add(((RDFLiteralConstant) term).getValue());
+        else if ((term instanceof DBConstant)
+                && ((DBConstant) term).getType().getCategory() == DBTermType.Category.STRING)
+            constants.add(((DBConstant) term).getValue());
+        else if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            if (functionalTerm.getFunctionSymbol() instanceof DBConcatFunctionSymbol)
+                functionalTerm.getTerms().stream()
+                        .filter(t -> t instanceof DBConstant)
+                        .map(t -> ((DBConstant) t).getValue())
+                        .filter(v -> !v.isEmpty())
+                        .forEach(templateParts::add);
+
+            functionalTerm.getTerms()
+                    .forEach(t -> collect(t, constants, templateParts));
+        }
+    }
+}
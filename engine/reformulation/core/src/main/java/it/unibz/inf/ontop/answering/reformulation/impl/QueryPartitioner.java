@@ -0,0 +1,199 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbolFactory;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Splits a planned query into sub-queries whose results are disjoint and together form the results of the query.
+ *
+ * The partitioning is based on an integer attribute forming a unique constraint (primary keys first)
+ * of a relation appearing in the query: the i-th sub-query only keeps the tuples for which the remainder
+ * of the division of the attribute by n is i (or -i for negative values).
+ * The attribute must not be nullable in the query and, when the query eliminates duplicates,
+ * must be recoverable from the projected variables through injective terms (e.g. an IRI template),
+ * so that no duplicate appears across the sub-queries.
+ *
+ * The remainder function is provided by the DB function symbol factory of the dialect.
+ * When the dialect has none, the queries are not partitioned.
+ */
+@Singleton
+public class QueryPartitioner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryPartitioner.class);
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+    private final Optional<DBFunctionSymbol> remainderFunctionSymbol;
+
+    @Inject
+    protected QueryPartitioner(IntermediateQueryFactory iqFactory, TermFactory termFactory,
+                               DBFunctionSymbolFactory dbFunctionSymbolFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+        this.remainderFunctionSymbol = dbFunctionSymbolFactory.getDBIntegerRemainder();
+        if (!remainderFunctionSymbol.isPresent())
+            LOGGER.info("No integer remainder function for the DB system: the queries will not be partitioned");
+    }
+
+    /**
+     * Returns empty if no suitable attribute has been found
+     */
+    public Optional<ImmutableList<IQ>> partition(IQ plannedQuery, int partitionCount) {
+        if (partitionCount <= 1 || !remainderFunctionSymbol.isPresent())
+            return Optional.empty();
+        DBFunctionSymbol remainderSymbol = remainderFunctionSymbol.get();
+
+        // Construction and distinct nodes above the partitioned tree (the oldest ancestor is first)
+        ImmutableList.Builder<UnaryIQTree> ancestorBuilder = ImmutableList.builder();
+        IQTree tree = plannedQuery.getTree();
+        while ((tree.getRootNode() instanceof ConstructionNode) || (tree.getRootNode() instanceof DistinctNode)) {
+            ancestorBuilder.add((UnaryIQTree) tree);
+            tree = ((UnaryIQTree) tree).getChild();
+        }
+        ImmutableList<UnaryIQTree> ancestors = ancestorBuilder.build();
+        IQTree partitionedTree = tree;
+        VariableNullability variableNullability = partitionedTree.getVariableNullability();
+        VariableGenerator variableGenerator = plannedQuery.getVariableGenerator();
+
+        return extractDataNodes(partitionedTree)
+                .flatMap(this::extractKeyVariables)
+                .filter(v -> partitionedTree.getVariables().contains(v))
+                .filter(v -> !variableNullability.isPossiblyNullable(v))
+                .filter(v -> isDistinctnessPreserved(v, ancestors, variableGenerator))
+                .findFirst()
+                .map(v -> IntStream.range(0, partitionCount)
+                        .mapToObj(i -> iqFactory.createIQ(plannedQuery.getProjectionAtom(),
+                                rebuild(ancestors, iqFactory.createUnaryIQTree(
+                                        iqFactory.createFilterNode(
+                                                createPartitionCondition(remainderSymbol, v, i, partitionCount)),
+                                        partitionedTree))))
+                        .collect(ImmutableCollectors.toList()));
+    }
+
+    /**
+     * Only goes through the nodes that do not discard nor duplicate the tuples of the data nodes
+     * and under which the key attributes cannot become null.
+     */
+    private Stream<ExtensionalDataNode> extractDataNodes(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        if (rootNode instanceof ExtensionalDataNode)
+            return Stream.of((ExtensionalDataNode) rootNode);
+        else if (rootNode instanceof InnerJoinNode)
+            return tree.getChildren().stream()
+                    .flatMap(this::extractDataNodes);
+        else if ((rootNode instanceof FilterNode) || (rootNode instanceof DistinctNode)
+                || (rootNode instanceof ConstructionNode))
+            return extractDataNodes(((UnaryIQTree) tree).getChild());
+        else if (rootNode instanceof LeftJoinNode)
+            return extractDataNodes(tree.getChildren().get(0));
+        else
+            return Stream.empty();
+    }
+
+    /**
+     * Variables of the integer attributes forming a unique constraint on their own. Primary keys first.
+     */
+    private Stream<Variable> extractKeyVariables(ExtensionalDataNode dataNode) {
+        return dataNode.getRelationDefinition().getUniqueConstraints().stream()
+                .sorted(Comparator.comparing(uc -> !uc.isPrimaryKey()))
+                .map(UniqueConstraint::getAttributes)
+                .filter(as -> as.size() == 1)
+                .map(as -> as.get(0))
+                .filter(a -> a.getTermType().getCategory() == DBTermType.Category.INTEGER)
+                .map(Attribute::getIndex)
+                .map(i -> dataNode.getArgumentMap().get(i - 1))
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t);
+    }
+
+    /**
+     * Checks that tuples from different partitions cannot be merged by a distinct node,
+     * that is that the partitioning variable is determined by the variables projected by each distinct node.
+     */
+    private boolean isDistinctnessPreserved(Variable partitioningVariable, ImmutableList<UnaryIQTree> ancestors,
+                                            VariableGenerator variableGenerator) {
+        // Variables whose values determine the value of the partitioning variable
+        ImmutableSet<Variable> determiningVariables = ImmutableSet.of(partitioningVariable);
+
+        for (UnaryIQTree ancestor : ancestors.reverse()) {
+            QueryNode rootNode = ancestor.getRootNode();
+            if (rootNode instanceof DistinctNode) {
+                if (determiningVariables.isEmpty())
+                    return false;
+            }
+            else {
+                ConstructionNode constructionNode = (ConstructionNode) rootNode;
+                VariableNullability childNullability = ancestor.getChild().getVariableNullability();
+                ImmutableSet<Variable> childDeterminingVariables = determiningVariables;
+
+                determiningVariables = constructionNode.getVariables().stream()
+                        .filter(v -> isDetermining(constructionNode.getSubstitution().getImmutableMap().get(v), v,
+                                childDeterminingVariables, childNullability, variableGenerator))
+                        .collect(ImmutableCollectors.toSet());
+            }
+        }
+        return true;
+    }
+
+    private boolean isDetermining(ImmutableTerm definition, Variable variable,
+                                  ImmutableSet<Variable> childDeterminingVariables,
+                                  VariableNullability childNullability, VariableGenerator variableGenerator) {
+        if (definition == null)
+            return childDeterminingVariables.contains(variable);
+        else if (definition instanceof Variable)
+            return childDeterminingVariables.contains(definition);
+        else if (definition instanceof ImmutableFunctionalTerm)
+            return ((ImmutableFunctionalTerm) definition)
+                    .analyzeInjectivity(ImmutableSet.of(), childNullability, variableGenerator)
+                    .filter(d -> d.getLiftableTerm().getVariableStream()
+                            .anyMatch(childDeterminingVariables::contains))
+                    .isPresent();
+        else
+            return false;
+    }
+
+    private ImmutableExpression createPartitionCondition(DBFunctionSymbol remainderSymbol,
+                                                         Variable partitioningVariable, int index,
+                                                         int partitionCount) {
+        ImmutableFunctionalTerm remainder = termFactory.getImmutableFunctionalTerm(remainderSymbol,
+                partitioningVariable, termFactory.getDBIntegerConstant(partitionCount));
+
+        ImmutableExpression positiveCondition = termFactory.getDBNonStrictNumericEquality(remainder,
+                termFactory.getDBIntegerConstant(index));
+
+        return index == 0
+                ? positiveCondition
+                : termFactory.getDisjunction(positiveCondition,
+                        termFactory.getDBNonStrictNumericEquality(remainder, termFactory.getDBIntegerConstant(-index)));
+    }
+
+    private IQTree rebuild(ImmutableList<UnaryIQTree> ancestors, IQTree newPartitionedTree) {
+        IQTree tree = newPartitionedTree;
+        for (UnaryIQTree ancestor : ancestors.reverse()) {
+            tree = iqFactory.createUnaryIQTree(ancestor.getRootNode(), tree);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,166 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.reformulation.input.impl.AnonymousVariableTools;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.EmptyNode;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Instantiates executable query templates (see InputQuery.parameterize()) by replacing their placeholders.
+ *
+ * Similar to the replacement of the reference values for predefined queries.
+ *
+ * ASSUMPTION: the executable query is only composed of construction nodes and native nodes (or is empty).
+ */
+@Singleton
+public class QueryTemplateInstantiator {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+
+    @Inject
+    protected QueryTemplateInstantiator(IntermediateQueryFactory iqFactory, TermFactory termFactory,
+                                        SubstitutionFactory substitutionFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+    }
+
+    /**
+     * Returns empty if the template contains unexpected nodes.
+     */
+    public Optional<IQ> instantiate(IQ executableTemplate, ImmutableMap<String, String> parameters) {
+        return transform(executableTemplate.getTree(), parameters)
+                .map(t -> iqFactory.createIQ(executableTemplate.getProjectionAtom(), t));
+    }
+
+    /**
+     * A template where a placeholder does not appear is not reusable: the reformulation
+     * has then depended on the value of the placeholder (e.g. has been pruned).
+     */
+    public boolean containsAllPlaceholders(IQ executableTemplate, ImmutableMap<String, String> parameters) {
+        String templateString = executableTemplate.toString();
+        return parameters.keySet().stream()
+                .allMatch(templateString::contains);
+    }
+
+    /**
+     * Compares the string representations of the two queries, up to the renaming of the anonymous variables
+     * introduced by the SPARQL parser.
+     */
+    public boolean isEquivalentModuloAnonymousVariables(IQ query1, IQ query2) {
+        return AnonymousVariableTools.normalizeAnonymousVariables(query1.toString())
+                .equals(AnonymousVariableTools.normalizeAnonymousVariables(query2.toString()));
+    }
+
+    private Optional<IQTree> transform(IQTree tree, ImmutableMap<String, String> parameters) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode newConstructionNode = transformConstructionNode((ConstructionNode) rootNode, parameters);
+            return transform(((UnaryIQTree) tree).getChild(), parameters)
+                    .map(c -> iqFactory.createUnaryIQTree(newConstructionNode, c));
+        }
+        else if (rootNode instanceof NativeNode) {
+            return Optional.of(transformNativeNode((NativeNode) rootNode, parameters));
+        }
+        else if (rootNode instanceof EmptyNode) {
+            return Optional.of(tree);
+        }
+        else
+            return Optional.empty();
+    }
+
+    private ConstructionNode transformConstructionNode(ConstructionNode constructionNode,
+                                                       ImmutableMap<String, String> parameters) {
+        ImmutableSubstitution<ImmutableTerm> substitution = constructionNode.getSubstitution();
+        if (substitution.isEmpty())
+            return constructionNode;
+
+        ImmutableMap<Variable, ImmutableTerm> newSubstitutionMap = substitution.getImmutableMap().entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> transformTerm(e.getValue(), parameters)));
+
+        return iqFactory.createConstructionNode(constructionNode.getVariables(),
+                substitutionFactory.getSubstitution(newSubstitutionMap));
+    }
+
+    private ImmutableTerm transformTerm(ImmutableTerm term, ImmutableMap<String, String> parameters) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            String initialValue = constant.getValue();
+            String newValue = replacePlaceholders(initialValue, parameters);
+            return initialValue.equals(newValue)
+                    ? constant
+                    : termFactory.getRDFConstant(newValue, constant.getType());
+        }
+        else if (term instanceof DBConstant) {
+            DBConstant constant = (DBConstant) term;
+            String initialValue = constant.getValue();
+            String newValue = replacePlaceholders(initialValue, parameters);
+            return initialValue.equals(newValue)
+                    ? constant
+                    : termFactory.getDBConstant(newValue, constant.getType());
+        }
+        else if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+
+            ImmutableList<? extends ImmutableTerm> initialTerms = functionalTerm.getTerms();
+
+            ImmutableList<ImmutableTerm> newTerms = initialTerms.stream()
+                    .map(t -> transformTerm(t, parameters))
+                    .collect(ImmutableCollectors.toList());
+
+            return initialTerms.equals(newTerms)
+                    ? functionalTerm
+                    : termFactory.getImmutableFunctionalTerm(functionalTerm.getFunctionSymbol(), newTerms);
+        }
+        else
+            return term;
+    }
+
+    /**
+     * NB: the values are guaranteed not to contain quotes nor backslashes,
+     * so they can be inserted as such into the native query string.
+     */
+    private String replacePlaceholders(String str, ImmutableMap<String, String> parameters) {
+        String newString = str;
+        for (Map.Entry<String, String> e : parameters.entrySet()) {
+            newString = newString.replace(e.getKey(), e.getValue());
+        }
+        return newString;
+    }
+
+    private IQTree transformNativeNode(NativeNode nativeNode, ImmutableMap<String, String> parameters) {
+        String newQueryString = replacePlaceholders(nativeNode.getNativeQueryString(), parameters);
+        ImmutableList<DBConstant> newParameters = nativeNode.getParameters().stream()
+                .map(c -> (DBConstant) transformTerm(c, parameters))
+                .collect(ImmutableCollectors.toList());
+
+        return iqFactory.createNativeNode(nativeNode.getVariables(),
+                nativeNode.getTypeMap(),
+                nativeNode.getColumnNames(),
+                newQueryString,
+                newParameters,
+                nativeNode.isDeterministic(),
+                nativeNode.getVariableNullability());
+    }
+}
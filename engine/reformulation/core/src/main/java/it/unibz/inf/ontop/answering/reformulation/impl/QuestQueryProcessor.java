@@ -1,18 +1,25 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics.ReformulationPhase;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.answering.reformulation.input.DescribeQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
 import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
@@ -20,9 +27,11 @@ import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.planner.QueryPlanner;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -47,6 +56,12 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
 	private final QueryPlanner queryPlanner;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final QueryTemplateInstantiator templateInstantiator;
+	private final QueryPartitioner queryPartitioner;
+	private final TopLevelUnionSplitter topLevelUnionSplitter;
+	private final boolean isParameterizedQueryCacheEnabled;
+	private final MappingStringConstants mappingStringConstants;
+	private final QueryMetrics queryMetrics;
 
 	@AssistedInject
 	private QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
@@ -58,16 +73,27 @@ public class QuestQueryProcessor implements QueryReformulator {
 								InputQueryTranslator inputQueryTranslator,
 								GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
 								QueryPlanner queryPlanner,
-								QueryLogger.Factory queryLoggerFactory) {
+								QueryLogger.Factory queryLoggerFactory,
+								QueryTemplateInstantiator templateInstantiator,
+								QueryPartitioner queryPartitioner,
+								TopLevelUnionSplitter topLevelUnionSplitter,
+								QueryMetrics queryMetrics,
+								OntopReformulationSettings settings) {
 		this.inputQueryFactory = inputQueryFactory;
 		this.rewriter = queryRewriter;
 		this.generalOptimizer = generalOptimizer;
 		this.queryPlanner = queryPlanner;
 		this.queryLoggerFactory = queryLoggerFactory;
+		this.templateInstantiator = templateInstantiator;
+		this.queryPartitioner = queryPartitioner;
+		this.topLevelUnionSplitter = topLevelUnionSplitter;
+		this.queryMetrics = queryMetrics;
+		this.isParameterizedQueryCacheEnabled = settings.isParameterizedQueryCacheEnabled();
 
 		this.rewriter.setTBox(obdaSpecification.getSaturatedTBox());
 		this.queryUnfolder = translationFactory.create(obdaSpecification.getSaturatedMapping());
 		this.datasourceQueryGenerator = translationFactory.create(obdaSpecification.getDBParameters());
+		this.mappingStringConstants = new MappingStringConstants(obdaSpecification.getSaturatedMapping());
 
 		this.inputQueryTranslator = inputQueryTranslator;
 		this.queryCache = queryCache;
@@ -80,55 +106,50 @@ public class QuestQueryProcessor implements QueryReformulator {
 	public IQ reformulateIntoNativeQuery(InputQuery inputQuery, QueryLogger queryLogger)
 			throws OntopReformulationException {
 
-		long beginning = System.currentTimeMillis();
+		long beginning = System.nanoTime();
 
 		IQ cachedQuery = queryCache.get(inputQuery);
 		if (cachedQuery != null) {
+			queryMetrics.recordCacheLookup(true);
+			queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
 			queryLogger.declareReformulationFinishedAndSerialize(cachedQuery,true);
 			return cachedQuery;
 		}
 
+		// The templates are not used for the values that may be pruned or kept by the reformulation
+		Optional<? extends ParameterizedInputQuery<?>> parameterizedQuery = isParameterizedQueryCacheEnabled
+				? ((InputQuery<?>) inputQuery).parameterize()
+					.filter(q -> !mappingStringConstants.mayMatchAny(q.getParameters().values()))
+				: Optional.empty();
+
+		if (parameterizedQuery.isPresent()) {
+			Optional<IQ> instantiatedQuery = instantiateCachedTemplate(parameterizedQuery.get());
+			if (instantiatedQuery.isPresent()) {
+				IQ executableQuery = instantiatedQuery.get();
+				queryCache.put(inputQuery, executableQuery);
+				queryMetrics.recordCacheLookup(true);
+				log.debug(String.format("Reformulation time (from a cached template): %d ms",
+						toMs(System.nanoTime() - beginning)));
+				queryLogger.setReformulationCacheStatistics(true, queryCache.getHitRate());
+				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, true);
+				return executableQuery;
+			}
+		}
+
+		queryMetrics.recordCacheLookup(false);
 		try {
 			if (IS_DEBUG_ENABLED)
 				log.debug("SPARQL query:\n{}", inputQuery.getInputString());
-			IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
-			log.debug("Parsed query converted into IQ (after normalization):\n{}", convertedIQ);
-
-			queryLogger.setSparqlIQ(convertedIQ);
 
             try {
-                log.debug("Start the rewriting process...");
-                IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
-
-                if (IS_DEBUG_ENABLED)
-                	log.debug("Rewritten IQ:\n{}",rewrittenIQ);
-
-                log.debug("Start the unfolding...");
-
-                IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
-                if (unfoldedIQ.getTree().isDeclaredAsEmpty()) {
-                	log.debug(String.format("Reformulation time: %d ms", System.currentTimeMillis() - beginning));
-					queryLogger.declareReformulationFinishedAndSerialize(unfoldedIQ, false);
-					return unfoldedIQ;
-				}
-
-                // These IQ can be large so getting the string can be expensive
-                if (IS_DEBUG_ENABLED)
-                	log.debug("Unfolded query: \n" + unfoldedIQ.toString());
-
-                IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ, executorRegistry);
-				IQ plannedQuery = queryPlanner.optimize(optimizedQuery, executorRegistry);
-				if (IS_DEBUG_ENABLED)
-					log.debug("Planned query: \n" + plannedQuery);
-
-				queryLogger.setPlannedQuery(plannedQuery);
-
-				IQ executableQuery = generateExecutableQuery(plannedQuery);
+				IQ executableQuery = reformulate(inputQuery, queryLogger);
 				queryCache.put(inputQuery, executableQuery);
-				log.debug(String.format("Reformulation time: %d ms", System.currentTimeMillis() - beginning));
+				if (!executableQuery.getTree().isDeclaredAsEmpty())
+					parameterizedQuery.ifPresent(q -> registerTemplate(q, executableQuery));
+				log.debug(String.format("Reformulation time: %d ms", toMs(System.nanoTime() - beginning)));
+				queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
 				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
 				return executableQuery;
-
 			}
             catch (OntopReformulationException e) {
             	queryLogger.declareReformulationException(e);
@@ -147,11 +168,228 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	@Override
+	public ImmutableList<IQ> reformulateIntoPartitionedNativeQueries(InputQuery inputQuery, int partitionCount,
+																	 QueryLogger queryLogger)
+			throws OntopReformulationException {
+		if (partitionCount <= 1)
+			return ImmutableList.of(reformulateIntoNativeQuery(inputQuery, queryLogger));
+
+		long beginning = System.nanoTime();
+		try {
+			IQ plannedQuery = plan(inputQuery, queryLogger);
+			if (plannedQuery.getTree().isDeclaredAsEmpty())
+				return ImmutableList.of(plannedQuery);
+
+			ImmutableList<IQ> executableQueries = queryPartitioner.partition(plannedQuery, partitionCount)
+					.orElseGet(() -> ImmutableList.of(plannedQuery)).stream()
+					.map(this::generateExecutableQuery)
+					.collect(ImmutableCollectors.toList());
+
+			log.debug(String.format("Reformulation time (%d partitions): %d ms", executableQueries.size(),
+					toMs(System.nanoTime() - beginning)));
+			queryLogger.declareReformulationFinishedAndSerialize(executableQueries, false);
+			return executableQueries;
+		}
+		catch (OntopReformulationException e) {
+			queryLogger.declareReformulationException(e);
+			throw e;
+		}
+		catch (EmptyQueryException | RuntimeException e) {
+			OntopReformulationException exception = new OntopReformulationException(e);
+			queryLogger.declareReformulationException(exception);
+			throw exception;
+		}
+	}
+
+	@Override
+	public ImmutableList<IQ> reformulateIntoUnionBranchNativeQueries(InputQuery inputQuery, int maxBranchCount,
+																	 QueryLogger queryLogger)
+			throws OntopReformulationException {
+		if (maxBranchCount <= 1)
+			return ImmutableList.of(reformulateIntoNativeQuery(inputQuery, queryLogger));
+
+		long beginning = System.nanoTime();
+
+		// Cached queries are known not to be splittable
+		IQ cachedQuery = queryCache.get(inputQuery);
+		if (cachedQuery != null) {
+			queryMetrics.recordCacheLookup(true);
+			queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
+			queryLogger.declareReformulationFinishedAndSerialize(cachedQuery, true);
+			return ImmutableList.of(cachedQuery);
+		}
+
+		ImmutableList<IQ> cachedBranches = queryCache.getUnionBranches(inputQuery, maxBranchCount);
+		if (cachedBranches != null) {
+			queryMetrics.recordCacheLookup(true);
+			queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
+			queryLogger.declareReformulationFinishedAndSerialize(cachedBranches, true);
+			return cachedBranches;
+		}
+
+		queryMetrics.recordCacheLookup(false);
+		try {
+			IQ plannedQuery = plan(inputQuery, queryLogger);
+			Optional<ImmutableList<IQ>> plannedBranches = plannedQuery.getTree().isDeclaredAsEmpty()
+					? Optional.empty()
+					: topLevelUnionSplitter.split(plannedQuery, maxBranchCount);
+
+			if (!plannedBranches.isPresent()) {
+				IQ executableQuery = plannedQuery.getTree().isDeclaredAsEmpty()
+						? plannedQuery
+						: generateExecutableQuery(plannedQuery);
+				queryCache.put(inputQuery, executableQuery);
+				log.debug(String.format("Reformulation time: %d ms", toMs(System.nanoTime() - beginning)));
+				queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
+				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
+				return ImmutableList.of(executableQuery);
+			}
+
+			ImmutableList<IQ> executableQueries = plannedBranches.get().stream()
+					.map(this::generateExecutableQuery)
+					.collect(ImmutableCollectors.toList());
+			queryCache.putUnionBranches(inputQuery, maxBranchCount, executableQueries);
+
+			log.debug(String.format("Reformulation time (%d union branches): %d ms", executableQueries.size(),
+					toMs(System.nanoTime() - beginning)));
+			queryLogger.setReformulationCacheStatistics(false, queryCache.getHitRate());
+			queryLogger.declareReformulationFinishedAndSerialize(executableQueries, false);
+			return executableQueries;
+		}
+		catch (OntopReformulationException e) {
+			queryLogger.declareReformulationException(e);
+			throw e;
+		}
+		catch (EmptyQueryException | RuntimeException e) {
+			OntopReformulationException exception = new OntopReformulationException(e);
+			queryLogger.declareReformulationException(exception);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Translates, rewrites, unfolds, optimizes the query and generates the executable query.
+	 *
+	 * Returns an empty query if the unfolded query is detected as empty.
+	 */
+	private IQ reformulate(InputQuery inputQuery, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		IQ plannedQuery = plan(inputQuery, queryLogger);
+		return plannedQuery.getTree().isDeclaredAsEmpty()
+				? plannedQuery
+				: generateExecutableQuery(plannedQuery);
+	}
+
+	/**
+	 * Translates, rewrites, unfolds and optimizes the query.
+	 *
+	 * Returns an empty query if the unfolded query is detected as empty.
+	 */
+	private IQ plan(InputQuery inputQuery, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		long start = System.nanoTime();
+		IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
+		recordPhase(ReformulationPhase.TRANSLATION, start);
+		log.debug("Parsed query converted into IQ (after normalization):\n{}", convertedIQ);
+
+		queryLogger.setSparqlIQ(convertedIQ);
+
+		log.debug("Start the rewriting process...");
+		start = System.nanoTime();
+		IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
+		recordPhase(ReformulationPhase.REWRITING, start);
+
+		if (IS_DEBUG_ENABLED)
+			log.debug("Rewritten IQ:\n{}",rewrittenIQ);
+
+		log.debug("Start the unfolding...");
+
+		start = System.nanoTime();
+		IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+		recordPhase(ReformulationPhase.UNFOLDING, start);
+		if (unfoldedIQ.getTree().isDeclaredAsEmpty())
+			return unfoldedIQ;
+
+		// These IQ can be large so getting the string can be expensive
+		if (IS_DEBUG_ENABLED)
+			log.debug("Unfolded query: \n" + unfoldedIQ.toString());
+
+		start = System.nanoTime();
+		IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ, executorRegistry);
+		recordPhase(ReformulationPhase.OPTIMIZATION, start);
+
+		start = System.nanoTime();
+		IQ plannedQuery = queryPlanner.optimize(optimizedQuery, executorRegistry);
+		recordPhase(ReformulationPhase.PLANNING, start);
+		if (IS_DEBUG_ENABLED)
+			log.debug("Planned query: \n" + plannedQuery);
+
+		queryLogger.setPlannedQuery(plannedQuery);
+
+		return plannedQuery;
+	}
+
+	private Optional<IQ> instantiateCachedTemplate(ParameterizedInputQuery<?> parameterizedQuery) {
+		IQ executableTemplate = queryCache.getTemplate(parameterizedQuery.getTemplate());
+		if (executableTemplate == null)
+			return Optional.empty();
+
+		log.debug("Instantiating the cached template with the parameters {}", parameterizedQuery.getParameters());
+		return templateInstantiator.instantiate(executableTemplate, parameterizedQuery.getParameters());
+	}
+
+	/**
+	 * Reformulates the query template (with placeholders) and only keeps it if its instantiation with
+	 * the parameters of the current query produces the same executable query as the one obtained
+	 * by the regular reformulation. Otherwise, the query shape is declared as non-parameterizable.
+	 *
+	 * Only done once per query shape.
+	 *
+	 * ASSUMPTION: if the reformulation does not depend on the value of the first parameters observed for a shape,
+	 * it does not depend on it for the following ones (as for the reference values of the predefined queries).
+	 * Only holds for the values that do not match the string constants of the mapping (see MappingStringConstants),
+	 * which never reach this method.
+	 */
+	private void registerTemplate(ParameterizedInputQuery<?> parameterizedQuery, IQ executableQuery) {
+		InputQuery<?> templateQuery = parameterizedQuery.getTemplate();
+		if (queryCache.isShapeKnown(templateQuery))
+			return;
+
+		ImmutableMap<String, String> parameters = parameterizedQuery.getParameters();
+		try {
+			// Not logged
+			IQ executableTemplate = reformulate(templateQuery, queryLoggerFactory.create(ImmutableMultimap.of()));
+
+			boolean isReusable = (!executableTemplate.getTree().isDeclaredAsEmpty())
+					&& templateInstantiator.containsAllPlaceholders(executableTemplate, parameters)
+					&& templateInstantiator.instantiate(executableTemplate, parameters)
+						.filter(q -> templateInstantiator.isEquivalentModuloAnonymousVariables(q, executableQuery))
+						.isPresent();
+
+			if (isReusable) {
+				log.debug("New executable query template:\n{}", executableTemplate);
+				queryCache.putTemplate(templateQuery, executableTemplate);
+			}
+			else {
+				log.debug("The shape of the query is not parameterizable");
+				queryCache.declareNonParameterizable(templateQuery);
+			}
+		}
+		// Must not prevent the query from being answered
+		catch (OntopReformulationException | EmptyQueryException | RuntimeException e) {
+			log.debug("Problem while reformulating the query template: " + e.getMessage());
+			queryCache.declareNonParameterizable(templateQuery);
+		}
+	}
+
 	private IQ generateExecutableQuery(IQ iq) {
 
 		log.debug("Producing the native query string...");
 
+		long start = System.nanoTime();
 		IQ executableQuery = datasourceQueryGenerator.generateSourceQuery(iq);
+		recordPhase(ReformulationPhase.NATIVE_QUERY_GENERATION, start);
 
 		if (IS_DEBUG_ENABLED)
 			log.debug("Resulting native query: \n{}", executableQuery);
@@ -159,6 +397,13 @@ public class QuestQueryProcessor implements QueryReformulator {
 		return executableQuery;
 	}
 
+	private void recordPhase(ReformulationPhase phase, long start) {
+		queryMetrics.recordPhase(phase, System.nanoTime() - start);
+	}
+
+	private static long toMs(long nanos) {
+		return nanos / 1_000_000;
+	}
 
 	/**
 	 * Returns the final rewriting of the given query
@@ -0,0 +1,78 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a planned query whose top-level operator is a union into sub-queries over groups of its children.
+ * The sub-queries can be evaluated independently and the concatenation of their results forms
+ * the results of the query.
+ *
+ * Only construction nodes may appear above the union: distinct, order by and slice nodes
+ * would require a global post-processing of the results.
+ *
+ * The children are distributed into contiguous groups of similar sizes, a group being itself a union
+ * when it contains several children.
+ */
+@Singleton
+public class TopLevelUnionSplitter {
+
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    protected TopLevelUnionSplitter(IntermediateQueryFactory iqFactory) {
+        this.iqFactory = iqFactory;
+    }
+
+    /**
+     * Returns empty if the query is not a union under construction nodes
+     */
+    public Optional<ImmutableList<IQ>> split(IQ plannedQuery, int maxBranchCount) {
+        if (maxBranchCount <= 1)
+            return Optional.empty();
+
+        // Construction nodes above the union (the oldest ancestor is first)
+        ImmutableList.Builder<UnaryIQTree> ancestorBuilder = ImmutableList.builder();
+        IQTree tree = plannedQuery.getTree();
+        while (tree.getRootNode() instanceof ConstructionNode) {
+            ancestorBuilder.add((UnaryIQTree) tree);
+            tree = ((UnaryIQTree) tree).getChild();
+        }
+
+        if (!(tree.getRootNode() instanceof UnionNode))
+            return Optional.empty();
+
+        ImmutableList<UnaryIQTree> ancestors = ancestorBuilder.build();
+        UnionNode unionNode = (UnionNode) tree.getRootNode();
+        ImmutableList<IQTree> children = tree.getChildren();
+        int childCount = children.size();
+        int branchCount = Math.min(maxBranchCount, childCount);
+
+        return Optional.of(IntStream.range(0, branchCount)
+                .mapToObj(i -> children.subList(i * childCount / branchCount, (i + 1) * childCount / branchCount))
+                .map(g -> g.size() == 1
+                        ? g.get(0)
+                        : iqFactory.createNaryIQTree(iqFactory.createUnionNode(unionNode.getVariables()), g))
+                .map(t -> iqFactory.createIQ(plannedQuery.getProjectionAtom(), rebuild(ancestors, t)))
+                .collect(ImmutableCollectors.toList()));
+    }
+
+    private IQTree rebuild(ImmutableList<UnaryIQTree> ancestors, IQTree newUnionTree) {
+        IQTree tree = newUnionTree;
+        for (UnaryIQTree ancestor : ancestors.reverse()) {
+            tree = iqFactory.createUnaryIQTree(ancestor.getRootNode(), tree);
+        }
+        return tree;
+    }
+}
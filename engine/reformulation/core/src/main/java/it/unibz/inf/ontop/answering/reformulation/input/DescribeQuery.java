@@ -14,6 +14,9 @@ public interface DescribeQuery extends GraphSPARQLQuery {
     SelectQuery getSelectQuery();
 
     /**
+     * The resources are described by batches (see OntopReformulationSettings.getDescribeBatchSize()):
+     * each construct query is reformulated and evaluated once for all the resources of its batch.
+     *
      * Restriction: description of blank nodes is not supported.
      */
     ImmutableCollection<ConstructQuery> computeConstructQueries(ImmutableSet<IRI> resourcesToDescribe);
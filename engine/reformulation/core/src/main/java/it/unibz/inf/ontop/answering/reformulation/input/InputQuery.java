@@ -7,6 +7,8 @@ import it.unibz.inf.ontop.exception.OntopInvalidInputQueryException;
 import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.iq.IQ;
 
+import java.util.Optional;
+
 /**
  * Must throw an OntopInvalidInputQueryException at CONSTRUCTION time if the input query is invalid.
  *
@@ -18,4 +20,21 @@ public interface InputQuery<R extends OBDAResultSet> {
     String getInputString();
 
     IQ translate(InputQueryTranslator translator) throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException;
+
+    /**
+     * Extracts the constants that can be turned into parameters.
+     *
+     * Empty if the query has no such constant (or if its type of query does not support parameterization).
+     */
+    default Optional<ParameterizedInputQuery<R>> parameterize() {
+        return Optional.empty();
+    }
+
+    /**
+     * False for the queries that are not expected to be submitted again (e.g. the construct queries
+     * describing a batch of resources), so that they do not fill the query cache.
+     */
+    default boolean isCacheable() {
+        return true;
+    }
 }
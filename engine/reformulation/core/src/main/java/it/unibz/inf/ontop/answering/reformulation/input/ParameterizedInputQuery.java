@@ -0,0 +1,26 @@
+package it.unibz.inf.ontop.answering.reformulation.input;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
+
+/**
+ * Input query split into a query template (its "shape") and the values of its parameters.
+ *
+ * In the template, the parameterized constants are replaced by placeholder values.
+ * Two input queries only differing by the values of these constants have equal templates,
+ * so that the template can be used as a cache key.
+ *
+ * See InputQuery.parameterize()
+ */
+public interface ParameterizedInputQuery<R extends OBDAResultSet> {
+
+    /**
+     * Query where the parameterized constants are replaced by placeholders
+     */
+    InputQuery<R> getTemplate();
+
+    /**
+     * Placeholder (lexical value) -> lexical value of the constant in the original query
+     */
+    ImmutableMap<String, String> getParameters();
+}
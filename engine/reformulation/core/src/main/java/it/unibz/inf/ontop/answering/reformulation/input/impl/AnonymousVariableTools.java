@@ -0,0 +1,35 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Anonymous variables are named after random UUIDs by the RDF4J parser
+ * (e.g. _anon_1b6c1f47_2a0e_4d2b_9c4e_0f3a6c8d7e21), so that parsing twice the same query
+ * gives different variable names.
+ */
+public class AnonymousVariableTools {
+
+    private static final Pattern ANONYMOUS_VARIABLE_PATTERN = Pattern.compile(
+            "_anon_[0-9a-f]{8}_[0-9a-f]{4}_[0-9a-f]{4}_[0-9a-f]{4}_[0-9a-f]{12}");
+
+    private AnonymousVariableTools() {
+    }
+
+    /**
+     * Renames the anonymous variables appearing in the string consistently, according to their order of appearance.
+     */
+    public static String normalizeAnonymousVariables(String string) {
+        Map<String, String> renaming = new LinkedHashMap<>();
+        Matcher matcher = ANONYMOUS_VARIABLE_PATTERN.matcher(string);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String newName = renaming.computeIfAbsent(matcher.group(), n -> "_anon_" + renaming.size());
+            matcher.appendReplacement(sb, newName);
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+}
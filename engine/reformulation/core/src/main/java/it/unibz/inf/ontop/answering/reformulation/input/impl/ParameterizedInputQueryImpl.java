@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
+import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
+
+class ParameterizedInputQueryImpl<R extends OBDAResultSet> implements ParameterizedInputQuery<R> {
+
+    private final InputQuery<R> template;
+    private final ImmutableMap<String, String> parameters;
+
+    ParameterizedInputQueryImpl(InputQuery<R> template, ImmutableMap<String, String> parameters) {
+        this.template = template;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public InputQuery<R> getTemplate() {
+        return template;
+    }
+
+    @Override
+    public ImmutableMap<String, String> getParameters() {
+        return parameters;
+    }
+}
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JAskQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
@@ -9,6 +10,8 @@ import it.unibz.inf.ontop.exception.OntopInvalidInputQueryException;
 import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.iq.IQ;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
 
@@ -30,4 +33,11 @@ class RDF4JAskQueryImpl extends RegularRDF4JInputImpl<BooleanResultSet> implemen
     public RDF4JInputQuery<BooleanResultSet> newBindings(BindingSet newBindings) {
         return new RDF4JAskQueryImpl(parsedQuery, getInputString(), newBindings);
     }
+
+    @Override
+    protected InputQuery<BooleanResultSet> createTemplateQuery(TupleExpr templateTupleExpr, String templateString) {
+        ParsedBooleanQuery templateParsedQuery = new ParsedBooleanQuery(templateTupleExpr);
+        templateParsedQuery.setDataset(parsedQuery.getDataset());
+        return new RDF4JAskQueryImpl(templateParsedQuery, templateString, bindings);
+    }
 }
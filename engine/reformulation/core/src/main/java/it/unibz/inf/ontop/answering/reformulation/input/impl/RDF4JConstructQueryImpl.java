@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JConstructQuery;
 import it.unibz.inf.ontop.answering.resultset.GraphResultSet;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -14,19 +15,22 @@ import java.util.Optional;
 
 class RDF4JConstructQueryImpl extends RegularRDF4JInputImpl<GraphResultSet> implements RDF4JConstructQuery {
     private final ConstructTemplate template;
+    private final boolean isCacheable;
 
     RDF4JConstructQueryImpl(String queryString, ParsedQuery parsedQuery, BindingSet bindings) {
-        this(split(parsedQuery), queryString, bindings);
+        this(split(parsedQuery), queryString, bindings, true);
     }
 
-    RDF4JConstructQueryImpl(ConstructQuerySplit split, String queryString, BindingSet bindings) {
-        this(split.getConstructTemplate(), split.getSelectParsedQuery(), queryString, bindings);
+    RDF4JConstructQueryImpl(ConstructQuerySplit split, String queryString, BindingSet bindings,
+                            boolean isCacheable) {
+        this(split.getConstructTemplate(), split.getSelectParsedQuery(), queryString, bindings, isCacheable);
     }
 
     private RDF4JConstructQueryImpl(ConstructTemplate template, ParsedQuery selectParsedQuery, String queryString,
-                                    BindingSet bindings) {
+                                    BindingSet bindings, boolean isCacheable) {
         super(selectParsedQuery, queryString, bindings);
         this.template = template;
+        this.isCacheable = isCacheable;
     }
 
     @Override
@@ -36,7 +40,12 @@ class RDF4JConstructQueryImpl extends RegularRDF4JInputImpl<GraphResultSet> impl
 
     @Override
     public RDF4JConstructQuery newBindings(BindingSet newBindings) {
-        return new RDF4JConstructQueryImpl(template, parsedQuery, getInputString(), newBindings);
+        return new RDF4JConstructQueryImpl(template, parsedQuery, getInputString(), newBindings, isCacheable);
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return isCacheable;
     }
 
     private static ConstructQuerySplit split(ParsedQuery parsedQuery) {
@@ -101,4 +110,13 @@ class RDF4JConstructQueryImpl extends RegularRDF4JInputImpl<GraphResultSet> impl
         return new ParsedTupleQuery(selectTree);
     }
 
+    /**
+     * NB: the construct template is not part of the query shape, as it does not influence the reformulation
+     */
+    @Override
+    protected InputQuery<GraphResultSet> createTemplateQuery(TupleExpr templateTupleExpr, String templateString) {
+        ParsedTupleQuery templateParsedQuery = new ParsedTupleQuery(templateTupleExpr);
+        templateParsedQuery.setDataset(parsedQuery.getDataset());
+        return new RDF4JConstructQueryImpl(template, templateParsedQuery, templateString, bindings, isCacheable);
+    }
 }
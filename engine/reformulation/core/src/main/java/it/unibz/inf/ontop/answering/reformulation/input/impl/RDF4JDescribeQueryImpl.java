@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering.reformulation.input.impl;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JDescribeQuery;
@@ -17,11 +18,15 @@ import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 
 class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
@@ -39,18 +44,24 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
 
     // True if the pattern "?s ?p <describedIRI>" should also be considered while answering a DESCRIBE query.
     private final boolean isFixedObjectIncludedInDescribe;
+    // Maximum number of resources described by one construct query
+    private final int batchSize;
 
     RDF4JDescribeQueryImpl(ParsedQuery originalParsedQuery, String queryString, BindingSet bindings,
-                           boolean isFixedObjectIncludedInDescribe) {
+                           boolean isFixedObjectIncludedInDescribe, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The DESCRIBE batch size must be positive: " + batchSize);
         this.originalParsedQuery = originalParsedQuery;
         this.queryString = queryString;
         this.bindings = bindings;
         this.isFixedObjectIncludedInDescribe = isFixedObjectIncludedInDescribe;
+        this.batchSize = batchSize;
     }
 
     @Override
     public RDF4JDescribeQuery newBindings(BindingSet newBindings) {
-        return new RDF4JDescribeQueryImpl(originalParsedQuery, getInputString(), newBindings, isFixedObjectIncludedInDescribe);
+        return new RDF4JDescribeQueryImpl(originalParsedQuery, getInputString(), newBindings,
+                isFixedObjectIncludedInDescribe, batchSize);
     }
 
     @Override
@@ -82,19 +93,53 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
                 + queryString, bindings);
     }
 
+    /**
+     * One construct query per batch of resources.
+     *
+     * A resource alone is passed as an external binding, while the resources of a larger batch
+     * are given in a VALUES block (BindingSetAssignment) joined with the triple patterns.
+     *
+     * The queries of the batches are not cached: they are very unlikely to be seen again, and cannot be turned
+     * into templates either, as IRIs are never parameterized (see RDF4JQueryParameterizer).
+     */
     @Override
     public ImmutableCollection<ConstructQuery> computeConstructQueries(ImmutableSet<IRI> resourcesToDescribe) {
-        ConstructQuerySplit split = createConstructionQuerySplit(isFixedObjectIncludedInDescribe);
+        ConstructQuerySplit singleResourceSplit = createConstructionQuerySplit(isFixedObjectIncludedInDescribe,
+                Optional.empty());
         SimpleValueFactory valueFactory = SimpleValueFactory.getInstance();
 
-        return resourcesToDescribe.stream()
-                .map(d -> new RDF4JConstructQueryImpl(split, "# Construct for describing " + d,
-                        new ListBindingSet(ImmutableList.of(DESCRIBE_VARIABLE), valueFactory.createIRI(d.getIRIString()))))
+        return StreamSupport.stream(Iterables.partition(resourcesToDescribe, batchSize).spliterator(), false)
+                .map(batch -> batch.size() == 1
+                        ? new RDF4JConstructQueryImpl(singleResourceSplit, "# Construct for describing " + batch.get(0),
+                            new ListBindingSet(ImmutableList.of(DESCRIBE_VARIABLE),
+                                    valueFactory.createIRI(batch.get(0).getIRIString())),
+                            true)
+                        : new RDF4JConstructQueryImpl(
+                            createConstructionQuerySplit(isFixedObjectIncludedInDescribe,
+                                    Optional.of(createValuesNode(batch, valueFactory))),
+                            batch.stream()
+                                    .map(IRI::toString)
+                                    .collect(Collectors.joining(" ", "# Construct for describing ", "")),
+                            EmptyBindingSet.getInstance(),
+                            false))
                 .collect(ImmutableCollectors.toList());
     }
 
-    private static ConstructQuerySplit createConstructionQuerySplit(boolean isFixedObjectIncludedInDescribe) {
-        ParsedTupleQuery selectQuery = new ParsedTupleQuery(createSPPOUnion(isFixedObjectIncludedInDescribe));
+    private static BindingSetAssignment createValuesNode(List<IRI> resources, SimpleValueFactory valueFactory) {
+        BindingSetAssignment valuesNode = new BindingSetAssignment();
+        valuesNode.setBindingNames(ImmutableSet.of(DESCRIBE_VARIABLE));
+        valuesNode.setBindingSets(resources.stream()
+                .map(d -> new ListBindingSet(ImmutableList.of(DESCRIBE_VARIABLE), valueFactory.createIRI(d.getIRIString())))
+                .collect(ImmutableCollectors.toList()));
+        return valuesNode;
+    }
+
+    private static ConstructQuerySplit createConstructionQuerySplit(boolean isFixedObjectIncludedInDescribe,
+                                                                    Optional<BindingSetAssignment> valuesNode) {
+        TupleExpr sppoUnion = createSPPOUnion(isFixedObjectIncludedInDescribe);
+        ParsedTupleQuery selectQuery = new ParsedTupleQuery(valuesNode
+                .<TupleExpr>map(v -> new Join(v, sppoUnion))
+                .orElse(sppoUnion));
 
         UnaryTupleOperator newProjection = createNewProjection(isFixedObjectIncludedInDescribe);
         ConstructTemplate constructTemplate = new RDF4JConstructTemplate(newProjection, null);
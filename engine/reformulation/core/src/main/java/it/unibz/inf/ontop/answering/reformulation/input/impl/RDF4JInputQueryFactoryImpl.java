@@ -33,6 +33,7 @@ public class RDF4JInputQueryFactoryImpl implements RDF4JInputQueryFactory {
 
     @Override
     public RDF4JDescribeQuery createDescribeQuery(String queryString, ParsedQuery parsedQuery, BindingSet bindings) {
-        return new RDF4JDescribeQueryImpl(parsedQuery, queryString, bindings, settings.isFixedObjectIncludedInDescribe());
+        return new RDF4JDescribeQueryImpl(parsedQuery, queryString, bindings, settings.isFixedObjectIncludedInDescribe(),
+                settings.getDescribeBatchSize());
     }
 }
@@ -0,0 +1,164 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Replaces some constants of a parsed SPARQL query by placeholders.
+ *
+ * Only string literals (xsd:string and rdf:langString) are parameterized, and only when they appear
+ * as operands of comparisons or in the object position of a triple pattern.
+ * IRIs are never parameterized, as they may be decomposed according to different IRI templates
+ * depending on their value.
+ *
+ * Literals containing quotes or backslashes are kept as such, as their value is not safe to be inserted
+ * into an already generated native query.
+ */
+class RDF4JQueryParameterizer {
+
+    // Random, so that placeholders are very unlikely to collide with values from the query or from the data
+    private static final String PLACEHOLDER_PREFIX = "ontop" + Long.toHexString(new SecureRandom().nextLong()) + "p";
+    private static final String PLACEHOLDER_SUFFIX = "x";
+
+    private RDF4JQueryParameterizer() {
+    }
+
+    static Optional<Parameterization> parameterize(ParsedQuery parsedQuery) {
+        TupleExpr newTupleExpr = parsedQuery.getTupleExpr().clone();
+
+        PlaceholderIntroducer introducer = new PlaceholderIntroducer();
+        newTupleExpr.visit(introducer);
+
+        ImmutableMap<String, String> parameters = introducer.getParameters();
+        if (parameters.isEmpty())
+            return Optional.empty();
+
+        String shape = AnonymousVariableTools.normalizeAnonymousVariables(newTupleExpr.toString())
+                + "\nDataset: " + parsedQuery.getDataset();
+
+        return Optional.of(new Parameterization(newTupleExpr, shape, parameters));
+    }
+
+    private static class PlaceholderIntroducer extends AbstractQueryModelVisitor<RuntimeException> {
+
+        private final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        // Mutable
+        private final Map<Literal, Literal> placeholderMap = new LinkedHashMap<>();
+
+        ImmutableMap<String, String> getParameters() {
+            return placeholderMap.entrySet().stream()
+                    .collect(ImmutableCollectors.toMap(
+                            e -> e.getValue().getLabel(),
+                            e -> e.getKey().getLabel()));
+        }
+
+        @Override
+        public void meet(Compare node) {
+            replaceConstantOperand(node.getLeftArg());
+            replaceConstantOperand(node.getRightArg());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(SameTerm node) {
+            replaceConstantOperand(node.getLeftArg());
+            replaceConstantOperand(node.getRightArg());
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(StatementPattern node) {
+            replaceConstantVar(node.getObjectVar());
+            super.meet(node);
+        }
+
+        private void replaceConstantOperand(ValueExpr operand) {
+            if (operand instanceof ValueConstant) {
+                ValueConstant constant = (ValueConstant) operand;
+                getPlaceholder(constant.getValue())
+                        .ifPresent(constant::setValue);
+            }
+            else if (operand instanceof Var)
+                replaceConstantVar((Var) operand);
+        }
+
+        private void replaceConstantVar(Var var) {
+            if (!var.hasValue())
+                return;
+            getPlaceholder(var.getValue())
+                    .ifPresent(p -> {
+                        var.setName("_const_" + p.getLabel());
+                        var.setValue(p);
+                    });
+        }
+
+        private Optional<Literal> getPlaceholder(Value value) {
+            if (!(value instanceof Literal))
+                return Optional.empty();
+            Literal literal = (Literal) value;
+
+            if (!isParameterizable(literal))
+                return Optional.empty();
+
+            return Optional.of(placeholderMap.computeIfAbsent(literal, this::createPlaceholder));
+        }
+
+        private boolean isParameterizable(Literal literal) {
+            if (!(literal.getDatatype().equals(XSD.STRING) || literal.getDatatype().equals(RDF.LANGSTRING)))
+                return false;
+
+            String label = literal.getLabel();
+            return !(label.contains("'") || label.contains("\\") || label.startsWith(PLACEHOLDER_PREFIX));
+        }
+
+        private Literal createPlaceholder(Literal literal) {
+            String label = PLACEHOLDER_PREFIX + placeholderMap.size() + PLACEHOLDER_SUFFIX;
+            return literal.getLanguage()
+                    .map(l -> valueFactory.createLiteral(label, l))
+                    .orElseGet(() -> valueFactory.createLiteral(label));
+        }
+    }
+
+
+    static class Parameterization {
+        private final TupleExpr templateTupleExpr;
+        private final String shape;
+        private final ImmutableMap<String, String> parameters;
+
+        private Parameterization(TupleExpr templateTupleExpr, String shape, ImmutableMap<String, String> parameters) {
+            this.templateTupleExpr = templateTupleExpr;
+            this.shape = shape;
+            this.parameters = parameters;
+        }
+
+        TupleExpr getTemplateTupleExpr() {
+            return templateTupleExpr;
+        }
+
+        /**
+         * String representation of the template, which does not depend on the values of the parameters
+         * nor on the names of the anonymous variables
+         */
+        String getShape() {
+            return shape;
+        }
+
+        ImmutableMap<String, String> getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JSelectQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 
 class RDF4JSelectQueryImpl extends RegularRDF4JInputImpl<TupleResultSet> implements RDF4JSelectQuery {
 
@@ -16,4 +19,11 @@ class RDF4JSelectQueryImpl extends RegularRDF4JInputImpl<TupleResultSet> impleme
     public RDF4JSelectQuery newBindings(BindingSet newBindings) {
         return new RDF4JSelectQueryImpl(parsedQuery, getInputString(), newBindings);
     }
+
+    @Override
+    protected InputQuery<TupleResultSet> createTemplateQuery(TupleExpr templateTupleExpr, String templateString) {
+        ParsedTupleQuery templateParsedQuery = new ParsedTupleQuery(templateTupleExpr);
+        templateParsedQuery.setDataset(parsedQuery.getDataset());
+        return new RDF4JSelectQueryImpl(templateParsedQuery, templateString, bindings);
+    }
 }
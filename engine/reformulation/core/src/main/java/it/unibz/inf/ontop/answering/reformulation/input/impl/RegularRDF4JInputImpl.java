@@ -1,11 +1,16 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
-class RegularRDF4JInputImpl<R extends OBDAResultSet> extends RDF4JInputQueryImpl<R> {
+import java.util.Optional;
+
+abstract class RegularRDF4JInputImpl<R extends OBDAResultSet> extends RDF4JInputQueryImpl<R> {
 
     protected final ParsedQuery parsedQuery;
 
@@ -18,4 +23,17 @@ class RegularRDF4JInputImpl<R extends OBDAResultSet> extends RDF4JInputQueryImpl
     protected ParsedQuery transformParsedQuery() throws OntopUnsupportedInputQueryException {
         return parsedQuery;
     }
+
+    @Override
+    public Optional<ParameterizedInputQuery<R>> parameterize() {
+        return RDF4JQueryParameterizer.parameterize(parsedQuery)
+                .map(p -> new ParameterizedInputQueryImpl<>(
+                        createTemplateQuery(p.getTemplateTupleExpr(), "# Template of a SPARQL query\n" + p.getShape()),
+                        p.getParameters()));
+    }
+
+    /**
+     * NB: the template string is used for comparing templates
+     */
+    protected abstract InputQuery<R> createTemplateQuery(TupleExpr templateTupleExpr, String templateString);
 }
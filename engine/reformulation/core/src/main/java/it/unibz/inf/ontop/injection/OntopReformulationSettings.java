@@ -3,12 +3,25 @@ package it.unibz.inf.ontop.injection;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Optional;
+
 public interface OntopReformulationSettings extends OntopOBDASettings, OntopOptimizationSettings {
 
     boolean isExistentialReasoningEnabled();
 
     boolean isDistinctPostProcessingEnabled();
 
+    /**
+     * Memory budget (in MB) of the row fingerprints kept in the heap by the DISTINCT post-processing.
+     */
+    int getDistinctPostProcessingMaxMemoryInMB();
+
+    /**
+     * If true, the row fingerprints of the DISTINCT post-processing are moved to a memory-mapped file
+     * when the memory budget is exceeded. Otherwise, they remain in the heap.
+     */
+    boolean isDistinctPostProcessingSpillEnabled();
+
     boolean isPostProcessingAvoided();
 
     /**
@@ -25,6 +38,37 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     boolean isQueryLoggingDecompositionEnabled();
     boolean areQueryLoggingDecompositionAndMergingMutuallyExclusive();
 
+    /**
+     * File receiving the query log. If absent, the query log is written to the standard output.
+     */
+    Optional<String> getQueryLogFile();
+
+    /**
+     * Size (in MB) beyond which the query log file is rotated
+     */
+    int getQueryLogFileMaxSizeInMB();
+
+    /**
+     * Number of rotated query log files kept
+     */
+    int getQueryLogFileMaxBackups();
+
+    /**
+     * Capacity of the buffer of the messages waiting for being serialized (rounded to a power of 2)
+     */
+    int getQueryLogBufferSize();
+
+    /**
+     * Maximum number of messages written between two flushes of the query log
+     */
+    int getQueryLogBatchSize();
+
+    /**
+     * Applied to the messages arriving when the buffer is full:
+     * "drop" (the message is discarded and counted) or "block" (the query thread waits)
+     */
+    String getQueryLogFullBufferPolicy();
+
     /**
      * Returns true if the pattern "?s ?p <describedIRI>" should also be
      * considered while answering a DESCRIBE query.
@@ -32,12 +76,27 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
      */
     boolean isFixedObjectIncludedInDescribe();
 
+    /**
+     * Maximum number of resources described by one construct query when answering a DESCRIBE query
+     */
+    int getDescribeBatchSize();
+
     ImmutableSet<String> getHttpHeaderNamesToLog();
 
     long getQueryCacheMaxSize();
 
+    /**
+     * If true, queries only differing by some string constants share the same cached reformulation.
+     */
+    boolean isParameterizedQueryCacheEnabled();
+
     String getApplicationName();
 
+    /**
+     * If true, the query metrics are registered as an MXBean
+     */
+    boolean isQueryMetricsJMXEnabled();
+
 
     //--------------------------
     // Keys
@@ -46,9 +105,12 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String EXISTENTIAL_REASONING = "ontop.existentialReasoning";
     @Deprecated
     String DISTINCT_RESULTSET = "ontop.distinctResultSet";
+    String DISTINCT_RESULTSET_MAX_MEMORY = "ontop.distinctResultSet.maxMemoryInMB";
+    String DISTINCT_RESULTSET_SPILL = "ontop.distinctResultSet.spillToDisk";
     String AVOID_POST_PROCESSING = "ontop.avoidPostProcessing";
     String EXCLUDE_INVALID_TRIPLES_FROM_RESULT_SET = "ontop.excludeInvalidTriplesFromResultSet";
     String QUERY_CACHE_MAX_SIZE = "ontop.cache.query.size";
+    String PARAMETERIZED_QUERY_CACHE = "ontop.cache.query.parameterized";
     String QUERY_LOGGING = "ontop.queryLogging";
     // Needed for logging
     String APPLICATION_NAME = "ontop.applicationName";
@@ -64,6 +126,15 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String QUERY_TEMPLATE_EXTRACTION = "ontop.queryLogging.extractQueryTemplate";
     String QUERY_LOGGING_DECOMPOSITION = "ontop.queryLogging.decomposition";
     String QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE = "ontop.queryLogging.decompositionAndMergingMutuallyExclusive";
+    String QUERY_LOGGING_FILE = "ontop.queryLogging.file";
+    String QUERY_LOGGING_FILE_MAX_SIZE = "ontop.queryLogging.file.maxSizeInMB";
+    String QUERY_LOGGING_FILE_MAX_BACKUPS = "ontop.queryLogging.file.maxBackups";
+    String QUERY_LOGGING_BUFFER_SIZE = "ontop.queryLogging.bufferSize";
+    String QUERY_LOGGING_BATCH_SIZE = "ontop.queryLogging.batchSize";
+    String QUERY_LOGGING_FULL_BUFFER_POLICY = "ontop.queryLogging.fullBufferPolicy";
+
+    String QUERY_METRICS_JMX = "ontop.queryMetrics.jmx";
 
     String INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE = "ontop.includeFixedObjectPositionInDescribe";
+    String DESCRIBE_BATCH_SIZE = "ontop.describe.batchSize";
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implements OntopReformulationSettings {
@@ -45,6 +46,16 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
 
+    @Override
+    public int getDistinctPostProcessingMaxMemoryInMB() {
+        return getRequiredInteger(DISTINCT_RESULTSET_MAX_MEMORY);
+    }
+
+    @Override
+    public boolean isDistinctPostProcessingSpillEnabled() {
+        return getRequiredBoolean(DISTINCT_RESULTSET_SPILL);
+    }
+
     @Override
     public boolean isPostProcessingAvoided() {
         return getRequiredBoolean(AVOID_POST_PROCESSING);
@@ -95,21 +106,66 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredBoolean(QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE);
     }
 
+    @Override
+    public Optional<String> getQueryLogFile() {
+        return getProperty(QUERY_LOGGING_FILE);
+    }
+
+    @Override
+    public int getQueryLogFileMaxSizeInMB() {
+        return getRequiredInteger(QUERY_LOGGING_FILE_MAX_SIZE);
+    }
+
+    @Override
+    public int getQueryLogFileMaxBackups() {
+        return getRequiredInteger(QUERY_LOGGING_FILE_MAX_BACKUPS);
+    }
+
+    @Override
+    public int getQueryLogBufferSize() {
+        return getRequiredInteger(QUERY_LOGGING_BUFFER_SIZE);
+    }
+
+    @Override
+    public int getQueryLogBatchSize() {
+        return getRequiredInteger(QUERY_LOGGING_BATCH_SIZE);
+    }
+
+    @Override
+    public String getQueryLogFullBufferPolicy() {
+        return getRequiredProperty(QUERY_LOGGING_FULL_BUFFER_POLICY);
+    }
+
     @Override
     public boolean isFixedObjectIncludedInDescribe() {
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
     }
 
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
     @Override
     public long getQueryCacheMaxSize() {
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isParameterizedQueryCacheEnabled() {
+        return getRequiredBoolean(PARAMETERIZED_QUERY_CACHE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
     }
 
+    @Override
+    public boolean isQueryMetricsJMXEnabled() {
+        return getRequiredBoolean(QUERY_METRICS_JMX);
+    }
+
     @Override
     public synchronized ImmutableSet<String> getHttpHeaderNamesToLog() {
         if (httpHeaderNamesToLog == null) {
@@ -2,7 +2,9 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
 import it.unibz.inf.ontop.answering.reformulation.generation.PostProcessingProjectionSplitter;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
@@ -29,6 +31,8 @@ public class OntopTranslationModule extends OntopAbstractModule {
         bindFromSettings(InputQueryFactory.class);
         bindFromSettings(PostProcessingProjectionSplitter.class);
         bindFromSettings(OntopViewUnfolder.class);
+        bindFromSettings(QueryLogSink.class);
+        bindFromSettings(QueryMetrics.class);
 
         Module queryLoggingModule = buildFactory(ImmutableList.of(QueryLogger.class), QueryLogger.Factory.class);
         install(queryLoggingModule);
@@ -150,6 +150,7 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     }
 
     private NativeNode generateNativeNode(IQTree normalizedSubTree) {
-        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, false);
+        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, false,
+                settings.isParameterBindingEnabled());
     }
 }
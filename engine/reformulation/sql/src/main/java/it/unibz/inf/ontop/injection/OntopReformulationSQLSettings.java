@@ -3,4 +3,15 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * If true, the string constants of the filtering conditions are passed as bind parameters
+     * instead of being inlined into the SQL query string.
+     */
+    boolean isParameterBindingEnabled();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String BIND_PARAMETERS = "ontop.sql.bindParameters";
 }
@@ -27,6 +27,11 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
         return loadDefaultPropertiesFromFile(OntopReformulationSQLSettings.class, DEFAULT_FILE);
     }
 
+    @Override
+    public boolean isParameterBindingEnabled() {
+        return getRequiredBoolean(BIND_PARAMETERS);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
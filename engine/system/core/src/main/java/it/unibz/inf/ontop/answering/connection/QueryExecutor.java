@@ -0,0 +1,20 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes the queries of the Ontop statements.
+ *
+ * Shared by all the connections. Responsible for the admission control (e.g. maximum number of concurrent queries).
+ *
+ * The query is cancelled by cancelling its future with interruption.
+ */
+public interface QueryExecutor {
+
+    /**
+     * Throws a RejectedExecutionException if the query is not admitted.
+     */
+    <T> Future<T> submit(Callable<T> queryExecution) throws RejectedExecutionException;
+}
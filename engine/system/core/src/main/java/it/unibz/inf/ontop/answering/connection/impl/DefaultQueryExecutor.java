@@ -0,0 +1,171 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded number of concurrent queries, with a bounded queue for the queries waiting for being executed.
+ *
+ * By default, the queries are executed by a pool of platform threads, which are released after one minute of inactivity.
+ * On JDK 21+, each query can instead be executed in its own virtual thread.
+ *
+ * When the queue is full, the query is either rejected or executed by the thread of the caller,
+ * depending on the rejection policy.
+ */
+@Singleton
+public class DefaultQueryExecutor implements QueryExecutor {
+
+    private static final String POOL_TYPE = "pool";
+    private static final String VIRTUAL_TYPE = "virtual";
+    private static final String ABORT_POLICY = "abort";
+    private static final String CALLER_RUNS_POLICY = "caller-runs";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultQueryExecutor.class);
+
+    private final Executor executor;
+    private final boolean callerRunsWhenRejected;
+    private final QueryMetrics queryMetrics;
+
+    @Inject
+    private DefaultQueryExecutor(OntopSystemSettings settings, QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+        int maxConcurrentQueries = settings.getMaxConcurrentQueries();
+        int queueSize = settings.getQueryQueueSize();
+        if (maxConcurrentQueries <= 0)
+            throw new InvalidOntopConfigurationException(OntopSystemSettings.MAX_CONCURRENT_QUERIES
+                    + " must be positive");
+        if (queueSize < 0)
+            throw new InvalidOntopConfigurationException(OntopSystemSettings.QUERY_QUEUE_SIZE
+                    + " must not be negative");
+
+        String rejectionPolicy = settings.getQueryRejectionPolicy();
+        switch (rejectionPolicy) {
+            case ABORT_POLICY:
+                this.callerRunsWhenRejected = false;
+                break;
+            case CALLER_RUNS_POLICY:
+                this.callerRunsWhenRejected = true;
+                break;
+            default:
+                throw new InvalidOntopConfigurationException("Unknown query rejection policy: " + rejectionPolicy
+                        + ". Expected: " + ABORT_POLICY + " or " + CALLER_RUNS_POLICY);
+        }
+
+        String executorType = settings.getQueryExecutorType();
+        switch (executorType) {
+            case POOL_TYPE:
+                this.executor = createThreadPool(maxConcurrentQueries, queueSize);
+                break;
+            case VIRTUAL_TYPE:
+                this.executor = createVirtualThreadExecutor(maxConcurrentQueries, queueSize);
+                break;
+            default:
+                throw new InvalidOntopConfigurationException("Unknown query executor: " + executorType
+                        + ". Expected: " + POOL_TYPE + " or " + VIRTUAL_TYPE);
+        }
+    }
+
+    private static Executor createThreadPool(int maxConcurrentQueries, int queueSize) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxConcurrentQueries, maxConcurrentQueries,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "ontop-query-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
+    /**
+     * Falls back to the thread pool if virtual threads are not available
+     */
+    private static Executor createVirtualThreadExecutor(int maxConcurrentQueries, int queueSize) {
+        ExecutorService virtualThreadExecutor;
+        try {
+            virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads are not available (JDK 21+ required). Using a thread pool instead.");
+            return createThreadPool(maxConcurrentQueries, queueSize);
+        }
+        return new BoundedExecutor(virtualThreadExecutor, maxConcurrentQueries, queueSize);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> queryExecution) throws RejectedExecutionException {
+        FutureTask<T> task = new FutureTask<>(() -> {
+            queryMetrics.declareQueryStarted();
+            try {
+                return queryExecution.call();
+            } finally {
+                queryMetrics.declareQueryFinished();
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (!callerRunsWhenRejected)
+                throw new RejectedExecutionException("Too many queries are already being executed or waiting");
+
+            task.run();
+            // The interruption caused by a cancellation is not meant for the caller
+            if (task.isCancelled())
+                Thread.interrupted();
+        }
+        return task;
+    }
+
+    /**
+     * Admission control for executors that do not bound the number of tasks by themselves
+     */
+    private static class BoundedExecutor implements Executor {
+        private final Executor executor;
+        private final Semaphore executionPermits;
+        private final Semaphore admissionPermits;
+
+        private BoundedExecutor(Executor executor, int maxConcurrentTasks, int queueSize) {
+            this.executor = executor;
+            this.executionPermits = new Semaphore(maxConcurrentTasks, true);
+            this.admissionPermits = new Semaphore(maxConcurrentTasks + queueSize);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (!admissionPermits.tryAcquire())
+                throw new RejectedExecutionException();
+            try {
+                executor.execute(() -> {
+                    try {
+                        executionPermits.acquire();
+                        try {
+                            command.run();
+                        } finally {
+                            executionPermits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        admissionPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admissionPermits.release();
+                throw e;
+            }
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package it.unibz.inf.ontop.answering.connection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.*;
 import it.unibz.inf.ontop.answering.resultset.impl.DefaultDescribeGraphResultSet;
 import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
+
+import java.util.concurrent.*;
 
 
 /**
@@ -23,90 +28,24 @@ public abstract class QuestStatement implements OntopStatement {
 
 	private final QueryReformulator engine;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final QueryExecutor queryExecutor;
+	private final int maxParallelUnionBranches;
 
-	private QueryExecutionThread executionThread;
-	private boolean canceled = false;
+	// Execution of the last submitted query (null if none). Never reset: a cancelled execution may still be running.
+	private volatile Execution currentExecution;
+	// Execution evaluated by the current thread of the query executor
+	private final ThreadLocal<Execution> evaluatedExecution = new ThreadLocal<>();
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor) {
+	public QuestStatement(QueryReformulator queryProcessor, QueryExecutor queryExecutor,
+						  OntopSystemSettings settings) {
 		this.engine = queryProcessor;
 		this.queryLoggerFactory = queryProcessor.getQueryLoggerFactory();
-	}
-
-	/**
-	 * Execution thread
-	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> extends Thread {
-
-		private final Q inputQuery;
-		private final QueryLogger queryLogger;
-		private final Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
-
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
-
-		QueryExecutionThread(Q inputQuery, QueryLogger queryLogger, Evaluator<R,Q> evaluator,
-						CountDownLatch monitor) {
-			this.inputQuery = inputQuery;
-			this.queryLogger = queryLogger;
-			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
-		}
-
-		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
-			try {
-				/*
-				 * Executes the target query.
-				 */
-				executingTargetQuery = true;
-				resultSet = evaluator.evaluate(inputQuery, queryLogger);
-				// NB: finished if the result set is blocking!
-				log.debug("Result set unblocked.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
-			} catch (Exception e) {
-				exception = e;
-				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
-			}
-		}
+		this.queryExecutor = queryExecutor;
+		this.maxParallelUnionBranches = settings.getMaxParallelUnionBranches();
 	}
 
 	private TupleResultSet executeSelectQuery(SelectQuery inputQuery, QueryLogger queryLogger)
@@ -117,6 +56,15 @@ public abstract class QuestStatement implements OntopStatement {
 	private TupleResultSet executeSelectQuery(SelectQuery inputQuery, QueryLogger queryLogger,
 											  boolean shouldAlsoCloseStatement)
 			throws OntopQueryEvaluationException, OntopReformulationException {
+		if (maxParallelUnionBranches > 1) {
+			ImmutableList<IQ> executableQueries = engine.reformulateIntoUnionBranchNativeQueries(inputQuery,
+					maxParallelUnionBranches, queryLogger);
+			logExecutionStartingMessage();
+			return executableQueries.size() == 1
+					? executeSelectQuery(executableQueries.get(0), queryLogger, shouldAlsoCloseStatement)
+					: executeUnionBranchQueries(executableQueries, queryLogger, shouldAlsoCloseStatement);
+		}
+
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryLogger);
 		logExecutionStartingMessage();
 		return executeSelectQuery(executableQuery, queryLogger, shouldAlsoCloseStatement);
@@ -132,6 +80,16 @@ public abstract class QuestStatement implements OntopStatement {
 														 boolean shouldAlsoCloseStatement)
 			throws OntopQueryEvaluationException;
 
+	/**
+	 * Executes concurrently the executable queries of the branches of a union and merges their results.
+	 *
+	 * See QueryReformulator.reformulateIntoUnionBranchNativeQueries()
+	 */
+	protected abstract TupleResultSet executeUnionBranchQueries(ImmutableList<IQ> executableQueries,
+																QueryLogger queryLogger,
+																boolean shouldAlsoCloseStatement)
+			throws OntopQueryEvaluationException;
+
 	private BooleanResultSet executeBooleanQuery(AskQuery inputQuery, QueryLogger queryLogger)
 			throws OntopQueryEvaluationException, OntopReformulationException {
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryLogger);
@@ -211,7 +169,7 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
+	 * Internal method to execute the query with the query executor. Type defines the
 	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
 	 */
 	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
@@ -221,57 +179,111 @@ public abstract class QuestStatement implements OntopStatement {
 
 		queryLogger.setSparqlQuery(inputQuery.getInputString());
 
-		CountDownLatch monitor = new CountDownLatch(1);
-
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, queryLogger, evaluator,
-				monitor);
+		Execution execution = new Execution();
+		// Before submitting: with the caller-runs policy, the query is evaluated within submit(...)
+		this.currentExecution = execution;
+		Future<R> future;
+		try {
+			future = queryExecutor.submit(() -> evaluate(inputQuery, queryLogger, evaluator, execution));
+		} catch (RejectedExecutionException e) {
+			queryLogger.declareEvaluationException(e);
+			throw new OntopQueryEvaluationException(e.getMessage(), e);
+		}
+		execution.setFuture(future);
 
-		this.executionThread = executionthread;
-		executionthread.start();
 		try {
-			monitor.await();
+			return future.get();
+		} catch (CancellationException e) {
+			throw new OntopQueryEvaluationException("Query execution was cancelled");
 		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
+			// The caller is not waiting anymore
+			cancelQuietly(execution);
+			Thread.currentThread().interrupt();
+			throw new OntopQueryEvaluationException("Interrupted while waiting for the query results", e);
+		} catch (ExecutionException e) {
+			Throwable ex = e.getCause();
+			log.error(ex.getMessage(), ex);
 			if (ex instanceof OntopReformulationException) {
 				throw (OntopReformulationException) ex;
 			}
 			else if (ex instanceof OntopQueryEvaluationException) {
-				queryLogger.declareEvaluationException(ex);
+				queryLogger.declareEvaluationException((Exception) ex);
 				throw (OntopQueryEvaluationException) ex;
 			}
-			else {
-				queryLogger.declareEvaluationException(ex);
-				throw new OntopQueryEvaluationException(ex);
+			else if (ex instanceof Exception) {
+				queryLogger.declareEvaluationException((Exception) ex);
+				throw new OntopQueryEvaluationException((Exception) ex);
 			}
+			else
+				throw (Error) ex;
 		}
+	}
 
-		if (canceled) {
-			canceled = false;
-			throw new OntopQueryEvaluationException("Query execution was cancelled");
+	/**
+	 * Run by the query executor.
+	 *
+	 * Only relies on the cancellation state of its own execution, as the statement may have been
+	 * reused for another query in the meantime.
+	 */
+	private <R extends OBDAResultSet, Q extends InputQuery<R>> R evaluate(Q inputQuery, QueryLogger queryLogger,
+																		  Evaluator<R, Q> evaluator,
+																		  Execution execution) throws Exception {
+		if (execution.isCanceled() || Thread.currentThread().isInterrupted())
+			throw new CancellationException();
+
+		evaluatedExecution.set(execution);
+		R resultSet;
+		try {
+			resultSet = evaluator.evaluate(inputQuery, queryLogger);
+		} finally {
+			evaluatedExecution.remove();
+		}
+		// NB: finished if the result set is blocking!
+		log.debug("Result set unblocked.\n");
+
+		// Nobody is going to consume the result set
+		if (execution.isCanceled()) {
+			resultSet.close();
+			throw new CancellationException();
 		}
-		R resultSet = executionthread.getResultSet();
 		return resultSet;
 	}
 
-
+	/**
+	 * Cooperative: interrupts the thread executing the query and cancels the query running on the DB.
+	 */
 	@Override
 	public void cancel() throws OntopConnectionException {
-		canceled = true;
+		Execution execution = currentExecution;
+		if (execution != null)
+			execution.cancel();
 		try {
-			QuestStatement.this.executionThread.cancel();
-		} catch (Exception e) {
+			cancelExecution();
+		} catch (OntopQueryEvaluationException e) {
 			throw new OntopConnectionException(e);
 		}
 	}
 
+	private void cancelQuietly(Execution execution) {
+		execution.cancel();
+		try {
+			cancelExecution();
+		} catch (OntopQueryEvaluationException e) {
+			log.warn("Could not cancel the query execution: " + e.getMessage());
+		}
+	}
+
 	/**
-	 * Called to check whether the statement was cancelled on purpose
+	 * Called to check whether the statement was cancelled on purpose.
+	 *
+	 * From a thread of the query executor, refers to the execution evaluated by this thread.
+	 * Otherwise, refers to the last submitted execution.
 	 */
 	public boolean isCanceled(){
-		return canceled;
+		Execution execution = evaluatedExecution.get();
+		if (execution == null)
+			execution = currentExecution;
+		return execution != null && execution.isCanceled();
 	}
 
 	@Override
@@ -284,4 +296,31 @@ public abstract class QuestStatement implements OntopStatement {
 		return engine.reformulateIntoNativeQuery(inputQuery, queryLoggerFactory.create(ImmutableMultimap.of()));
 	}
 
+	/**
+	 * Cancellation state of one submission to the query executor
+	 */
+	private static class Execution {
+		private volatile boolean canceled = false;
+		@Nullable
+		private volatile Future<?> future;
+
+		void setFuture(Future<?> future) {
+			this.future = future;
+			// Cancelled before the future was known
+			if (canceled)
+				future.cancel(true);
+		}
+
+		void cancel() {
+			canceled = true;
+			Future<?> f = future;
+			if (f != null)
+				f.cancel(true);
+		}
+
+		boolean isCanceled() {
+			Future<?> f = future;
+			return canceled || (f != null && f.isCancelled());
+		}
+	}
 }
@@ -45,4 +45,13 @@ public interface MaterializedGraphResultSet extends GraphResultSet {
      * NB: It is possible that for some predicate/classes, no RDF triple is produced (empty answer)
      */
     ImmutableSet<IRI> getSelectedVocabulary();
+
+    /**
+     * Records in the checkpoint file (if any) the RDF properties/classes whose facts have all been consumed
+     * since the last call.
+     *
+     * To be called by the consumer once these facts have been durably written (e.g. after flushing and closing
+     * the output). Nothing is recorded otherwise, so that a resumed materialization does not skip them.
+     */
+    void commitCheckpoint();
 }
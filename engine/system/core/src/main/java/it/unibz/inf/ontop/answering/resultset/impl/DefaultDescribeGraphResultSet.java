@@ -29,6 +29,9 @@ public class DefaultDescribeGraphResultSet implements GraphResultSet {
             throws OntopQueryEvaluationException, OntopConnectionException, OntopReformulationException,
             OntopResultConversionException {
 
+        // The resources are fetched beforehand: the construct queries are evaluated by the same statement,
+        // which would close the result set of the SELECT query.
+        // The construct queries (one per batch of resources) are only reformulated when reached by the iterator.
         ImmutableSet<IRI> resourcesToDescribe = extractDescribeResources(describeQuery, queryLogger, queryLoggerFactory,
                 selectQueryEvaluator);
 
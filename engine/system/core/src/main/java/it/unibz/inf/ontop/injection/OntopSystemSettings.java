@@ -21,6 +21,38 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
     // HTTP Caching
     Optional<String> getHttpCacheControl();
 
+    // Query execution
+
+    /**
+     * "pool" (bounded pool of platform threads) or "virtual" (one virtual thread per query, requires JDK 21+)
+     */
+    String getQueryExecutorType();
+
+    /**
+     * Maximum number of queries executed at the same time
+     */
+    int getMaxConcurrentQueries();
+
+    /**
+     * Maximum number of queries waiting for being executed
+     */
+    int getQueryQueueSize();
+
+    /**
+     * Applied to the queries arriving when the queue is full:
+     * "abort" (the query fails) or "caller-runs" (the query is executed in the thread of the caller)
+     */
+    String getQueryRejectionPolicy();
+
+    /**
+     * Maximum number of native queries into which a SELECT query whose top-level operator is a union is split.
+     * These queries are executed concurrently and their results are merged. The first one runs on the connection
+     * of the statement, the others on pooled connections when available (see ontop.query.maxUnionBranchConnections).
+     *
+     * Disabled if lower than or equal to 1.
+     */
+    int getMaxParallelUnionBranches();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -28,6 +60,13 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
     String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
 
+    // Query execution
+    String QUERY_EXECUTOR_TYPE = "ontop.query.executor";
+    String MAX_CONCURRENT_QUERIES = "ontop.query.maxConcurrentQueries";
+    String QUERY_QUEUE_SIZE = "ontop.query.queueSize";
+    String QUERY_REJECTION_POLICY = "ontop.query.rejectionPolicy";
+    String MAX_PARALLEL_UNION_BRANCHES = "ontop.query.maxParallelUnionBranches";
+
     // HTTP caching
     String HTTP_CACHE_CONTROL = "ontop.http.cacheControl";
     @Deprecated
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 
 public class OntopSystemPostModule  extends OntopAbstractModule {
 
@@ -18,6 +19,7 @@ public class OntopSystemPostModule  extends OntopAbstractModule {
     @Override
     protected void configure() {
         bindFromSettings(HTTPCacheHeaders.class);
+        bindFromSettings(QueryExecutor.class);
 
         Module engineFactoryModule = buildFactory(ImmutableList.of(
                 OntopQueryEngine.class,
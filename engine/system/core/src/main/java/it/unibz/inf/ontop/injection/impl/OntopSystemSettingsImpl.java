@@ -53,4 +53,29 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return Optional.of(cacheControl)
                 .filter(s -> !s.isEmpty());
     }
+
+    @Override
+    public String getQueryExecutorType() {
+        return getRequiredProperty(QUERY_EXECUTOR_TYPE);
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return getRequiredInteger(MAX_CONCURRENT_QUERIES);
+    }
+
+    @Override
+    public int getQueryQueueSize() {
+        return getRequiredInteger(QUERY_QUEUE_SIZE);
+    }
+
+    @Override
+    public String getQueryRejectionPolicy() {
+        return getRequiredProperty(QUERY_REJECTION_POLICY);
+    }
+
+    @Override
+    public int getMaxParallelUnionBranches() {
+        return getRequiredInteger(MAX_PARALLEL_UNION_BRANCHES);
+    }
 }
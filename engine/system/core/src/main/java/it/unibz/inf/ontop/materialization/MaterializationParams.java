@@ -2,6 +2,9 @@ package it.unibz.inf.ontop.materialization;
 
 import it.unibz.inf.ontop.materialization.impl.MaterializationParamsImpl;
 
+import java.io.File;
+import java.util.Optional;
+
 /**
  * Materialization-specific parameters
  */
@@ -16,6 +19,46 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of connections used for materializing several RDF properties/classes concurrently.
+     * Should not exceed the size of the JDBC connection pool.
+     *
+     * 1 by default (sequential materialization).
+     */
+    int getWorkerCount();
+
+    /**
+     * Maximum number of RDF facts produced by the workers and not consumed yet.
+     * Only relevant when there are several workers.
+     */
+    int getQueueCapacity();
+
+    /**
+     * File recording the RDF properties/classes whose facts have all been consumed (one IRI per line).
+     *
+     * The ones already recorded are skipped, so that a failed materialization can be resumed.
+     * They are only recorded when the consumer calls MaterializedGraphResultSet.commitCheckpoint().
+     */
+    Optional<File> getCheckpointFile();
+
+    /**
+     * Number of sub-queries into which the query of a RDF property/class is split, based on an integer key
+     * of one of its source relations. The sub-queries are materialized concurrently by the workers
+     * and recorded separately in the checkpoint.
+     *
+     * Only relevant when there are several workers. The DB must support the MOD function.
+     * 1 by default (no partitioning).
+     */
+    int getPartitionCount();
+
+    /**
+     * Number of times a sub-query (see getPartitionCount()) is re-executed when it fails
+     * before having produced any fact.
+     *
+     * 0 by default.
+     */
+    int getMaxPartitionRetries();
+
 
     static Builder defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder<>();
@@ -26,6 +69,16 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B workerCount(int workerCount);
+
+        B queueCapacity(int queueCapacity);
+
+        B checkpointFile(File checkpointFile);
+
+        B partitionCount(int partitionCount);
+
+        B maxPartitionRetries(int maxPartitionRetries);
+
         MaterializationParams build();
 
     }
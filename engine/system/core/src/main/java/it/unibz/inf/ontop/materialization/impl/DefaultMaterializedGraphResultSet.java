@@ -35,6 +35,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
     private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
     private final InputQueryFactory inputQueryFactory;
     private final boolean canBeIncomplete;
+    private final MaterializationCheckpoint checkpoint;
 
     private final OntopQueryEngine queryEngine;
     private final UnmodifiableIterator<VocabularyEntry> vocabularyIterator;
@@ -50,12 +51,16 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
     private Logger LOGGER = LoggerFactory.getLogger(DefaultMaterializedGraphResultSet.class);
     private final List<IRI> possiblyIncompleteClassesAndProperties;
     private VocabularyEntry lastSeenPredicate;
+    // Predicate of the current result set (null if none)
+    @Nullable
+    private VocabularyEntry currentPredicate;
     private IRIConstant lastSeenPredicateIRI;
 
     private final IRIConstant rdfTypeIRI;
 
 
     DefaultMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                      MaterializationCheckpoint checkpoint,
                                       OntopQueryEngine queryEngine,
                                       InputQueryFactory inputQueryFactory,
                                       TermFactory termFactory,
@@ -67,6 +72,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
 
         this.queryEngine = queryEngine;
         this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.checkpoint = checkpoint;
         this.inputQueryFactory = inputQueryFactory;
         this.possiblyIncompleteClassesAndProperties = new ArrayList<>();
 
@@ -78,6 +84,12 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
         ontopConnection = null;
         tmpStatement = null;
         tmpContextResultSet = null;
+        currentPredicate = null;
+    }
+
+    @Override
+    public void commitCheckpoint() {
+        checkpoint.commit();
     }
 
     @Override
@@ -96,6 +108,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
         }
 
         // Davide> If there is no next, we need to go to the next vocabulary predicate
+        markCurrentPredicateAsCompleted();
 
         while (vocabularyIterator.hasNext()) {
             /*
@@ -128,6 +141,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
             try {
                 tmpStatement = ontopConnection.createStatement();
                 tmpContextResultSet = tmpStatement.execute(query);
+                currentPredicate = predicate;
 
                 if (tmpContextResultSet.hasNext()) {
                     lastSeenPredicate = predicate;
@@ -136,6 +150,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
                     return true;
                 }
             } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+                currentPredicate = null;
                 if (canBeIncomplete) {
                     LOGGER.warn("Possibly incomplete class/property " + predicate + " (materialization problem).\n"
                             + "Details: " + e);
@@ -145,11 +160,22 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
                     throw e;
                 }
             }
+            markCurrentPredicateAsCompleted();
         }
 
         return false;
     }
 
+    /**
+     * All the facts of the current predicate have been consumed
+     */
+    private void markCurrentPredicateAsCompleted() {
+        if (currentPredicate != null) {
+            checkpoint.markAsCompleted(currentPredicate.name);
+            currentPredicate = null;
+        }
+    }
+
     /**
      * Builds (named) assertions out of (quad) results
      */
@@ -57,12 +57,28 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
     @Override
     public MaterializedGraphResultSet materialize() {
-        return new DefaultMaterializedGraphResultSet(vocabulary, params, queryEngine, inputQueryFactory, termFactory, rdfFactory);
+        return createResultSet(vocabulary);
     }
 
     @Override
     public MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary) {
-        return new DefaultMaterializedGraphResultSet(filterVocabularyEntries(selectedVocabulary), params, queryEngine, inputQueryFactory, termFactory, rdfFactory);
+        return createResultSet(filterVocabularyEntries(selectedVocabulary));
+    }
+
+    /**
+     * Skips the predicates already completed according to the checkpoint
+     */
+    private MaterializedGraphResultSet createResultSet(ImmutableMap<IRI, VocabularyEntry> selectedVocabulary) {
+        MaterializationCheckpoint checkpoint = new MaterializationCheckpoint(params.getCheckpointFile());
+        ImmutableMap<IRI, VocabularyEntry> remainingVocabulary = selectedVocabulary.entrySet().stream()
+                .filter(e -> !checkpoint.isCompleted(e.getKey()))
+                .collect(ImmutableCollectors.toMap());
+
+        return params.getWorkerCount() > 1
+                ? new ParallelMaterializedGraphResultSet(remainingVocabulary, params, checkpoint, queryEngine,
+                        inputQueryFactory, termFactory)
+                : new DefaultMaterializedGraphResultSet(remainingVocabulary, params, checkpoint, queryEngine,
+                        inputQueryFactory, termFactory, rdfFactory);
     }
 
     private ImmutableMap<IRI, VocabularyEntry> filterVocabularyEntries(ImmutableSet<IRI> selectedVocabulary) {
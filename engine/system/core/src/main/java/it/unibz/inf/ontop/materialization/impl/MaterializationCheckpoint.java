@@ -0,0 +1,122 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * RDF properties/classes that have been completely materialized, persisted in a file (one IRI per line).
+ * Completed partitions of a RDF property/class are recorded as "IRI index/count".
+ *
+ * Several materializations (e.g. one per RDF property/class) can share the same file.
+ *
+ * Completions are only written to the file by commit(), which the consumer calls once the corresponding facts
+ * have been durably written. Otherwise, a resumed materialization could skip facts that were never written.
+ */
+class MaterializationCheckpoint {
+
+    // Shared by all the checkpoints, in case they use the same file
+    private static final Object LOCK = new Object();
+
+    private final Optional<File> file;
+    private final ImmutableSet<String> completedIRIs;
+    // Completed but not committed yet
+    private final List<String> pendingEntries;
+
+    MaterializationCheckpoint(Optional<File> file) {
+        this.file = file;
+        this.completedIRIs = file
+                .filter(File::exists)
+                .map(MaterializationCheckpoint::load)
+                .orElseGet(ImmutableSet::of);
+        this.pendingEntries = new ArrayList<>();
+    }
+
+    private static ImmutableSet<String> load(File file) {
+        synchronized (LOCK) {
+            try (Stream<String> lines = Files.lines(file.toPath(), StandardCharsets.UTF_8)) {
+                return lines
+                        .map(String::trim)
+                        .filter(l -> !l.isEmpty())
+                        .collect(ImmutableCollectors.toSet());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the materialization checkpoint " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Completed when the checkpoint was loaded
+     */
+    boolean isCompleted(IRI predicate) {
+        return completedIRIs.contains(predicate.getIRIString());
+    }
+
+    /**
+     * Completed when the checkpoint was loaded. Only valid for the same number of partitions.
+     */
+    boolean isPartitionCompleted(IRI predicate, int index, int partitionCount) {
+        return completedIRIs.contains(getPartitionEntry(predicate, index, partitionCount));
+    }
+
+    /**
+     * To be called once all the facts of the RDF property/class have been consumed. Recorded by commit().
+     */
+    void markAsCompleted(IRI predicate) {
+        addPendingEntry(predicate.getIRIString());
+    }
+
+    /**
+     * To be called once all the facts of the partition have been consumed. Recorded by commit().
+     */
+    void markPartitionAsCompleted(IRI predicate, int index, int partitionCount) {
+        addPendingEntry(getPartitionEntry(predicate, index, partitionCount));
+    }
+
+    private void addPendingEntry(String entry) {
+        synchronized (pendingEntries) {
+            pendingEntries.add(entry);
+        }
+    }
+
+    /**
+     * Records the RDF properties/classes (and partitions) completed since the last commit
+     */
+    void commit() {
+        ImmutableList<String> entries;
+        synchronized (pendingEntries) {
+            entries = ImmutableList.copyOf(pendingEntries);
+            pendingEntries.clear();
+        }
+        if (!entries.isEmpty())
+            append(entries);
+    }
+
+    private static String getPartitionEntry(IRI predicate, int index, int partitionCount) {
+        // IRIs cannot contain spaces
+        return predicate.getIRIString() + " " + index + "/" + partitionCount;
+    }
+
+    private void append(ImmutableList<String> entries) {
+        if (!file.isPresent())
+            return;
+
+        synchronized (LOCK) {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file.get(), true), StandardCharsets.UTF_8)) {
+                for (String entry : entries)
+                    writer.write(entry + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot update the materialization checkpoint " + file.get(), e);
+            }
+        }
+    }
+}
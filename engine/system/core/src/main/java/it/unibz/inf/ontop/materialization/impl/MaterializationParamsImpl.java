@@ -1,13 +1,29 @@
 package it.unibz.inf.ontop.materialization.impl;
 
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Optional;
+
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableIncompleteMaterialization;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final Optional<File> checkpointFile;
+    private final int partitionCount;
+    private final int maxPartitionRetries;
 
-    private MaterializationParamsImpl(boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableIncompleteMaterialization, int workerCount, int queueCapacity,
+                                      Optional<File> checkpointFile, int partitionCount, int maxPartitionRetries) {
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.checkpointFile = checkpointFile;
+        this.partitionCount = partitionCount;
+        this.maxPartitionRetries = maxPartitionRetries;
     }
 
 
@@ -16,14 +32,52 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public Optional<File> getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    @Override
+    public int getMaxPartitionRetries() {
+        return maxPartitionRetries;
+    }
+
 
     public static class DefaultBuilder<B extends Builder<B>> implements Builder<B> {
 
+        private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
         private final B builder;
         private boolean canMaterializationBeIncomplete;
+        private int workerCount;
+        private int queueCapacity;
+        @Nullable
+        private File checkpointFile;
+        private int partitionCount;
+        private int maxPartitionRetries;
 
         public DefaultBuilder() {
             this.canMaterializationBeIncomplete = false;
+            this.workerCount = 1;
+            this.queueCapacity = DEFAULT_QUEUE_CAPACITY;
+            this.checkpointFile = null;
+            this.partitionCount = 1;
+            this.maxPartitionRetries = 0;
             this.builder = (B) this;
         }
 
@@ -33,9 +87,48 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return builder;
         }
 
+        @Override
+        public B workerCount(int workerCount) {
+            if (workerCount < 1)
+                throw new InvalidOntopConfigurationException("The number of workers must be positive");
+            this.workerCount = workerCount;
+            return builder;
+        }
+
+        @Override
+        public B queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1)
+                throw new InvalidOntopConfigurationException("The queue capacity must be positive");
+            this.queueCapacity = queueCapacity;
+            return builder;
+        }
+
+        @Override
+        public B checkpointFile(File checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return builder;
+        }
+
+        @Override
+        public B partitionCount(int partitionCount) {
+            if (partitionCount < 1)
+                throw new InvalidOntopConfigurationException("The number of partitions must be positive");
+            this.partitionCount = partitionCount;
+            return builder;
+        }
+
+        @Override
+        public B maxPartitionRetries(int maxPartitionRetries) {
+            if (maxPartitionRetries < 0)
+                throw new InvalidOntopConfigurationException("The number of retries must not be negative");
+            this.maxPartitionRetries = maxPartitionRetries;
+            return builder;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(canMaterializationBeIncomplete, workerCount, queueCapacity,
+                    Optional.ofNullable(checkpointFile), partitionCount, maxPartitionRetries);
         }
     }
 
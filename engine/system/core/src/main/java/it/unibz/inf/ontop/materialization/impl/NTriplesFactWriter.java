@@ -0,0 +1,300 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serializes RDF facts in N-Triples or N-Quads directly into a byte channel,
+ * without going through intermediate RDF model objects nor strings.
+ *
+ * Characters are escaped and encoded in UTF-8 straight into a reused buffer.
+ * The serialized IRIs of the properties, classes and datatypes (small vocabulary) are cached.
+ *
+ * Blank nodes are anonymized with the salt (see BNode.getAnonymizedLabel()).
+ *
+ * Not thread-safe: use one writer per output.
+ */
+public class NTriplesFactWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    // Upper bound on the number of bytes written for a char (escaped or UTF-8)
+    private static final int MAX_CHAR_LENGTH = 10;
+    private static final int MAX_CACHED_IRIS = 4096;
+    private static final String XSD_STRING = XSD.STRING.getIRIString();
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    private final WritableByteChannel channel;
+    private final boolean isQuadFormat;
+    private final byte[] salt;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private final Map<String, byte[]> iriCache;
+
+    public NTriplesFactWriter(WritableByteChannel channel, boolean isQuadFormat, byte[] salt) {
+        this(channel, isQuadFormat, salt, DEFAULT_BUFFER_SIZE);
+    }
+
+    public NTriplesFactWriter(WritableByteChannel channel, boolean isQuadFormat, byte[] salt, int bufferSize) {
+        this.channel = channel;
+        this.isQuadFormat = isQuadFormat;
+        this.salt = salt;
+        this.bytes = new byte[Math.max(bufferSize, MAX_CHAR_LENGTH * 16)];
+        this.buffer = ByteBuffer.wrap(bytes);
+        this.iriCache = new HashMap<>();
+    }
+
+    /**
+     * In the N-Triples format, the graph of the fact is ignored.
+     */
+    public void write(RDFFact fact) throws IOException {
+        writeObjectConstant(fact.getSubject(), false);
+        writeByte(' ');
+        writeIRI(fact.getProperty().getIRI().getIRIString(), true);
+        writeByte(' ');
+        writeRDFConstant(fact.getObject());
+
+        if (isQuadFormat) {
+            Optional<ObjectConstant> graph = fact.getGraph();
+            if (graph.isPresent()) {
+                writeByte(' ');
+                writeObjectConstant(graph.get(), false);
+            }
+        }
+        ensureCapacity(3);
+        buffer.put((byte) ' ');
+        buffer.put((byte) '.');
+        buffer.put((byte) '\n');
+    }
+
+    private void writeRDFConstant(RDFConstant constant) throws IOException {
+        if (constant instanceof RDFLiteralConstant)
+            writeLiteral((RDFLiteralConstant) constant);
+        else
+            // Classes are frequent objects
+            writeObjectConstant((ObjectConstant) constant, true);
+    }
+
+    private void writeObjectConstant(ObjectConstant constant, boolean isCacheable) throws IOException {
+        if (constant instanceof IRIConstant)
+            writeIRI(((IRIConstant) constant).getIRI().getIRIString(), isCacheable);
+        else if (constant instanceof BNode) {
+            writeByte('_');
+            writeByte(':');
+            // Hexadecimal: no escaping needed
+            writeAscii(((BNode) constant).getAnonymizedLabel(salt));
+        }
+        else
+            throw new IllegalArgumentException("Unexpected object constant: " + constant);
+    }
+
+    private void writeIRI(String iri, boolean isCacheable) throws IOException {
+        if (isCacheable) {
+            byte[] cachedIRI = iriCache.get(iri);
+            if (cachedIRI != null) {
+                writeBytes(cachedIRI);
+                return;
+            }
+            int maxLength = (iri.length() + 2) * MAX_CHAR_LENGTH;
+            if (iriCache.size() < MAX_CACHED_IRIS && maxLength <= buffer.capacity()) {
+                // No flush while encoding, so that the encoded IRI can be copied from the buffer
+                ensureCapacity(maxLength);
+                int start = buffer.position();
+                writeDelimitedIRI(iri);
+                iriCache.put(iri, Arrays.copyOfRange(bytes, start, buffer.position()));
+                return;
+            }
+        }
+        writeDelimitedIRI(iri);
+    }
+
+    private void writeDelimitedIRI(String iri) throws IOException {
+        writeByte('<');
+        writeEscaped(iri, true);
+        writeByte('>');
+    }
+
+    private void writeLiteral(RDFLiteralConstant literal) throws IOException {
+        writeByte('"');
+        writeEscaped(literal.getValue(), false);
+        writeByte('"');
+
+        RDFDatatype datatype = literal.getType();
+        Optional<String> languageTag = datatype.getLanguageTag()
+                .map(LanguageTag::getFullString);
+        if (languageTag.isPresent()) {
+            writeByte('@');
+            writeEscaped(languageTag.get(), false);
+        }
+        else {
+            String datatypeIRI = datatype.getIRI().getIRIString();
+            // Simple literals (RDF 1.1)
+            if (!datatypeIRI.equals(XSD_STRING)) {
+                writeByte('^');
+                writeByte('^');
+                writeIRI(datatypeIRI, true);
+            }
+        }
+    }
+
+    /**
+     * Escapes the string according to the N-Triples grammar (IRIREF or STRING_LITERAL_QUOTE)
+     * and encodes it in UTF-8.
+     */
+    private void writeEscaped(String string, boolean isIRI) throws IOException {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < MAX_CHAR_LENGTH)
+                flush();
+
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                if (isIRI ? isForbiddenInIRI(c) : isForbiddenInLiteral(c))
+                    putEscapedAscii(c);
+                else
+                    buffer.put((byte) c);
+            }
+            else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else if (Character.isSurrogate(c))
+                // Lone surrogate: not representable in UTF-8
+                putUnicodeEscape(0xFFFD);
+            else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static boolean isForbiddenInIRI(char c) {
+        switch (c) {
+            case '<':
+            case '>':
+            case '"':
+            case '{':
+            case '}':
+            case '|':
+            case '^':
+            case '`':
+            case '\\':
+                return true;
+            default:
+                return c <= 0x20;
+        }
+    }
+
+    private static boolean isForbiddenInLiteral(char c) {
+        return c == '"' || c == '\\' || c < 0x20 || c == 0x7F;
+    }
+
+    private void putEscapedAscii(char c) {
+        switch (c) {
+            case '"':
+                putEscapedChar('"');
+                break;
+            case '\\':
+                putEscapedChar('\\');
+                break;
+            case '\n':
+                putEscapedChar('n');
+                break;
+            case '\r':
+                putEscapedChar('r');
+                break;
+            case '\t':
+                putEscapedChar('t');
+                break;
+            default:
+                putUnicodeEscape(c);
+        }
+    }
+
+    private void putEscapedChar(char c) {
+        buffer.put((byte) '\\');
+        buffer.put((byte) c);
+    }
+
+    private void putUnicodeEscape(int c) {
+        buffer.put((byte) '\\');
+        buffer.put((byte) 'u');
+        buffer.put(HEX[(c >> 12) & 0xF]);
+        buffer.put(HEX[(c >> 8) & 0xF]);
+        buffer.put(HEX[(c >> 4) & 0xF]);
+        buffer.put(HEX[c & 0xF]);
+    }
+
+    private void writeAscii(String string) throws IOException {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            if (!buffer.hasRemaining())
+                flush();
+            buffer.put((byte) string.charAt(i));
+        }
+    }
+
+    private void writeByte(char c) throws IOException {
+        if (!buffer.hasRemaining())
+            flush();
+        buffer.put((byte) c);
+    }
+
+    private void writeBytes(byte[] array) throws IOException {
+        if (buffer.remaining() < array.length) {
+            flush();
+            if (array.length > buffer.capacity()) {
+                channel.write(ByteBuffer.wrap(array));
+                return;
+            }
+        }
+        buffer.put(array);
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.remaining() < length)
+            flush();
+    }
+
+    /**
+     * Writes the buffered bytes into the channel
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Flushes and closes the channel
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
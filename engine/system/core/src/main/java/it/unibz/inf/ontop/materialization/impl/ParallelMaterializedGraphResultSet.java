@@ -0,0 +1,467 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.OntopCloseableIterator;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Materializes several RDF properties/classes concurrently, each worker having its own connection.
+ *
+ * The facts produced by the workers are merged into a bounded queue, from which they are consumed.
+ * The order of the facts is therefore not deterministic.
+ *
+ * A RDF property/class is considered as completed (see the checkpoint) once all its facts have been consumed
+ * and the consumer has committed the checkpoint.
+ *
+ * When partitioning is enabled, the first worker processing a RDF property/class splits its query
+ * (see QueryReformulator.reformulateIntoPartitionedNativeQueries()) and the partitions are then materialized
+ * as separate tasks, possibly by different workers.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+    private static final long TASK_POLLING_TIMEOUT_MS = 50;
+
+    private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+    private final OntopQueryEngine queryEngine;
+    private final InputQueryFactory inputQueryFactory;
+    private final TermFactory termFactory;
+    private final boolean canBeIncomplete;
+    private final int workerCount;
+    private final MaterializationCheckpoint checkpoint;
+    private final IRIConstant rdfTypeIRI;
+
+    private final int partitionCount;
+    private final int maxPartitionRetries;
+    private final QueryReformulator queryReformulator;
+    private final QueryLogger.Factory queryLoggerFactory;
+
+    private final BlockingQueue<Item> queue;
+    private final BlockingQueue<Task> pendingTasks;
+    // RDF properties/classes that have not been split into partitions yet
+    private final AtomicInteger unsplitPredicateCount;
+    private final List<IRI> possiblyIncompleteClassesAndProperties;
+
+    // Lately initiated
+    @Nullable
+    private ExecutorService workers;
+    private volatile boolean isClosed;
+
+    // Consumer side
+    @Nullable
+    private RDFFact nextFact;
+    private int finishedWorkerCount;
+    private long counter;
+
+    ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                       MaterializationCheckpoint checkpoint, OntopQueryEngine queryEngine,
+                                       InputQueryFactory inputQueryFactory, TermFactory termFactory) {
+        this.vocabulary = vocabulary;
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.termFactory = termFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.partitionCount = params.getPartitionCount();
+        this.maxPartitionRetries = params.getMaxPartitionRetries();
+        // No need for more workers than predicates (or partitions)
+        this.workerCount = Math.max(1, Math.min(params.getWorkerCount(), vocabulary.size() * partitionCount));
+        this.checkpoint = checkpoint;
+        this.rdfTypeIRI = termFactory.getConstantIRI(RDF.TYPE.getIRIString());
+        this.queryReformulator = queryEngine.getQueryReformulator();
+        this.queryLoggerFactory = queryReformulator.getQueryLoggerFactory();
+
+        this.queue = new ArrayBlockingQueue<>(params.getQueueCapacity());
+        this.pendingTasks = vocabulary.values().stream()
+                .map(Task::new)
+                .collect(Collectors.toCollection(LinkedBlockingQueue::new));
+        this.unsplitPredicateCount = new AtomicInteger(partitionCount > 1 ? vocabulary.size() : 0);
+        this.possiblyIncompleteClassesAndProperties = new ArrayList<>();
+
+        this.workers = null;
+        this.isClosed = false;
+        this.nextFact = null;
+        this.finishedWorkerCount = 0;
+        this.counter = 0;
+    }
+
+    @Override
+    public void commitCheckpoint() {
+        checkpoint.commit();
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return vocabulary.keySet();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (workers == null)
+            startWorkers();
+
+        if (nextFact != null)
+            return true;
+
+        while (finishedWorkerCount < workerCount) {
+            Item item = takeItem();
+            if (item.fact != null) {
+                nextFact = item.fact;
+                return true;
+            }
+            else if (item.exception != null)
+                handleFailure(item);
+            else if (item.partition != null)
+                checkpoint.markPartitionAsCompleted(item.predicate.name, item.partition.index,
+                        item.partition.partitionCount);
+            else if (item.predicate != null)
+                checkpoint.markAsCompleted(item.predicate.name);
+            else
+                finishedWorkerCount++;
+        }
+        return false;
+    }
+
+    private void startWorkers() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "ontop-materialization-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++)
+            workers.execute(this::work);
+        // No more tasks
+        workers.shutdown();
+    }
+
+    private Item takeItem() throws OntopConnectionException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OntopConnectionException("Interrupted while waiting for materialized facts", e);
+        }
+    }
+
+    private void handleFailure(Item item) throws OntopQueryAnsweringException, OntopConnectionException {
+        if (canBeIncomplete && item.predicate != null) {
+            LOGGER.warn("Possibly incomplete class/property " + item.predicate + " (materialization problem).\n"
+                    + "Details: " + item.exception);
+            // Several partitions of the same property/class may fail
+            if (!possiblyIncompleteClassesAndProperties.contains(item.predicate.name))
+                possiblyIncompleteClassesAndProperties.add(item.predicate.name);
+            return;
+        }
+
+        LOGGER.error("Problem materializing the class/property " + item.predicate);
+        stopWorkers();
+        Exception e = item.exception;
+        if (e instanceof OntopQueryAnsweringException)
+            throw (OntopQueryAnsweringException) e;
+        if (e instanceof OntopConnectionException)
+            throw (OntopConnectionException) e;
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
+        throw new OntopConnectionException(e);
+    }
+
+    /**
+     * Run by each worker, until there is no more RDF property/class or partition to materialize
+     */
+    private void work() {
+        try {
+            try (OntopConnection connection = queryEngine.getConnection()) {
+                Task task;
+                while ((task = nextTask()) != null) {
+                    try {
+                        if (task.partitionCount == 0)
+                            processPredicate(task.predicate, connection);
+                        else
+                            processPartition(task, connection);
+                    } catch (OntopQueryAnsweringException | OntopConnectionException | RuntimeException e) {
+                        queue.put(Item.failure(task.predicate, e));
+                    }
+                }
+            } catch (OntopConnectionException e) {
+                queue.put(Item.failure(null, e));
+            }
+            queue.put(Item.END);
+        } catch (InterruptedException e) {
+            // Closed: nobody is consuming the facts anymore
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns null when there is no more task.
+     *
+     * Waits as long as some RDF properties/classes may still be split into partitions by other workers.
+     */
+    @Nullable
+    private Task nextTask() throws InterruptedException {
+        while (!isClosed) {
+            Task task = pendingTasks.poll(TASK_POLLING_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (task != null)
+                return task;
+            // The partitions are added before decrementing the counter
+            if (unsplitPredicateCount.get() == 0 && pendingTasks.isEmpty())
+                return null;
+        }
+        return null;
+    }
+
+    private void processPredicate(VocabularyEntry predicate, OntopConnection connection)
+            throws OntopQueryAnsweringException, OntopConnectionException, InterruptedException {
+        if (partitionCount <= 1) {
+            materialize(predicate, connection);
+            queue.put(Item.completed(predicate));
+            return;
+        }
+
+        ImmutableList<IQ> executableQueries;
+        try {
+            executableQueries = queryReformulator.reformulateIntoPartitionedNativeQueries(
+                    inputQueryFactory.createSelectQuery(predicate.getSelectQuery()), partitionCount,
+                    queryLoggerFactory.create(ImmutableMultimap.of()));
+        } finally {
+            unsplitPredicateCount.decrementAndGet();
+        }
+
+        if (executableQueries.size() == 1) {
+            materialize(new Task(predicate, executableQueries.get(0), 0, 1, null), connection);
+            queue.put(Item.completed(predicate));
+            return;
+        }
+
+        int count = executableQueries.size();
+        ImmutableList<Integer> remainingIndexes = IntStream.range(0, count)
+                .filter(i -> !checkpoint.isPartitionCompleted(predicate.name, i, count))
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        if (remainingIndexes.isEmpty()) {
+            queue.put(Item.completed(predicate));
+            return;
+        }
+
+        AtomicInteger remainingPartitionCount = new AtomicInteger(remainingIndexes.size());
+        for (int i : remainingIndexes) {
+            pendingTasks.add(new Task(predicate, executableQueries.get(i), i, count, remainingPartitionCount));
+        }
+    }
+
+    /**
+     * A partition failing before having produced any fact is re-executed (up to maxPartitionRetries times).
+     */
+    private void processPartition(Task partition, OntopConnection connection)
+            throws OntopQueryAnsweringException, OntopConnectionException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                materialize(partition, connection);
+                break;
+            } catch (OntopQueryAnsweringException | OntopConnectionException | RuntimeException e) {
+                if (partition.hasProducedFacts || attempt >= maxPartitionRetries || isClosed)
+                    throw e;
+                LOGGER.warn("Retrying the partition " + partition + " after a failure: " + e);
+            }
+        }
+        queue.put(Item.partitionCompleted(partition));
+        if (partition.remainingPartitionCount.decrementAndGet() == 0)
+            queue.put(Item.completed(partition.predicate));
+    }
+
+    private void materialize(VocabularyEntry predicate, OntopConnection connection)
+            throws OntopQueryAnsweringException, OntopConnectionException, InterruptedException {
+        SelectQuery query = inputQueryFactory.createSelectQuery(predicate.getSelectQuery());
+        IRIConstant predicateIRI = termFactory.getConstantIRI(predicate.getIRIString());
+
+        try (OntopStatement statement = connection.createStatement();
+             TupleResultSet resultSet = statement.execute(query)) {
+            while ((!isClosed) && resultSet.hasNext()) {
+                queue.put(Item.fact(toAssertion(resultSet.next(), predicate, predicateIRI)));
+            }
+        }
+    }
+
+    private void materialize(Task partition, OntopConnection connection)
+            throws OntopQueryAnsweringException, OntopConnectionException, InterruptedException {
+        VocabularyEntry predicate = partition.predicate;
+        IRIConstant predicateIRI = termFactory.getConstantIRI(predicate.getIRIString());
+
+        try (OntopStatement statement = connection.createStatement();
+             TupleResultSet resultSet = statement.executeSelectQuery(partition.executableQuery,
+                     queryLoggerFactory.create(ImmutableMultimap.of()))) {
+            while ((!isClosed) && resultSet.hasNext()) {
+                queue.put(Item.fact(toAssertion(resultSet.next(), predicate, predicateIRI)));
+                partition.hasProducedFacts = true;
+            }
+        }
+    }
+
+    /**
+     * Builds (named) assertions out of (quad) results
+     */
+    private RDFFact toAssertion(OntopBindingSet tuple, VocabularyEntry predicate, IRIConstant predicateIRI)
+            throws OntopResultConversionException {
+        ObjectConstant s = (ObjectConstant) tuple.getConstant("s");
+        IRIConstant p = predicate.isClass() ? rdfTypeIRI : predicateIRI;
+        RDFConstant o = predicate.isClass() ? predicateIRI : tuple.getConstant("o");
+        ObjectConstant g = (ObjectConstant) tuple.getConstant("g");
+
+        return (g == null)
+                ? RDFFact.createTripleFact(s, p, o)
+                : RDFFact.createQuadFact(s, p, o, g);
+    }
+
+    @Override
+    public RDFFact next() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        counter++;
+        RDFFact fact = nextFact;
+        nextFact = null;
+        return fact;
+    }
+
+    @Override
+    public OntopCloseableIterator<RDFFact, OntopConnectionException> iterator() {
+        throw new UnsupportedOperationException("iterator");
+    }
+
+    /**
+     * Stops the workers, which release their connections
+     */
+    @Override
+    public void close() {
+        stopWorkers();
+    }
+
+    private void stopWorkers() {
+        isClosed = true;
+        if (workers != null)
+            workers.shutdownNow();
+        queue.clear();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter;
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+    }
+
+
+    /**
+     * Materialization of a RDF property/class (partitionCount = 0) or of one of its partitions
+     */
+    private static class Task {
+        private final VocabularyEntry predicate;
+        @Nullable
+        private final IQ executableQuery;
+        private final int index;
+        private final int partitionCount;
+        // Shared by the partitions of the same predicate
+        @Nullable
+        private final AtomicInteger remainingPartitionCount;
+        // Only accessed by the worker processing the partition
+        private boolean hasProducedFacts;
+
+        private Task(VocabularyEntry predicate) {
+            this(predicate, null, 0, 0, null);
+        }
+
+        private Task(VocabularyEntry predicate, @Nullable IQ executableQuery, int index, int partitionCount,
+                     @Nullable AtomicInteger remainingPartitionCount) {
+            this.predicate = predicate;
+            this.executableQuery = executableQuery;
+            this.index = index;
+            this.partitionCount = partitionCount;
+            this.remainingPartitionCount = remainingPartitionCount;
+            this.hasProducedFacts = false;
+        }
+
+        @Override
+        public String toString() {
+            return predicate + " (" + index + "/" + partitionCount + ")";
+        }
+    }
+
+    /**
+     * Fact, completion or failure of a predicate, completion of a partition, or end of a worker
+     */
+    private static class Item {
+        private static final Item END = new Item(null, null, null, null);
+
+        @Nullable
+        private final RDFFact fact;
+        @Nullable
+        private final VocabularyEntry predicate;
+        @Nullable
+        private final Task partition;
+        @Nullable
+        private final Exception exception;
+
+        private Item(@Nullable RDFFact fact, @Nullable VocabularyEntry predicate, @Nullable Task partition,
+                     @Nullable Exception exception) {
+            this.fact = fact;
+            this.predicate = predicate;
+            this.partition = partition;
+            this.exception = exception;
+        }
+
+        static Item fact(RDFFact fact) {
+            return new Item(fact, null, null, null);
+        }
+
+        static Item completed(VocabularyEntry predicate) {
+            return new Item(null, predicate, null, null);
+        }
+
+        static Item partitionCompleted(Task partition) {
+            return new Item(null, partition.predicate, partition, null);
+        }
+
+        static Item failure(@Nullable VocabularyEntry predicate, Exception exception) {
+            return new Item(null, predicate, null, exception);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.input.AskQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
+import it.unibz.inf.ontop.answering.resultset.GraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Cancellation of a query whose evaluation does not react to the interruption (e.g. blocked in the JDBC driver)
+ */
+public class QuestStatementCancellationTest {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final QueryExecutor queryExecutor = executorService::submit;
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testResultSetClosedWhenCancelledDuringEvaluation() throws Exception {
+        BlockingStatement statement = new BlockingStatement();
+        RecordingResultSet resultSet = new RecordingResultSet();
+        statement.nextResultSets.add(resultSet);
+
+        Future<BooleanResultSet> client = executorService.submit(() -> statement.execute(askQuery()));
+        assertTrue(statement.evaluationStarted.await(10, TimeUnit.SECONDS));
+
+        statement.cancel();
+        try {
+            client.get(10, TimeUnit.SECONDS);
+            fail("The execution should have been cancelled");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+        }
+
+        // The evaluation completes after the caller gave up
+        statement.evaluationReleased.countDown();
+        assertTrue(resultSet.closed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancellationDoesNotLeakIntoTheNextExecution() throws Exception {
+        BlockingStatement statement = new BlockingStatement();
+        RecordingResultSet cancelledResultSet = new RecordingResultSet();
+        RecordingResultSet nextResultSet = new RecordingResultSet();
+        statement.nextResultSets.add(cancelledResultSet);
+        statement.nextResultSets.add(nextResultSet);
+
+        Future<BooleanResultSet> client = executorService.submit(() -> statement.execute(askQuery()));
+        assertTrue(statement.evaluationStarted.await(10, TimeUnit.SECONDS));
+        statement.cancel();
+        try {
+            client.get(10, TimeUnit.SECONDS);
+            fail("The execution should have been cancelled");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+        }
+
+        // The statement is reused while the cancelled evaluation is still running
+        statement.evaluationReleased.countDown();
+        BooleanResultSet result = statement.execute(askQuery());
+
+        assertSame(nextResultSet, result);
+        assertTrue(cancelledResultSet.closed.await(10, TimeUnit.SECONDS));
+        assertEquals(0, nextResultSet.closeCount.get());
+    }
+
+    /**
+     * Caller-runs policy: the query is evaluated within submit(...), by the thread of the client
+     */
+    @Test
+    public void testCancellationWhenEvaluatedByTheCaller() throws Exception {
+        QueryExecutor callerRunsExecutor = new QueryExecutor() {
+            @Override
+            public <T> Future<T> submit(Callable<T> queryExecution) {
+                FutureTask<T> task = new FutureTask<>(queryExecution);
+                task.run();
+                return task;
+            }
+        };
+        BlockingStatement statement = new BlockingStatement(callerRunsExecutor);
+        RecordingResultSet resultSet = new RecordingResultSet();
+        statement.nextResultSets.add(resultSet);
+
+        Future<BooleanResultSet> client = executorService.submit(() -> statement.execute(askQuery()));
+        assertTrue(statement.evaluationStarted.await(10, TimeUnit.SECONDS));
+
+        statement.cancel();
+        statement.evaluationReleased.countDown();
+        try {
+            client.get(10, TimeUnit.SECONDS);
+            fail("The execution should have been cancelled");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+        }
+        assertTrue(resultSet.closed.await(10, TimeUnit.SECONDS));
+    }
+
+    private static AskQuery askQuery() {
+        return stub(AskQuery.class, ImmutableMap.of("getInputString", "ASK {}"));
+    }
+
+    /**
+     * Returns the given values by method name, null (or the default primitive value) otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, ImmutableMap<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type },
+                (proxy, method, args) -> {
+                    if (answers.containsKey(method.getName()))
+                        return answers.get(method.getName());
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class)
+                        return false;
+                    if (returnType == int.class)
+                        return 0;
+                    if (returnType == long.class)
+                        return 0L;
+                    if (returnType == double.class)
+                        return 0.0;
+                    return null;
+                });
+    }
+
+    private static QueryReformulator reformulator() {
+        QueryLogger queryLogger = stub(QueryLogger.class, ImmutableMap.of());
+        QueryLogger.Factory queryLoggerFactory = httpHeaders -> queryLogger;
+        return stub(QueryReformulator.class, ImmutableMap.of("getQueryLoggerFactory", queryLoggerFactory));
+    }
+
+    /**
+     * The first evaluation blocks (ignoring interruptions) until evaluationReleased is counted down.
+     */
+    private class BlockingStatement extends QuestStatement {
+
+        private final CountDownLatch evaluationStarted = new CountDownLatch(1);
+        private final CountDownLatch evaluationReleased = new CountDownLatch(1);
+        private final BlockingQueue<BooleanResultSet> nextResultSets = new LinkedBlockingQueue<>();
+        private final AtomicInteger evaluationCount = new AtomicInteger();
+
+        BlockingStatement() {
+            this(queryExecutor);
+        }
+
+        BlockingStatement(QueryExecutor queryExecutor) {
+            super(reformulator(), queryExecutor,
+                    stub(OntopSystemSettings.class, ImmutableMap.of("getMaxParallelUnionBranches", 1)));
+        }
+
+        @Override
+        public BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger) {
+            BooleanResultSet resultSet = nextResultSets.remove();
+            if (evaluationCount.getAndIncrement() == 0) {
+                evaluationStarted.countDown();
+                boolean released = false;
+                while (!released) {
+                    try {
+                        released = evaluationReleased.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // Like a JDBC driver not reacting to interruptions
+                    }
+                }
+            }
+            return resultSet;
+        }
+
+        @Override
+        protected void cancelExecution() {
+        }
+
+        @Override
+        protected TupleResultSet executeSelectQuery(IQ executableQuery, QueryLogger queryLogger,
+                                                    boolean shouldAlsoCloseStatement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected TupleResultSet executeUnionBranchQueries(ImmutableList<IQ> executableQueries,
+                                                           QueryLogger queryLogger,
+                                                           boolean shouldAlsoCloseStatement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected GraphResultSet executeConstructQuery(ConstructTemplate constructTemplate, IQ executableQuery,
+                                                       QueryLogger queryLogger, boolean shouldAlsoCloseStatement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getMaxRows() {
+            return 0;
+        }
+
+        @Override
+        public void getMoreResults() {
+        }
+
+        @Override
+        public void setMaxRows(int max) {
+        }
+
+        @Override
+        public void setQueryTimeout(int seconds) {
+        }
+
+        @Override
+        public int getQueryTimeout() {
+            return 0;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public int getTupleCount(InputQuery inputQuery) {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class RecordingResultSet implements BooleanResultSet {
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final AtomicInteger closeCount = new AtomicInteger();
+
+        @Override
+        public boolean getValue() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closeCount.incrementAndGet();
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class NTriplesFactWriterTest {
+
+    private static final TermFactory TERM_FACTORY = OntopModelConfiguration.defaultBuilder().build().getTermFactory();
+    private static final byte[] SALT = new byte[20];
+
+    private final IRIConstant s = TERM_FACTORY.getConstantIRI("http://example.org/person/1");
+    private final IRIConstant name = TERM_FACTORY.getConstantIRI("http://example.org/name");
+    private final IRIConstant g = TERM_FACTORY.getConstantIRI("http://example.org/graph");
+
+    @Test
+    public void testTypedAndSimpleLiterals() throws IOException {
+        assertEquals("<http://example.org/person/1> <http://example.org/name> \"Alice\" .\n"
+                        + "<http://example.org/person/1> <http://example.org/age> "
+                        + "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer> .\n"
+                        + "<http://example.org/person/1> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> "
+                        + "<http://example.org/Person> .\n",
+                serialize(false,
+                        RDFFact.createTripleFact(s, name, TERM_FACTORY.getRDFLiteralConstant("Alice", XSD.STRING)),
+                        RDFFact.createTripleFact(s, TERM_FACTORY.getConstantIRI("http://example.org/age"),
+                                TERM_FACTORY.getRDFLiteralConstant("42", XSD.INTEGER)),
+                        RDFFact.createTripleFact(s, TERM_FACTORY.getConstantIRI(RDF.TYPE),
+                                TERM_FACTORY.getConstantIRI("http://example.org/Person"))));
+    }
+
+    @Test
+    public void testEscaping() throws IOException {
+        assertEquals("<http://example.org/a\\u0020b> <http://example.org/name> "
+                        + "\"line1\\nline2 \\\"quoted\\\" \\\\ café 😀\"@fr-be .\n",
+                serialize(false,
+                        RDFFact.createTripleFact(TERM_FACTORY.getConstantIRI("http://example.org/a b"), name,
+                                TERM_FACTORY.getRDFLiteralConstant("line1\nline2 \"quoted\" \\ café 😀",
+                                        "fr-be"))));
+    }
+
+    @Test
+    public void testQuads() throws IOException {
+        RDFFact fact = RDFFact.createQuadFact(s, name, TERM_FACTORY.getRDFLiteralConstant("Alice", XSD.STRING), g);
+
+        assertEquals("<http://example.org/person/1> <http://example.org/name> \"Alice\" "
+                        + "<http://example.org/graph> .\n",
+                serialize(true, fact));
+        // Graph ignored
+        assertEquals("<http://example.org/person/1> <http://example.org/name> \"Alice\" .\n",
+                serialize(false, fact));
+    }
+
+    @Test
+    public void testBNodes() throws IOException {
+        String label = TERM_FACTORY.getConstantBNode("b0").getAnonymizedLabel(SALT);
+        assertEquals("_:" + label + " <http://example.org/name> \"Alice\" .\n",
+                serialize(false, RDFFact.createTripleFact(TERM_FACTORY.getConstantBNode("b0"), name,
+                        TERM_FACTORY.getRDFLiteralConstant("Alice", XSD.STRING))));
+    }
+
+    @Test
+    public void testSmallBuffer() throws IOException {
+        RDFFact[] facts = new RDFFact[100];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < facts.length; i++) {
+            facts[i] = RDFFact.createTripleFact(TERM_FACTORY.getConstantIRI("http://example.org/person/" + i), name,
+                    TERM_FACTORY.getRDFLiteralConstant("Name é" + i, XSD.STRING));
+            expected.append("<http://example.org/person/").append(i).append("> <http://example.org/name> \"Name é")
+                    .append(i).append("\" .\n");
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (NTriplesFactWriter writer = new NTriplesFactWriter(Channels.newChannel(outputStream), false, SALT, 1)) {
+            for (RDFFact fact : facts)
+                writer.write(fact);
+        }
+        assertEquals(expected.toString(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static String serialize(boolean isQuadFormat, RDFFact... facts) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (NTriplesFactWriter writer = new NTriplesFactWriter(Channels.newChannel(outputStream), isQuadFormat, SALT)) {
+            for (RDFFact fact : facts)
+                writer.write(fact);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.answering.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rows returned by a native query, stored column by column (string values, null for a SQL NULL).
+ *
+ * Within a column, equal values share the same string instance, which keeps low-cardinality columns
+ * (e.g. codes, types, IRI fragments) compact.
+ *
+ * The weight is an estimation of the heap size of the stored values, in bytes.
+ *
+ * Immutable once built.
+ */
+public final class CachedSQLResult {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // Header, hash and char array header of a String (Java 8)
+    private static final int STRING_OVERHEAD = 56;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int ARRAY_OVERHEAD = 16;
+
+    private final String[][] columns;
+    private final int rowCount;
+    private final int weight;
+
+    private CachedSQLResult(String[][] columns, int rowCount, int weight) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.weight = weight;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Fresh array, in the order of the columns
+     */
+    public String[] getRow(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount)
+            throw new IndexOutOfBoundsException("No row " + rowIndex);
+
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++)
+            values[i] = columns[i][rowIndex];
+        return values;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Not thread-safe
+     */
+    public static class Builder {
+
+        private final long maxWeight;
+        private final String[][] columns;
+        // One per column, for sharing the equal values
+        private final Map<String, String>[] columnValues;
+        private int capacity;
+        private int rowCount;
+        private long weight;
+        private boolean isTooLarge;
+
+        @SuppressWarnings("unchecked")
+        public Builder(int columnCount, long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.columns = new String[columnCount][INITIAL_CAPACITY];
+            this.columnValues = new Map[columnCount];
+            for (int i = 0; i < columnCount; i++)
+                columnValues[i] = new HashMap<>();
+            this.capacity = INITIAL_CAPACITY;
+            this.rowCount = 0;
+            this.weight = ARRAY_OVERHEAD + columnCount * (long) ARRAY_OVERHEAD;
+            this.isTooLarge = false;
+        }
+
+        /**
+         * Returns false once the maximum weight is exceeded: the result cannot be built anymore.
+         */
+        public boolean add(String[] values) {
+            if (isTooLarge)
+                return false;
+            if (values.length != columns.length)
+                throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+
+            if (rowCount == capacity) {
+                capacity *= 2;
+                for (int i = 0; i < columns.length; i++)
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                String value = values[i];
+                if (value != null) {
+                    String sharedValue = columnValues[i].putIfAbsent(value, value);
+                    if (sharedValue == null)
+                        weight += STRING_OVERHEAD + 2L * value.length();
+                    else
+                        value = sharedValue;
+                }
+                columns[i][rowCount] = value;
+            }
+            rowCount++;
+            // At least one unit per row (no column)
+            weight += Math.max(1, columns.length * (long) REFERENCE_SIZE);
+
+            if (weight > maxWeight) {
+                isTooLarge = true;
+                return false;
+            }
+            return true;
+        }
+
+        public CachedSQLResult build() {
+            if (isTooLarge)
+                throw new IllegalStateException("The result exceeds the maximum weight (" + maxWeight + " bytes)");
+
+            String[][] trimmedColumns = new String[columns.length][];
+            for (int i = 0; i < columns.length; i++)
+                trimmedColumns[i] = Arrays.copyOf(columns[i], rowCount);
+            return new CachedSQLResult(trimmedColumns, rowCount, (int) weight);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package it.unibz.inf.ontop.answering.cache;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Results of the native queries, shared by all the connections of the same DB connector.
+ *
+ * Entries are indexed by the SQL query string, the values of its bind parameters and the maximum number of rows.
+ * They are fresh during the TTL, and then served stale during the stale-while-revalidate window
+ * while being refreshed in the background.
+ *
+ * Only the results of the deterministic native queries are cached (see NativeNode.isDeterministic()).
+ *
+ * Opt-in (see OntopSystemSQLSettings.isResultCacheEnabled()).
+ */
+public interface SQLResultCache extends AutoCloseable {
+
+    boolean isEnabled();
+
+    /**
+     * The loader is used for refreshing a stale entry. It may be called asynchronously, from another thread.
+     *
+     * Records the lookup in the query metrics.
+     */
+    Optional<CachedSQLResult> get(String sqlQuery, ImmutableList<String> parameters, int maxRows, Loader loader);
+
+    void put(String sqlQuery, ImmutableList<String> parameters, int maxRows, CachedSQLResult result);
+
+    /**
+     * Builder rejecting the results exceeding the maximum size of an entry
+     */
+    CachedSQLResult.Builder createBuilder(int columnCount);
+
+    /**
+     * Stops the background refreshes.
+     *
+     * Called when the DB connector is closed.
+     */
+    @Override
+    void close();
+
+
+    interface Loader {
+
+        /**
+         * Empty if the result is too large to be cached
+         */
+        Optional<CachedSQLResult> load() throws SQLException, OntopConnectionException;
+    }
+}
@@ -0,0 +1,180 @@
+package it.unibz.inf.ontop.answering.cache.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.cache.CachedSQLResult;
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
+import it.unibz.inf.ontop.answering.metrics.QueryMetrics;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guava cache bounded by the estimated size of the results (see CachedSQLResult.getWeight()).
+ *
+ * Entries expire at the end of the stale-while-revalidate window. Within this window, the first lookup
+ * schedules a refresh of the entry, executed by a background thread (at most one refresh per entry).
+ * Refreshes are dropped when too many are pending: the entry then stays stale until a later lookup.
+ * The background thread is created with the first refresh and stopped when the cache is closed.
+ */
+@Singleton
+public class SQLResultCacheImpl implements SQLResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQLResultCacheImpl.class);
+    private static final int REVALIDATION_QUEUE_CAPACITY = 100;
+
+    private final boolean isEnabled;
+    private final long maxEntryWeight;
+    private final long ttlInNanos;
+    private final long staleWhileRevalidateInNanos;
+    private final QueryMetrics queryMetrics;
+
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<Key, Entry> cache;
+    // Created lazily, guarded by this
+    @Nullable
+    private ExecutorService revalidationExecutor;
+
+    @Inject
+    private SQLResultCacheImpl(OntopSystemSQLSettings settings, QueryMetrics queryMetrics) {
+        this.isEnabled = settings.isResultCacheEnabled();
+        this.maxEntryWeight = settings.getResultCacheMaxEntrySizeInKB() * 1024L;
+        this.ttlInNanos = TimeUnit.SECONDS.toNanos(settings.getResultCacheTTL());
+        this.staleWhileRevalidateInNanos = TimeUnit.SECONDS.toNanos(settings.getResultCacheStaleWhileRevalidate());
+        this.queryMetrics = queryMetrics;
+
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(isEnabled ? settings.getResultCacheMaxSizeInMB() * 1024L * 1024L : 0)
+                .weigher((Key k, Entry e) -> e.result.getWeight())
+                .expireAfterWrite(ttlInNanos + staleWhileRevalidateInNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public Optional<CachedSQLResult> get(String sqlQuery, ImmutableList<String> parameters, int maxRows,
+                                         Loader loader) {
+        Key key = new Key(sqlQuery, parameters, maxRows);
+        Entry entry = cache.getIfPresent(key);
+        long age = entry == null ? 0 : System.nanoTime() - entry.creationNanos;
+
+        if (entry == null || age > ttlInNanos + staleWhileRevalidateInNanos) {
+            queryMetrics.recordResultCacheLookup(false);
+            return Optional.empty();
+        }
+        if (age > ttlInNanos)
+            revalidate(key, entry, loader);
+
+        queryMetrics.recordResultCacheLookup(true);
+        return Optional.of(entry.result);
+    }
+
+    private void revalidate(Key key, Entry entry, Loader loader) {
+        if (!entry.isRevalidating.compareAndSet(false, true))
+            return;
+        try {
+            getRevalidationExecutor().execute(() -> {
+                try {
+                    Optional<CachedSQLResult> result = loader.load();
+                    if (result.isPresent())
+                        cache.asMap().replace(key, entry, new Entry(result.get()));
+                    else
+                        // Has become too large
+                        cache.asMap().remove(key, entry);
+                } catch (Exception e) {
+                    LOGGER.debug("Could not refresh a cached result: {}", e.getMessage());
+                    entry.isRevalidating.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.isRevalidating.set(false);
+        }
+    }
+
+    private synchronized ExecutorService getRevalidationExecutor() {
+        if (revalidationExecutor == null)
+            revalidationExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(REVALIDATION_QUEUE_CAPACITY),
+                    r -> {
+                        Thread thread = new Thread(r, "ontop-result-cache-revalidation");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        return revalidationExecutor;
+    }
+
+    @Override
+    public void put(String sqlQuery, ImmutableList<String> parameters, int maxRows, CachedSQLResult result) {
+        if (isEnabled)
+            cache.put(new Key(sqlQuery, parameters, maxRows), new Entry(result));
+    }
+
+    @Override
+    public CachedSQLResult.Builder createBuilder(int columnCount) {
+        return new CachedSQLResult.Builder(columnCount, maxEntryWeight);
+    }
+
+    /**
+     * The pending refreshes are cancelled. A later refresh creates a new background thread.
+     */
+    @Override
+    public synchronized void close() {
+        if (revalidationExecutor != null) {
+            revalidationExecutor.shutdownNow();
+            revalidationExecutor = null;
+        }
+    }
+
+
+    private static class Key {
+        private final String sqlQuery;
+        private final ImmutableList<String> parameters;
+        private final int maxRows;
+
+        private Key(String sqlQuery, ImmutableList<String> parameters, int maxRows) {
+            this.sqlQuery = sqlQuery;
+            this.parameters = parameters;
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return maxRows == key.maxRows
+                    && sqlQuery.equals(key.sqlQuery)
+                    && parameters.equals(key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sqlQuery, parameters, maxRows);
+        }
+    }
+
+    private static class Entry {
+        private final CachedSQLResult result;
+        private final long creationNanos;
+        private final AtomicBoolean isRevalidating;
+
+        private Entry(CachedSQLResult result) {
+            this.result = result;
+            this.creationNanos = System.nanoTime();
+            this.isRevalidating = new AtomicBoolean(false);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.connection;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -8,4 +9,6 @@ public interface JDBCStatementInitializer extends JDBCStatementFinalizer {
 
     Statement createAndInitStatement(Connection connection) throws SQLException;
 
+    PreparedStatement prepareAndInitStatement(Connection connection, String sqlQuery) throws SQLException;
+
 }
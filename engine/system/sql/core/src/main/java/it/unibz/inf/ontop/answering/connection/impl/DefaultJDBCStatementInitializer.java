@@ -5,6 +5,7 @@ import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -22,6 +23,13 @@ public class DefaultJDBCStatementInitializer implements JDBCStatementInitializer
         return init(create(connection));
     }
 
+    @Override
+    public PreparedStatement prepareAndInitStatement(Connection connection, String sqlQuery) throws SQLException {
+        PreparedStatement statement = prepare(connection, sqlQuery);
+        init(statement);
+        return statement;
+    }
+
     @Override
     public void closeStatement(Statement statement) throws SQLException {
         statement.close();
@@ -31,6 +39,11 @@ public class DefaultJDBCStatementInitializer implements JDBCStatementInitializer
         return connection.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
     }
 
+    protected PreparedStatement prepare(Connection connection, String sqlQuery) throws SQLException {
+        return connection.prepareStatement(sqlQuery, java.sql.ResultSet.TYPE_FORWARD_ONLY,
+                java.sql.ResultSet.CONCUR_READ_ONLY);
+    }
+
     protected Statement init(Statement statement) throws SQLException {
         int fetchSize = settings.getFetchSize();
         if (fetchSize > 0)
@@ -2,9 +2,11 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -17,6 +19,7 @@ import org.apache.commons.rdf.api.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 
 /**
@@ -38,6 +41,13 @@ public class JDBCConnector implements DBConnector {
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final JDBCStatementInitializer statementInitializer;
+    private final QueryExecutor queryExecutor;
+    private final SQLResultCache resultCache;
+    private final UnionBranchExecutor unionBranchExecutor;
+    private final JDBCConnectionPool.Factory connectionPoolFactory;
+    // Created lazily, guarded by this
+    @Nullable
+    private JDBCConnectionPool branchConnectionPool;
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
@@ -46,7 +56,11 @@ public class JDBCConnector implements DBConnector {
                           SubstitutionFactory substitutionFactory,
                           RDF rdfFactory,
                           JDBCStatementInitializer statementInitializer,
-                          OntopSystemSQLSettings settings) {
+                          QueryExecutor queryExecutor,
+                          OntopSystemSQLSettings settings,
+                          SQLResultCache resultCache,
+                          UnionBranchExecutor unionBranchExecutor,
+                          JDBCConnectionPool.Factory connectionPoolFactory) {
         this.queryReformulator = queryReformulator;
         this.termFactory = termFactory;
         this.substitutionFactory = substitutionFactory;
@@ -54,6 +68,10 @@ public class JDBCConnector implements DBConnector {
         this.connectionPool = connectionPool;
         this.rdfFactory = rdfFactory;
         this.statementInitializer = statementInitializer;
+        this.queryExecutor = queryExecutor;
+        this.resultCache = resultCache;
+        this.unionBranchExecutor = unionBranchExecutor;
+        this.connectionPoolFactory = connectionPoolFactory;
     }
 
     /**
@@ -86,10 +104,21 @@ public class JDBCConnector implements DBConnector {
         } catch (Exception e) {
             log.error(e.getMessage());
         }
+        resultCache.close();
         connectionPool.close();
+        synchronized (this) {
+            if (branchConnectionPool != null) {
+                branchConnectionPool.close();
+                branchConnectionPool = null;
+            }
+        }
     }
 
-    public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+    /**
+     * Not synchronized: the connection pool is thread-safe, and waiting for a connection
+     * must not block the other callers.
+     */
+    public Connection getSQLPoolConnection() throws OntopConnectionException {
         try {
             return connectionPool.getConnection();
         } catch (SQLException e) {
@@ -97,6 +126,32 @@ public class JDBCConnector implements DBConnector {
         }
     }
 
+    /**
+     * From a pool of its own, so that the union branches never take the connections needed by the statements.
+     *
+     * Not waiting in practice: the pool is as large as the number of permits of the UnionBranchExecutor.
+     */
+    Connection getUnionBranchConnection() throws OntopConnectionException {
+        try {
+            return getBranchConnectionPool().getConnection();
+        } catch (SQLException e) {
+            throw new OntopConnectionException(e);
+        }
+    }
+
+    private synchronized JDBCConnectionPool getBranchConnectionPool() {
+        if (branchConnectionPool == null)
+            branchConnectionPool = connectionPoolFactory.create(Math.max(1, settings.getMaxUnionBranchConnections()));
+        return branchConnectionPool;
+    }
+
+    /**
+     * Shared by the statements for executing the branches of unions concurrently
+     */
+    UnionBranchExecutor getUnionBranchExecutor() {
+        return unionBranchExecutor;
+    }
+
     /***
      * Returns an OntopConnection, the main object that a client should use to
      * access the query answering services of Quest. With the QuestConnection
@@ -115,7 +170,8 @@ public class JDBCConnector implements DBConnector {
     public OntopConnection getConnection() throws OntopConnectionException {
 
         return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
-                termFactory, rdfFactory, substitutionFactory, statementInitializer, settings);
+                termFactory, rdfFactory, substitutionFactory, statementInitializer, queryExecutor, settings,
+                resultCache);
     }
 
 
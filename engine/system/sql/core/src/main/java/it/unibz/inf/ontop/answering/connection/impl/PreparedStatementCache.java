@@ -0,0 +1,102 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idle prepared statements of a JDBC connection, indexed by their SQL query string.
+ *
+ * A prepared statement is borrowed for executing a query and released when its results are not needed anymore,
+ * so that it is never used by two Ontop statements at the same time.
+ * When the cache is full, the least recently used statement is closed.
+ *
+ * Thread-safe.
+ */
+public class PreparedStatementCache {
+
+    private final Connection connection;
+    private final JDBCStatementInitializer statementInitializer;
+    private final int maxSize;
+
+    // Access order, guarded by this
+    private final LinkedHashMap<String, PreparedStatement> idleStatements;
+    private boolean isClosed;
+
+    public PreparedStatementCache(Connection connection, JDBCStatementInitializer statementInitializer, int maxSize) {
+        this.connection = connection;
+        this.statementInitializer = statementInitializer;
+        this.maxSize = maxSize;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+        this.isClosed = false;
+    }
+
+    /**
+     * Returns an idle prepared statement for this query if there is one, otherwise prepares a new one.
+     */
+    public PreparedStatement borrow(String sqlQuery) throws SQLException {
+        PreparedStatement idleStatement;
+        synchronized (this) {
+            idleStatement = idleStatements.remove(sqlQuery);
+        }
+        if (idleStatement != null && !idleStatement.isClosed())
+            return idleStatement;
+
+        return statementInitializer.prepareAndInitStatement(connection, sqlQuery);
+    }
+
+    /**
+     * Closes the statement if it cannot be kept.
+     */
+    public void release(String sqlQuery, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed())
+            return;
+        statement.clearParameters();
+
+        PreparedStatement statementToClose;
+        synchronized (this) {
+            if (isClosed || maxSize <= 0 || idleStatements.containsKey(sqlQuery))
+                statementToClose = statement;
+            else {
+                idleStatements.put(sqlQuery, statement);
+                statementToClose = idleStatements.size() > maxSize
+                        ? removeEldest()
+                        : null;
+            }
+        }
+        if (statementToClose != null)
+            statementToClose.close();
+    }
+
+    private PreparedStatement removeEldest() {
+        Iterator<Map.Entry<String, PreparedStatement>> iterator = idleStatements.entrySet().iterator();
+        PreparedStatement eldest = iterator.next().getValue();
+        iterator.remove();
+        return eldest;
+    }
+
+    /**
+     * Closes all the idle statements. Statements released afterwards are closed directly.
+     */
+    public void close() throws SQLException {
+        SQLException exception = null;
+        synchronized (this) {
+            isClosed = true;
+            for (PreparedStatement statement : idleStatements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    exception = e;
+                }
+            }
+            idleStatements.clear();
+        }
+        if (exception != null)
+            throw exception;
+    }
+}
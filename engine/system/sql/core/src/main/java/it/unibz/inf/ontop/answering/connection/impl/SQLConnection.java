@@ -2,9 +2,11 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.sql.Connection;
 
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -37,26 +39,37 @@ public class SQLConnection implements OntopConnection {
 	private boolean isClosed;
 	private final RDF rdfFactory;
 	private final JDBCStatementInitializer statementInitializer;
+	private PreparedStatementCache preparedStatementCache;
+	private final QueryExecutor queryExecutor;
+	private final SQLResultCache resultCache;
 
 
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
 						 TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
-						 JDBCStatementInitializer statementInitializer,
-						 OntopSystemSQLSettings settings) {
+						 JDBCStatementInitializer statementInitializer, QueryExecutor queryExecutor,
+						 OntopSystemSQLSettings settings, SQLResultCache resultCache) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
 		this.conn = connection;
 		this.termFactory = termFactory;
 		this.substitutionFactory = substitutionFactory;
 		this.statementInitializer = statementInitializer;
+		this.queryExecutor = queryExecutor;
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
+		this.resultCache = resultCache;
 		this.isClosed = false;
+		this.preparedStatementCache = createPreparedStatementCache();
+	}
+
+	private PreparedStatementCache createPreparedStatementCache() {
+		return new PreparedStatementCache(conn, statementInitializer, settings.getPreparedStatementCacheSize());
 	}
 
 	@Override
 	public void close() throws OntopConnectionException {
 		try {
+			preparedStatementCache.close();
 			conn.close();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
@@ -69,12 +82,16 @@ public class SQLConnection implements OntopConnection {
 			if (conn.isClosed()) {
 				// Sometimes it gets dropped, reconnect
 				conn = jdbcConnector.getSQLPoolConnection();
+				preparedStatementCache = createPreparedStatementCache();
 			}
 			return new SQLQuestStatement(
 					this.queryProcessor,
 					statementInitializer.createAndInitStatement(conn),
 					statementInitializer,
-					termFactory, rdfFactory, substitutionFactory, settings);
+					preparedStatementCache,
+					queryExecutor,
+					termFactory, rdfFactory, substitutionFactory, settings, jdbcConnector,
+					resultCache);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -2,9 +2,13 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
-import it.unibz.inf.ontop.answering.connection.JDBCStatementFinalizer;
+import it.unibz.inf.ontop.answering.cache.CachedSQLResult;
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.GraphResultSet;
@@ -22,11 +26,17 @@ import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
 
 import java.sql.*;
 import java.sql.ResultSet;
@@ -37,24 +47,44 @@ import java.sql.ResultSet;
  */
 public class SQLQuestStatement extends QuestStatement {
 
+    private static final Logger log = LoggerFactory.getLogger(SQLQuestStatement.class);
+
     private final Statement sqlStatement;
-    private final JDBCStatementFinalizer statementFinalizer;
+    private final JDBCStatementInitializer statementInitializer;
+    private final PreparedStatementCache preparedStatementCache;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
+    // Provides the connections of the branches of the unions executed concurrently
+    private final JDBCConnector jdbcConnector;
+    private final SQLResultCache resultCache;
+
+    /*
+     * Prepared statement borrowed from the cache for the last query with bind parameters (null if none).
+     * Given back to the cache when the next query is executed or when the statement is closed.
+     */
+    private volatile PreparedStatement borrowedStatement;
+    private String borrowedStatementQuery;
+
+    // Last union whose branches are executed concurrently (null if none)
+    private volatile ParallelUnionTupleResultSet unionResultSet;
 
     public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
-                             JDBCStatementFinalizer statementFinalizer, TermFactory termFactory,
-                             RDF rdfFactory, SubstitutionFactory substitutionFactory,
-                             OntopSystemSQLSettings settings) {
-        super(queryProcessor);
+                             JDBCStatementInitializer statementInitializer, PreparedStatementCache preparedStatementCache,
+                             QueryExecutor queryExecutor, TermFactory termFactory, RDF rdfFactory,
+                             SubstitutionFactory substitutionFactory, OntopSystemSQLSettings settings,
+                             JDBCConnector jdbcConnector, SQLResultCache resultCache) {
+        super(queryProcessor, queryExecutor, settings);
         this.sqlStatement = sqlStatement;
-        this.statementFinalizer = statementFinalizer;
+        this.statementInitializer = statementInitializer;
+        this.preparedStatementCache = preparedStatementCache;
         this.termFactory = termFactory;
         this.rdfFactory = rdfFactory;
         this.substitutionFactory = substitutionFactory;
         this.settings = settings;
+        this.jdbcConnector = jdbcConnector;
+        this.resultCache = resultCache;
     }
 
     @Override
@@ -122,11 +152,12 @@ public class SQLQuestStatement extends QuestStatement {
         IQ targetQuery = getExecutableQuery(inputQuery);
         try {
             String sql = extractSQLQuery(targetQuery);
+            ImmutableList<DBConstant> parameters = extractNativeNode(targetQuery).getParameters();
             String newsql = "SELECT count(*) FROM (" + sql + ") t1";
             if (!isCanceled()) {
                 try {
 
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
+                    java.sql.ResultSet set = executeNativeQuery(newsql, parameters);
                     if (set.next()) {
                         return set.getInt(1);
                     } else {
@@ -147,8 +178,14 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            releaseBorrowedStatement();
+            ParallelUnionTupleResultSet resultSet = unionResultSet;
+            if (resultSet != null) {
+                unionResultSet = null;
+                resultSet.close();
+            }
             if (sqlStatement != null)
-                statementFinalizer.closeStatement(sqlStatement);
+                statementInitializer.closeStatement(sqlStatement);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
@@ -156,19 +193,67 @@ public class SQLQuestStatement extends QuestStatement {
 
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
-            sqlStatement.cancel();
-        } catch (SQLException e) {
+            ParallelUnionTupleResultSet resultSet = unionResultSet;
+            if (resultSet != null)
+                resultSet.cancel();
+
+            cancelNativeQuery();
+        } catch (SQLException | OntopConnectionException e) {
             throw new OntopQueryEvaluationException(e);
         }
     }
 
+    /**
+     * Cancels the query running on the connection of the statement (if any)
+     */
+    private void cancelNativeQuery() throws SQLException {
+        PreparedStatement preparedStatement = borrowedStatement;
+        if (preparedStatement != null)
+            preparedStatement.cancel();
+        else
+            sqlStatement.cancel();
+    }
+
+    /**
+     * Uses a prepared statement from the cache when the query has bind parameters
+     */
+    private ResultSet executeNativeQuery(String sqlQuery, ImmutableList<DBConstant> parameters) throws SQLException {
+        releaseBorrowedStatement();
+        // Cancelled during the reformulation
+        if (isCanceled())
+            throw new SQLException("Query execution was cancelled");
+        if (parameters.isEmpty())
+            return sqlStatement.executeQuery(sqlQuery);
+
+        PreparedStatement preparedStatement = preparedStatementCache.borrow(sqlQuery);
+        borrowedStatementQuery = sqlQuery;
+        borrowedStatement = preparedStatement;
+
+        preparedStatement.setMaxRows(sqlStatement.getMaxRows());
+        preparedStatement.setQueryTimeout(sqlStatement.getQueryTimeout());
+        // Only string constants are turned into bind parameters by the SQL generator
+        for (int i = 0; i < parameters.size(); i++)
+            preparedStatement.setString(i + 1, parameters.get(i).getValue());
+
+        return preparedStatement.executeQuery();
+    }
+
+    private synchronized void releaseBorrowedStatement() throws SQLException {
+        PreparedStatement preparedStatement = borrowedStatement;
+        if (preparedStatement == null)
+            return;
+        borrowedStatement = null;
+        preparedStatementCache.release(borrowedStatementQuery, preparedStatement);
+    }
+
     @Override
     public BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger)
             throws OntopQueryEvaluationException {
         try {
             String sqlQuery = extractSQLQuery(executableQuery);
+            ImmutableList<DBConstant> parameters = extractNativeNode(executableQuery).getParameters();
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = executeNativeQuery(sqlQuery, parameters);
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new SQLBooleanResultSet(set, queryLogger, this::close);
             } catch (SQLException e) {
@@ -194,13 +279,14 @@ public class SQLQuestStatement extends QuestStatement {
             OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
 
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                if (isResultCacheable(nativeNode))
+                    return executeCachedSelectQuery(sqlQuery, executableQuery, constructionNode, nativeNode,
+                            queryLogger, statementClosingCB);
+
+                java.sql.ResultSet set = executeNativeQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
-                return settings.isDistinctPostProcessingEnabled()
-                        ? new DistinctJDBCTupleResultSet(set, signature, typeMap, constructionNode,
-                            executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory)
-                        : new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(),
-                            queryLogger, statementClosingCB, termFactory, substitutionFactory);
+                return createTupleResultSet(set, executableQuery, constructionNode, signature, typeMap, queryLogger,
+                        statementClosingCB);
             } catch (SQLException e) {
                 throw new OntopQueryEvaluationException(e);
             }
@@ -210,6 +296,141 @@ public class SQLQuestStatement extends QuestStatement {
         }
     }
 
+    /**
+     * The DISTINCT post-processing is not applied to the cached rows.
+     *
+     * The post-processed terms (e.g. NOW() in the root construction node) are re-evaluated on the cached rows,
+     * so only the native query needs to be deterministic.
+     */
+    private boolean isResultCacheable(NativeNode nativeNode) {
+        return resultCache.isEnabled()
+                && (!settings.isDistinctPostProcessingEnabled())
+                && nativeNode.isDeterministic();
+    }
+
+    /**
+     * Replays the cached rows if any, otherwise executes the query and records its rows into the cache
+     */
+    private TupleResultSet executeCachedSelectQuery(String sqlQuery, IQ executableQuery,
+                                                    ConstructionNode constructionNode, NativeNode nativeNode,
+                                                    QueryLogger queryLogger,
+                                                    @Nullable OntopConnectionCloseable statementClosingCB)
+            throws SQLException {
+        ImmutableList<DBConstant> parameters = nativeNode.getParameters();
+        ImmutableList<String> parameterValues = parameters.stream()
+                .map(DBConstant::getValue)
+                .collect(ImmutableCollectors.toList());
+        int maxRows = sqlStatement.getMaxRows();
+        int queryTimeout = sqlStatement.getQueryTimeout();
+        int columnCount = nativeNode.getVariables().size();
+
+        Optional<CachedSQLResult> cachedResult = resultCache.get(sqlQuery, parameterValues, maxRows,
+                () -> loadResult(sqlQuery, parameters, columnCount, maxRows, queryTimeout));
+        if (cachedResult.isPresent()) {
+            // Cancelled during the reformulation
+            if (isCanceled())
+                throw new SQLException("Query execution was cancelled");
+            queryLogger.declareResultSetUnblockedAndSerialize();
+            return new CachedTupleResultSet(cachedResult.get(), nativeNode.getVariables(), nativeNode.getTypeMap(),
+                    constructionNode, executableQuery.getProjectionAtom(), queryLogger, statementClosingCB,
+                    termFactory, substitutionFactory);
+        }
+
+        ResultSet set = executeNativeQuery(sqlQuery, parameters);
+        queryLogger.declareResultSetUnblockedAndSerialize();
+        return new CachingJDBCTupleResultSet(set, nativeNode.getVariables(), nativeNode.getTypeMap(),
+                constructionNode, executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory,
+                substitutionFactory, resultCache, sqlQuery, parameterValues, maxRows);
+    }
+
+    /**
+     * Refreshes a stale entry of the result cache. Called from a thread of the cache,
+     * on a connection borrowed from the pool.
+     */
+    private Optional<CachedSQLResult> loadResult(String sqlQuery, ImmutableList<DBConstant> parameters,
+                                                 int columnCount, int maxRows, int queryTimeout)
+            throws SQLException, OntopConnectionException {
+        try (Connection connection = jdbcConnector.getSQLPoolConnection()) {
+            Statement statement = parameters.isEmpty()
+                    ? statementInitializer.createAndInitStatement(connection)
+                    : statementInitializer.prepareAndInitStatement(connection, sqlQuery);
+            try {
+                statement.setMaxRows(maxRows);
+                statement.setQueryTimeout(queryTimeout);
+                CachedSQLResult.Builder builder = resultCache.createBuilder(columnCount);
+                try (ResultSet set = executeStatement(statement, sqlQuery, parameters)) {
+                    while (set.next()) {
+                        String[] values = new String[columnCount];
+                        for (int i = 0; i < columnCount; i++)
+                            values[i] = set.getString(i + 1);
+                        if (!builder.add(values))
+                            return Optional.empty();
+                    }
+                }
+                return Optional.of(builder.build());
+            } finally {
+                statementInitializer.closeStatement(statement);
+            }
+        }
+    }
+
+    /**
+     * The statement is expected to be a prepared statement for this query when there are parameters
+     */
+    private static ResultSet executeStatement(Statement statement, String sqlQuery,
+                                              ImmutableList<DBConstant> parameters) throws SQLException {
+        if (parameters.isEmpty())
+            return statement.executeQuery(sqlQuery);
+
+        PreparedStatement preparedStatement = (PreparedStatement) statement;
+        // Only string constants are turned into bind parameters by the SQL generator
+        for (int i = 0; i < parameters.size(); i++)
+            preparedStatement.setString(i + 1, parameters.get(i).getValue());
+        return preparedStatement.executeQuery();
+    }
+
+    private TupleResultSet createTupleResultSet(ResultSet set, IQ executableQuery, ConstructionNode constructionNode,
+                                                ImmutableSortedSet<Variable> signature,
+                                                ImmutableMap<Variable, DBTermType> typeMap, QueryLogger queryLogger,
+                                                @Nullable OntopConnectionCloseable statementClosingCB) {
+        return settings.isDistinctPostProcessingEnabled()
+                ? new HashDistinctJDBCTupleResultSet(set, signature, typeMap, constructionNode,
+                    executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory,
+                    settings.getDistinctPostProcessingMaxMemoryInMB(), settings.isDistinctPostProcessingSpillEnabled())
+                : new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(),
+                    queryLogger, statementClosingCB, termFactory, substitutionFactory);
+    }
+
+    /**
+     * The branches are executed by the workers of the shared UnionBranchExecutor,
+     * on the connection of the statement or on connections borrowed from the pool.
+     */
+    @Override
+    protected TupleResultSet executeUnionBranchQueries(ImmutableList<IQ> executableQueries, QueryLogger queryLogger,
+                                                       boolean shouldAlsoCloseStatement)
+            throws OntopQueryEvaluationException {
+        OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
+        try {
+            ParallelUnionTupleResultSet resultSet = new ParallelUnionTupleResultSet(
+                    executableQueries.stream()
+                            .map(UnionBranch::new)
+                            .collect(ImmutableCollectors.toList()),
+                    executableQueries.get(0).getProjectionAtom().getArguments(), queryLogger,
+                    sqlStatement.getFetchSize(), sqlStatement.getMaxRows(), statementClosingCB,
+                    jdbcConnector.getUnionBranchExecutor());
+            unionResultSet = resultSet;
+            // Cancelled during the reformulation
+            if (isCanceled())
+                throw new OntopQueryEvaluationException("Query execution was cancelled");
+
+            resultSet.start();
+            queryLogger.declareResultSetUnblockedAndSerialize();
+            return resultSet;
+        } catch (SQLException e) {
+            throw new OntopQueryEvaluationException(e);
+        }
+    }
+
     /**
      * TODO: make it SQL-independent
      */
@@ -228,7 +449,7 @@ public class SQLQuestStatement extends QuestStatement {
             OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
 
             try {
-                ResultSet rs = sqlStatement.executeQuery(sqlQuery);
+                ResultSet rs = executeNativeQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 tuples = new JDBCTupleResultSet(rs, SQLSignature, SQLTypeMap, constructionNode,
                         executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory);
@@ -243,6 +464,118 @@ public class SQLQuestStatement extends QuestStatement {
                 settings.areInvalidTriplesExcludedFromResultSet());
     }
 
+    /**
+     * Executed either on the connection of the statement or on a connection of its own,
+     * released when the result set of the branch is closed
+     */
+    private class UnionBranch implements ParallelUnionTupleResultSet.Branch {
+
+        private final IQ executableQuery;
+        @Nullable
+        private volatile Statement statement;
+        private volatile boolean isOnStatementConnection;
+        private volatile boolean isCanceled;
+
+        private UnionBranch(IQ executableQuery) {
+            this.executableQuery = executableQuery;
+            this.statement = null;
+            this.isOnStatementConnection = false;
+            this.isCanceled = false;
+        }
+
+        @Override
+        public TupleResultSet execute(QueryLogger branchQueryLogger, boolean onStatementConnection)
+                throws OntopQueryEvaluationException, OntopConnectionException {
+            String sqlQuery;
+            ConstructionNode constructionNode;
+            NativeNode nativeNode;
+            try {
+                sqlQuery = extractSQLQuery(executableQuery);
+                constructionNode = extractRootConstructionNode(executableQuery);
+                nativeNode = extractNativeNode(executableQuery);
+            } catch (EmptyQueryException e) {
+                return new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), branchQueryLogger);
+            }
+
+            if (onStatementConnection)
+                return executeOnStatementConnection(sqlQuery, constructionNode, nativeNode, branchQueryLogger);
+
+            Connection connection = jdbcConnector.getUnionBranchConnection();
+            try {
+                ImmutableList<DBConstant> parameters = nativeNode.getParameters();
+                Statement branchStatement = parameters.isEmpty()
+                        ? statementInitializer.createAndInitStatement(connection)
+                        : statementInitializer.prepareAndInitStatement(connection, sqlQuery);
+                statement = branchStatement;
+                branchStatement.setMaxRows(sqlStatement.getMaxRows());
+                branchStatement.setQueryTimeout(sqlStatement.getQueryTimeout());
+                if (isCanceled)
+                    throw new SQLException("Query execution was cancelled");
+
+                ResultSet set = executeStatement(branchStatement, sqlQuery, parameters);
+
+                return createTupleResultSet(set, executableQuery, constructionNode, nativeNode.getVariables(),
+                        nativeNode.getTypeMap(), branchQueryLogger, () -> release(connection));
+            } catch (SQLException e) {
+                try {
+                    release(connection);
+                } catch (OntopConnectionException e1) {
+                    e.addSuppressed(e1);
+                }
+                throw new OntopQueryEvaluationException(e);
+            }
+        }
+
+        /**
+         * The branches executed on the connection of the statement are executed one after the other
+         */
+        private TupleResultSet executeOnStatementConnection(String sqlQuery, ConstructionNode constructionNode,
+                                                            NativeNode nativeNode, QueryLogger branchQueryLogger)
+                throws OntopQueryEvaluationException {
+            isOnStatementConnection = true;
+            try {
+                if (isCanceled)
+                    throw new SQLException("Query execution was cancelled");
+                ResultSet set = executeNativeQuery(sqlQuery, nativeNode.getParameters());
+                // Not cancelled anymore once closed, as the connection may then run the next branch
+                return createTupleResultSet(set, executableQuery, constructionNode, nativeNode.getVariables(),
+                        nativeNode.getTypeMap(), branchQueryLogger, () -> isOnStatementConnection = false);
+            } catch (SQLException e) {
+                isOnStatementConnection = false;
+                throw new OntopQueryEvaluationException(e);
+            }
+        }
+
+        private void release(Connection connection) throws OntopConnectionException {
+            try {
+                Statement branchStatement = statement;
+                statement = null;
+                if (branchStatement != null)
+                    statementInitializer.closeStatement(branchStatement);
+                connection.close();
+            } catch (SQLException e) {
+                throw new OntopConnectionException(e);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            isCanceled = true;
+            try {
+                if (isOnStatementConnection) {
+                    cancelNativeQuery();
+                    return;
+                }
+                Statement branchStatement = statement;
+                if (branchStatement != null)
+                    branchStatement.cancel();
+            } catch (SQLException e) {
+                // The branch may have completed in the meantime
+                log.debug("Could not cancel the query of a union branch: " + e.getMessage());
+            }
+        }
+    }
+
     private NativeNode extractNativeNode(IQ executableQuery) throws EmptyQueryException {
         IQTree tree = executableQuery.getTree();
         if (tree.isDeclaredAsEmpty()) {
@@ -0,0 +1,82 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the branches of the unions evaluated concurrently (see ParallelUnionTupleResultSet).
+ *
+ * Shared by all the connections. Each permit stands for one worker thread and one connection borrowed from
+ * the pool of the union branches (see JDBCConnector.getUnionBranchConnection()), which is separate from
+ * the pool of the statements and as large as the number of permits.
+ *
+ * Permits are never waited for: the branches that do not get one are executed sequentially
+ * on the connection of the statement.
+ */
+@Singleton
+public class UnionBranchExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final ExecutorService executor;
+
+    @Inject
+    private UnionBranchExecutor(OntopSystemSQLSettings settings) {
+        this.maxPermits = Math.max(0, settings.getMaxUnionBranchConnections());
+        this.permits = new Semaphore(maxPermits);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(Math.max(1, maxPermits), Math.max(1, maxPermits),
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                // Never used: the number of tasks is bounded by the permits
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "ontop-union-branch-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        threadPool.allowCoreThreadTimeOut(true);
+        this.executor = threadPool;
+    }
+
+    /**
+     * Acquires at most maxCount permits, without waiting. Returns the number of acquired permits.
+     */
+    public int tryAcquire(int maxCount) {
+        int count = 0;
+        while (count < maxCount && permits.tryAcquire())
+            count++;
+        return count;
+    }
+
+    /**
+     * Executes the task with a permit previously acquired, which is released when the task terminates.
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a permit acquired but not used
+     */
+    public void release() {
+        permits.release();
+    }
+}
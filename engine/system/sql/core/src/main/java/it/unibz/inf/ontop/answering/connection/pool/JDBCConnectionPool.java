@@ -10,4 +10,13 @@ public interface JDBCConnectionPool extends AutoCloseable {
     void close();
 
     Connection getConnection() throws SQLException;
+
+    /**
+     * For creating pools separate from the main one (e.g. for the connections of the union branches).
+     *
+     * These pools start without any connection.
+     */
+    interface Factory {
+        JDBCConnectionPool create(int maxSize);
+    }
 }
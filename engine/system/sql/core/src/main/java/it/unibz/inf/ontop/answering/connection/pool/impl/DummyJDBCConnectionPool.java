@@ -1,7 +1,8 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
-import com.google.inject.Singleton;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
@@ -13,8 +14,9 @@ import java.sql.SQLException;
  * Does not pool any connection, but creates new ones on demand without keeping track of them.
  *
  * It is therefore essential that caller takes care of closing the connection after using it.
+ *
+ * Stateless, so not a singleton (which would not be allowed for the instances created by JDBCConnectionPool.Factory).
  */
-@Singleton
 public class DummyJDBCConnectionPool implements JDBCConnectionPool {
 
     private final OntopSystemSQLSettings settings;
@@ -24,6 +26,14 @@ public class DummyJDBCConnectionPool implements JDBCConnectionPool {
         this.settings = settings;
     }
 
+    /**
+     * The maximum size is ignored
+     */
+    @AssistedInject
+    private DummyJDBCConnectionPool(@Assisted int maxSize, OntopSystemSQLSettings settings) {
+        this(settings);
+    }
+
     @Override
     public void close() {
     }
@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
@@ -19,14 +21,26 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
     @Inject
     private HikariConnectionPool(OntopSystemSQLSettings settings) {
+        this(settings, settings.getConnectionPoolInitialSize(), settings.getConnectionPoolMaxSize());
+    }
+
+    /**
+     * See JDBCConnectionPool.Factory
+     */
+    @AssistedInject
+    private HikariConnectionPool(@Assisted int maxPoolSize, OntopSystemSQLSettings settings) {
+        this(settings, 0, maxPoolSize);
+    }
+
+    private HikariConnectionPool(OntopSystemSQLSettings settings, int minimumIdle, int maxPoolSize) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(settings.getJdbcUrl());
         config.setUsername(settings.getJdbcUser());
         config.setPassword(settings.getJdbcPassword());
         config.setDriverClassName(settings.getJdbcDriver());
 
-        config.setMinimumIdle(settings.getConnectionPoolInitialSize());
-        config.setMaximumPoolSize(settings.getConnectionPoolMaxSize());
+        config.setMinimumIdle(minimumIdle);
+        config.setMaximumPoolSize(maxPoolSize);
         config.setConnectionTimeout(settings.getConnectionTimeout());
         config.setReadOnly(true);
 
@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 import org.apache.tomcat.jdbc.pool.DataSource;
@@ -22,6 +24,18 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     @Inject
     private TomcatConnectionPool(OntopSystemSQLSettings settings) {
+        this(settings, settings.getConnectionPoolInitialSize(), settings.getConnectionPoolMaxSize());
+    }
+
+    /**
+     * See JDBCConnectionPool.Factory
+     */
+    @AssistedInject
+    private TomcatConnectionPool(@Assisted int maxPoolSize, OntopSystemSQLSettings settings) {
+        this(settings, 0, maxPoolSize);
+    }
+
+    private TomcatConnectionPool(OntopSystemSQLSettings settings, int startPoolSize, int maxPoolSize) {
         PoolProperties poolProperties = new PoolProperties();
         poolProperties.setUrl(settings.getJdbcUrl());
         poolProperties.setDriverClassName(settings.getJdbcDriver());
@@ -46,8 +60,6 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
         boolean removeAbandoned = settings.isRemoveAbandonedEnabled();
         int abandonedTimeout = settings.getConnectionTimeout();
-        int startPoolSize = settings.getConnectionPoolInitialSize();
-        int maxPoolSize = settings.getConnectionPoolMaxSize();
         int timeout = settings.getConnectionTimeout();
 
         poolProperties.setTestOnReturn(false);
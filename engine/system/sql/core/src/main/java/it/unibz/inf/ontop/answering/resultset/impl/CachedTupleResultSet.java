@@ -0,0 +1,111 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.cache.CachedSQLResult;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.util.NoSuchElementException;
+
+/**
+ * Replays the rows of a cached native query result.
+ *
+ * The rows are converted into bindings as they are consumed, like the rows coming from the DB.
+ */
+public class CachedTupleResultSet implements TupleResultSet {
+
+    private final CachedSQLResult result;
+    private final ImmutableList<Variable> signature;
+    private final QueryLogger queryLogger;
+    private final RowToBindingConverter rowConverter;
+    /**
+     * Provided when the closing the result set should involve closing the OBDA statement.
+     */
+    @Nullable
+    private final OntopConnectionCloseable statementClosingCB;
+
+    private int rowIndex;
+    private boolean isClosed;
+
+    public CachedTupleResultSet(CachedSQLResult result, ImmutableSortedSet<Variable> sqlSignature,
+                                ImmutableMap<Variable, DBTermType> sqlTypeMap, ConstructionNode constructionNode,
+                                DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger,
+                                @Nullable OntopConnectionCloseable statementClosingCB,
+                                TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.result = result;
+        this.signature = answerAtom.getArguments();
+        this.queryLogger = queryLogger;
+        this.statementClosingCB = statementClosingCB;
+        this.rowConverter = new RowToBindingConverter(sqlSignature, sqlTypeMap, constructionNode.getSubstitution(),
+                answerAtom.getArguments(), termFactory, substitutionFactory);
+        this.rowIndex = 0;
+        this.isClosed = false;
+    }
+
+    @Override
+    public boolean hasNext() throws OntopConnectionException {
+        if (rowIndex < result.getRowCount() && !isClosed)
+            return true;
+        if (!isClosed) {
+            queryLogger.declareLastResultRetrievedAndSerialize(rowIndex);
+            close();
+        }
+        return false;
+    }
+
+    @Override
+    public OntopBindingSet next() throws OntopConnectionException, OntopResultConversionException {
+        if (!hasNext())
+            throw new NoSuchElementException("No next OntopBindingSet in this TupleResultSet");
+        String[] values = result.getRow(rowIndex++);
+        try {
+            return new SQLOntopBindingSet(rowConverter.convert(values));
+        } catch (Exception e) {
+            throw new OntopResultConversionException(e);
+        }
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        if (isClosed)
+            return;
+        isClosed = true;
+        if (statementClosingCB != null)
+            statementClosingCB.close();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return signature.size();
+    }
+
+    @Override
+    public ImmutableList<String> getSignature() {
+        return signature.stream()
+                .map(Variable::getName)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public int getFetchSize() {
+        return result.getRowCount();
+    }
+
+    @Override
+    public boolean isConnectionAlive() {
+        return !isClosed;
+    }
+}
@@ -0,0 +1,86 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.cache.CachedSQLResult;
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Records the rows while they are consumed, and puts them into the result cache once the last one has been read.
+ *
+ * Nothing is cached if the result set is closed before the end or if the rows exceed the maximum size of an entry.
+ */
+public class CachingJDBCTupleResultSet extends JDBCTupleResultSet {
+
+    private final SQLResultCache resultCache;
+    private final String sqlQuery;
+    private final ImmutableList<String> parameters;
+    private final int maxRows;
+
+    // Null once the result cannot be cached anymore
+    @Nullable
+    private CachedSQLResult.Builder builder;
+    // Values of the current row (read once for recording them and computing the bindings)
+    @Nullable
+    private String[] currentValues;
+
+    public CachingJDBCTupleResultSet(ResultSet rs, ImmutableSortedSet<Variable> sqlSignature,
+                                     ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                                     ConstructionNode constructionNode,
+                                     DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger,
+                                     @Nullable OntopConnectionCloseable statementClosingCB,
+                                     TermFactory termFactory, SubstitutionFactory substitutionFactory,
+                                     SQLResultCache resultCache, String sqlQuery, ImmutableList<String> parameters,
+                                     int maxRows) {
+        super(rs, sqlSignature, sqlTypeMap, constructionNode, answerAtom, queryLogger, statementClosingCB,
+                termFactory, substitutionFactory);
+        this.resultCache = resultCache;
+        this.sqlQuery = sqlQuery;
+        this.parameters = parameters;
+        this.maxRows = maxRows;
+        this.builder = resultCache.createBuilder(sqlSignature.size());
+    }
+
+    @Override
+    protected boolean moveCursor() throws SQLException, OntopConnectionException {
+        if (!rs.next()) {
+            currentValues = null;
+            if (builder != null) {
+                resultCache.put(sqlQuery, parameters, maxRows, builder.build());
+                builder = null;
+            }
+            return false;
+        }
+        currentValues = readValues();
+        if (builder != null && !builder.add(currentValues))
+            builder = null;
+        return true;
+    }
+
+    @Override
+    protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException, OntopResultConversionException {
+        return currentValues == null
+                ? super.readCurrentRow()
+                : convert(currentValues);
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        builder = null;
+        super.close();
+    }
+}
@@ -40,6 +40,8 @@ import java.util.*;
 /**
  * Class to handle distinct in SPARQL query. Avoid returning duplicate rows.
  * See test case DistinctResultSetTest
+ *
+ * Replaced by HashDistinctJDBCTupleResultSet, which does not keep the rows themselves.
  */
 
 @Deprecated
@@ -0,0 +1,125 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Applies the DISTINCT as a post-processing step: skips the rows already returned.
+ *
+ * Only a 128-bit fingerprint of each returned row is kept (see RowFingerprinter), in a primitive hash set
+ * whose heap size is bounded by a memory budget (see RowFingerprintSet).
+ * Considering the size of the fingerprints, the probability that two distinct rows collide is negligible.
+ *
+ * Replaces DistinctJDBCTupleResultSet.
+ */
+public class HashDistinctJDBCTupleResultSet extends JDBCTupleResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashDistinctJDBCTupleResultSet.class);
+
+    private final RowFingerprinter fingerprinter;
+    private final RowFingerprintSet fingerprints;
+
+    // Values of the current row (read once for computing the fingerprint and the bindings)
+    @Nullable
+    private String[] currentValues;
+    private long readRowCount = 0;
+    private long duplicateCount = 0;
+    private boolean isClosed = false;
+
+    public HashDistinctJDBCTupleResultSet(ResultSet rs, ImmutableSortedSet<Variable> sqlSignature,
+                                          ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                                          ConstructionNode constructionNode,
+                                          DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger,
+                                          @Nullable OntopConnectionCloseable statementClosingCB,
+                                          TermFactory termFactory, SubstitutionFactory substitutionFactory,
+                                          int maxMemoryInMB, boolean isSpillEnabled) {
+        super(rs, sqlSignature, sqlTypeMap, constructionNode, answerAtom, queryLogger, statementClosingCB,
+                termFactory, substitutionFactory);
+        this.fingerprinter = new RowFingerprinter();
+        this.fingerprints = new RowFingerprintSet(maxMemoryInMB * 1024L * 1024L, isSpillEnabled);
+    }
+
+    /**
+     * Moves the cursor until a fresh row is found
+     */
+    @Override
+    protected boolean moveCursor() throws SQLException, OntopConnectionException {
+        while (rs.next()) {
+            readRowCount++;
+            String[] values = readValues();
+            fingerprinter.computeFingerprint(values);
+            boolean isFresh;
+            try {
+                isFresh = fingerprints.add(fingerprinter.getHigh(), fingerprinter.getLow());
+            } catch (IOException e) {
+                throw buildConnectionException(e);
+            }
+            if (isFresh) {
+                currentValues = values;
+                return true;
+            }
+            duplicateCount++;
+        }
+        currentValues = null;
+        return false;
+    }
+
+    @Override
+    protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException, OntopResultConversionException {
+        return currentValues == null
+                ? super.readCurrentRow()
+                : convert(currentValues);
+    }
+
+    /**
+     * Number of rows read so far from the DB (duplicates included)
+     */
+    public long getReadRowCount() {
+        return readRowCount;
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Proportion of the rows read so far that have been discarded as duplicates
+     */
+    public double getDuplicateRatio() {
+        return readRowCount == 0 ? 0 : ((double) duplicateCount) / readRowCount;
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        try {
+            super.close();
+        } finally {
+            if (!isClosed) {
+                isClosed = true;
+                LOGGER.debug("DISTINCT post-processing: {} rows read, {} duplicates (ratio: {}), fingerprints spilled to disk: {}",
+                        readRowCount, duplicateCount, getDuplicateRatio(), fingerprints.isSpilled());
+                try {
+                    fingerprints.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not release the row fingerprints: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -2,29 +2,23 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.*;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
-import it.unibz.inf.ontop.answering.resultset.OntopBinding;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
-import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
-import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Iterator;
-import java.util.Optional;
 
 public class JDBCTupleResultSet extends AbstractTupleResultSet {
 
-    private final ImmutableSortedSet<Variable> sqlSignature;
-    private final ImmutableMap<Variable, DBTermType> sqlTypeMap;
-    private final ImmutableSubstitution<ImmutableTerm> sparqlVar2Term;
-    private final SubstitutionFactory substitutionFactory;
-    private final TermFactory termFactory;
+    private final int columnCount;
+    private final RowToBindingConverter rowConverter;
 
     public JDBCTupleResultSet(ResultSet rs,
                               ImmutableSortedSet<Variable> sqlSignature,
@@ -35,76 +29,38 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet {
                               TermFactory termFactory,
                               SubstitutionFactory substitutionFactory) {
         super(rs, answerAtom.getArguments(),queryLogger, statementClosingCB);
-        this.sqlSignature = sqlSignature;
-        this.sqlTypeMap = sqlTypeMap;
-        this.substitutionFactory = substitutionFactory;
-        this.termFactory = termFactory;
-        this.sparqlVar2Term = constructionNode.getSubstitution();
+        this.columnCount = sqlSignature.size();
+        // Compiled once for all the rows
+        this.rowConverter = new RowToBindingConverter(sqlSignature, sqlTypeMap, constructionNode.getSubstitution(),
+                answerAtom.getArguments(), termFactory, substitutionFactory);
     }
 
 
     @Override
     protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException, OntopResultConversionException {
-        //builder (+loop) in order to throw checked exception
-        final ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
-        Iterator<Variable> it = sqlSignature.iterator();
+        return convert(readValues());
+    }
+
+    /**
+     * Values of the current row, in the order of the SQL signature
+     */
+    protected String[] readValues() throws OntopConnectionException {
+        String[] values = new String[columnCount];
         try {
-            for (int i = 1; i <= sqlSignature.size(); i++) {
-                Variable var = it.next();
-                builder.put(
-                        var,
-                        convertToConstant(
-                            rs.getString(i),
-                            sqlTypeMap.get(var)
-                        ));
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = rs.getString(i + 1);
             }
         } catch (SQLException e) {
             throw buildConnectionException(e);
         }
+        return values;
+    }
+
+    protected SQLOntopBindingSet convert(String[] values) throws OntopResultConversionException {
         try {
-            return new SQLOntopBindingSet(computeBindingMap(substitutionFactory.getSubstitution(builder.build())));
+            return new SQLOntopBindingSet(rowConverter.convert(values));
         } catch (Exception e) {
             throw new OntopResultConversionException(e);
         }
     }
-
-    private Constant convertToConstant(@Nullable String jdbcValue, DBTermType termType) {
-        if (jdbcValue == null)
-            return termFactory.getNullConstant();
-        return termFactory.getDBConstant(jdbcValue, termType);
-    }
-
-    private OntopBinding[] computeBindingMap(ImmutableSubstitution<Constant> sqlVar2Constant) {
-        ImmutableSubstitution<ImmutableTerm> composition = sqlVar2Constant.composeWith(sparqlVar2Term);
-        //this can be improved and simplified
-        return signature.stream()
-                       .map(v -> getBinding(v,composition))
-                       .filter(Optional::isPresent)
-                       .map(Optional::get)
-                       .toArray(OntopBinding[]::new);
-    }
-
-    private Optional<OntopBinding> getBinding(Variable v, ImmutableSubstitution<ImmutableTerm> composition) {
-        Optional<RDFConstant> constant = evaluate(composition.apply(v));
-        return constant.map(rdfConstant -> new OntopBindingImpl(v, rdfConstant));
-    }
-
-    private Optional<RDFConstant> evaluate(ImmutableTerm term) {
-        ImmutableTerm simplifiedTerm = term.simplify();
-        if (simplifiedTerm instanceof Constant){
-            if (simplifiedTerm instanceof RDFConstant) {
-                return Optional.of((RDFConstant) simplifiedTerm);
-            }
-            Constant constant = (Constant) simplifiedTerm;
-            if (constant.isNull()) {
-                return Optional.empty();
-            }
-            if(constant instanceof DBConstant){
-                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
-                        constant +"is a DB constant. But a binding cannot have a DB constant as value");
-            }
-            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for "+constant);
-        }
-        throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
-    }
 }
@@ -0,0 +1,442 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.connection.impl.UnionBranchExecutor;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Merges the results of the branches of a union, the branches being executed concurrently by the worker threads
+ * of the shared UnionBranchExecutor.
+ *
+ * The first branch is executed on the connection of the statement. Each of the other branches is executed
+ * on a connection of its own if a permit of the executor is available. Otherwise, it is executed after
+ * the first branch, on the connection of the statement. When no permit is available at all, the branches are
+ * executed sequentially by the consumer.
+ *
+ * The tuples produced by the workers are merged into a bounded queue, from which they are consumed lazily.
+ * The order of the tuples is therefore not deterministic.
+ *
+ * When a branch fails, the other branches are cancelled and the failure is reported to the consumer.
+ * Closing the result set (or cancelling it) cancels the branches that are still running.
+ */
+public class ParallelUnionTupleResultSet implements TupleResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelUnionTupleResultSet.class);
+    private static final long POLLING_TIMEOUT_MS = 50;
+    private static final int QUEUE_CAPACITY = 1000;
+    // Lifecycle events and failures of the branches are reported by the merged result set
+    private static final QueryLogger BRANCH_QUERY_LOGGER = new BranchQueryLogger();
+
+    private final ImmutableList<Branch> branches;
+    private final ImmutableList<Variable> signature;
+    private final QueryLogger queryLogger;
+    private final int fetchSize;
+    // Ignored if <= 0
+    private final int maxRows;
+    /**
+     * Provided when the closing the result set should involve closing the OBDA statement.
+     */
+    @Nullable
+    private final OntopConnectionCloseable statementClosingCB;
+    private final UnionBranchExecutor executor;
+    private final BlockingQueue<Item> queue;
+
+    private volatile boolean isStarted;
+    // No worker: the branches are executed by the consumer
+    private boolean isSequential;
+    private volatile boolean isClosed;
+    private volatile boolean isCanceled;
+
+    // Consumer side
+    @Nullable
+    private OntopBindingSet nextBindingSet;
+    private int finishedBranchCount;
+    private long rowCount;
+    // Sequential execution only
+    @Nullable
+    private volatile TupleResultSet currentBranchResultSet;
+
+    public ParallelUnionTupleResultSet(ImmutableList<Branch> branches, ImmutableList<Variable> signature,
+                                       QueryLogger queryLogger, int fetchSize, int maxRows,
+                                       @Nullable OntopConnectionCloseable statementClosingCB,
+                                       UnionBranchExecutor executor) {
+        this.branches = branches;
+        this.signature = signature;
+        this.queryLogger = queryLogger;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.statementClosingCB = statementClosingCB;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        this.isStarted = false;
+        this.isSequential = false;
+        this.isClosed = false;
+        this.isCanceled = false;
+        this.nextBindingSet = null;
+        this.finishedBranchCount = 0;
+        this.rowCount = 0;
+        this.currentBranchResultSet = null;
+    }
+
+    /**
+     * Starts executing the branches, with as many workers as permits obtained from the executor (never waits for them)
+     */
+    public synchronized void start() {
+        if (isStarted || isClosed)
+            return;
+        isStarted = true;
+
+        // One for the worker on the connection of the statement, one per other branch on its own connection
+        int workerCount = executor.tryAcquire(branches.size());
+        if (workerCount == 0) {
+            LOGGER.debug("No worker available for the branches of the union: executed sequentially");
+            isSequential = true;
+            return;
+        }
+
+        ImmutableList<Branch> statementConnectionBranches = Stream.concat(
+                        Stream.of(branches.get(0)),
+                        branches.subList(workerCount, branches.size()).stream())
+                .collect(ImmutableCollectors.toList());
+
+        int startedWorkerCount = 0;
+        try {
+            executor.execute(() -> work(statementConnectionBranches, true));
+            startedWorkerCount++;
+            for (Branch branch : branches.subList(1, workerCount)) {
+                executor.execute(() -> work(ImmutableList.of(branch), false));
+                startedWorkerCount++;
+            }
+        } catch (RejectedExecutionException e) {
+            // Not expected: the workers are bounded by the permits
+            for (int i = startedWorkerCount + 1; i < workerCount; i++)
+                executor.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+        if (!isStarted)
+            start();
+
+        if (nextBindingSet != null)
+            return true;
+        if (finishedBranchCount == branches.size())
+            return false;
+
+        if (isSequential)
+            return hasNextSequentially();
+
+        while (finishedBranchCount < branches.size() && (maxRows <= 0 || rowCount < maxRows)) {
+            Item item = takeItem();
+            if (item.bindingSet != null) {
+                nextBindingSet = item.bindingSet;
+                rowCount++;
+                return true;
+            }
+            else if (item.exception != null)
+                handleFailure(item.exception);
+            else
+                finishedBranchCount++;
+        }
+        return terminate();
+    }
+
+    /**
+     * The branches are executed one after the other by the consumer, on the connection of the statement
+     */
+    private boolean hasNextSequentially() throws OntopConnectionException, OntopResultConversionException {
+        while (finishedBranchCount < branches.size() && (maxRows <= 0 || rowCount < maxRows)) {
+            checkOpen();
+            try {
+                TupleResultSet resultSet = currentBranchResultSet;
+                if (resultSet == null) {
+                    resultSet = branches.get(finishedBranchCount).execute(BRANCH_QUERY_LOGGER, true);
+                    currentBranchResultSet = resultSet;
+                }
+                if (resultSet.hasNext()) {
+                    nextBindingSet = resultSet.next();
+                    rowCount++;
+                    return true;
+                }
+                currentBranchResultSet = null;
+                resultSet.close();
+                finishedBranchCount++;
+            } catch (OntopQueryAnsweringException | OntopConnectionException | RuntimeException e) {
+                handleFailure(e);
+            }
+        }
+        return terminate();
+    }
+
+    /**
+     * Possibly interrupted by maxRows
+     */
+    private boolean terminate() throws OntopConnectionException {
+        finishedBranchCount = branches.size();
+        queryLogger.declareLastResultRetrievedAndSerialize(rowCount);
+        close();
+        return false;
+    }
+
+    @Override
+    public OntopBindingSet next() throws OntopConnectionException, OntopResultConversionException {
+        if (!hasNext())
+            throw new NoSuchElementException("No next OntopBindingSet in this TupleResultSet");
+        OntopBindingSet bindingSet = nextBindingSet;
+        nextBindingSet = null;
+        return bindingSet;
+    }
+
+    private void checkOpen() throws OntopConnectionException {
+        if (isClosed)
+            throw buildConnectionException(new OntopQueryEvaluationException(isCanceled
+                    ? "Query execution was cancelled"
+                    : "The result set is closed"));
+    }
+
+    private Item takeItem() throws OntopConnectionException {
+        try {
+            while (true) {
+                checkOpen();
+                Item item = queue.poll(POLLING_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (item != null)
+                    return item;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw buildConnectionException(e);
+        }
+    }
+
+    private void handleFailure(Exception e) throws OntopConnectionException, OntopResultConversionException {
+        LOGGER.debug("Problem while evaluating a branch of the union: " + e.getMessage());
+        close();
+        if (e instanceof OntopConnectionException) {
+            queryLogger.declareConnectionException(e);
+            throw (OntopConnectionException) e;
+        }
+        if (e instanceof OntopResultConversionException) {
+            queryLogger.declareEvaluationException(e);
+            throw (OntopResultConversionException) e;
+        }
+        if (e instanceof RuntimeException) {
+            queryLogger.declareEvaluationException(e);
+            throw (RuntimeException) e;
+        }
+        throw buildConnectionException(e);
+    }
+
+    /**
+     * Run by each worker. The branches are executed one after the other.
+     */
+    private void work(ImmutableList<Branch> workerBranches, boolean onStatementConnection) {
+        try {
+            for (Branch branch : workerBranches) {
+                if (isClosed)
+                    return;
+                try (TupleResultSet resultSet = branch.execute(BRANCH_QUERY_LOGGER, onStatementConnection)) {
+                    while ((!isClosed) && resultSet.hasNext()) {
+                        put(Item.bindingSet(resultSet.next()));
+                    }
+                    put(Item.END);
+                } catch (OntopQueryAnsweringException | OntopConnectionException | RuntimeException e) {
+                    // Failures of the cancelled branches are expected
+                    if (!isClosed)
+                        put(Item.failure(e));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gives up when the result set is closed (nobody is consuming the tuples anymore)
+     */
+    private void put(Item item) throws InterruptedException {
+        while (!isClosed) {
+            if (queue.offer(item, POLLING_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                return;
+        }
+    }
+
+    /**
+     * Cancels the branches that are still running. Can be called from another thread than the consumer.
+     */
+    public void cancel() throws OntopConnectionException {
+        isCanceled = true;
+        close();
+    }
+
+    /**
+     * Cancels the branches that are still running. The workers then stop and release their connections.
+     */
+    @Override
+    public void close() throws OntopConnectionException {
+        synchronized (this) {
+            if (isClosed)
+                return;
+            isClosed = true;
+        }
+        branches.forEach(Branch::cancel);
+        queue.clear();
+
+        try {
+            TupleResultSet resultSet = currentBranchResultSet;
+            if (resultSet != null) {
+                currentBranchResultSet = null;
+                resultSet.close();
+            }
+        } finally {
+            if (statementClosingCB != null)
+                statementClosingCB.close();
+        }
+    }
+
+    @Override
+    public int getColumnCount() {
+        return signature.size();
+    }
+
+    @Override
+    public ImmutableList<String> getSignature() {
+        return signature.stream()
+                .map(Variable::getName)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public boolean isConnectionAlive() {
+        return !isClosed;
+    }
+
+    private OntopConnectionException buildConnectionException(Exception e) {
+        queryLogger.declareConnectionException(e);
+        return new OntopConnectionException(e);
+    }
+
+
+    /**
+     * Native query of a branch of the union
+     */
+    public interface Branch {
+
+        /**
+         * Called by a worker thread (or by the consumer when the branches are executed sequentially).
+         * Executed either on the connection of the statement or on a connection of its own.
+         *
+         * Closing the returned result set must release the resources used by the branch (e.g. its connection).
+         */
+        TupleResultSet execute(QueryLogger branchQueryLogger, boolean onStatementConnection)
+                throws OntopQueryEvaluationException, OntopConnectionException;
+
+        /**
+         * Cancels the native query if it is running. May be called several times and from any thread.
+         */
+        void cancel();
+    }
+
+    /**
+     * Tuple, failure of a branch, or end of a branch
+     */
+    private static class Item {
+        private static final Item END = new Item(null, null);
+
+        @Nullable
+        private final OntopBindingSet bindingSet;
+        @Nullable
+        private final Exception exception;
+
+        private Item(@Nullable OntopBindingSet bindingSet, @Nullable Exception exception) {
+            this.bindingSet = bindingSet;
+            this.exception = exception;
+        }
+
+        static Item bindingSet(OntopBindingSet bindingSet) {
+            return new Item(bindingSet, null);
+        }
+
+        static Item failure(Exception exception) {
+            return new Item(null, exception);
+        }
+    }
+
+    private static class BranchQueryLogger implements QueryLogger {
+
+        @Override
+        public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        }
+
+        @Override
+        public void declareReformulationFinishedAndSerialize(ImmutableList<IQ> reformulatedQueries, boolean wasCached) {
+        }
+
+        @Override
+        public void setReformulationCacheStatistics(boolean wasTemplateInstantiated, double cacheHitRate) {
+        }
+
+        @Override
+        public void declareResultSetUnblockedAndSerialize() {
+        }
+
+        @Override
+        public void declareLastResultRetrievedAndSerialize(long rowCount) {
+        }
+
+        @Override
+        public void declareReformulationException(OntopReformulationException e) {
+        }
+
+        @Override
+        public void declareEvaluationException(Exception e) {
+        }
+
+        @Override
+        public void declareConnectionException(Exception e) {
+        }
+
+        @Override
+        public void declareConversionException(InconsistentOntologyException e) {
+        }
+
+        @Override
+        public void setSparqlQuery(String sparqlQuery) {
+        }
+
+        @Override
+        public void setSparqlIQ(IQ sparqlIQ) {
+        }
+
+        @Override
+        public void setPlannedQuery(IQ plannedQuery) {
+        }
+
+        @Override
+        public void setPredefinedQuery(String queryId, ImmutableMap<String, String> bindings) {
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Set of 128-bit fingerprints, stored in an open-addressing table (linear probing) of primitive longs.
+ *
+ * The table is kept in the heap as long as its size does not exceed the memory budget.
+ * Beyond that, if spilling is enabled, it is moved to a memory-mapped temporary file
+ * (deleted when the set is closed). Otherwise, it keeps growing in the heap.
+ *
+ * Not thread-safe.
+ */
+class RowFingerprintSet implements Closeable {
+
+    private static final int INITIAL_SLOT_COUNT = 1 << 10;
+    // Each slot holds the two longs of a fingerprint
+    private static final int SLOT_SIZE_IN_BYTES = 16;
+    private static final int MAX_LOAD_PERCENTAGE = 70;
+    // Limit of Java arrays
+    private static final long MAX_HEAP_SLOT_COUNT = 1L << 30;
+
+    private final long maxHeapSizeInBytes;
+    private final boolean isSpillEnabled;
+
+    private Slots slots;
+    private long slotCount;
+    private long occupiedSlotCount;
+    // The fingerprint (0,0) marks the empty slots so is not stored in the table
+    private boolean containsZero;
+
+    RowFingerprintSet(long maxHeapSizeInBytes, boolean isSpillEnabled) {
+        this.maxHeapSizeInBytes = maxHeapSizeInBytes;
+        this.isSpillEnabled = isSpillEnabled;
+        this.slotCount = INITIAL_SLOT_COUNT;
+        this.slots = new HeapSlots(slotCount);
+    }
+
+    /**
+     * Returns false if the fingerprint was already present
+     */
+    boolean add(long high, long low) throws IOException {
+        if (high == 0 && low == 0) {
+            if (containsZero)
+                return false;
+            containsZero = true;
+            return true;
+        }
+
+        if ((occupiedSlotCount + 1) * 100 > slotCount * MAX_LOAD_PERCENTAGE)
+            grow();
+
+        if (insert(slots, slotCount, high, low)) {
+            occupiedSlotCount++;
+            return true;
+        }
+        return false;
+    }
+
+    long size() {
+        return containsZero ? occupiedSlotCount + 1 : occupiedSlotCount;
+    }
+
+    boolean isSpilled() {
+        return slots instanceof MappedSlots;
+    }
+
+    private static boolean insert(Slots slots, long slotCount, long high, long low) {
+        long mask = slotCount - 1;
+        // The fingerprint is already uniformly distributed
+        for (long i = low & mask; ; i = (i + 1) & mask) {
+            long h = slots.get(2 * i);
+            long l = slots.get(2 * i + 1);
+            if (h == 0 && l == 0) {
+                slots.set(2 * i, high);
+                slots.set(2 * i + 1, low);
+                return true;
+            }
+            if (h == high && l == low)
+                return false;
+        }
+    }
+
+    private void grow() throws IOException {
+        long newSlotCount = slotCount * 2;
+        Slots newSlots = createSlots(newSlotCount);
+
+        try {
+            for (long i = 0; i < slotCount; i++) {
+                long h = slots.get(2 * i);
+                long l = slots.get(2 * i + 1);
+                if (h != 0 || l != 0)
+                    insert(newSlots, newSlotCount, h, l);
+            }
+        } catch (RuntimeException e) {
+            newSlots.close();
+            throw e;
+        }
+
+        slots.close();
+        slots = newSlots;
+        slotCount = newSlotCount;
+    }
+
+    private Slots createSlots(long newSlotCount) throws IOException {
+        boolean isAboveBudget = newSlotCount * SLOT_SIZE_IN_BYTES > maxHeapSizeInBytes;
+        if (isSpilled() || (isSpillEnabled && isAboveBudget))
+            return new MappedSlots(newSlotCount);
+        if (newSlotCount > MAX_HEAP_SLOT_COUNT)
+            throw new IllegalStateException("Too many distinct rows for keeping their fingerprints in the heap. " +
+                    "Consider enabling the spilling to disk");
+        return new HeapSlots(newSlotCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        slots.close();
+    }
+
+
+    private interface Slots extends Closeable {
+        long get(long index);
+        void set(long index, long value);
+    }
+
+    private static class HeapSlots implements Slots {
+        private final long[] values;
+
+        HeapSlots(long slotCount) {
+            values = new long[(int) (slotCount * 2)];
+        }
+
+        @Override
+        public long get(long index) {
+            return values[(int) index];
+        }
+
+        @Override
+        public void set(long index, long value) {
+            values[(int) index] = value;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Longs stored in a temporary file, mapped by segments of 1 GB (mapped buffers are limited to 2 GB)
+     */
+    private static class MappedSlots implements Slots {
+        private static final int SEGMENT_SHIFT = 27;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final FileChannel channel;
+        private final LongBuffer[] segments;
+
+        MappedSlots(long slotCount) throws IOException {
+            Path file = Files.createTempFile("ontop-distinct-", ".tmp");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            try {
+                long longCount = slotCount * 2;
+                int segmentCount = (int) ((longCount + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+                segments = new LongBuffer[segmentCount];
+                for (int i = 0; i < segmentCount; i++) {
+                    long start = (long) i << SEGMENT_SHIFT;
+                    long length = Math.min(SEGMENT_MASK + 1, longCount - start);
+                    // The file is extended with zeros (empty slots)
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * 8, length * 8)
+                            .asLongBuffer();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public long get(long index) {
+            return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+        }
+
+        @Override
+        public void set(long index, long value) {
+            segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+        }
+
+        /**
+         * The mapping remains valid until the buffers are garbage-collected
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
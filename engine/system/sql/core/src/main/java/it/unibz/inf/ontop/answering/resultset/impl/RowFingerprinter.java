@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import javax.annotation.Nullable;
+
+/**
+ * Computes a 128-bit fingerprint of a row of string values, without allocating.
+ *
+ * Follows the block mixing and the finalization of MurmurHash3 (x64, 128 bits),
+ * the chars of the values being packed by 4 into 64-bit words.
+ * Each value is preceded by its length (-1 for null) so that no two distinct rows are fed the same words.
+ *
+ * Not thread-safe. The fingerprint of the last row is available through getHigh() and getLow().
+ */
+final class RowFingerprinter {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEED = 0x9747b28cL;
+
+    private long h1;
+    private long h2;
+    private long pendingWord;
+    private boolean hasPendingWord;
+    private long wordCount;
+
+    void computeFingerprint(String[] values) {
+        h1 = SEED;
+        h2 = SEED;
+        hasPendingWord = false;
+        wordCount = 0;
+
+        for (String value : values)
+            putValue(value);
+
+        if (hasPendingWord)
+            mixTail(pendingWord);
+        finish();
+    }
+
+    long getHigh() {
+        return h1;
+    }
+
+    long getLow() {
+        return h2;
+    }
+
+    private void putValue(@Nullable String value) {
+        if (value == null) {
+            putWord(-1L);
+            return;
+        }
+        int length = value.length();
+        putWord(length);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putWord(((long) value.charAt(i) << 48)
+                    | ((long) value.charAt(i + 1) << 32)
+                    | ((long) value.charAt(i + 2) << 16)
+                    | (long) value.charAt(i + 3));
+        }
+        if (i < length) {
+            long word = 0;
+            for (; i < length; i++)
+                word = (word << 16) | value.charAt(i);
+            putWord(word);
+        }
+    }
+
+    private void putWord(long word) {
+        wordCount++;
+        if (hasPendingWord) {
+            mixBlock(pendingWord, word);
+            hasPendingWord = false;
+        }
+        else {
+            pendingWord = word;
+            hasPendingWord = true;
+        }
+    }
+
+    private void mixBlock(long k1, long k2) {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private void mixTail(long k1) {
+        h1 ^= mixK1(k1);
+    }
+
+    private void finish() {
+        long length = wordCount * 8;
+        h1 ^= length;
+        h2 ^= length;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        h1 += h2;
+        h2 += h1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
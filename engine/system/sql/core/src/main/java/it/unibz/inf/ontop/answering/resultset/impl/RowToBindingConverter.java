@@ -0,0 +1,413 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBIfElseNullFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBIsNullOrNotFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBTypeConversionFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Converts the rows returned by the DB (string values of the columns of the native query)
+ * into bindings of the projected variables.
+ *
+ * The terms of the substitution of the root construction node are compiled once:
+ *   - RDF(lexical, type) terms are evaluated directly, with the RDF term type usually being a constant,
+ *   - IRI and bnode templates are evaluated by concatenating their fragments with the IRI-safe encoded values,
+ *   - simple casts (not changing the string representation) are skipped,
+ *   - IF_ELSE_NULL(IS_NOT_NULL(x), ...) are evaluated by checking the value of the column of x.
+ *
+ * The other terms are evaluated by simplifying them after replacing the variables by the DB values,
+ * as done for the whole term in the general case.
+ * Whenever a compiled term meets a case that it does not handle (e.g. a sub-term not evaluating to a DB constant),
+ * it falls back to this general evaluation, so that the bindings are always the same.
+ *
+ * Immutable: can be shared by all the result sets of the same executable query.
+ */
+public class RowToBindingConverter {
+
+    private final ImmutableList<Variable> sqlVariables;
+    private final ImmutableList<DBTermType> sqlTypes;
+    private final ImmutableMap<Variable, Integer> sqlVariableIndexes;
+    private final ImmutableList<Variable> signature;
+    private final ImmutableList<TermEvaluator> evaluators;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+
+    public RowToBindingConverter(ImmutableSortedSet<Variable> sqlSignature, ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                                 ImmutableSubstitution<ImmutableTerm> sparqlVar2Term, ImmutableList<Variable> signature,
+                                 TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.sqlVariables = sqlSignature.asList();
+        this.sqlTypes = sqlVariables.stream()
+                .map(sqlTypeMap::get)
+                .collect(ImmutableCollectors.toList());
+        this.sqlVariableIndexes = IntStream.range(0, sqlVariables.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(sqlVariables::get, i -> i));
+        this.signature = signature;
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.evaluators = signature.stream()
+                .map(v -> compile(Optional.ofNullable(sparqlVar2Term.get(v))
+                        .orElse(v)))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * The values are given in the order of the SQL signature (null for a SQL NULL).
+     *
+     * Unbound variables are not part of the returned array.
+     */
+    public OntopBinding[] convert(String[] values) {
+        Row row = new Row(values);
+
+        OntopBinding[] bindings = new OntopBinding[evaluators.size()];
+        int count = 0;
+        for (int i = 0; i < bindings.length; i++) {
+            RDFConstant constant = evaluators.get(i).evaluate(row);
+            if (constant != null)
+                bindings[count++] = new OntopBindingImpl(signature.get(i), constant);
+        }
+        return count == bindings.length
+                ? bindings
+                : Arrays.copyOf(bindings, count);
+    }
+
+    private TermEvaluator compile(ImmutableTerm term) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            return r -> constant;
+        }
+        if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            if (functionalTerm.getFunctionSymbol() instanceof RDFTermFunctionSymbol)
+                return new RDFTermEvaluator(compileValue(functionalTerm.getTerm(0)),
+                        compileType(functionalTerm.getTerm(1)), term);
+        }
+        return new GeneralTermEvaluator(term);
+    }
+
+    private ValueEvaluator compileValue(ImmutableTerm term) {
+        if (term instanceof Variable) {
+            Integer index = sqlVariableIndexes.get(term);
+            if (index != null)
+                return r -> r.values[index];
+        }
+        else if (term instanceof DBConstant) {
+            String value = ((DBConstant) term).getValue();
+            return r -> value;
+        }
+        else if ((term instanceof Constant) && term.isNull()) {
+            return r -> null;
+        }
+        else if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+
+            if (functionSymbol instanceof ObjectStringTemplateFunctionSymbol)
+                return new TemplateEvaluator(
+                        ((ObjectStringTemplateFunctionSymbol) functionSymbol).getTemplateComponents(),
+                        functionalTerm.getTerms().stream()
+                                .map(this::compileValue)
+                                .collect(ImmutableCollectors.toList()));
+
+            // Does not change the string representation
+            if ((functionSymbol instanceof DBTypeConversionFunctionSymbol)
+                    && ((DBTypeConversionFunctionSymbol) functionSymbol).isSimple())
+                return compileValue(functionalTerm.getTerm(0));
+
+            Optional<Integer> notNullIndex = extractIfNotNullIndex(functionalTerm);
+            if (notNullIndex.isPresent()) {
+                int index = notNullIndex.get();
+                ValueEvaluator thenEvaluator = compileValue(functionalTerm.getTerm(1));
+                return r -> r.values[index] == null ? null : thenEvaluator.evaluate(r);
+            }
+        }
+        return new GeneralValueEvaluator(term);
+    }
+
+    private TypeEvaluator compileType(ImmutableTerm term) {
+        if (term instanceof RDFTermTypeConstant) {
+            RDFTermType termType = ((RDFTermTypeConstant) term).getRDFTermType();
+            if (!termType.isAbstract())
+                return r -> termType;
+        }
+        else if (term instanceof ImmutableFunctionalTerm) {
+            Optional<Integer> notNullIndex = extractIfNotNullIndex((ImmutableFunctionalTerm) term);
+            if (notNullIndex.isPresent()) {
+                int index = notNullIndex.get();
+                TypeEvaluator thenEvaluator = compileType(((ImmutableFunctionalTerm) term).getTerm(1));
+                return r -> r.values[index] == null ? null : thenEvaluator.evaluate(r);
+            }
+        }
+        return new GeneralTypeEvaluator(term);
+    }
+
+    /**
+     * Index of the column x for IF_ELSE_NULL(IS_NOT_NULL(x), ...)
+     */
+    private Optional<Integer> extractIfNotNullIndex(ImmutableFunctionalTerm functionalTerm) {
+        if (!(functionalTerm.getFunctionSymbol() instanceof DBIfElseNullFunctionSymbol))
+            return Optional.empty();
+
+        return Optional.of(functionalTerm.getTerm(0))
+                .filter(c -> c instanceof ImmutableFunctionalTerm)
+                .map(c -> (ImmutableFunctionalTerm) c)
+                .filter(c -> (c.getFunctionSymbol() instanceof DBIsNullOrNotFunctionSymbol)
+                        && !((DBIsNullOrNotFunctionSymbol) c.getFunctionSymbol()).isTrueWhenNull())
+                .map(c -> c.getTerm(0))
+                .map(sqlVariableIndexes::get);
+    }
+
+    /**
+     * Evaluation of the original term, as for the non-compiled conversion
+     */
+    @Nullable
+    private RDFConstant evaluateInGeneral(ImmutableTerm term, Row row) {
+        ImmutableTerm simplifiedTerm = row.getSubstitution().apply(term).simplify();
+        if (simplifiedTerm instanceof Constant) {
+            if (simplifiedTerm instanceof RDFConstant) {
+                return (RDFConstant) simplifiedTerm;
+            }
+            Constant constant = (Constant) simplifiedTerm;
+            if (constant.isNull()) {
+                return null;
+            }
+            if (constant instanceof DBConstant) {
+                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
+                        constant + "is a DB constant. But a binding cannot have a DB constant as value");
+            }
+            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for " + constant);
+        }
+        throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+    }
+
+
+    /**
+     * Mutable: one per row
+     */
+    private class Row {
+        private final String[] values;
+        @Nullable
+        private ImmutableSubstitution<Constant> substitution;
+
+        private Row(String[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Only built for the terms that are not compiled
+         */
+        ImmutableSubstitution<Constant> getSubstitution() {
+            if (substitution == null) {
+                substitution = substitutionFactory.getSubstitution(IntStream.range(0, values.length)
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(
+                                sqlVariables::get,
+                                i -> values[i] == null
+                                        ? termFactory.getNullConstant()
+                                        : termFactory.getDBConstant(values[i], sqlTypes.get(i)))));
+            }
+            return substitution;
+        }
+    }
+
+    /**
+     * Thrown when a compiled term cannot decide on the value. Not meant to escape this class.
+     */
+    private static class NotCompiledCaseException extends Exception {
+        private static final NotCompiledCaseException INSTANCE = new NotCompiledCaseException();
+
+        private NotCompiledCaseException() {
+            super(null, null, false, false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TermEvaluator {
+        /**
+         * Returns null if the variable is not bound
+         */
+        @Nullable
+        RDFConstant evaluate(Row row);
+    }
+
+    /**
+     * For DB terms, expected to evaluate to DB constants
+     */
+    @FunctionalInterface
+    private interface ValueEvaluator {
+        /**
+         * Returns null for NULL
+         */
+        @Nullable
+        String evaluate(Row row) throws NotCompiledCaseException;
+    }
+
+    @FunctionalInterface
+    private interface TypeEvaluator {
+        /**
+         * Returns null for NULL
+         */
+        @Nullable
+        RDFTermType evaluate(Row row) throws NotCompiledCaseException;
+    }
+
+    private class GeneralTermEvaluator implements TermEvaluator {
+        private final ImmutableTerm term;
+
+        private GeneralTermEvaluator(ImmutableTerm term) {
+            this.term = term;
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant evaluate(Row row) {
+            return evaluateInGeneral(term, row);
+        }
+    }
+
+    private class RDFTermEvaluator implements TermEvaluator {
+        private final ValueEvaluator lexicalEvaluator;
+        private final TypeEvaluator typeEvaluator;
+        private final ImmutableTerm term;
+
+        private RDFTermEvaluator(ValueEvaluator lexicalEvaluator, TypeEvaluator typeEvaluator, ImmutableTerm term) {
+            this.lexicalEvaluator = lexicalEvaluator;
+            this.typeEvaluator = typeEvaluator;
+            this.term = term;
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant evaluate(Row row) {
+            try {
+                String lexicalValue = lexicalEvaluator.evaluate(row);
+                RDFTermType termType = typeEvaluator.evaluate(row);
+                if (lexicalValue == null && termType == null)
+                    return null;
+                if (lexicalValue != null && termType != null)
+                    return termFactory.getRDFConstant(lexicalValue, termType);
+            }
+            catch (NotCompiledCaseException e) {
+                // Falls back to the general evaluation
+            }
+            // Includes the invalid cases such as RDF(NULL, IRI)
+            return evaluateInGeneral(term, row);
+        }
+    }
+
+    private class TemplateEvaluator implements ValueEvaluator {
+        private final ImmutableList<Template.Component> components;
+        private final ImmutableList<ValueEvaluator> argumentEvaluators;
+
+        private TemplateEvaluator(ImmutableList<Template.Component> components,
+                                  ImmutableList<ValueEvaluator> argumentEvaluators) {
+            this.components = components;
+            this.argumentEvaluators = argumentEvaluators;
+        }
+
+        @Nullable
+        @Override
+        public String evaluate(Row row) throws NotCompiledCaseException {
+            String[] arguments = new String[argumentEvaluators.size()];
+            for (int i = 0; i < arguments.length; i++) {
+                String argument = argumentEvaluators.get(i).evaluate(row);
+                // The template does not tolerate nulls
+                if (argument == null)
+                    return null;
+                arguments[i] = argument;
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (Template.Component component : components) {
+                if (component.isColumnNameReference())
+                    sb.append(encode(arguments[component.getIndex()]));
+                else
+                    sb.append(component.getComponent());
+            }
+            return sb.toString();
+        }
+
+        private String encode(String value) {
+            if (isIRIUnreserved(value))
+                return value;
+
+            ImmutableTerm encodedTerm = termFactory.getR2RMLIRISafeEncodeFunctionalTerm(
+                    termFactory.getDBStringConstant(value)).simplify();
+            if (encodedTerm instanceof DBConstant)
+                return ((DBConstant) encodedTerm).getValue();
+            throw new SQLOntopBindingSet.InvalidTermAsResultException(encodedTerm);
+        }
+    }
+
+    /**
+     * ALPHA / DIGIT / "-" / "." / "_" / "~" are never encoded (iunreserved in RFC 3987)
+     */
+    private static boolean isIRIUnreserved(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~'))
+                return false;
+        }
+        return true;
+    }
+
+    private class GeneralValueEvaluator implements ValueEvaluator {
+        private final ImmutableTerm term;
+
+        private GeneralValueEvaluator(ImmutableTerm term) {
+            this.term = term;
+        }
+
+        @Nullable
+        @Override
+        public String evaluate(Row row) throws NotCompiledCaseException {
+            ImmutableTerm simplifiedTerm = row.getSubstitution().apply(term).simplify();
+            if (simplifiedTerm instanceof DBConstant)
+                return ((DBConstant) simplifiedTerm).getValue();
+            if ((simplifiedTerm instanceof Constant) && simplifiedTerm.isNull())
+                return null;
+            throw NotCompiledCaseException.INSTANCE;
+        }
+    }
+
+    private class GeneralTypeEvaluator implements TypeEvaluator {
+        private final ImmutableTerm term;
+
+        private GeneralTypeEvaluator(ImmutableTerm term) {
+            this.term = term;
+        }
+
+        @Nullable
+        @Override
+        public RDFTermType evaluate(Row row) throws NotCompiledCaseException {
+            ImmutableTerm simplifiedTerm = row.getSubstitution().apply(term).simplify();
+            if (simplifiedTerm instanceof RDFTermTypeConstant) {
+                RDFTermType termType = ((RDFTermTypeConstant) simplifiedTerm).getRDFTermType();
+                if (!termType.isAbstract())
+                    return termType;
+            }
+            else if ((simplifiedTerm instanceof Constant) && simplifiedTerm.isNull())
+                return null;
+            throw NotCompiledCaseException.INSTANCE;
+        }
+    }
+}
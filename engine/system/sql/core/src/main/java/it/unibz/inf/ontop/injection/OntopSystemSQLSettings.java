@@ -16,6 +16,53 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
 
     int getFetchSize();
 
+    /**
+     * Maximum number of idle prepared statements kept open per connection
+     */
+    int getPreparedStatementCacheSize();
+
+    /**
+     * Maximum number of union branches executed concurrently on connections borrowed from the pool,
+     * shared by all the queries (see ontop.query.maxParallelUnionBranches).
+     *
+     * Capped below the maximum size of the pool, so that the statements keep getting connections.
+     */
+    int getMaxUnionBranchConnections();
+
+    //--------------------------
+    // Result cache
+    //--------------------------
+
+    /**
+     * Server-side cache of the results of the SQL queries, shared by all the connections (see SQLResultCache)
+     */
+    boolean isResultCacheEnabled();
+
+    /**
+     * Upper bound on the estimated heap size of the cached results
+     */
+    int getResultCacheMaxSizeInMB();
+
+    /**
+     * Results whose estimated heap size exceeds this limit are not cached
+     */
+    int getResultCacheMaxEntrySizeInKB();
+
+    /**
+     * Duration (in seconds) during which a cached result is returned as such.
+     *
+     * By default, the max-age of the HTTP Cache-Control header (ontop.http.cacheControl or ontop.http.cache.maxAge).
+     */
+    int getResultCacheTTL();
+
+    /**
+     * Duration (in seconds), after the TTL, during which a cached result is still returned while being refreshed
+     * in the background.
+     *
+     * By default, the stale-while-revalidate directive of the HTTP Cache-Control header (0 if absent).
+     */
+    int getResultCacheStaleWhileRevalidate();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +78,17 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
      * If <= 0, the fetch size is ignored
      */
     String FETCH_SIZE = "jdbc.fetchSize";
+    /*
+     * If <= 0, prepared statements are closed after each execution
+     */
+    String PREPARED_STATEMENT_CACHE_SIZE = "jdbc.preparedStatementCache.size";
+    String MAX_UNION_BRANCH_CONNECTIONS = "ontop.query.maxUnionBranchConnections";
+
+    String RESULT_CACHE_ENABLED = "ontop.resultCache.enabled";
+    String RESULT_CACHE_MAX_SIZE = "ontop.resultCache.maxSizeInMB";
+    String RESULT_CACHE_MAX_ENTRY_SIZE = "ontop.resultCache.maxEntrySizeInKB";
+    // In seconds
+    String RESULT_CACHE_TTL = "ontop.resultCache.ttl";
+    // In seconds
+    String RESULT_CACHE_STALE_WHILE_REVALIDATE = "ontop.resultCache.staleWhileRevalidate";
 }
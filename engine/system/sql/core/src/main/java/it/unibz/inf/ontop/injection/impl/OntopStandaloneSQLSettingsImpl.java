@@ -33,6 +33,16 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
 
+    @Override
+    public int getDistinctPostProcessingMaxMemoryInMB() {
+        return systemSettings.getDistinctPostProcessingMaxMemoryInMB();
+    }
+
+    @Override
+    public boolean isDistinctPostProcessingSpillEnabled() {
+        return systemSettings.isDistinctPostProcessingSpillEnabled();
+    }
+
     @Override
     public boolean isPostProcessingAvoided() {
         return systemSettings.isPostProcessingAvoided();
@@ -83,21 +93,66 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE);
     }
 
+    @Override
+    public Optional<String> getQueryLogFile() {
+        return systemSettings.getQueryLogFile();
+    }
+
+    @Override
+    public int getQueryLogFileMaxSizeInMB() {
+        return systemSettings.getQueryLogFileMaxSizeInMB();
+    }
+
+    @Override
+    public int getQueryLogFileMaxBackups() {
+        return systemSettings.getQueryLogFileMaxBackups();
+    }
+
+    @Override
+    public int getQueryLogBufferSize() {
+        return systemSettings.getQueryLogBufferSize();
+    }
+
+    @Override
+    public int getQueryLogBatchSize() {
+        return systemSettings.getQueryLogBatchSize();
+    }
+
+    @Override
+    public String getQueryLogFullBufferPolicy() {
+        return systemSettings.getQueryLogFullBufferPolicy();
+    }
+
     @Override
     public boolean isFixedObjectIncludedInDescribe() {
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
     }
 
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
     @Override
     public long getQueryCacheMaxSize() {
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isParameterizedQueryCacheEnabled() {
+        return systemSettings.isParameterizedQueryCacheEnabled();
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
     }
 
+    @Override
+    public boolean isQueryMetricsJMXEnabled() {
+        return systemSettings.isQueryMetricsJMXEnabled();
+    }
+
     @Override
     public ImmutableSet<String> getHttpHeaderNamesToLog() {
         return systemSettings.getHttpHeaderNamesToLog();
@@ -133,6 +188,46 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getFetchSize();
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return systemSettings.getPreparedStatementCacheSize();
+    }
+
+    @Override
+    public int getMaxUnionBranchConnections() {
+        return systemSettings.getMaxUnionBranchConnections();
+    }
+
+    @Override
+    public boolean isResultCacheEnabled() {
+        return systemSettings.isResultCacheEnabled();
+    }
+
+    @Override
+    public int getResultCacheMaxSizeInMB() {
+        return systemSettings.getResultCacheMaxSizeInMB();
+    }
+
+    @Override
+    public int getResultCacheMaxEntrySizeInKB() {
+        return systemSettings.getResultCacheMaxEntrySizeInKB();
+    }
+
+    @Override
+    public int getResultCacheTTL() {
+        return systemSettings.getResultCacheTTL();
+    }
+
+    @Override
+    public int getResultCacheStaleWhileRevalidate() {
+        return systemSettings.getResultCacheStaleWhileRevalidate();
+    }
+
+    @Override
+    public boolean isParameterBindingEnabled() {
+        return systemSettings.isParameterBindingEnabled();
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -147,4 +242,29 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
     public Optional<String> getHttpCacheControl() {
         return systemSettings.getHttpCacheControl();
     }
+
+    @Override
+    public String getQueryExecutorType() {
+        return systemSettings.getQueryExecutorType();
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getQueryQueueSize() {
+        return systemSettings.getQueryQueueSize();
+    }
+
+    @Override
+    public String getQueryRejectionPolicy() {
+        return systemSettings.getQueryRejectionPolicy();
+    }
+
+    @Override
+    public int getMaxParallelUnionBranches() {
+        return systemSettings.getMaxParallelUnionBranches();
+    }
 }
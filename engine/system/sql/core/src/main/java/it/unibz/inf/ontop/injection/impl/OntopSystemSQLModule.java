@@ -1,5 +1,8 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.cache.SQLResultCache;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
@@ -19,5 +22,10 @@ public class OntopSystemSQLModule extends OntopAbstractModule {
         bind(OntopSystemSQLSettings.class).toInstance(settings);
         bindFromSettings(JDBCConnectionPool.class);
         bindFromSettings(JDBCStatementInitializer.class);
+        bindFromSettings(SQLResultCache.class);
+
+        Module connectionPoolFactoryModule = buildFactory(ImmutableList.of(JDBCConnectionPool.class),
+                JDBCConnectionPool.Factory.class);
+        install(connectionPoolFactoryModule);
     }
 }
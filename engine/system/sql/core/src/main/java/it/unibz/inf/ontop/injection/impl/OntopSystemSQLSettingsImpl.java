@@ -7,6 +7,8 @@ import it.unibz.inf.ontop.injection.OntopSystemSettings;
 
 import java.util.Optional;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static it.unibz.inf.ontop.injection.impl.OntopSQLCoreSettingsImpl.extractJdbcDriver;
 
@@ -15,6 +17,11 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
 
     private static final String DEFAULT_FILE = "system-sql-default.properties";
     private static final String STATEMENT_INITIALIZER_SUFFIX = "-statementInitializer";
+    // When neither the result cache nor the HTTP cache headers specify it
+    private static final int DEFAULT_RESULT_CACHE_TTL = 60;
+    private static final Pattern MAX_AGE_PATTERN = Pattern.compile("(?:^|[\\s,])max-age=(\\d+)");
+    private static final Pattern STALE_WHILE_REVALIDATE_PATTERN = Pattern.compile(
+            "(?:^|[\\s,])stale-while-revalidate=(\\d+)");
     private final OntopSystemSettings systemSettings;
     private final OntopSQLCredentialSettings sqlCredentialSettings;
 
@@ -84,6 +91,52 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(FETCH_SIZE);
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return getRequiredInteger(PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
+    @Override
+    public int getMaxUnionBranchConnections() {
+        return getRequiredInteger(MAX_UNION_BRANCH_CONNECTIONS);
+    }
+
+    @Override
+    public boolean isResultCacheEnabled() {
+        return getRequiredBoolean(RESULT_CACHE_ENABLED);
+    }
+
+    @Override
+    public int getResultCacheMaxSizeInMB() {
+        return getRequiredInteger(RESULT_CACHE_MAX_SIZE);
+    }
+
+    @Override
+    public int getResultCacheMaxEntrySizeInKB() {
+        return getRequiredInteger(RESULT_CACHE_MAX_ENTRY_SIZE);
+    }
+
+    @Override
+    public int getResultCacheTTL() {
+        return getInteger(RESULT_CACHE_TTL)
+                .orElseGet(() -> extractCacheControlDirective(MAX_AGE_PATTERN)
+                        .orElse(DEFAULT_RESULT_CACHE_TTL));
+    }
+
+    @Override
+    public int getResultCacheStaleWhileRevalidate() {
+        return getInteger(RESULT_CACHE_STALE_WHILE_REVALIDATE)
+                .orElseGet(() -> extractCacheControlDirective(STALE_WHILE_REVALIDATE_PATTERN)
+                        .orElse(0));
+    }
+
+    private Optional<Integer> extractCacheControlDirective(Pattern directivePattern) {
+        return getHttpCacheControl()
+                .map(directivePattern::matcher)
+                .filter(Matcher::find)
+                .map(m -> Integer.parseInt(m.group(1)));
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -99,6 +152,31 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.getHttpCacheControl();
     }
 
+    @Override
+    public String getQueryExecutorType() {
+        return systemSettings.getQueryExecutorType();
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getQueryQueueSize() {
+        return systemSettings.getQueryQueueSize();
+    }
+
+    @Override
+    public String getQueryRejectionPolicy() {
+        return systemSettings.getQueryRejectionPolicy();
+    }
+
+    @Override
+    public int getMaxParallelUnionBranches() {
+        return systemSettings.getMaxParallelUnionBranches();
+    }
+
     @Override
     public String getJdbcUser() {
         return sqlCredentialSettings.getJdbcUser();
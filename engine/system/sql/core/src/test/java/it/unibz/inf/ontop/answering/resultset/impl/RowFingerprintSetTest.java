@@ -0,0 +1,77 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class RowFingerprintSetTest {
+
+    private static final int ROW_COUNT = 100_000;
+
+    @Test
+    public void testInHeap() throws IOException {
+        try (RowFingerprintSet set = new RowFingerprintSet(Long.MAX_VALUE, true)) {
+            checkDistinctRows(set);
+            assertFalse(set.isSpilled());
+        }
+    }
+
+    @Test
+    public void testSpilled() throws IOException {
+        try (RowFingerprintSet set = new RowFingerprintSet(0, true)) {
+            checkDistinctRows(set);
+            assertTrue(set.isSpilled());
+        }
+    }
+
+    @Test
+    public void testBudgetExceededWithoutSpill() throws IOException {
+        try (RowFingerprintSet set = new RowFingerprintSet(0, false)) {
+            checkDistinctRows(set);
+            assertFalse(set.isSpilled());
+        }
+    }
+
+    @Test
+    public void testZeroFingerprint() throws IOException {
+        try (RowFingerprintSet set = new RowFingerprintSet(Long.MAX_VALUE, true)) {
+            assertTrue(set.add(0, 0));
+            assertFalse(set.add(0, 0));
+            assertTrue(set.add(0, 1));
+            assertEquals(2, set.size());
+        }
+    }
+
+    @Test
+    public void testValueBoundaries() {
+        assertNotEquals(fingerprint("ab", null), fingerprint(null, "ab"));
+        assertNotEquals(fingerprint("a", "b"), fingerprint("ab", ""));
+        assertNotEquals(fingerprint("", null), fingerprint(null, ""));
+        assertNotEquals(fingerprint("abcd"), fingerprint("abcd", ""));
+        assertEquals(fingerprint("abcde", null), fingerprint("abcde", null));
+    }
+
+    /**
+     * Each row is added twice
+     */
+    private static void checkDistinctRows(RowFingerprintSet set) throws IOException {
+        RowFingerprinter fingerprinter = new RowFingerprinter();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            fingerprinter.computeFingerprint(new String[]{ "http://example.org/" + i, i % 3 == 0 ? null : "v" });
+            assertTrue(set.add(fingerprinter.getHigh(), fingerprinter.getLow()));
+        }
+        for (int i = ROW_COUNT - 1; i >= 0; i--) {
+            fingerprinter.computeFingerprint(new String[]{ "http://example.org/" + i, i % 3 == 0 ? null : "v" });
+            assertFalse(set.add(fingerprinter.getHigh(), fingerprinter.getLow()));
+        }
+        assertEquals(ROW_COUNT, set.size());
+    }
+
+    private static String fingerprint(String... values) {
+        RowFingerprinter fingerprinter = new RowFingerprinter();
+        fingerprinter.computeFingerprint(values);
+        return fingerprinter.getHigh() + ":" + fingerprinter.getLow();
+    }
+}
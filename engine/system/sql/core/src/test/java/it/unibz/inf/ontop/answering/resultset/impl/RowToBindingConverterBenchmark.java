@@ -0,0 +1,147 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled row conversion (RowToBindingConverter) with the conversion
+ * by composition and simplification of the terms (previously done for every row by JDBCTupleResultSet).
+ *
+ * Run with the main method (from the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowToBindingConverterBenchmark {
+
+    private static final int ROW_COUNT = 1000;
+
+    private TermFactory termFactory;
+    private SubstitutionFactory substitutionFactory;
+    private ImmutableSortedSet<Variable> sqlSignature;
+    private ImmutableMap<Variable, DBTermType> sqlTypeMap;
+    private ImmutableSubstitution<ImmutableTerm> sparqlVar2Term;
+    private ImmutableList<Variable> signature;
+    private RowToBindingConverter converter;
+    private String[][] rows;
+
+    @Setup
+    public void setUp() {
+        OntopModelConfiguration configuration = OntopModelConfiguration.defaultBuilder().build();
+        termFactory = configuration.getTermFactory();
+        substitutionFactory = configuration.getInjector().getInstance(SubstitutionFactory.class);
+        TypeFactory typeFactory = configuration.getTypeFactory();
+        DBTypeFactory dbTypeFactory = typeFactory.getDBTypeFactory();
+
+        Variable id = termFactory.getVariable("id");
+        Variable name = termFactory.getVariable("name");
+        Variable country = termFactory.getVariable("country");
+        Variable s = termFactory.getVariable("s");
+        Variable n = termFactory.getVariable("n");
+        Variable c = termFactory.getVariable("c");
+
+        sqlSignature = ImmutableSortedSet.copyOf(Comparator.comparing(Variable::getName),
+                ImmutableList.of(id, name, country));
+        DBTermType stringType = dbTypeFactory.getDBStringType();
+        sqlTypeMap = ImmutableMap.of(id, dbTypeFactory.getDBLargeIntegerType(), name, stringType,
+                country, stringType);
+
+        ImmutableList<Template.Component> personTemplate = Template.builder()
+                .addSeparator("http://example.org/person/")
+                .addColumn()
+                .build();
+        ImmutableList<Template.Component> countryTemplate = Template.builder()
+                .addSeparator("http://example.org/country/")
+                .addColumn()
+                .build();
+
+        sparqlVar2Term = substitutionFactory.getSubstitution(ImmutableMap.of(
+                s, termFactory.getIRIFunctionalTerm(personTemplate, ImmutableList.of(id)),
+                n, termFactory.getRDFFunctionalTerm(name,
+                        termFactory.getIfElseNull(termFactory.getDBIsNotNull(name),
+                                termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype()))),
+                c, termFactory.getRDFFunctionalTerm(
+                        termFactory.getIfElseNull(termFactory.getDBIsNotNull(country),
+                                termFactory.getIRIFunctionalTerm(countryTemplate, ImmutableList.of(country)).getTerm(0)),
+                        termFactory.getIfElseNull(termFactory.getDBIsNotNull(country),
+                                termFactory.getRDFTermTypeConstant(typeFactory.getIRITermType())))));
+        signature = ImmutableList.of(s, n, c);
+
+        converter = new RowToBindingConverter(sqlSignature, sqlTypeMap, sparqlVar2Term, signature,
+                termFactory, substitutionFactory);
+
+        rows = new String[ROW_COUNT][];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            // Same order as the SQL signature: country, id, name
+            rows[i] = new String[]{ i % 10 == 0 ? null : "country" + (i % 7), String.valueOf(i), "Name " + i };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void compiled(Blackhole blackhole) {
+        for (String[] row : rows)
+            blackhole.consume(converter.convert(row));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void simplification(Blackhole blackhole) {
+        for (String[] row : rows)
+            blackhole.consume(convertBySimplification(row));
+    }
+
+    /**
+     * Conversion of JDBCTupleResultSet before the introduction of RowToBindingConverter
+     */
+    private OntopBinding[] convertBySimplification(String[] row) {
+        ImmutableList<Variable> sqlVariables = sqlSignature.asList();
+        ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
+        for (int i = 0; i < row.length; i++) {
+            Variable var = sqlVariables.get(i);
+            builder.put(var, row[i] == null
+                    ? termFactory.getNullConstant()
+                    : termFactory.getDBConstant(row[i], sqlTypeMap.get(var)));
+        }
+        ImmutableSubstitution<ImmutableTerm> composition = substitutionFactory.getSubstitution(builder.build())
+                .composeWith(sparqlVar2Term);
+
+        return signature.stream()
+                .map(v -> Optional.of(composition.apply(v).simplify())
+                        .filter(t -> t instanceof RDFConstant)
+                        .map(t -> new OntopBindingImpl(v, (RDFConstant) t)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .toArray(OntopBinding[]::new);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RowToBindingConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
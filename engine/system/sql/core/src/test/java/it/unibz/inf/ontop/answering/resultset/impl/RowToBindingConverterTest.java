@@ -0,0 +1,116 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Rows (country, id, name) converted into the bindings of
+ *   ?s = IRI("http://example.org/person/{}", id),
+ *   ?n = RDF(name, IF_ELSE_NULL(IS_NOT_NULL(name), xsd:string)),
+ *   ?c = RDF(IF_ELSE_NULL(IS_NOT_NULL(country), "http://example.org/country/{}"(country)),
+ *            IF_ELSE_NULL(IS_NOT_NULL(country), IRI))
+ */
+public class RowToBindingConverterTest {
+
+    private static RowToBindingConverter converter;
+
+    @BeforeClass
+    public static void setUp() {
+        OntopModelConfiguration configuration = OntopModelConfiguration.defaultBuilder().build();
+        TermFactory termFactory = configuration.getTermFactory();
+        SubstitutionFactory substitutionFactory = configuration.getInjector().getInstance(SubstitutionFactory.class);
+        TypeFactory typeFactory = configuration.getTypeFactory();
+        DBTypeFactory dbTypeFactory = typeFactory.getDBTypeFactory();
+
+        Variable id = termFactory.getVariable("id");
+        Variable name = termFactory.getVariable("name");
+        Variable country = termFactory.getVariable("country");
+        Variable s = termFactory.getVariable("s");
+        Variable n = termFactory.getVariable("n");
+        Variable c = termFactory.getVariable("c");
+
+        DBTermType stringType = dbTypeFactory.getDBStringType();
+
+        ImmutableList<Template.Component> personTemplate = Template.builder()
+                .addSeparator("http://example.org/person/")
+                .addColumn()
+                .build();
+        ImmutableList<Template.Component> countryTemplate = Template.builder()
+                .addSeparator("http://example.org/country/")
+                .addColumn()
+                .build();
+
+        converter = new RowToBindingConverter(
+                ImmutableSortedSet.copyOf(Comparator.comparing(Variable::getName), ImmutableList.of(id, name, country)),
+                ImmutableMap.of(id, dbTypeFactory.getDBLargeIntegerType(), name, stringType, country, stringType),
+                substitutionFactory.getSubstitution(ImmutableMap.of(
+                        s, termFactory.getIRIFunctionalTerm(personTemplate, ImmutableList.of(id)),
+                        n, termFactory.getRDFFunctionalTerm(name,
+                                termFactory.getIfElseNull(termFactory.getDBIsNotNull(name),
+                                        termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype()))),
+                        c, termFactory.getRDFFunctionalTerm(
+                                termFactory.getIfElseNull(termFactory.getDBIsNotNull(country),
+                                        termFactory.getIRIFunctionalTerm(countryTemplate, ImmutableList.of(country)).getTerm(0)),
+                                termFactory.getIfElseNull(termFactory.getDBIsNotNull(country),
+                                        termFactory.getRDFTermTypeConstant(typeFactory.getIRITermType()))))),
+                ImmutableList.of(s, n, c),
+                termFactory, substitutionFactory);
+    }
+
+    @Test
+    public void testAllBound() {
+        checkRow("s=http://example.org/person/1 n=Roberto c=http://example.org/country/it",
+                "it", "1", "Roberto");
+    }
+
+    @Test
+    public void testNullCountry() {
+        checkRow("s=http://example.org/person/2 n=Anna",
+                null, "2", "Anna");
+    }
+
+    @Test
+    public void testNullName() {
+        checkRow("s=http://example.org/person/3 c=http://example.org/country/it",
+                "it", "3", null);
+    }
+
+    @Test
+    public void testEncodedCountry() {
+        checkRow("s=http://example.org/person/4 n=Jürgen c=http://example.org/country/south%20tyrol%2Fsüdtirol",
+                "south tyrol/südtirol", "4", "Jürgen");
+    }
+
+    @Test
+    public void testUnicodeCountry() {
+        checkRow("s=http://example.org/person/5 n=Fritz c=http://example.org/country/österreich",
+                "österreich", "5", "Fritz");
+    }
+
+    private static void checkRow(String expectedBindings, String... row) {
+        assertEquals(expectedBindings, toString(converter.convert(row)));
+    }
+
+    private static String toString(OntopBinding[] bindings) {
+        return Arrays.stream(bindings)
+                .map(b -> b.getName() + "=" + b.getValue().getValue())
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -43,6 +44,8 @@ import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class OntopMaterializerTest {
 
@@ -80,6 +83,7 @@ public class OntopMaterializerTest {
 	private final IRI hasschoolIRI;
 	private final IRI schoolIRI;
 	private final IRI graphIRI;
+	private final IRI employeeIRI;
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(OntopMaterializerTest.class);
 
@@ -105,6 +109,7 @@ public class OntopMaterializerTest {
 		hasschoolIRI = rdfFactory.createIRI(PREFIX + "hasschool");
 		schoolIRI = rdfFactory.createIRI(PREFIX + "school");
 		graphIRI = rdfFactory.createIRI(PREFIX + "graph");
+		employeeIRI = rdfFactory.createIRI(PREFIX + "Employee");
 
 		xsdStringDt = typeFactory.getXsdStringDatatype();
 
@@ -234,6 +239,174 @@ public class OntopMaterializerTest {
 		// conn.close();
 	}
 
+	@Test
+	public void testParallelMaterialization() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		ImmutableSet<IRI> vocabulary = Stream.of(personIRI, fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+				.collect(ImmutableCollectors.toSet());
+
+		MaterializationParams params = MaterializationParams.defaultBuilder()
+				.workerCount(3)
+				// Smaller than the number of facts
+				.queueCapacity(2)
+				.build();
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
+
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			ImmutableSet.Builder<RDFFact> rdfGraphBuilder = ImmutableSet.builder();
+			while (materializationResultSet.hasNext()) {
+				rdfGraphBuilder.add(materializationResultSet.next());
+			}
+			assertEquals(18, rdfGraphBuilder.build().size());
+			assertEquals(18, materializationResultSet.getTripleCountSoFar());
+		}
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+				.collect(ImmutableCollectors.toSet());
+
+		File checkpointFile = File.createTempFile("materialization", ".checkpoint");
+		checkpointFile.deleteOnExit();
+		// Already materialized
+		Files.write(checkpointFile.toPath(), ImmutableList.of(fnIRI.getIRIString()));
+
+		MaterializationParams params = MaterializationParams.defaultBuilder()
+				.checkpointFile(checkpointFile)
+				.build();
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
+
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			int count = 0;
+			while (materializationResultSet.hasNext()) {
+				materializationResultSet.next();
+				count++;
+			}
+			assertEquals(12, count);
+			materializationResultSet.commitCheckpoint();
+		}
+		assertEquals(vocabulary.stream()
+						.map(IRI::getIRIString)
+						.collect(ImmutableCollectors.toSet()),
+				ImmutableSet.copyOf(Files.readAllLines(checkpointFile.toPath())));
+
+		// Everything has been materialized
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			assertFalse(materializationResultSet.hasNext());
+		}
+	}
+
+	/**
+	 * Facts consumed but whose output has not been closed (e.g. crash before): nothing must be skipped when resuming
+	 */
+	@Test
+	public void testCheckpointNotCommittedBeforeOutputClosed() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+				.collect(ImmutableCollectors.toSet());
+
+		File checkpointFile = File.createTempFile("materialization", ".checkpoint");
+		checkpointFile.deleteOnExit();
+
+		MaterializationParams params = MaterializationParams.defaultBuilder()
+				.checkpointFile(checkpointFile)
+				.build();
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
+
+		int firstCount = 0;
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			while (materializationResultSet.hasNext()) {
+				materializationResultSet.next();
+				firstCount++;
+			}
+			// Not committed: the output would not have been closed yet
+		}
+		assertTrue(Files.readAllLines(checkpointFile.toPath()).isEmpty());
+
+		// Resumed: everything is materialized again, and recorded once committed
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			int count = 0;
+			while (materializationResultSet.hasNext()) {
+				materializationResultSet.next();
+				count++;
+			}
+			assertEquals(firstCount, count);
+			materializationResultSet.commitCheckpoint();
+		}
+		assertEquals(vocabulary.stream()
+						.map(IRI::getIRIString)
+						.collect(ImmutableCollectors.toSet()),
+				ImmutableSet.copyOf(Files.readAllLines(checkpointFile.toPath())));
+	}
+
+	@Test
+	public void testPartitionedMaterialization() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createEmployeeMapping())
+				.build();
+
+		ImmutableSet<IRI> vocabulary = ImmutableSet.of(employeeIRI, fnIRI);
+
+		File checkpointFile = File.createTempFile("materialization", ".checkpoint");
+		checkpointFile.deleteOnExit();
+
+		MaterializationParams params = MaterializationParams.defaultBuilder()
+				.workerCount(3)
+				.partitionCount(4)
+				.checkpointFile(checkpointFile)
+				.build();
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
+
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+			ImmutableList.Builder<RDFFact> rdfGraphBuilder = ImmutableList.builder();
+			while (materializationResultSet.hasNext()) {
+				rdfGraphBuilder.add(materializationResultSet.next());
+			}
+			ImmutableList<RDFFact> facts = rdfGraphBuilder.build();
+			// No duplicate across the partitions
+			assertEquals(16, facts.size());
+			assertEquals(16, ImmutableSet.copyOf(facts).size());
+			materializationResultSet.commitCheckpoint();
+		}
+
+		ImmutableSet<String> checkpointEntries = ImmutableSet.copyOf(Files.readAllLines(checkpointFile.toPath()));
+		for (IRI predicate : vocabulary) {
+			assertTrue(checkpointEntries.contains(predicate.getIRIString()));
+			for (int i = 0; i < 4; i++)
+				assertTrue(checkpointEntries.contains(predicate.getIRIString() + " " + i + "/4"));
+		}
+	}
+
+	private SQLPPMapping createEmployeeMapping()  {
+
+		String sql = "SELECT \"id\", \"name\" FROM \"employee\"";
+
+		ImmutableFunctionalTerm employeeTemplate = termFactory.getIRIFunctionalTerm(
+				Template.builder().addSeparator("http://company.com/employee/").addColumn().build(),
+				ImmutableList.of(termFactory.getVariable("id")));
+
+		ImmutableList<TargetAtom> body =  ImmutableList.of(
+				targetAtomFactory.getTripleTargetAtom(employeeTemplate, type, termFactory.getConstantIRI(employeeIRI)),
+				targetAtomFactory.getTripleTargetAtom(employeeTemplate, fn,
+						termFactory.getRDFLiteralFunctionalTerm(termFactory.getVariable("name"), xsdStringDt)));
+
+		SQLPPTriplesMap map1 = new OntopNativeSQLPPTriplesMap(IDGenerator.getNextUniqueID("MAPID-"), sourceQueryFactory.createSourceQuery(sql), body);
+
+		PrefixManager prefixManager = specificationFactory.createPrefixManager(ImmutableMap.of());
+		return ppMappingFactory.createSQLPreProcessedMapping(ImmutableList.of(map1), prefixManager);
+	}
+
 	private SQLPPMapping createMapping()  {
 
 		String sql = "SELECT \"fn\", \"ln\", \"age\", \"schooluri\" FROM \"data\"";
@@ -5,3 +5,13 @@ INSERT INTO "data" VALUES ('mariano','rodriguez',30,'http://schools.com/fub');
 INSERT INTO "data" VALUES ('alexandra','eckert',26,'http://schools.com/tnt');
 INSERT INTO "data" VALUES ('vlad','rhyzikov',27,'http://schools.com/fub');
 
+
+CREATE TABLE "employee" ("id" INTEGER PRIMARY KEY, "name" VARCHAR);
+INSERT INTO "employee" VALUES (-3,'eve');
+INSERT INTO "employee" VALUES (1,'alice');
+INSERT INTO "employee" VALUES (2,'bob');
+INSERT INTO "employee" VALUES (3,'carol');
+INSERT INTO "employee" VALUES (4,'dave');
+INSERT INTO "employee" VALUES (5,'frank');
+INSERT INTO "employee" VALUES (6,'grace');
+INSERT INTO "employee" VALUES (7,'heidi');
@@ -35,6 +35,12 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
      */
     boolean isCanIRIComplete();
 
+    /**
+     * Number of threads processing the mapping assertions when the OBDA specification is loaded.
+     * 0 means as many threads as available processors. 1 disables the parallel processing.
+     */
+    int getMappingLoadingParallelism();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -43,6 +49,7 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
     String INFER_DEFAULT_DATATYPE = "ontop.inferDefaultDatatype";
     String TOLERATE_ABSTRACT_DATATYPE = "ontop.tolerateAbstractDatatype";
     String IS_CANONICAL_IRI_COMPLETE = "ontop.isCanonicalIRIComplete";
+    String MAPPING_LOADING_PARALLELISM = "ontop.mappingLoadingParallelism";
 
 
     /**
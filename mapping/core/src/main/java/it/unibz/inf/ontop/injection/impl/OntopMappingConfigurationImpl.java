@@ -1,6 +1,9 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
@@ -8,6 +11,7 @@ import it.unibz.inf.ontop.exception.MissingInputMappingException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.injection.impl.OntopOptimizationConfigurationImpl.DefaultOntopOptimizationBuilderFragment;
 import it.unibz.inf.ontop.injection.impl.OntopOptimizationConfigurationImpl.OntopOptimizationOptions;
 import it.unibz.inf.ontop.iq.executor.ProposalExecutor;
@@ -15,14 +19,20 @@ import it.unibz.inf.ontop.iq.proposal.QueryOptimizationProposal;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.OBDASpecificationExtractor;
+import it.unibz.inf.ontop.spec.OBDASpecificationSnapshotSerializer;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 import it.unibz.inf.ontop.spec.mapping.pp.PreProcessedMapping;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Supplier;
@@ -31,6 +41,7 @@ import java.util.stream.Stream;
 
 public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl implements OntopMappingConfiguration {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntopMappingConfigurationImpl.class);
     private final OntopMappingSettings settings;
     private final OntopMappingOptions options;
     private final OntopOptimizationConfigurationImpl optimizationConfiguration;
@@ -94,6 +105,10 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
                 );
     }
 
+    /**
+     * When a specification snapshot file is set, loads the specification from it if its inputs are unchanged.
+     * Otherwise, extracts the specification from the inputs and (re-)writes the snapshot.
+     */
     OBDASpecification loadSpecification(OntologySupplier ontologySupplier,
                                                   Supplier<Optional<PreProcessedMapping>> ppMappingSupplier,
                                                   Supplier<Optional<File>> mappingFileSupplier,
@@ -105,6 +120,63 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
                                                   Supplier<Optional<File>> ontopViewFileSupplier,
                                                   Supplier<Optional<Reader>> ontopViewReaderSupplier
                                                   ) throws OBDASpecificationException {
+        Optional<File> snapshotFile = settings.getSpecificationSnapshotFile()
+                .map(File::new);
+        if (!snapshotFile.isPresent())
+            return extractSpecification(ontologySupplier, ppMappingSupplier, mappingFileSupplier,
+                    mappingReaderSupplier, mappingGraphSupplier, constraintFileSupplier, dbMetadataFileSupplier,
+                    dbMetadataReaderSupplier, ontopViewFileSupplier, ontopViewReaderSupplier);
+
+        Optional<String> inputFingerprint = computeInputFingerprint(
+                Stream.of(ppMappingSupplier.get(), mappingReaderSupplier.get(), mappingGraphSupplier.get(),
+                        dbMetadataReaderSupplier.get(), ontopViewReaderSupplier.get()),
+                Stream.of(mappingFileSupplier.get(), constraintFileSupplier.get(), dbMetadataFileSupplier.get(),
+                        ontopViewFileSupplier.get()));
+        if (!inputFingerprint.isPresent()) {
+            LOGGER.warn("The specification snapshot {} is ignored: its inputs are not all files", snapshotFile.get());
+            return extractSpecification(ontologySupplier, ppMappingSupplier, mappingFileSupplier,
+                    mappingReaderSupplier, mappingGraphSupplier, constraintFileSupplier, dbMetadataFileSupplier,
+                    dbMetadataReaderSupplier, ontopViewFileSupplier, ontopViewReaderSupplier);
+        }
+
+        OBDASpecificationSnapshotSerializer serializer = getInjector().getInstance(OBDASpecificationSnapshotSerializer.class);
+        if (snapshotFile.get().exists()) {
+            try {
+                Optional<OBDASpecification> specification = serializer.load(snapshotFile.get(), inputFingerprint.get());
+                if (specification.isPresent()) {
+                    LOGGER.info("OBDA specification loaded from the snapshot {}", snapshotFile.get());
+                    return specification.get();
+                }
+            }
+            catch (IOException e) {
+                LOGGER.warn("Cannot read the specification snapshot {}: {}", snapshotFile.get(), e.getMessage());
+            }
+        }
+
+        OBDASpecification specification = extractSpecification(ontologySupplier, ppMappingSupplier,
+                mappingFileSupplier, mappingReaderSupplier, mappingGraphSupplier, constraintFileSupplier,
+                dbMetadataFileSupplier, dbMetadataReaderSupplier, ontopViewFileSupplier, ontopViewReaderSupplier);
+        try {
+            serializer.save(specification, inputFingerprint.get(), snapshotFile.get());
+            LOGGER.info("OBDA specification saved into the snapshot {}", snapshotFile.get());
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot write the specification snapshot {}: {}", snapshotFile.get(), e.getMessage());
+        }
+        return specification;
+    }
+
+    private OBDASpecification extractSpecification(OntologySupplier ontologySupplier,
+                                                   Supplier<Optional<PreProcessedMapping>> ppMappingSupplier,
+                                                   Supplier<Optional<File>> mappingFileSupplier,
+                                                   Supplier<Optional<Reader>> mappingReaderSupplier,
+                                                   Supplier<Optional<Graph>> mappingGraphSupplier,
+                                                   Supplier<Optional<File>> constraintFileSupplier,
+                                                   Supplier<Optional<File>> dbMetadataFileSupplier,
+                                                   Supplier<Optional<Reader>> dbMetadataReaderSupplier,
+                                                   Supplier<Optional<File>> ontopViewFileSupplier,
+                                                   Supplier<Optional<Reader>> ontopViewReaderSupplier
+                                                   ) throws OBDASpecificationException {
         OBDASpecificationExtractor extractor = getInjector().getInstance(OBDASpecificationExtractor.class);
 
         Optional<Ontology> optionalOntology = ontologySupplier.get();
@@ -169,6 +241,54 @@ public class OntopMappingConfigurationImpl extends OntopOBDAConfigurationImpl im
         throw new MissingInputMappingException();
     }
 
+    /**
+     * Fingerprint of the input files (including the ontology ones) and of the properties.
+     *
+     * Empty if some inputs are not files (their content cannot be compared)
+     * or if some input files cannot be read (the extraction will report it).
+     *
+     * NB: the DB schema is not part of the fingerprint.
+     */
+    private Optional<String> computeInputFingerprint(Stream<Optional<?>> nonFileInputs,
+                                                     Stream<Optional<File>> inputFiles) {
+        Optional<ImmutableList<File>> ontologyFiles = getOntologyFiles();
+        if (nonFileInputs.anyMatch(Optional::isPresent) || !ontologyFiles.isPresent())
+            return Optional.empty();
+
+        Hasher hasher = Hashing.sha256().newHasher();
+
+        // OntopModelSettingsImpl is the base of all the settings implementations
+        Properties properties = ((OntopModelSettingsImpl) settings).copyProperties();
+        properties.stringPropertyNames().stream()
+                .filter(k -> !k.equals(OntopOBDASettings.SPECIFICATION_SNAPSHOT_FILE))
+                .filter(k -> !k.toLowerCase().contains("password"))
+                .sorted()
+                .forEach(k -> hasher.putString(k + "=" + properties.getProperty(k) + "\n", StandardCharsets.UTF_8));
+
+        ImmutableList<File> files = Stream.concat(
+                    inputFiles.filter(Optional::isPresent).map(Optional::get),
+                    ontologyFiles.get().stream())
+                .collect(ImmutableCollectors.toList());
+        try {
+            for (File file : files)
+                hasher.putBytes(com.google.common.io.Files.hash(file, Hashing.sha256()).asBytes());
+        }
+        catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.of(hasher.hash().toString());
+    }
+
+    /**
+     * Files the ontology is read from (none by default).
+     * Empty if the ontology is not only read from files.
+     *
+     * Can be overloaded.
+     */
+    Optional<ImmutableList<File>> getOntologyFiles() {
+        return Optional.of(ImmutableList.of());
+    }
+
     protected Stream<Module> buildGuiceModules() {
         return Stream.concat(
                 Stream.concat(
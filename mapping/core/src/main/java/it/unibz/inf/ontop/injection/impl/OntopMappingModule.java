@@ -41,6 +41,7 @@ public class OntopMappingModule extends OntopAbstractModule {
         bindFromSettings(MappingCaster.class);
         bindFromSettings(MappingDistinctTransformer.class);
         bindFromSettings(TargetAtomFactory.class);
+        bindFromSettings(ParallelMappingProcessor.class);
 
         bind(MappingCoreSingletons.class).to(MappingCoreSingletonsImpl.class);
 
@@ -52,7 +52,18 @@ public class ImplicitDBConstraintsProvider extends DelegatingMetadataProvider {
     public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
 
         provider.insertIntegrityConstraints(relation, metadataLookup);
+        insertUserConstraints(relation, metadataLookup);
+    }
+
+    @Override
+    public void insertIntegrityConstraints(ImmutableList<NamedRelationDefinition> relations, MetadataLookup metadataLookup) throws MetadataExtractionException {
+
+        provider.insertIntegrityConstraints(relations, metadataLookup);
+        for (NamedRelationDefinition relation : relations)
+            insertUserConstraints(relation, metadataLookup);
+    }
 
+    private void insertUserConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
         try {
             int counter = 0; // id of the generated constraint
 
@@ -2,7 +2,15 @@ package it.unibz.inf.ontop.spec.dbschema.tools;
 
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 
+import java.io.Reader;
+
 public interface DBMetadataExtractorAndSerializer {
 
     String extractAndSerialize() throws MetadataExtractionException;
+
+    /**
+     * Only the relations that have changed since the previous extraction are extracted again,
+     * the other ones are taken from the given serialization.
+     */
+    String extractAndSerialize(Reader previousDBMetadataReader) throws MetadataExtractionException;
 }
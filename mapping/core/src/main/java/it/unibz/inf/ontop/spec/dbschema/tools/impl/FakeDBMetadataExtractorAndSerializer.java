@@ -2,10 +2,17 @@ package it.unibz.inf.ontop.spec.dbschema.tools.impl;
 
 import it.unibz.inf.ontop.spec.dbschema.tools.DBMetadataExtractorAndSerializer;
 
+import java.io.Reader;
+
 public class FakeDBMetadataExtractorAndSerializer implements DBMetadataExtractorAndSerializer {
 
     @Override
     public String extractAndSerialize() {
         throw new UnsupportedOperationException("Fake implementation. Please use a real implementation");
     }
+
+    @Override
+    public String extractAndSerialize(Reader previousDBMetadataReader) {
+        throw new UnsupportedOperationException("Fake implementation. Please use a real implementation");
+    }
 }
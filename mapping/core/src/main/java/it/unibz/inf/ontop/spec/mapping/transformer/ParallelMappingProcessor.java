@@ -0,0 +1,26 @@
+package it.unibz.inf.ontop.spec.mapping.transformer;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Applies a function to independent elements (e.g. mapping assertions) in parallel,
+ * according to the mapping loading parallelism setting.
+ *
+ * The function must be thread-safe.
+ */
+public interface ParallelMappingProcessor {
+
+    /**
+     * Results are in the order of the elements.
+     *
+     * If the function fails on several elements, the exception of the first of them is thrown
+     * (the other ones are suppressed).
+     */
+    <T, R, E extends Exception> ImmutableList<R> map(ImmutableList<T> elements,
+                                                     CheckedFunction<? super T, ? extends R, E> function) throws E;
+
+    @FunctionalInterface
+    interface CheckedFunction<T, R, E extends Exception> {
+        R apply(T t) throws E;
+    }
+}
@@ -0,0 +1,100 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.spec.mapping.transformer.ParallelMappingProcessor;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Uses a dedicated pool (mapping processing must not compete with the common pool), shared by all the calls.
+ * Its worker threads are daemon threads and terminate when idle.
+ */
+@Singleton
+public class ParallelMappingProcessorImpl implements ParallelMappingProcessor {
+
+    @Nullable
+    private final ForkJoinPool pool;
+
+    @Inject
+    private ParallelMappingProcessorImpl(OntopMappingSettings settings) {
+        int configuredParallelism = settings.getMappingLoadingParallelism();
+        int parallelism = configuredParallelism > 0
+                ? configuredParallelism
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = parallelism < 2 ? null : new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public <T, R, E extends Exception> ImmutableList<R> map(ImmutableList<T> elements,
+                                                            CheckedFunction<? super T, ? extends R, E> function) throws E {
+        if (pool == null || elements.size() < 2) {
+            ImmutableList.Builder<R> builder = ImmutableList.builder();
+            for (T element : elements)
+                builder.add(function.apply(element));
+            return builder.build();
+        }
+
+        ImmutableList<ForkJoinTask<Outcome<R>>> tasks = elements.stream()
+                .map(e -> pool.submit(() -> Outcome.<T, R, E>of(e, function)))
+                .collect(ImmutableCollectors.toList());
+
+        List<Outcome<R>> outcomes = tasks.stream()
+                .map(ForkJoinTask::join)
+                .collect(ImmutableCollectors.toList());
+
+        Exception firstException = null;
+        for (Outcome<R> outcome : outcomes) {
+            if (outcome.exception == null)
+                continue;
+            if (firstException == null)
+                firstException = outcome.exception;
+            else
+                firstException.addSuppressed(outcome.exception);
+        }
+        if (firstException != null)
+            throw this.<E>cast(firstException);
+
+        return outcomes.stream()
+                .map(o -> o.result)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Only RuntimeExceptions and exceptions of type E can be thrown by the function
+     */
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> E cast(Exception e) {
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
+        return (E) e;
+    }
+
+    /**
+     * Either a result or an exception
+     */
+    private static class Outcome<R> {
+        private final R result;
+        private final Exception exception;
+
+        private Outcome(R result, Exception exception) {
+            this.result = result;
+            this.exception = exception;
+        }
+
+        static <T, R, E extends Exception> Outcome<R> of(T element, CheckedFunction<? super T, ? extends R, E> function) {
+            try {
+                return new Outcome<>(function.apply(element), null);
+            }
+            catch (Exception e) {
+                return new Outcome<>(null, e);
+            }
+        }
+    }
+}
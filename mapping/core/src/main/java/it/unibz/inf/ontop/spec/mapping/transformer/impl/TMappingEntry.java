@@ -3,11 +3,7 @@ package it.unibz.inf.ontop.spec.mapping.transformer.impl;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.constraints.ImmutableHomomorphism;
-import it.unibz.inf.ontop.constraints.ImmutableHomomorphismIterator;
-import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
 import it.unibz.inf.ontop.injection.CoreSingletons;
-import it.unibz.inf.ontop.iq.tools.impl.IQ2CQ;
-import it.unibz.inf.ontop.model.atom.RelationPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
@@ -20,9 +16,9 @@ import java.util.stream.Stream;
 
 public class TMappingEntry {
 
-    public static Collector<TMappingRule, TMappingEntry, ImmutableList<TMappingRule>> toTMappingEntry(ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc, CoreSingletons coreSingletons) {
+    public static Collector<TMappingRule, TMappingEntry, ImmutableList<TMappingRule>> toTMappingEntry(TMappingHomomorphismCache homomorphismCache, CoreSingletons coreSingletons) {
         return Collector.of(
-                () -> new TMappingEntry(cqc, coreSingletons), // Supplier
+                () -> new TMappingEntry(homomorphismCache, coreSingletons), // Supplier
                 TMappingEntry::add, // Accumulator
                 (b1, b2) -> b1.addAll(b2.build().iterator()), // Merger
                 TMappingEntry::build, // Finisher
@@ -30,14 +26,12 @@ public class TMappingEntry {
     }
 
     private final List<TMappingRule> rules = new ArrayList<>();
-    private final ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc;
+    private final TMappingHomomorphismCache homomorphismCache;
     private final TermFactory termFactory;
-    private final CoreSingletons coreSingletons;
 
-    public TMappingEntry(ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc, CoreSingletons coreSingletons) {
-        this.cqc = cqc;
+    public TMappingEntry(TMappingHomomorphismCache homomorphismCache, CoreSingletons coreSingletons) {
+        this.homomorphismCache = homomorphismCache;
         this.termFactory = coreSingletons.getTermFactory();
-        this.coreSingletons = coreSingletons;
     }
 
     public TMappingEntry add(TMappingRule rule) {
@@ -95,9 +89,7 @@ public class TMappingEntry {
 
             boolean couldIgnore = false;
 
-            Optional<ImmutableHomomorphism> to = getHomomorphismIterator(current, assertion)
-                            .filter(ImmutableHomomorphismIterator::hasNext)
-                            .map(ImmutableHomomorphismIterator::next);
+            Optional<ImmutableHomomorphism> to = homomorphismCache.getHomomorphism(current, assertion);
 
             if (to.isPresent()) {
                 if (current.getConditions().isEmpty() ||
@@ -118,9 +110,7 @@ public class TMappingEntry {
                 }
             }
 
-            Optional<ImmutableHomomorphism> from = getHomomorphismIterator(assertion, current)
-                            .filter(ImmutableHomomorphismIterator::hasNext)
-                            .map(ImmutableHomomorphismIterator::next);
+            Optional<ImmutableHomomorphism> from = homomorphismCache.getHomomorphism(assertion, current);
 
             if (from.isPresent()) {
                 if (assertion.getConditions().isEmpty() ||
@@ -178,15 +168,4 @@ public class TMappingEntry {
         }
         rules.add(assertion);
     }
-
-    private Optional<ImmutableHomomorphismIterator<RelationPredicate>> getHomomorphismIterator(TMappingRule from, TMappingRule to) {
-        ImmutableHomomorphism.Builder builder = ImmutableHomomorphism.builder();
-        for (int i = 0; i < from.getHeadTerms().size(); i++)
-            if (!builder.extend(from.getHeadTerms().get(i), to.getHeadTerms().get(i)).isValid())
-                return Optional.empty();
-
-        ImmutableHomomorphism h = builder.build();
-        return Optional.of(cqc.homomorphismIterator(h, IQ2CQ.toDataAtoms(from.getDatabaseAtoms(), coreSingletons),
-                IQ2CQ.toDataAtoms(to.getDatabaseAtoms(), coreSingletons)));
-    }
 }
@@ -0,0 +1,146 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.constraints.ImmutableHomomorphism;
+import it.unibz.inf.ontop.constraints.ImmutableHomomorphismIterator;
+import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.iq.tools.impl.IQ2CQ;
+import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Homomorphisms between the T-mapping rules, shared by all the entries of a saturation.
+ *
+ * The same rule bodies are compared again and again for the DAG nodes above them,
+ * with only the IRI in the heads being different. The constants occurring at the same position
+ * in both heads do not constrain the homomorphisms, so they are left out of the cache key.
+ *
+ * The number of entries is bounded (the least recently used ones are evicted).
+ *
+ * Thread-safe.
+ */
+public class TMappingHomomorphismCache {
+
+    private static final long MAX_CACHE_SIZE = 100000;
+
+    private final ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc;
+    private final CoreSingletons coreSingletons;
+    // Made stable in more recent versions of Guava (NB: we cannot update because of Protégé)
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<Key, Optional<ImmutableHomomorphism>> cache;
+
+    public TMappingHomomorphismCache(ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc, CoreSingletons coreSingletons) {
+        this(cqc, coreSingletons, MAX_CACHE_SIZE);
+    }
+
+    TMappingHomomorphismCache(ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc, CoreSingletons coreSingletons,
+                              long maxSize) {
+        this.cqc = cqc;
+        this.coreSingletons = coreSingletons;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the first homomorphism from the first rule to the second one (if any)
+     */
+    public Optional<ImmutableHomomorphism> getHomomorphism(TMappingRule from, TMappingRule to) {
+        Key key = new Key(from, to);
+        Optional<ImmutableHomomorphism> cachedHomomorphism = cache.getIfPresent(key);
+        if (cachedHomomorphism != null)
+            return cachedHomomorphism;
+
+        Optional<ImmutableHomomorphism> homomorphism = computeHomomorphism(from, to);
+        cache.put(key, homomorphism);
+        return homomorphism;
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private Optional<ImmutableHomomorphism> computeHomomorphism(TMappingRule from, TMappingRule to) {
+        ImmutableHomomorphism.Builder builder = ImmutableHomomorphism.builder();
+        for (int i = 0; i < from.getHeadTerms().size(); i++)
+            if (!builder.extend(from.getHeadTerms().get(i), to.getHeadTerms().get(i)).isValid())
+                return Optional.empty();
+
+        ImmutableHomomorphism h = builder.build();
+        ImmutableHomomorphismIterator<RelationPredicate> iterator = cqc.homomorphismIterator(h,
+                IQ2CQ.toDataAtoms(from.getDatabaseAtoms(), coreSingletons),
+                IQ2CQ.toDataAtoms(to.getDatabaseAtoms(), coreSingletons));
+
+        return iterator.hasNext() ? Optional.of(iterator.next()) : Optional.empty();
+    }
+
+    private static final class Key {
+        private final ImmutableList<Optional<ImmutableTerm>> fromHeadTerms;
+        private final ImmutableList<Optional<ImmutableTerm>> toHeadTerms;
+        private final ImmutableList<Map.Entry<RelationDefinition, ? extends ImmutableMap<Integer, ? extends VariableOrGroundTerm>>> fromDatabaseAtoms;
+        private final ImmutableList<Map.Entry<RelationDefinition, ? extends ImmutableMap<Integer, ? extends VariableOrGroundTerm>>> toDatabaseAtoms;
+        private final int hashCode;
+
+        Key(TMappingRule from, TMappingRule to) {
+            ImmutableList.Builder<Optional<ImmutableTerm>> fromBuilder = ImmutableList.builder();
+            ImmutableList.Builder<Optional<ImmutableTerm>> toBuilder = ImmutableList.builder();
+            int size = Math.max(from.getHeadTerms().size(), to.getHeadTerms().size());
+            for (int i = 0; i < size; i++) {
+                Optional<ImmutableTerm> fromTerm = getTerm(from, i);
+                Optional<ImmutableTerm> toTerm = getTerm(to, i);
+                boolean sameConstant = fromTerm.isPresent() && (fromTerm.get() instanceof Constant)
+                        && fromTerm.equals(toTerm);
+                fromBuilder.add(sameConstant ? Optional.empty() : fromTerm);
+                toBuilder.add(sameConstant ? Optional.empty() : toTerm);
+            }
+            this.fromHeadTerms = fromBuilder.build();
+            this.toHeadTerms = toBuilder.build();
+            this.fromDatabaseAtoms = getDatabaseAtoms(from);
+            this.toDatabaseAtoms = getDatabaseAtoms(to);
+            this.hashCode = Objects.hash(fromHeadTerms, toHeadTerms, fromDatabaseAtoms, toDatabaseAtoms);
+        }
+
+        /**
+         * Extensional data nodes do not override equals()
+         */
+        private static ImmutableList<Map.Entry<RelationDefinition, ? extends ImmutableMap<Integer, ? extends VariableOrGroundTerm>>> getDatabaseAtoms(TMappingRule rule) {
+            return rule.getDatabaseAtoms().stream()
+                    .map(n -> Maps.immutableEntry(n.getRelationDefinition(), n.getArgumentMap()))
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        private static Optional<ImmutableTerm> getTerm(TMappingRule rule, int i) {
+            return i < rule.getHeadTerms().size() ? Optional.of(rule.getHeadTerms().get(i)) : Optional.empty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && fromHeadTerms.equals(other.fromHeadTerms)
+                    && toHeadTerms.equals(other.toHeadTerms)
+                    && fromDatabaseAtoms.equals(other.fromDatabaseAtoms)
+                    && toDatabaseAtoms.equals(other.toDatabaseAtoms);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import it.unibz.inf.ontop.spec.mapping.MappingAssertionIndex;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingCQCOptimizer;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingSaturator;
+import it.unibz.inf.ontop.spec.mapping.transformer.ParallelMappingProcessor;
 import it.unibz.inf.ontop.spec.mapping.transformer.QueryUnionSplitter;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
@@ -51,6 +52,7 @@ import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -70,6 +72,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
     private final SubstitutionFactory substitutionFactory;
     private final CoreUtilsFactory coreUtilsFactory;
     private final CoreSingletons coreSingletons;
+    private final ParallelMappingProcessor parallelMappingProcessor;
 
     @Inject
 	private TMappingSaturatorImpl(TMappingExclusionConfig tMappingExclusionConfig,
@@ -77,7 +80,8 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                                   UnionFlattener unionNormalizer,
                                   MappingCQCOptimizer mappingCqcOptimizer,
                                   UnionBasedQueryMerger queryMerger,
-                                  CoreSingletons coreSingletons) {
+                                  CoreSingletons coreSingletons,
+                                  ParallelMappingProcessor parallelMappingProcessor) {
         this.tMappingExclusionConfig = tMappingExclusionConfig;
 		this.atomFactory = coreSingletons.getAtomFactory();
 		this.termFactory = coreSingletons.getTermFactory();
@@ -89,6 +93,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.coreUtilsFactory = coreSingletons.getCoreUtilsFactory();
         this.coreSingletons = coreSingletons;
+        this.parallelMappingProcessor = parallelMappingProcessor;
     }
 
     @Override
@@ -97,55 +102,84 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc =
                 new ImmutableCQContainmentCheckUnderLIDs<>(
                         new DBLinearInclusionDependenciesImpl(coreUtilsFactory, atomFactory));
+        TMappingHomomorphismCache homomorphismCache = new TMappingHomomorphismCache(cqc, coreSingletons);
 
 	    // index mapping assertions by the predicate type
         //     same IRI can be a class name and a property name
         //     but the same IRI cannot be an object and a data or annotation property name at the same time
         // see https://www.w3.org/TR/owl2-new-features/#F12:_Punning
 
-        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = mapping.stream()
-                .flatMap(a -> unionSplitter.splitUnion(unionNormalizer.optimize(a.getQuery()))
-                        .map(IQ::normalizeForOptimization) // replaces join equalities
-                        .map(q -> mappingCqcOptimizer.optimize(cqc, q))
-                        .map(q -> Maps.immutableEntry(a.getIndex(), new TMappingRule(q, termFactory, iqFactory))))
+        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = parallelMappingProcessor.map(mapping,
+                        a -> unionSplitter.splitUnion(unionNormalizer.optimize(a.getQuery()))
+                                .map(IQ::normalizeForOptimization) // replaces join equalities
+                                .map(q -> mappingCqcOptimizer.optimize(cqc, q))
+                                .map(q -> Maps.immutableEntry(a.getIndex(), new TMappingRule(q, termFactory, iqFactory)))
+                                .collect(ImmutableCollectors.toList())).stream()
+                .flatMap(Collection::stream)
                 .collect(ImmutableCollectors.toMultimap()).asMap();
 
-        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = original.keySet().stream()
+        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> combined =
+                saturate(original, reasoner, homomorphismCache);
+
+        return parallelMappingProcessor.map(combined.entrySet().asList(),
+                e -> new MappingAssertion(e.getKey(), toIQ(e.getValue()), null));
+    }
+
+    /**
+     * Saturates the rules of the mapping assertions with respect to the ontology
+     */
+    ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturate(ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original,
+                                                                           ClassifiedTBox reasoner,
+                                                                           TMappingHomomorphismCache homomorphismCache) {
+
+        ImmutableList<TMappingRuleHeadConstructorProvider> providers = original.keySet().stream()
                 .map(MappingAssertionIndex::getPredicate)
                 .distinct()
                 .map(rdfAtomPredicate -> new TMappingRuleHeadConstructorProvider(rdfAtomPredicate, termFactory))
-                .flatMap(provider -> Stream.concat(Stream.concat(
-                    reasoner.objectPropertiesDAG().stream()
-                        .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
-                                .map(saturator(node, reasoner.objectPropertiesDAG(), original, provider::constructor, cqc))),
-
-                    reasoner.dataPropertiesDAG().stream()
-                        .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .map(saturator(node, reasoner.dataPropertiesDAG(), original, provider::constructor, cqc)))),
-
-                    reasoner.classesDAG().stream()
-                        .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .filter(d -> d instanceof OClass)
-                                .map(saturator(node, reasoner.classesDAG(), original, provider::constructor, cqc)))))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = providers.stream()
+                .flatMap(provider -> {
+                    EquivalencesDAG<ObjectPropertyExpression> objectPropertiesDAG = reasoner.objectPropertiesDAG();
+                    Map<Equivalences<ObjectPropertyExpression>, ImmutableList<TMappingRule>> objectPropertyRules =
+                            saturateDAG(objectPropertiesDAG, original, provider::constructor, provider::relabelProperty, homomorphismCache);
+
+                    EquivalencesDAG<DataPropertyExpression> dataPropertiesDAG = reasoner.dataPropertiesDAG();
+                    Map<Equivalences<DataPropertyExpression>, ImmutableList<TMappingRule>> dataPropertyRules =
+                            saturateDAG(dataPropertiesDAG, original, provider::constructor, provider::relabelProperty, homomorphismCache);
+
+                    EquivalencesDAG<ClassExpression> classesDAG = reasoner.classesDAG();
+                    Map<Equivalences<ClassExpression>, ImmutableList<TMappingRule>> classRules =
+                            saturateDAG(classesDAG, original, provider::constructor, provider::relabelClass, homomorphismCache);
+
+                    return Stream.concat(Stream.concat(
+                        objectPropertiesDAG.stream()
+                            .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
+                            .flatMap(node -> node.getMembers().stream()
+                                    .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
+                                    .map(saturator(objectPropertyRules.get(node), provider::constructor))),
 
+                        dataPropertiesDAG.stream()
+                            .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
+                            .flatMap(node -> node.getMembers().stream()
+                                    .map(saturator(dataPropertyRules.get(node), provider::constructor)))),
+
+                        classesDAG.stream()
+                            .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
+                            .flatMap(node -> node.getMembers().stream()
+                                    .filter(d -> d instanceof OClass)
+                                    .map(saturator(classRules.get(node), provider::constructor))));
+                })
                 .filter(e -> !e.getValue().isEmpty())
                 .collect(ImmutableCollectors.toMap());
 
-        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> combined = Stream.concat(
+        return Stream.concat(
                 saturated.entrySet().stream(),
                 original.entrySet().stream()
                         .filter(e -> !saturated.containsKey(e.getKey()))
                         .map(e -> Maps.immutableEntry(e.getKey(), e.getValue().stream()
-                                        .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons)))))
+                                        .collect(TMappingEntry.toTMappingEntry(homomorphismCache, coreSingletons)))))
                 .collect(ImmutableCollectors.toMap());
-
-        return combined.entrySet().stream()
-                .map(e -> new MappingAssertion(e.getKey(), toIQ(e.getValue()), null))
-                .collect(ImmutableCollectors.toList());
     }
 
     private IQ toIQ(Collection<TMappingRule> rules) {
@@ -155,20 +189,98 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                 .normalizeForOptimization();
     }
 
-    private <T> Function<T, Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>> saturator(Equivalences<T> node,
-                                                     EquivalencesDAG<T> dag,
+    /**
+     * Computes the rules of all the nodes of the DAG, with the heads of the representative of the node.
+     *
+     * The rules of a node are obtained from the rules of its own members and from the (already computed)
+     * rules of its direct sub-nodes. The nodes are processed level by level, starting from the bottom of the DAG:
+     * the nodes of the same level are independent, and are processed in parallel.
+     *
+     * The rules of the sub-nodes are merged in the order of the DAG, so the result does not depend
+     * on the parallelism.
+     */
+    private <T> Map<Equivalences<T>, ImmutableList<TMappingRule>> saturateDAG(EquivalencesDAG<T> dag,
                                                      ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original,
                                                      Function<T, TMappingRuleHeadConstructor> constructor,
-                                                     ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc) {
+                                                     BiFunction<ImmutableList<ImmutableTerm>, IRIConstant, ImmutableList<ImmutableTerm>> relabel,
+                                                     TMappingHomomorphismCache homomorphismCache) {
+
+        ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> directSubs = dag.stream()
+                .collect(ImmutableCollectors.toMap(Function.identity(), dag::getDirectSub));
+
+        Map<Equivalences<T>, Integer> levels = new HashMap<>();
+        directSubs.keySet().forEach(node -> computeLevel(node, directSubs, levels));
+        ImmutableList<ImmutableList<Equivalences<T>>> nodesByLevel = directSubs.keySet().stream()
+                .collect(ImmutableCollectors.toMultimap(levels::get, Function.identity()))
+                .asMap().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> ImmutableList.copyOf(e.getValue()))
+                .collect(ImmutableCollectors.toList());
+
+        Map<Equivalences<T>, ImmutableList<TMappingRule>> rules = new HashMap<>();
+        for (ImmutableList<Equivalences<T>> nodes : nodesByLevel) {
+            ImmutableList<ImmutableList<TMappingRule>> levelRules = parallelMappingProcessor.map(nodes,
+                    node -> saturateNode(node, directSubs.get(node), rules, original, constructor, relabel, homomorphismCache));
+            for (int i = 0; i < nodes.size(); i++)
+                rules.put(nodes.get(i), levelRules.get(i));
+        }
+        return rules;
+    }
+
+    /**
+     * Length of the longest path to a bottom node (iteratively, as DAGs can be deep)
+     */
+    private static <T> void computeLevel(Equivalences<T> node,
+                                         ImmutableMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> directSubs,
+                                         Map<Equivalences<T>, Integer> levels) {
+        Deque<Equivalences<T>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Equivalences<T> current = stack.peek();
+            if (levels.containsKey(current)) {
+                stack.pop();
+                continue;
+            }
+            ImmutableList<Equivalences<T>> pendingSubs = directSubs.get(current).stream()
+                    .filter(sub -> !levels.containsKey(sub))
+                    .collect(ImmutableCollectors.toList());
+            if (pendingSubs.isEmpty()) {
+                levels.put(current, directSubs.get(current).stream()
+                        .mapToInt(levels::get)
+                        .map(l -> l + 1)
+                        .max()
+                        .orElse(0));
+                stack.pop();
+            }
+            else
+                pendingSubs.forEach(stack::push);
+        }
+    }
+
+    private <T> ImmutableList<TMappingRule> saturateNode(Equivalences<T> node,
+                                                     ImmutableSet<Equivalences<T>> directSubs,
+                                                     Map<Equivalences<T>, ImmutableList<TMappingRule>> subRules,
+                                                     ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original,
+                                                     Function<T, TMappingRuleHeadConstructor> constructor,
+                                                     BiFunction<ImmutableList<ImmutableTerm>, IRIConstant, ImmutableList<ImmutableTerm>> relabel,
+                                                     TMappingHomomorphismCache homomorphismCache) {
 
 	    IRIConstant iri = constructor.apply(node.getRepresentative()).getIri();
 
-        ImmutableList<TMappingRule> saturatedRepresentative = dag.getSub(node).stream()
-                .flatMap(subnode -> subnode.getMembers().stream())
-                .map(constructor)
-                .flatMap(t -> original.getOrDefault(t.indexOf(), ImmutableList.of()).stream()
-                        .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), iri), m)))
-                .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons));
+        return Stream.concat(
+                node.getMembers().stream()
+                        .map(constructor)
+                        .flatMap(t -> original.getOrDefault(t.indexOf(), ImmutableList.of()).stream()
+                                .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), iri), m))),
+                directSubs.stream()
+                        .flatMap(sub -> subRules.get(sub).stream())
+                        .map(m -> new TMappingRule(relabel.apply(m.getHeadTerms(), iri), m)))
+                .collect(TMappingEntry.toTMappingEntry(homomorphismCache, coreSingletons));
+    }
+
+    private <T> Function<T, Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>> saturator(
+                                                     ImmutableList<TMappingRule> saturatedRepresentative,
+                                                     Function<T, TMappingRuleHeadConstructor> constructor) {
 
         return constructor.andThen(
                 t -> Maps.immutableEntry(
@@ -178,7 +290,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                             .collect(ImmutableCollectors.toList())));
     }
 
-    private static abstract class TMappingRuleHeadConstructor {
+    static abstract class TMappingRuleHeadConstructor {
         final MappingAssertionIndex index;
         final IRIConstant iri;
         TMappingRuleHeadConstructor(MappingAssertionIndex index, TermFactory termFactory) {
@@ -192,7 +304,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         abstract ImmutableList<ImmutableTerm> getArguments(ImmutableList<ImmutableTerm> args, IRIConstant newIri);
     }
 
-    private static class TMappingRuleHeadConstructorProvider {
+    static class TMappingRuleHeadConstructorProvider {
 	    private final RDFAtomPredicate p;
 	    private final TermFactory termFactory;
         private final IRIConstant rdfType;
@@ -203,6 +315,20 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
             this.rdfType = termFactory.getConstantIRI(RDF.TYPE);
         }
 
+        /**
+         * Replaces the class IRI in the heads of the representative of a node of the classes DAG
+         */
+        ImmutableList<ImmutableTerm> relabelClass(ImmutableList<ImmutableTerm> args, IRIConstant newIri) {
+            return p.updateSPO(args, p.getSubject(args), rdfType, newIri);
+        }
+
+        /**
+         * Replaces the property IRI in the heads of the representative of a node of a properties DAG
+         */
+        ImmutableList<ImmutableTerm> relabelProperty(ImmutableList<ImmutableTerm> args, IRIConstant newIri) {
+            return p.updateSPO(args, p.getSubject(args), newIri, p.getObject(args));
+        }
+
         TMappingRuleHeadConstructor constructor(ClassExpression ce) {
             if (ce instanceof OClass) {
                 OClass oc = (OClass)ce;
@@ -0,0 +1,113 @@
+package it.unibz.inf.ontop.spec.mapping.transformer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbolFactory;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ParallelMappingProcessorTest {
+
+    private static final ImmutableList<Integer> ELEMENTS = IntStream.range(0, 100).boxed()
+            .collect(ImmutableCollectors.toList());
+
+    @Test
+    public void testOrderPreserved() {
+        ImmutableList<Integer> results = getProcessor(4).map(ELEMENTS, i -> i * 2);
+        assertEquals(IntStream.range(0, 100).map(i -> i * 2).boxed().collect(ImmutableCollectors.toList()),
+                results);
+    }
+
+    @Test
+    public void testSequential() {
+        assertEquals(ELEMENTS, getProcessor(1).map(ELEMENTS, i -> i));
+    }
+
+    @Test
+    public void testFirstExceptionThrown() {
+        try {
+            getProcessor(4).map(ELEMENTS, i -> {
+                if (i % 10 == 3)
+                    throw new IOException("Element " + i);
+                return i;
+            });
+            fail();
+        }
+        catch (IOException e) {
+            assertEquals("Element 3", e.getMessage());
+            assertEquals(9, e.getSuppressed().length);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRuntimeException() {
+        getProcessor(4).map(ELEMENTS, i -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    @Test
+    public void testPoolReused() {
+        ParallelMappingProcessor processor = getProcessor(4);
+        for (int i = 0; i < 10; i++)
+            assertEquals(ELEMENTS, processor.map(ELEMENTS, e -> e));
+    }
+
+    /**
+     * The factories shared by the concurrent tasks must return a unique instance per key
+     */
+    @Test
+    public void testSharedFactoriesReturnUniqueInstances() {
+        Injector injector = getConfiguration(4).getInjector();
+        ParallelMappingProcessor processor = injector.getInstance(ParallelMappingProcessor.class);
+        TermFactory termFactory = injector.getInstance(TermFactory.class);
+        TypeFactory typeFactory = injector.getInstance(TypeFactory.class);
+        DBFunctionSymbolFactory dbFunctionSymbolFactory = injector.getInstance(DBFunctionSymbolFactory.class);
+        DBTermType dbIntegerType = typeFactory.getDBTypeFactory().getDBLargeIntegerType();
+        DBTermType dbStringType = typeFactory.getDBTypeFactory().getDBStringType();
+
+        ImmutableList<Object> results = processor.map(ELEMENTS, i -> {
+            switch (i % 4) {
+                case 0:
+                    return termFactory.getRDFTermTypeConstant(typeFactory.getLangTermType("en"));
+                case 1:
+                    return dbFunctionSymbolFactory.getDBCastFunctionSymbol(dbIntegerType, dbStringType);
+                case 2:
+                    return dbFunctionSymbolFactory.getDBCastFunctionSymbol(dbStringType, dbIntegerType);
+                default:
+                    return dbFunctionSymbolFactory.getRegularDBFunctionSymbol("MY_FUNCTION", 2);
+            }
+        });
+
+        for (int i = 4; i < results.size(); i++)
+            assertSame(results.get(i % 4), results.get(i));
+    }
+
+    private static ParallelMappingProcessor getProcessor(int parallelism) {
+        return getConfiguration(parallelism)
+                .getInjector()
+                .getInstance(ParallelMappingProcessor.class);
+    }
+
+    private static OntopMappingConfiguration getConfiguration(int parallelism) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.MAPPING_LOADING_PARALLELISM, String.valueOf(parallelism));
+        return OntopMappingConfiguration.defaultBuilder()
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+}
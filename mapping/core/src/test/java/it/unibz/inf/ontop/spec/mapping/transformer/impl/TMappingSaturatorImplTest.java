@@ -0,0 +1,341 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.*;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.constraints.ImmutableHomomorphism;
+import it.unibz.inf.ontop.constraints.impl.DBLinearInclusionDependenciesImpl;
+import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.model.vocabulary.RDFS;
+import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
+import it.unibz.inf.ontop.spec.mapping.MappingAssertionIndex;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.utils.MappingTestingTools.*;
+import static org.junit.Assert.*;
+
+public class TMappingSaturatorImplTest {
+
+    private static final Variable S = TERM_FACTORY.getVariable("s");
+    private static final Variable P = TERM_FACTORY.getVariable("p");
+    private static final Variable O = TERM_FACTORY.getVariable("o");
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final Variable Z = TERM_FACTORY.getVariable("z");
+
+    private static final ImmutableList<Template.Component> IRI_TEMPLATE_1 = Template.of("http://example.org/a/", 0);
+
+    private static final IRI A = RDF_FACTORY.createIRI("http://example.org/voc#A");
+    private static final IRI A2 = RDF_FACTORY.createIRI("http://example.org/voc#A2");
+    private static final IRI B = RDF_FACTORY.createIRI("http://example.org/voc#B");
+    private static final IRI C = RDF_FACTORY.createIRI("http://example.org/voc#C");
+    private static final IRI D = RDF_FACTORY.createIRI("http://example.org/voc#D");
+    private static final IRI E = RDF_FACTORY.createIRI("http://example.org/voc#E");
+    private static final IRI PROP_P = RDF_FACTORY.createIRI("http://example.org/voc#p");
+    private static final IRI PROP_Q = RDF_FACTORY.createIRI("http://example.org/voc#q");
+    private static final IRI PROP_R = RDF_FACTORY.createIRI("http://example.org/voc#r");
+    private static final IRI PROP_D = RDF_FACTORY.createIRI("http://example.org/voc#d");
+    private static final IRI PROP_E = RDF_FACTORY.createIRI("http://example.org/voc#e");
+
+    private static final RDFAtomPredicate TRIPLE_PREDICATE = (RDFAtomPredicate) ATOM_FACTORY
+            .getDistinctTripleAtom(S, P, O).getPredicate();
+
+    /**
+     * A2 is equivalent to A, D < C < B < A (multi-level hierarchy), E < A,
+     * q is the inverse of p, r < p, exists p < B, exists p- < E,
+     * d < e, exists d < C
+     */
+    private static ClassifiedTBox getTBox() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY, TERM_FACTORY);
+        OClass a = builder.declareClass(A);
+        OClass a2 = builder.declareClass(A2);
+        OClass b = builder.declareClass(B);
+        OClass c = builder.declareClass(C);
+        OClass d = builder.declareClass(D);
+        OClass e = builder.declareClass(E);
+        ObjectPropertyExpression p = builder.declareObjectProperty(PROP_P);
+        ObjectPropertyExpression q = builder.declareObjectProperty(PROP_Q);
+        ObjectPropertyExpression r = builder.declareObjectProperty(PROP_R);
+        DataPropertyExpression dp = builder.declareDataProperty(PROP_D);
+        DataPropertyExpression ep = builder.declareDataProperty(PROP_E);
+
+        builder.addSubClassOfAxiom(a, a2);
+        builder.addSubClassOfAxiom(a2, a);
+        builder.addSubClassOfAxiom(b, a);
+        builder.addSubClassOfAxiom(c, b);
+        builder.addSubClassOfAxiom(d, c);
+        builder.addSubClassOfAxiom(e, a);
+        builder.addSubPropertyOfAxiom(q, p.getInverse());
+        builder.addSubPropertyOfAxiom(p.getInverse(), q);
+        builder.addSubPropertyOfAxiom(r, p);
+        builder.addSubClassOfAxiom(p.getDomain(), b);
+        builder.addSubClassOfAxiom(p.getRange(), e);
+        builder.addSubPropertyOfAxiom(dp, ep);
+        builder.addSubClassOfAxiom(dp.getDomainRestriction(builder.getDatatype(RDFS.LITERAL.getIRIString())), c);
+        return builder.build().tbox();
+    }
+
+    private static ImmutableList<MappingAssertion> getMapping() {
+        return ImmutableList.of(
+                classAssertion(A2, IQ_FACTORY.createExtensionalDataNode(TABLE1_AR2, ImmutableMap.of(0, X))),
+                classAssertion(B, IQ_FACTORY.createExtensionalDataNode(TABLE2_AR2, ImmutableMap.of(0, X))),
+                classAssertion(C, IQ_FACTORY.createExtensionalDataNode(TABLE1_AR3, ImmutableMap.of(0, X))),
+                // subsumed by the assertion for C
+                classAssertion(D, IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(
+                        IQ_FACTORY.createExtensionalDataNode(TABLE1_AR3, ImmutableMap.of(0, X, 1, Y)),
+                        IQ_FACTORY.createExtensionalDataNode(TABLE2_AR3, ImmutableMap.of(0, X, 1, Y))))),
+                objectPropertyAssertion(PROP_P, TABLE3_AR3),
+                objectPropertyAssertion(PROP_Q, TABLE4_AR3),
+                // the assertion for A2 subsumes its domain
+                objectPropertyAssertion(PROP_R, TABLE1_AR2),
+                dataPropertyAssertion(PROP_D, TABLE2_AR2),
+                dataPropertyAssertion(PROP_E, TABLE3_AR3));
+    }
+
+    @Test
+    public void testSameRulesAsPreviousAlgorithm() throws InconsistentOntologyException {
+        Injector injector = getInjector(4);
+        TMappingSaturatorImpl saturator = injector.getInstance(TMappingSaturatorImpl.class);
+        ClassifiedTBox tbox = getTBox();
+        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = getMapping().stream()
+                .collect(ImmutableCollectors.toMultimap(
+                        MappingAssertion::getIndex,
+                        a -> new TMappingRule(a.getQuery().normalizeForOptimization(), TERM_FACTORY, IQ_FACTORY)))
+                .asMap();
+
+        ImmutableMap<MappingAssertionIndex, ImmutableSet<TMappingRule>> expected = toSets(
+                saturateWithPreviousAlgorithm(original, tbox, createHomomorphismCache()));
+        ImmutableMap<MappingAssertionIndex, ImmutableSet<TMappingRule>> result = toSets(
+                saturator.saturate(original, tbox, createHomomorphismCache()));
+
+        assertEquals(expected, result);
+
+        // Equivalent classes
+        assertEquals(result.get(classIndex(A)), result.get(classIndex(A2)).stream()
+                .map(r -> new TMappingRule(r.getHeadTerms().stream()
+                        .map(t -> t.equals(TERM_FACTORY.getConstantIRI(A2)) ? TERM_FACTORY.getConstantIRI(A) : t)
+                        .collect(ImmutableCollectors.toList()), r))
+                .collect(ImmutableCollectors.toSet()));
+        // Multi-level hierarchy: A2, B, C (D is subsumed), the domains and ranges of p and q,
+        // the range of r (its domain is subsumed by A2, the domain of d by B)
+        assertEquals(8, result.get(classIndex(A)).size());
+        // C, the domain of d (D is subsumed)
+        assertEquals(2, result.get(classIndex(C)).size());
+        // Inverse object properties: p, q, r
+        assertEquals(3, result.get(propertyIndex(PROP_P)).size());
+        assertEquals(3, result.get(propertyIndex(PROP_Q)).size());
+    }
+
+    @Test
+    public void testDeterministic() throws InconsistentOntologyException {
+        ClassifiedTBox tbox = getTBox();
+        ImmutableList<MappingAssertion> mapping = getMapping();
+
+        ImmutableMap<MappingAssertionIndex, IQ> sequentialResult = toMap(
+                getInjector(1).getInstance(TMappingSaturatorImpl.class).saturate(mapping, tbox));
+
+        TMappingSaturatorImpl parallelSaturator = getInjector(4).getInstance(TMappingSaturatorImpl.class);
+        for (int i = 0; i < 10; i++)
+            assertEquals(sequentialResult, toMap(parallelSaturator.saturate(mapping, tbox)));
+    }
+
+    @Test
+    public void testCacheHitForSharedConstants() {
+        TMappingHomomorphismCache cache = createHomomorphismCache();
+        TMappingRule fromA = classRule(A, TABLE1_AR3, ImmutableMap.of(0, X));
+        TMappingRule toA = classRule(A, TABLE1_AR3, ImmutableMap.of(0, X, 1, Y));
+        TMappingRule fromB = classRule(B, TABLE1_AR3, ImmutableMap.of(0, X));
+        TMappingRule toB = classRule(B, TABLE1_AR3, ImmutableMap.of(0, X, 1, Y));
+
+        Optional<ImmutableHomomorphism> homomorphismA = cache.getHomomorphism(fromA, toA);
+        assertTrue(homomorphismA.isPresent());
+        assertEquals(1, cache.size());
+
+        // Only the class IRI, shared by both heads, differs
+        assertEquals(homomorphismA, cache.getHomomorphism(fromB, toB));
+        assertEquals(1, cache.size());
+
+        // Different constants in the heads
+        assertFalse(cache.getHomomorphism(fromA, toB).isPresent());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCacheBounded() {
+        ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc = new ImmutableCQContainmentCheckUnderLIDs<>(
+                new DBLinearInclusionDependenciesImpl(CORE_UTILS_FACTORY, ATOM_FACTORY));
+        TMappingHomomorphismCache cache = new TMappingHomomorphismCache(cqc, CORE_SINGLETONS, 1);
+        TMappingRule rule1 = classRule(A, TABLE1_AR3, ImmutableMap.of(0, X));
+        TMappingRule rule2 = classRule(A, TABLE2_AR3, ImmutableMap.of(0, X));
+
+        assertTrue(cache.getHomomorphism(rule1, rule1).isPresent());
+        assertFalse(cache.getHomomorphism(rule1, rule2).isPresent());
+        assertFalse(cache.getHomomorphism(rule2, rule1).isPresent());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * The algorithm before the memoization of the node rules: the rules of each node are merged
+     * from the original rules of all the members of its sub-DAG.
+     */
+    private static ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturateWithPreviousAlgorithm(
+            ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original, ClassifiedTBox reasoner,
+            TMappingHomomorphismCache cache) {
+
+        TMappingSaturatorImpl.TMappingRuleHeadConstructorProvider provider =
+                new TMappingSaturatorImpl.TMappingRuleHeadConstructorProvider(TRIPLE_PREDICATE, TERM_FACTORY);
+
+        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = Stream.concat(Stream.concat(
+                reasoner.objectPropertiesDAG().stream()
+                        .filter(node -> !node.getRepresentative().isInverse())
+                        .flatMap(node -> node.getMembers().stream()
+                                .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
+                                .map(previousSaturator(node, reasoner.objectPropertiesDAG(), original, provider::constructor, cache))),
+                reasoner.dataPropertiesDAG().stream()
+                        .flatMap(node -> node.getMembers().stream()
+                                .map(previousSaturator(node, reasoner.dataPropertiesDAG(), original, provider::constructor, cache)))),
+                reasoner.classesDAG().stream()
+                        .filter(node -> node.getRepresentative() instanceof OClass)
+                        .flatMap(node -> node.getMembers().stream()
+                                .filter(d -> d instanceof OClass)
+                                .map(previousSaturator(node, reasoner.classesDAG(), original, provider::constructor, cache))))
+                .filter(e -> !e.getValue().isEmpty())
+                .collect(ImmutableCollectors.toMap());
+
+        return Stream.concat(
+                saturated.entrySet().stream(),
+                original.entrySet().stream()
+                        .filter(e -> !saturated.containsKey(e.getKey()))
+                        .map(e -> Maps.immutableEntry(e.getKey(), e.getValue().stream()
+                                .collect(TMappingEntry.toTMappingEntry(cache, CORE_SINGLETONS)))))
+                .collect(ImmutableCollectors.toMap());
+    }
+
+    private static <T> Function<T, Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>> previousSaturator(
+            Equivalences<T> node, EquivalencesDAG<T> dag,
+            ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original,
+            Function<T, TMappingSaturatorImpl.TMappingRuleHeadConstructor> constructor,
+            TMappingHomomorphismCache cache) {
+
+        IRIConstant iri = constructor.apply(node.getRepresentative()).getIri();
+
+        ImmutableList<TMappingRule> saturatedRepresentative = dag.getSub(node).stream()
+                .flatMap(subnode -> subnode.getMembers().stream())
+                .map(constructor)
+                .flatMap(t -> original.getOrDefault(t.indexOf(), ImmutableList.of()).stream()
+                        .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), iri), m)))
+                .collect(TMappingEntry.toTMappingEntry(cache, CORE_SINGLETONS));
+
+        return constructor.andThen(
+                t -> Maps.immutableEntry(
+                        t.indexOf(),
+                        saturatedRepresentative.stream()
+                                .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), t.getIri()), m))
+                                .collect(ImmutableCollectors.toList())));
+    }
+
+    private static ImmutableMap<MappingAssertionIndex, ImmutableSet<TMappingRule>> toSets(
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> rules) {
+        return rules.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> ImmutableSet.copyOf(e.getValue())));
+    }
+
+    private static ImmutableMap<MappingAssertionIndex, IQ> toMap(ImmutableList<MappingAssertion> mapping) {
+        return mapping.stream()
+                .collect(ImmutableCollectors.toMap(MappingAssertion::getIndex, MappingAssertion::getQuery));
+    }
+
+    private static TMappingHomomorphismCache createHomomorphismCache() {
+        return new TMappingHomomorphismCache(
+                new ImmutableCQContainmentCheckUnderLIDs<>(
+                        new DBLinearInclusionDependenciesImpl(CORE_UTILS_FACTORY, ATOM_FACTORY)),
+                CORE_SINGLETONS);
+    }
+
+    private static Injector getInjector(int parallelism) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.MAPPING_LOADING_PARALLELISM, String.valueOf(parallelism));
+        return OntopMappingConfiguration.defaultBuilder()
+                .properties(properties)
+                .enableTestMode()
+                .build()
+                .getInjector();
+    }
+
+    private static MappingAssertionIndex classIndex(IRI classIRI) {
+        return MappingAssertionIndex.ofClass(TRIPLE_PREDICATE, classIRI);
+    }
+
+    private static MappingAssertionIndex propertyIndex(IRI propertyIRI) {
+        return MappingAssertionIndex.ofProperty(TRIPLE_PREDICATE, propertyIRI);
+    }
+
+    private static TMappingRule classRule(IRI classIRI, RelationDefinition table,
+                                          ImmutableMap<Integer, Variable> arguments) {
+        return new TMappingRule(classAssertion(classIRI, IQ_FACTORY.createExtensionalDataNode(table, arguments))
+                .getQuery().normalizeForOptimization(), TERM_FACTORY, IQ_FACTORY);
+    }
+
+    private static MappingAssertion classAssertion(IRI classIRI, IQTree child) {
+        IQ iq = IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctTripleAtom(S, P, O),
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, P, O),
+                        SUBSTITUTION_FACTORY.getSubstitution(S, generateIRI(IRI_TEMPLATE_1, X),
+                                P, TERM_FACTORY.getConstantIRI(RDF.TYPE),
+                                O, TERM_FACTORY.getConstantIRI(classIRI))),
+                        child));
+        return new MappingAssertion(classIndex(classIRI), iq, null);
+    }
+
+    private static MappingAssertion objectPropertyAssertion(IRI propertyIRI, RelationDefinition table) {
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(table, ImmutableMap.of(0, X, 1, Y));
+        IQ iq = IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctTripleAtom(S, P, O),
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, P, O),
+                        SUBSTITUTION_FACTORY.getSubstitution(S, generateIRI(IRI_TEMPLATE_1, X),
+                                P, TERM_FACTORY.getConstantIRI(propertyIRI),
+                                O, generateIRI(IRI_TEMPLATE_1, Y))),
+                        dataNode));
+        return new MappingAssertion(propertyIndex(propertyIRI), iq, null);
+    }
+
+    private static MappingAssertion dataPropertyAssertion(IRI propertyIRI, RelationDefinition table) {
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(table, ImmutableMap.of(0, X, 1, Z));
+        IQ iq = IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctTripleAtom(S, P, O),
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, P, O),
+                        SUBSTITUTION_FACTORY.getSubstitution(S, generateIRI(IRI_TEMPLATE_1, X),
+                                P, TERM_FACTORY.getConstantIRI(propertyIRI),
+                                O, TERM_FACTORY.getRDFLiteralFunctionalTerm(Z, RDFS.LITERAL))),
+                        dataNode));
+        return new MappingAssertion(propertyIndex(propertyIRI), iq, null);
+    }
+
+    private static ImmutableFunctionalTerm generateIRI(ImmutableList<Template.Component> template, ImmutableTerm argument) {
+        return TERM_FACTORY.getIRIFunctionalTerm(template, ImmutableList.of(argument));
+    }
+}
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.OntologyException;
 import it.unibz.inf.ontop.injection.OntopMappingOWLAPIConfiguration;
@@ -7,6 +8,7 @@ import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.injection.impl.OntopMappingOntologyBuilders.OntopMappingOntologyOptions;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
 import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorOWL2QL;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.protege.xmlcatalog.owlapi.XMLCatalogIRIMapper;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -22,6 +24,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurationImpl
         implements OntopMappingOWLAPIConfiguration {
@@ -102,6 +105,20 @@ public class OntopMappingOWLAPIConfigurationImpl extends OntopMappingConfigurati
         }
     }
 
+    /**
+     * The ontology is not only read from files when it is given as an object or by URL
+     */
+    @Override
+    Optional<ImmutableList<File>> getOntologyFiles() {
+        if (options.ontology.isPresent() || options.mappingOntologyOptions.ontologyURL.isPresent())
+            return Optional.empty();
+
+        return Optional.of(Stream.concat(
+                    options.mappingOntologyOptions.ontologyFile.map(Stream::of).orElseGet(Stream::empty),
+                    options.mappingOntologyOptions.xmlCatalogFile.map(File::new).map(Stream::of).orElseGet(Stream::empty))
+                .collect(ImmutableCollectors.toList()));
+    }
+
     static class OntopMappingOWLAPIOptions {
 
         private final Optional<OWLOntology> ontology;
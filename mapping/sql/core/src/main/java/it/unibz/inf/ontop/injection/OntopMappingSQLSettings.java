@@ -3,4 +3,15 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * If a DB metadata file is provided, whether the serialized relations are checked against the DB
+     * (only those that have changed are extracted from the DB)
+     */
+    boolean isDBMetadataRevalidated();
+
+    //-------
+    // Keys
+    //-------
+
+    String REVALIDATE_DB_METADATA = "ontop.revalidateDBMetadata";
 }
@@ -29,6 +29,11 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
         return loadDefaultPropertiesFromFile(OntopMappingSQLSettings.class, DEFAULT_PROPERTY_FILE);
     }
 
+    @Override
+    public boolean isDBMetadataRevalidated() {
+        return getRequiredBoolean(REVALIDATE_DB_METADATA);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
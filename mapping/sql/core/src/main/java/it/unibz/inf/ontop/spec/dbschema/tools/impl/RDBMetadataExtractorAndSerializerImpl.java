@@ -2,9 +2,9 @@ package it.unibz.inf.ontop.spec.dbschema.tools.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
-import it.unibz.inf.ontop.dbschema.ImmutableMetadata;
-import it.unibz.inf.ontop.dbschema.MetadataProvider;
+import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
 import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
@@ -12,30 +12,52 @@ import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.spec.dbschema.tools.DBMetadataExtractorAndSerializer;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Optional;
 
 public class RDBMetadataExtractorAndSerializerImpl implements DBMetadataExtractorAndSerializer {
 
     private final OntopSQLCredentialSettings settings;
     private final JDBCMetadataProviderFactory metadataProviderFactory;
+    private final CachedDBMetadataProvider.Factory cachedDBMetadataProviderFactory;
 
     @Inject
     private RDBMetadataExtractorAndSerializerImpl(OntopSQLCredentialSettings settings,
-                                                  JDBCMetadataProviderFactory metadataProviderFactory) {
+                                                  JDBCMetadataProviderFactory metadataProviderFactory,
+                                                  CachedDBMetadataProvider.Factory cachedDBMetadataProviderFactory) {
         this.settings = settings;
         this.metadataProviderFactory = metadataProviderFactory;
+        this.cachedDBMetadataProviderFactory = cachedDBMetadataProviderFactory;
     }
 
     @Override
     public String extractAndSerialize() throws MetadataExtractionException {
+        return extractAndSerialize(Optional.empty());
+    }
+
+    @Override
+    public String extractAndSerialize(Reader previousDBMetadataReader) throws MetadataExtractionException {
+        return extractAndSerialize(Optional.of(previousDBMetadataReader));
+    }
+
+    private String extractAndSerialize(Optional<Reader> previousDBMetadataReader) throws MetadataExtractionException {
 
         try (Connection localConnection = LocalJDBCConnectionUtils.createConnection(settings)) {
-            MetadataProvider metadataProvider = metadataProviderFactory.getMetadataProvider(localConnection);
-            ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(metadataProvider);
+            DBMetadataProvider dbMetadataProvider = metadataProviderFactory.getMetadataProvider(localConnection);
+            // before the extraction, so that concurrent changes invalidate the serialized relations
+            ImmutableMap<RelationID, String> fingerprints = dbMetadataProvider.getRelationFingerprints(
+                    dbMetadataProvider.getRelationIDs());
+
+            MetadataProvider metadataProvider = previousDBMetadataReader.isPresent()
+                    ? cachedDBMetadataProviderFactory.getMetadataProvider(dbMetadataProvider, previousDBMetadataReader.get())
+                    : dbMetadataProvider;
+            // with the statistics, for the cost-based query planner (extracted once, unlike at start-up)
+            ImmutableMetadata metadata = ImmutableMetadata.extractImmutableMetadata(metadataProvider, true);
 
             ObjectMapper mapper = new ObjectMapper();
-            JsonMetadata jsonMetadata = new JsonMetadata(metadata);
+            JsonMetadata jsonMetadata = new JsonMetadata(metadata, fingerprints);
             return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonMetadata);
         }
         catch (SQLException e) {
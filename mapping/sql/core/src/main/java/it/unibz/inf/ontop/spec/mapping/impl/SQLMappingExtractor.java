@@ -21,9 +21,11 @@ import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.parser.SQLMappingParser;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingCanonicalTransformer;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingDatatypeFiller;
+import it.unibz.inf.ontop.spec.mapping.transformer.ParallelMappingProcessor;
 import it.unibz.inf.ontop.iq.type.NotYetTypedEqualityTransformer;
 import it.unibz.inf.ontop.spec.mapping.validation.MappingOntologyComplianceValidator;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 import it.unibz.inf.ontop.dbschema.OntopViewMetadataProvider;
 import org.apache.commons.rdf.api.Graph;
@@ -54,6 +56,7 @@ public class SQLMappingExtractor implements MappingExtractor {
     private final SQLMappingParser mappingParser;
 
     private final MetaMappingExpander metamappingExpander;
+    private final ParallelMappingProcessor parallelMappingProcessor;
 
     /**
      * This represents user-supplied constraints, i.e. primary
@@ -63,6 +66,7 @@ public class SQLMappingExtractor implements MappingExtractor {
      */
     private final ImplicitDBConstraintsProviderFactory implicitDBConstraintExtractor;
     private final SerializedMetadataProvider.Factory serializedMetadataProviderFactory;
+    private final CachedDBMetadataProvider.Factory cachedDBMetadataProviderFactory;
 
     @Inject
     private SQLMappingExtractor(SQLMappingParser mappingParser,
@@ -79,7 +83,9 @@ public class SQLMappingExtractor implements MappingExtractor {
                                 ImplicitDBConstraintsProviderFactory implicitDBConstraintExtractor,
                                 JDBCMetadataProviderFactory metadataProviderFactory,
                                 SerializedMetadataProvider.Factory serializedMetadataProviderFactory,
-                                OntopViewMetadataProvider.Factory viewMetadataProviderFactory) {
+                                CachedDBMetadataProvider.Factory cachedDBMetadataProviderFactory,
+                                OntopViewMetadataProvider.Factory viewMetadataProviderFactory,
+                                ParallelMappingProcessor parallelMappingProcessor) {
 
         this.ontologyComplianceValidator = ontologyComplianceValidator;
         this.mappingParser = mappingParser;
@@ -96,6 +102,8 @@ public class SQLMappingExtractor implements MappingExtractor {
         this.metadataProviderFactory = metadataProviderFactory;
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
         this.serializedMetadataProviderFactory = serializedMetadataProviderFactory;
+        this.cachedDBMetadataProviderFactory = cachedDBMetadataProviderFactory;
+        this.parallelMappingProcessor = parallelMappingProcessor;
     }
 
     @Override
@@ -152,23 +160,12 @@ public class SQLMappingExtractor implements MappingExtractor {
 
         ImmutableList<MappingAssertion> expMapping = metamappingExpander.transform(mm.getMapping(), mm.getDBParameters());
 
-        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
-        // no streams because of exception handling
-        for (MappingAssertion assertion : expMapping) {
-            IQTree tree = assertion.getQuery().getTree();
-            IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
-            IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
-            IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
-            if (noNullTree.isDeclaredAsEmpty())
-                continue;
-
-            MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
-            MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
-            MappingAssertion castAssertion = mappingCaster.transform(filledProvAssertion);
-            builder.add(castAssertion);
-        }
+        // Mapping assertions are processed independently
+        ImmutableList<MappingAssertion> castMapping = parallelMappingProcessor.map(expMapping, this::normalizeAndCast).stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(ImmutableCollectors.toList());
 
-        ImmutableList<MappingAssertion> castMapping = builder.build();
         ImmutableList<MappingAssertion> canonizedMapping = canonicalTransformer.transform(castMapping);
 
         // Validation: Mismatch between the ontology and the mapping
@@ -179,6 +176,22 @@ public class SQLMappingExtractor implements MappingExtractor {
         return new MappingAndDBParametersImpl(canonizedMapping, mm.getDBParameters());
     }
 
+    /**
+     * Returns empty if the mapping assertion is declared as empty once the null values are filtered out
+     */
+    private Optional<MappingAssertion> normalizeAndCast(MappingAssertion assertion) throws UnknownDatatypeException {
+        IQTree tree = assertion.getQuery().getTree();
+        IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
+        IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
+        IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
+        if (noNullTree.isDeclaredAsEmpty())
+            return Optional.empty();
+
+        MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
+        MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
+        return Optional.of(mappingCaster.transform(filledProvAssertion));
+    }
+
     private MappingAndDBParameters convert(SQLPPMapping ppMapping, OBDASpecInput specInput)
             throws MetaMappingExpansionException, MetadataExtractionException, InvalidMappingSourceQueriesException {
         try {
@@ -195,7 +208,15 @@ public class SQLMappingExtractor implements MappingExtractor {
                                            Optional<Reader> ontopViewReader) throws MetadataExtractionException, InvalidMappingSourceQueriesException, MetaMappingExpansionException {
 
         try {
-            if (optionalDbMetadataReader.isPresent()) {
+            if (optionalDbMetadataReader.isPresent() && settings.isDBMetadataRevalidated()) {
+                try (Reader dbMetadataReader = optionalDbMetadataReader.get();
+                     Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
+                    return convert(mapping, constraintFile, ontopViewReader,
+                            cachedDBMetadataProviderFactory.getMetadataProvider(
+                                    metadataProviderFactory.getMetadataProvider(connection), dbMetadataReader));
+                }
+            }
+            else if (optionalDbMetadataReader.isPresent()) {
                 try (Reader dbMetadataReader = optionalDbMetadataReader.get()) {
                     return convert(mapping, constraintFile, ontopViewReader,
                             serializedMetadataProviderFactory.getMetadataProvider(dbMetadataReader));
@@ -234,7 +255,8 @@ public class SQLMappingExtractor implements MappingExtractor {
         CachingMetadataLookup metadataLookup = new CachingMetadataLookup(withImplicitConstraintsMetadataProvider);
         ImmutableList<MappingAssertion> provMapping = ppMappingConverter.convert(mapping, metadataLookup);
 
-        metadataLookup.extractImmutableMetadata(); // inserts integrity constraints
+        // inserts integrity constraints (and statistics)
+        metadataLookup.extractImmutableMetadata(settings.isDBStatisticsRequired());
 
         return new MappingAndDBParametersImpl(provMapping, metadataProvider.getDBParameters());
     }
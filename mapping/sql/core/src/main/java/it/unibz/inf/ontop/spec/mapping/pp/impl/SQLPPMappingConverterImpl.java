@@ -7,6 +7,7 @@ import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.dbschema.impl.RawQuotedIDFactory;
 import it.unibz.inf.ontop.exception.InvalidMappingSourceQueriesException;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
@@ -19,6 +20,7 @@ import it.unibz.inf.ontop.spec.sqlparser.exception.InvalidSelectQueryException;
 import it.unibz.inf.ontop.spec.mapping.pp.PPMappingAssertionProvenance;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMappingConverter;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.spec.mapping.transformer.ParallelMappingProcessor;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.substitution.Var2VarSubstitution;
@@ -42,38 +44,47 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
     private final SubstitutionFactory substitutionFactory;
     private final SQLQueryParser sqlQueryParser;
     private final RAExpression2IQConverter raExpression2IQConverter;
+    private final ParallelMappingProcessor parallelMappingProcessor;
 
     @Inject
     private SQLPPMappingConverterImpl(CoreSingletons coreSingletons, SQLQueryParser sqlQueryParser,
-                                      RAExpression2IQConverter raExpression2IQConverter) {
+                                      RAExpression2IQConverter raExpression2IQConverter,
+                                      ParallelMappingProcessor parallelMappingProcessor) {
         this.iqFactory = coreSingletons.getIQFactory();
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.sqlQueryParser = sqlQueryParser;
         this.raExpression2IQConverter = raExpression2IQConverter;
+        this.parallelMappingProcessor = parallelMappingProcessor;
     }
 
     @Override
     public ImmutableList<MappingAssertion> convert(ImmutableList<SQLPPTriplesMap> mapping, MetadataLookup metadataLookup) throws InvalidMappingSourceQueriesException {
 
-        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
-        for (SQLPPTriplesMap assertion : mapping) {
-            RAExpression re = getRAExpression(assertion, metadataLookup);
-            IQTree tree = raExpression2IQConverter.convert(re);
-
-            Function<Variable, Optional<ImmutableTerm>> lookup = placeholderLookup(assertion, metadataLookup.getQuotedIDFactory(), re.getUnqualifiedAttributes());
-
-            for (TargetAtom target : assertion.getTargetAtoms()) {
-                PPMappingAssertionProvenance provenance = assertion.getMappingAssertionProvenance(target);
-                builder.add(convert(target, lookup, provenance, tree));
-            }
-        }
-
-        ImmutableList<MappingAssertion> result = builder.build();
+        // The source queries are parsed in parallel, but the metadata is retrieved one relation at a time
+        MetadataLookup synchronizedLookup = new SynchronizedMetadataLookup(metadataLookup);
+        ImmutableList<MappingAssertion> result = parallelMappingProcessor.map(mapping,
+                        a -> convert(a, synchronizedLookup)).stream()
+                .flatMap(Collection::stream)
+                .collect(ImmutableCollectors.toList());
         LOGGER.debug("Original mapping size: {}", result.size());
         return result;
     }
 
 
+    private ImmutableList<MappingAssertion> convert(SQLPPTriplesMap assertion, MetadataLookup metadataLookup) throws InvalidMappingSourceQueriesException {
+        RAExpression re = getRAExpression(assertion, metadataLookup);
+        IQTree tree = raExpression2IQConverter.convert(re);
+
+        Function<Variable, Optional<ImmutableTerm>> lookup = placeholderLookup(assertion, metadataLookup.getQuotedIDFactory(), re.getUnqualifiedAttributes());
+
+        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
+        for (TargetAtom target : assertion.getTargetAtoms()) {
+            PPMappingAssertionProvenance provenance = assertion.getMappingAssertionProvenance(target);
+            builder.add(convert(target, lookup, provenance, tree));
+        }
+        return builder.build();
+    }
+
     private static <T> Function<Variable, Optional<T>> placeholderLookup(SQLPPTriplesMap mappingAssertion, QuotedIDFactory idFactory, ImmutableMap<QuotedID, T> lookup) {
         Function<Variable, Optional<T>> standard =
                 v -> Optional.ofNullable(lookup.get(idFactory.createAttributeID(v.getName())));
@@ -144,4 +155,25 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
                     +  mappingAssertion.getTriplesMapProvenance().getProvenanceInfo() + "]");
         }
     }
+
+    /**
+     * Metadata lookups (e.g. CachingMetadataLookup) are not thread-safe
+     */
+    private static class SynchronizedMetadataLookup implements MetadataLookup {
+        private final MetadataLookup lookup;
+
+        SynchronizedMetadataLookup(MetadataLookup lookup) {
+            this.lookup = lookup;
+        }
+
+        @Override
+        public synchronized NamedRelationDefinition getRelation(RelationID id) throws MetadataExtractionException {
+            return lookup.getRelation(id);
+        }
+
+        @Override
+        public QuotedIDFactory getQuotedIDFactory() {
+            return lookup.getQuotedIDFactory();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopMappingSQLAllOWLAPIConfiguration;
@@ -29,6 +30,12 @@ public class OntopMappingSQLAllOWLAPIConfigurationImpl extends OntopMappingSQLAl
     protected OBDASpecification loadOBDASpecification() throws OBDASpecificationException {
         return loadSpecification(mappingOWLConfiguration::loadOntology);
     }
+
+    @Override
+    Optional<ImmutableList<File>> getOntologyFiles() {
+        return mappingOWLConfiguration.getOntologyFiles();
+    }
+
     @Override
     public Optional<OWLOntology> loadInputOntology() throws OWLOntologyCreationException {
         return mappingOWLConfiguration.loadInputOntology();
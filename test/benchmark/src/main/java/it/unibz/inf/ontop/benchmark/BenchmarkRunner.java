@@ -0,0 +1,38 @@
+package it.unibz.inf.ontop.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar (mvn package -Pbenchmark, in test/benchmark):
+ *
+ *   java -jar target/ontop-benchmarks-VERSION.jar [JMH options] [benchmark regexps]
+ *
+ * Accepts the regular JMH command-line options (e.g. -p scenario=npd, -f 3, -prof gc).
+ * By default, runs all the benchmarks of this package and writes the results in JSON
+ * (ontop-benchmarks.json, to be compared across versions, e.g. with JMH Visualizer).
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "ontop-benchmarks.json";
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLineOptions);
+
+        if (commandLineOptions.getIncludes().isEmpty())
+            builder.include(BenchmarkRunner.class.getPackage().getName() + "\\.");
+        if (!commandLineOptions.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+        if (!commandLineOptions.getResult().hasValue())
+            builder.result(DEFAULT_RESULT_FILE);
+
+        new Runner(builder.build()).run();
+    }
+}
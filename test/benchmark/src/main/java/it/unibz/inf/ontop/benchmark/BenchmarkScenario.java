@@ -0,0 +1,213 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CharStreams;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.h2.tools.RunScript;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.model.*;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OBDA scenarios of the benchmarks, backed by in-memory H2 databases.
+ *
+ * The files of a scenario are in the "scenarios/NAME" directory of the classpath:
+ *   - the SQL script creating the tables
+ *   - the mapping in the native Ontop format
+ *   - the ontology and the documents it imports (optional)
+ *   - the SPARQL queries, in the format of the query files of Protégé
+ *
+ * The ontologies and the NPD schema are shared with the tests of the OWLAPI binding.
+ */
+public enum BenchmarkScenario {
+
+    /**
+     * Berlin SPARQL Benchmark: e-commerce, few tables with many columns, no reasoning
+     */
+    BSBM("bsbm", "schema.sql", false, "mapping.obda", "bsbm.owl", "queries.q", ImmutableSet.of()),
+
+    /**
+     * Lehigh University Benchmark: deep class hierarchy, mapping assertions filtering on the columns
+     */
+    LUBM("lubm", "schema.sql", false, "mapping.obda", "univ-bench-dllitea.owl", "queries.q", ImmutableSet.of()),
+
+    /**
+     * NPD benchmark: large mapping (~1200 assertions) over ~70 tables, ontology split into modules.
+     *
+     * The mapping is the one of the OWLAPI binding tests, with the foreign-key assertions using column aliases.
+     * The imports that are not bundled (instance data, ISC chronostratigraphic chart, BFO, GeoSPARQL) are ignored.
+     */
+    NPD("npd", "npd-schema.sql", true, "mapping.obda", "npd-v2.owl", "queries.q", ImmutableSet.of(
+            "http://sws.ifi.uio.no/vocab/version/20130919/npd-db",
+            "http://sws.ifi.uio.no/vocab/version/20130919/npd-isc-2012",
+            "http://resource.geosciml.org/vocabulary/timescale/isc-2012",
+            "http://www.ifomis.org/bfo/owl",
+            "http://www.opengis.net/ont/geosparql"));
+
+    public static final String JDBC_USER = "sa";
+    public static final String JDBC_PASSWORD = "";
+
+    private static final Pattern QUERY_ITEM_PATTERN = Pattern.compile("^\\[QueryItem=\"([^\"]*)\"\\]\\s*$",
+            Pattern.MULTILINE);
+
+    private final String directory;
+    private final String schemaFile;
+    // Schema written for MySQL (backquoted identifiers)
+    private final boolean isMySQLSchema;
+    private final String mappingFile;
+    private final String ontologyFile;
+    private final String queryFile;
+    private final ImmutableSet<String> ignoredImports;
+
+    BenchmarkScenario(String directory, String schemaFile, boolean isMySQLSchema, String mappingFile,
+                      String ontologyFile, String queryFile, ImmutableSet<String> ignoredImports) {
+        this.directory = directory;
+        this.schemaFile = schemaFile;
+        this.isMySQLSchema = isMySQLSchema;
+        this.mappingFile = mappingFile;
+        this.ontologyFile = ontologyFile;
+        this.queryFile = queryFile;
+        this.ignoredImports = ignoredImports;
+    }
+
+    /**
+     * Case-insensitive, for the JMH parameters
+     */
+    public static BenchmarkScenario fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    public String getJdbcUrl() {
+        return "jdbc:h2:mem:benchmark-" + directory + ";DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * (Re-)creates the tables of the scenario (without data)
+     */
+    public void createDatabase() throws SQLException, IOException {
+        String script = readResource(schemaFile);
+        // Unquoted identifiers, as in the mapping (H2 is case-sensitive for quoted identifiers)
+        if (isMySQLSchema)
+            script = script.replace("`", "");
+
+        try (Connection connection = DriverManager.getConnection(getJdbcUrl(), JDBC_USER, JDBC_PASSWORD)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            }
+            RunScript.execute(connection, new StringReader(script));
+        }
+    }
+
+    /**
+     * Fresh configuration builder (the database must have been created beforehand).
+     *
+     * The query cache is disabled, so that the reformulation of the same queries can be measured repeatedly.
+     */
+    public OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder<?>> configurationBuilder()
+            throws IOException, OWLOntologyCreationException {
+        return configurationBuilder(loadOntology());
+    }
+
+    public OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder<?>> configurationBuilder(
+            OWLOntology ontology) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("it.unibz.inf.ontop.answering.reformulation.QueryCache",
+                "it.unibz.inf.ontop.answering.reformulation.impl.DummyQueryCache");
+
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(readResource(mappingFile)))
+                .ontology(ontology)
+                .jdbcUrl(getJdbcUrl())
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .properties(properties)
+                .enableTestMode();
+    }
+
+    /**
+     * The imported documents are searched in the directory of the scenario, after the last segment of their IRI
+     */
+    public OWLOntology loadOntology() throws IOException, OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getIRIMappers().add(iri -> findImportedDocument(iri).orElse(null));
+
+        OWLOntologyLoaderConfiguration loaderConfiguration = new OWLOntologyLoaderConfiguration();
+        for (String ignoredImport : ignoredImports)
+            loaderConfiguration = loaderConfiguration.addIgnoredImport(IRI.create(ignoredImport));
+
+        try (InputStream stream = openResource(ontologyFile)) {
+            return manager.loadOntologyFromOntologyDocument(new StreamDocumentSource(stream), loaderConfiguration);
+        }
+    }
+
+    /**
+     * Queries indexed by their names (in the order of the file)
+     */
+    public ImmutableMap<String, String> loadQueries() throws IOException {
+        String content = readResource(queryFile);
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+
+        Matcher matcher = QUERY_ITEM_PATTERN.matcher(content);
+        String name = null;
+        int start = 0;
+        while (matcher.find()) {
+            if (name != null)
+                builder.put(name, content.substring(start, matcher.start()).trim());
+            name = matcher.group(1);
+            start = matcher.end();
+        }
+        if (name != null)
+            builder.put(name, content.substring(start).trim());
+        return builder.build();
+    }
+
+    private Optional<IRI> findImportedDocument(IRI iri) {
+        String iriString = iri.toString();
+        String name = iriString.substring(iriString.lastIndexOf('/') + 1);
+
+        ClassLoader classLoader = BenchmarkScenario.class.getClassLoader();
+        return Optional.ofNullable(classLoader.getResource(getResourcePath(name + ".owl")))
+                .map(BenchmarkScenario::toIRI);
+    }
+
+    private static IRI toIRI(URL url) {
+        try {
+            return IRI.create(url.toURI());
+        }
+        catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private String readResource(String fileName) throws IOException {
+        try (Reader reader = new InputStreamReader(openResource(fileName), StandardCharsets.UTF_8)) {
+            return CharStreams.toString(reader);
+        }
+    }
+
+    private InputStream openResource(String fileName) throws FileNotFoundException {
+        String path = getResourcePath(fileName);
+        InputStream stream = BenchmarkScenario.class.getClassLoader().getResourceAsStream(path);
+        if (stream == null)
+            throw new FileNotFoundException("Missing benchmark resource: " + path);
+        return stream;
+    }
+
+    private String getResourcePath(String fileName) {
+        return "scenarios/" + directory + "/" + fileName;
+    }
+}
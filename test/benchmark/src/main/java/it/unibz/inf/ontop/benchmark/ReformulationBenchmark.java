@@ -0,0 +1,112 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.input.DescribeQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SPARQLQuery;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end reformulation: from the SPARQL string to the SQL string
+ * (parsing, translation, unfolding, optimizations and SQL generation).
+ *
+ * One operation = the reformulation of all the queries of the scenario, or of the one selected by the "query"
+ * parameter (e.g. -p query="Query 3").
+ * DESCRIBE queries are not reformulated as such and are therefore excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReformulationBenchmark {
+
+    private static final String ALL_QUERIES = "*";
+
+    @Param({"bsbm", "lubm", "npd"})
+    public String scenario;
+
+    @Param(ALL_QUERIES)
+    public String query;
+
+    private QueryReformulator reformulator;
+    private InputQueryFactory inputQueryFactory;
+    private QueryLogger.Factory queryLoggerFactory;
+    private ImmutableList<String> queryStrings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkScenario benchmarkScenario = BenchmarkScenario.fromName(scenario);
+        benchmarkScenario.createDatabase();
+
+        reformulator = benchmarkScenario.configurationBuilder()
+                .build()
+                .loadQueryReformulator();
+        inputQueryFactory = reformulator.getInputQueryFactory();
+        queryLoggerFactory = reformulator.getQueryLoggerFactory();
+
+        ImmutableMap<String, String> queries = benchmarkScenario.loadQueries();
+        queryStrings = queries.entrySet().stream()
+                .filter(e -> query.equals(ALL_QUERIES) || query.equals(e.getKey()))
+                .filter(e -> !isDescribeQuery(e.getValue()))
+                .map(Map.Entry::getValue)
+                .collect(ImmutableCollectors.toList());
+
+        if (queryStrings.isEmpty())
+            throw new IllegalArgumentException("No query to reformulate for " + scenario + " (query: " + query + ")");
+
+        // Fails early if a query is not supported
+        for (String queryString : queryStrings)
+            reformulate(queryString);
+    }
+
+    @Benchmark
+    public void reformulate(Blackhole blackhole) throws Exception {
+        for (String queryString : queryStrings)
+            blackhole.consume(reformulate(queryString));
+    }
+
+    private String reformulate(String queryString) throws Exception {
+        SPARQLQuery<?> inputQuery = inputQueryFactory.createSPARQLQuery(queryString);
+        IQ executableQuery = reformulator.reformulateIntoNativeQuery(inputQuery,
+                queryLoggerFactory.create(ImmutableMultimap.of()));
+        return extractNativeQueryString(executableQuery.getTree());
+    }
+
+    private boolean isDescribeQuery(String queryString) {
+        try {
+            return inputQueryFactory.createSPARQLQuery(queryString) instanceof DescribeQuery;
+        }
+        catch (Exception e) {
+            throw new IllegalArgumentException("Invalid query: " + queryString, e);
+        }
+    }
+
+    /**
+     * The native node is usually the child of the root construction node
+     */
+    static String extractNativeQueryString(IQTree tree) {
+        if (tree.getRootNode() instanceof NativeNode)
+            return ((NativeNode) tree.getRootNode()).getNativeQueryString();
+
+        for (IQTree child : tree.getChildren()) {
+            if (child.getRootNode() instanceof NativeNode)
+                return ((NativeNode) child.getRootNode()).getNativeQueryString();
+        }
+        // Empty answer: no native query
+        return "";
+    }
+}
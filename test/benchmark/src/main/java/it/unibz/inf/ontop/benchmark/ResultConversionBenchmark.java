@@ -0,0 +1,137 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of an already reformulated SELECT query over the BSBM products,
+ * with the conversion of the JDBC rows into RDF bindings (JDBCTupleResultSet).
+ *
+ * The "jdbc" benchmark executes the same SQL query directly and reads the columns as strings:
+ * the difference with "ontop" is the cost of the result conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultConversionBenchmark {
+
+    private static final int PRODUCER_COUNT = 100;
+
+    private static final String QUERY = "PREFIX bsbm: <http://www4.wiwiss.fu-berlin.de/bizer/bsbm/v01/vocabulary/>\n" +
+            "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n" +
+            "PREFIX dc: <http://purl.org/dc/elements/1.1/>\n" +
+            "SELECT ?product ?label ?numeric1 ?textual1 ?date ?producer\n" +
+            "WHERE {\n" +
+            "  ?product a bsbm:Product ;\n" +
+            "           rdfs:label ?label ;\n" +
+            "           bsbm:productPropertyNumeric1 ?numeric1 ;\n" +
+            "           bsbm:producer ?producer .\n" +
+            "  OPTIONAL { ?product bsbm:productPropertyTextual1 ?textual1 }\n" +
+            "  OPTIONAL { ?product dc:date ?date }\n" +
+            "}";
+
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    private OntopQueryEngine queryEngine;
+    private OntopConnection connection;
+    private QueryLogger.Factory queryLoggerFactory;
+    private IQ executableQuery;
+    private String sqlQuery;
+    private Connection jdbcConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkScenario scenario = BenchmarkScenario.BSBM;
+        scenario.createDatabase();
+
+        jdbcConnection = DriverManager.getConnection(scenario.getJdbcUrl(), BenchmarkScenario.JDBC_USER,
+                BenchmarkScenario.JDBC_PASSWORD);
+        try (Statement statement = jdbcConnection.createStatement()) {
+            statement.executeUpdate("INSERT INTO producer (nr, label, comment, homepage, country, publisher, publishDate) " +
+                    "SELECT X, 'Producer ' || X, 'Comment ' || X, 'http://www.producer' || X || '.com/', 'DE', X, " +
+                    "DATEADD('DAY', X, DATE '2008-01-01') FROM SYSTEM_RANGE(1, " + PRODUCER_COUNT + ")");
+            // One product out of 10 without textual property
+            statement.executeUpdate("INSERT INTO product (nr, label, comment, producer, propertyNum1, propertyTex1, " +
+                    "publisher, publishDate) " +
+                    "SELECT X, 'Product ' || X, 'Comment ' || X, MOD(X, " + PRODUCER_COUNT + ") + 1, MOD(X * 7, 2000), " +
+                    "CASEWHEN(MOD(X, 10) = 0, NULL, 'Textual ' || X), MOD(X, " + PRODUCER_COUNT + ") + 1, " +
+                    "DATEADD('DAY', MOD(X, 1000), DATE '2008-01-01') FROM SYSTEM_RANGE(1, " + rowCount + ")");
+        }
+
+        OntopSQLOWLAPIConfiguration configuration = scenario.configurationBuilder().build();
+        queryLoggerFactory = configuration.getInjector().getInstance(QueryLogger.Factory.class);
+        queryEngine = configuration.loadQueryEngine();
+        queryEngine.connect();
+        connection = queryEngine.getConnection();
+
+        try (OntopStatement statement = connection.createStatement()) {
+            SelectQuery selectQuery = connection.getInputQueryFactory().createSelectQuery(QUERY);
+            executableQuery = statement.getExecutableQuery(selectQuery);
+        }
+        sqlQuery = ReformulationBenchmark.extractNativeQueryString(executableQuery.getTree());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        queryEngine.close();
+        jdbcConnection.close();
+    }
+
+    @Benchmark
+    public int ontop(Blackhole blackhole) throws Exception {
+        int count = 0;
+        try (OntopStatement statement = connection.createStatement()) {
+            TupleResultSet resultSet = statement.executeSelectQuery(executableQuery,
+                    queryLoggerFactory.create(ImmutableMultimap.of()));
+            try {
+                while (resultSet.hasNext()) {
+                    OntopBindingSet bindingSet = resultSet.next();
+                    for (OntopBinding binding : bindingSet.getBindings())
+                        blackhole.consume(binding.getValue().getValue());
+                    count++;
+                }
+            }
+            finally {
+                resultSet.close();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int jdbc(Blackhole blackhole) throws Exception {
+        int count = 0;
+        try (Statement statement = jdbcConnection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+            int columnCount = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                for (int i = 1; i <= columnCount; i++)
+                    blackhole.consume(resultSet.getString(i));
+                count++;
+            }
+        }
+        return count;
+    }
+}
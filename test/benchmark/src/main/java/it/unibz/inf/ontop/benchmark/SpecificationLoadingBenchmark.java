@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.openjdk.jmh.annotations.*;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of the OBDA specification: parsing of the mapping, extraction of the DB metadata,
+ * classification of the ontology, saturation of the mapping (T-mappings) and its optimizations.
+ *
+ * The ontology document is parsed beforehand (OWLAPI), only its translation is measured.
+ * Single-shot: each invocation starts from a fresh configuration (and injector), as when starting Ontop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpecificationLoadingBenchmark {
+
+    @Param({"bsbm", "lubm", "npd"})
+    public String scenario;
+
+    private BenchmarkScenario benchmarkScenario;
+    private OWLOntology ontology;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        benchmarkScenario = BenchmarkScenario.fromName(scenario);
+        benchmarkScenario.createDatabase();
+        ontology = benchmarkScenario.loadOntology();
+    }
+
+    @Benchmark
+    public OBDASpecification loadSpecification() throws Exception {
+        return benchmarkScenario.configurationBuilder(ontology)
+                .build()
+                .loadSpecification();
+    }
+}
@@ -0,0 +1,107 @@
+-- Relational version of the LUBM data (one table per kind of entity, as generated by the UBA generator)
+
+CREATE TABLE university (
+  nr INT NOT NULL PRIMARY KEY,
+  name VARCHAR(100)
+);
+
+CREATE TABLE department (
+  univ INT NOT NULL,
+  nr INT NOT NULL,
+  name VARCHAR(100),
+  PRIMARY KEY (univ, nr),
+  FOREIGN KEY (univ) REFERENCES university(nr)
+);
+
+CREATE TABLE faculty (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  kind VARCHAR(20) NOT NULL,
+  nr INT NOT NULL,
+  name VARCHAR(100),
+  email VARCHAR(100),
+  telephone VARCHAR(20),
+  research_interest VARCHAR(100),
+  ug_univ INT,
+  ms_univ INT,
+  phd_univ INT,
+  head BOOLEAN NOT NULL DEFAULT FALSE,
+  PRIMARY KEY (univ, dept, kind, nr),
+  FOREIGN KEY (univ, dept) REFERENCES department(univ, nr),
+  FOREIGN KEY (ug_univ) REFERENCES university(nr),
+  FOREIGN KEY (ms_univ) REFERENCES university(nr),
+  FOREIGN KEY (phd_univ) REFERENCES university(nr)
+);
+
+CREATE TABLE student (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  graduate BOOLEAN NOT NULL,
+  nr INT NOT NULL,
+  name VARCHAR(100),
+  email VARCHAR(100),
+  telephone VARCHAR(20),
+  ug_univ INT,
+  advisor_kind VARCHAR(20),
+  advisor_nr INT,
+  PRIMARY KEY (univ, dept, graduate, nr),
+  FOREIGN KEY (univ, dept) REFERENCES department(univ, nr),
+  FOREIGN KEY (ug_univ) REFERENCES university(nr),
+  FOREIGN KEY (univ, dept, advisor_kind, advisor_nr) REFERENCES faculty(univ, dept, kind, nr)
+);
+
+CREATE TABLE course (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  graduate BOOLEAN NOT NULL,
+  nr INT NOT NULL,
+  name VARCHAR(100),
+  teacher_kind VARCHAR(20),
+  teacher_nr INT,
+  PRIMARY KEY (univ, dept, graduate, nr),
+  FOREIGN KEY (univ, dept) REFERENCES department(univ, nr),
+  FOREIGN KEY (univ, dept, teacher_kind, teacher_nr) REFERENCES faculty(univ, dept, kind, nr)
+);
+
+CREATE TABLE takes_course (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  student_graduate BOOLEAN NOT NULL,
+  student_nr INT NOT NULL,
+  course_graduate BOOLEAN NOT NULL,
+  course_nr INT NOT NULL,
+  PRIMARY KEY (univ, dept, student_graduate, student_nr, course_graduate, course_nr),
+  FOREIGN KEY (univ, dept, student_graduate, student_nr) REFERENCES student(univ, dept, graduate, nr),
+  FOREIGN KEY (univ, dept, course_graduate, course_nr) REFERENCES course(univ, dept, graduate, nr)
+);
+
+CREATE TABLE teaching_assistant (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  student_graduate BOOLEAN NOT NULL,
+  student_nr INT NOT NULL,
+  course_graduate BOOLEAN NOT NULL,
+  course_nr INT NOT NULL,
+  PRIMARY KEY (univ, dept, student_graduate, student_nr),
+  FOREIGN KEY (univ, dept, student_graduate, student_nr) REFERENCES student(univ, dept, graduate, nr),
+  FOREIGN KEY (univ, dept, course_graduate, course_nr) REFERENCES course(univ, dept, graduate, nr)
+);
+
+CREATE TABLE research_group (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  nr INT NOT NULL,
+  PRIMARY KEY (univ, dept, nr),
+  FOREIGN KEY (univ, dept) REFERENCES department(univ, nr)
+);
+
+CREATE TABLE publication (
+  univ INT NOT NULL,
+  dept INT NOT NULL,
+  author_kind VARCHAR(20) NOT NULL,
+  author_nr INT NOT NULL,
+  nr INT NOT NULL,
+  name VARCHAR(100),
+  PRIMARY KEY (univ, dept, author_kind, author_nr, nr),
+  FOREIGN KEY (univ, dept, author_kind, author_nr) REFERENCES faculty(univ, dept, kind, nr)
+);